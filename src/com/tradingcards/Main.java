@@ -7,6 +7,7 @@ import javax.swing.BorderFactory;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
+import com.tradingcards.elements.batch.BatchRunner;
 import com.tradingcards.elements.menus.mainMenu.MainMenuController;
 
 /**
@@ -18,6 +19,11 @@ import com.tradingcards.elements.menus.mainMenu.MainMenuController;
  * launching
  * the main menu through {@link MainMenuController}.
  * </p>
+ *
+ * <p>
+ * When started with arguments, it runs them as a command or script through
+ * {@link BatchRunner} instead, without opening a window or initializing AWT.
+ * </p>
  */
 public class Main {
 
@@ -30,9 +36,20 @@ public class Main {
      * {@link SwingUtilities#invokeLater}.
      * </p>
      *
-     * @param args command-line arguments (not used)
+     * <p>
+     * If arguments are given, they are run headless by {@link BatchRunner} and
+     * the process exits with its status.
+     * </p>
+     *
+     * @param args command-line arguments; empty to start the window
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            // Fail fast if anything tries to open a window
+            System.setProperty("java.awt.headless", "true");
+            System.exit(BatchRunner.run(args));
+        }
+
         // Set global UI styles
         UIManager.put("Button.font", new Font("Inter", Font.PLAIN, 14));
         UIManager.put("Button.background", Color.WHITE);
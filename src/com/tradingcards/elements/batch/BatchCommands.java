@@ -0,0 +1,388 @@
+package com.tradingcards.elements.batch;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.util.List;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.cardUtils.CardAggregates;
+import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.collection.collectionUtils.CardImporter;
+import com.tradingcards.elements.collection.collectionUtils.CollectionExporter;
+import com.tradingcards.elements.deck.DeckModel;
+import com.tradingcards.elements.service.CollectionService;
+import com.tradingcards.elements.service.ServiceResult;
+
+/**
+ * Carries out the card, binder and deck operations of the menus as plain
+ * commands, without any dialogs, so that they can be run from scripts and
+ * scheduled jobs.
+ * <p>
+ * The operations themselves are those of the {@link CollectionService}, so
+ * they follow the same rules as the menus. Where the menus would ask the
+ * user something, the answer is given as an argument instead, e.g. the
+ * asking price of a Luxury binder or {@code --accept} for an uneven trade.
+ * <p>
+ * A command that cannot be carried out throws an
+ * {@link IllegalArgumentException} with the reason and leaves the collection
+ * untouched. Results are printed to the given stream, one line each.
+ */
+public class BatchCommands {
+
+    /** Placeholder for a missing variant in a card description. */
+    private static final String NO_VARIANT = "-";
+
+    /** Flag that accepts a trade whose values differ by 1 or more. */
+    private static final String ACCEPT = "--accept";
+
+    /** Flag that limits a card listing to owned cards. */
+    private static final String OWNED = "--owned";
+
+    /** The collection the commands work on. */
+    private final CollectionModel collection;
+
+    /** Carries out the operations on the collection. */
+    private final CollectionService service;
+
+    /** Where results are printed. */
+    private final PrintStream out;
+
+    /** Format used for amounts of money. */
+    private final DecimalFormat df = new DecimalFormat("#.##");
+
+    /**
+     * Creates the commands for a collection.
+     *
+     * @param collection the collection the commands work on
+     * @param out        where results are printed
+     */
+    public BatchCommands(CollectionModel collection, PrintStream out) {
+        this.collection = collection;
+        this.service = new CollectionService(collection);
+        this.out = out;
+    }
+
+    /**
+     * Runs one command.
+     *
+     * @param command the command name followed by its arguments
+     * @throws IllegalArgumentException if the command is unknown, its
+     *                                  arguments are invalid, or the
+     *                                  collection does not allow it
+     * @throws IOException              if a file cannot be read or written
+     */
+    public void execute(List<String> command) throws IOException {
+        if (command.isEmpty()) {
+            throw new IllegalArgumentException("Missing command");
+        }
+
+        List<String> args = command.subList(1, command.size());
+        switch (command.get(0)) {
+            case "card" -> card(args);
+            case "binder" -> binder(args);
+            case "deck" -> deck(args);
+            case "import" -> importCards(args);
+            case "export" -> export(args);
+            case "value" -> value(args);
+            default -> throw new IllegalArgumentException("Unknown command: " + command.get(0));
+        }
+    }
+
+    // -------------------------------
+    // Cards
+    // -------------------------------
+
+    private void card(List<String> args) {
+        switch (argument(args, 0, "card action")) {
+            case "add" -> {
+                expectArguments(args, 5, 6);
+                String image = args.size() > 5 ? args.get(5) : null;
+                report(service.addCard(parseCard(args.get(1), args.get(2), args.get(3), args.get(4), image)));
+            }
+            case "sell" -> {
+                expectArguments(args, 2, 2);
+                report(service.sellCard(args.get(1)));
+            }
+            case "quantity" -> {
+                expectArguments(args, 3, 3);
+                report(service.setCardQuantity(args.get(1), parseCount(args.get(2))));
+            }
+            case "show" -> {
+                expectArguments(args, 2, 2);
+                out.println(describe(requireCard(args.get(1))));
+            }
+            case "list" -> {
+                expectArguments(args, 1, 2);
+                boolean ownedOnly = args.size() > 1 && flag(args.get(1), OWNED);
+                for (CardModel card : collection.getCardCollection().values()) {
+                    if (!ownedOnly || card.getQuantity() > 0) {
+                        out.println(describe(card));
+                    }
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown card action: " + args.get(0));
+        }
+    }
+
+    // -------------------------------
+    // Binders
+    // -------------------------------
+
+    private void binder(List<String> args) {
+        switch (argument(args, 0, "binder action")) {
+            case "create" -> {
+                expectArguments(args, 3, 3);
+                report(service.createBinder(args.get(1), args.get(2)));
+            }
+            case "delete" -> {
+                expectArguments(args, 2, 2);
+                report(service.deleteBinder(args.get(1)));
+            }
+            case "add" -> {
+                expectArguments(args, 3, 3);
+                report(service.addToBinder(args.get(1), args.get(2)));
+            }
+            case "remove" -> {
+                expectArguments(args, 3, 3);
+                report(service.removeFromBinder(args.get(1), args.get(2)));
+            }
+            case "trade" -> {
+                expectArguments(args, 7, 8);
+                boolean accept = args.size() > 7 && flag(args.get(7), ACCEPT);
+                report(service.trade(args.get(1), args.get(2),
+                        parseCard(args.get(3), args.get(4), args.get(5), args.get(6), null), accept));
+            }
+            case "sell" -> {
+                expectArguments(args, 2, 3);
+                Double askingPrice = args.size() > 2 ? parseAmount(args.get(2)) : null;
+                report(service.sellBinder(args.get(1), askingPrice));
+            }
+            case "show" -> {
+                expectArguments(args, 2, 2);
+                BinderModel binder = requireBinder(args.get(1));
+                out.println(describe(binder));
+                for (CardModel card : binder.getBinder().values()) {
+                    out.println("  " + describe(card));
+                }
+            }
+            case "list" -> {
+                expectArguments(args, 1, 1);
+                for (BinderModel binder : collection.getBinderCollection().values()) {
+                    out.println(describe(binder));
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown binder action: " + args.get(0));
+        }
+    }
+
+    // -------------------------------
+    // Decks
+    // -------------------------------
+
+    private void deck(List<String> args) {
+        switch (argument(args, 0, "deck action")) {
+            case "create" -> {
+                expectArguments(args, 3, 3);
+                report(service.createDeck(args.get(1), args.get(2)));
+            }
+            case "delete" -> {
+                expectArguments(args, 2, 2);
+                report(service.deleteDeck(args.get(1)));
+            }
+            case "add" -> {
+                expectArguments(args, 3, 3);
+                report(service.addToDeck(args.get(1), args.get(2)));
+            }
+            case "remove" -> {
+                expectArguments(args, 3, 3);
+                report(service.removeFromDeck(args.get(1), args.get(2)));
+            }
+            case "sell" -> {
+                expectArguments(args, 2, 2);
+                report(service.sellDeck(args.get(1)));
+            }
+            case "show" -> {
+                expectArguments(args, 2, 2);
+                DeckModel deck = requireDeck(args.get(1));
+                out.println(describe(deck));
+                for (CardModel card : deck.getDeck().values()) {
+                    out.println("  " + describe(card));
+                }
+            }
+            case "list" -> {
+                expectArguments(args, 1, 1);
+                for (DeckModel deck : collection.getDeckCollection().values()) {
+                    out.println(describe(deck));
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown deck action: " + args.get(0));
+        }
+    }
+
+    // -------------------------------
+    // Files and reports
+    // -------------------------------
+
+    private void importCards(List<String> args) throws IOException {
+        expectArguments(args, 1, 1);
+        CardImporter.Result result = new CardImporter().importFile(Path.of(args.get(0)), collection);
+
+        out.println("Imported " + result.added() + " new cards and " + result.merged() + " copies, worth "
+                + df.format(result.value()) + " in all, rejected " + result.rejected() + " lines ("
+                + Math.round(result.cardsPerSecond()) + " cards/s)");
+        for (String rejection : result.rejections()) {
+            out.println("  " + rejection);
+        }
+    }
+
+    private void export(List<String> args) throws IOException {
+        expectArguments(args, 1, 1);
+        // Commands run on the thread that owns the collection, so pages are read in place
+        CollectionExporter.Result result = new CollectionExporter(collection, Runnable::run)
+                .export(Path.of(args.get(0)));
+
+        out.println("Exported " + result.rows() + " rows, " + result.bytes() + " bytes ("
+                + Math.round(result.rowsPerSecond()) + " rows/s)");
+    }
+
+    /**
+     * Prints the value of the collection by rarity, of each binder and deck,
+     * and the cash on hand.
+     */
+    private void value(List<String> args) {
+        expectArguments(args, 0, 0);
+        CardAggregates cards = collection.getAggregates();
+
+        out.println("Cards: " + cards.getCardCount() + " distinct, " + cards.getTotalQuantity() + " copies, value "
+                + df.format(cards.getTotalValue()));
+        for (CardRarity rarity : CardRarity.values()) {
+            out.println("  " + rarity.getLabel() + ": " + cards.getQuantity(rarity) + " copies, value "
+                    + df.format(cards.getValue(rarity)));
+        }
+
+        double binderTotal = 0;
+        for (BinderModel binder : collection.getBinderCollection().values()) {
+            binderTotal += binder.getAggregates().getTotalValue();
+            out.println(describe(binder));
+        }
+        double deckTotal = 0;
+        for (DeckModel deck : collection.getDeckCollection().values()) {
+            deckTotal += deck.getAggregates().getUnitValue();
+            out.println(describe(deck));
+        }
+
+        out.println("Binders: " + df.format(binderTotal));
+        out.println("Decks: " + df.format(deckTotal));
+        out.println("Cash: " + df.format(collection.getMoney()));
+        double total = cards.getTotalValue() + binderTotal + deckTotal + collection.getMoney();
+        out.println("Total: " + df.format(total));
+    }
+
+    // -------------------------------
+    // Helpers
+    // -------------------------------
+
+    /**
+     * Prints what an operation did, or fails the command if it was refused.
+     */
+    private void report(ServiceResult result) {
+        if (!result.succeeded()) {
+            throw new IllegalArgumentException(result.message());
+        }
+        out.println(result.message());
+    }
+
+    private CardModel requireCard(String name) {
+        CardModel card = collection.getCardCollection().get(name);
+        if (card == null) {
+            throw new IllegalArgumentException("Card does not exist: " + name);
+        }
+        return card;
+    }
+
+    private BinderModel requireBinder(String name) {
+        BinderModel binder = collection.getBinderCollection().get(name);
+        if (binder == null) {
+            throw new IllegalArgumentException("No Binder with given name exists: " + name);
+        }
+        return binder;
+    }
+
+    private DeckModel requireDeck(String name) {
+        DeckModel deck = collection.getDeckCollection().get(name);
+        if (deck == null) {
+            throw new IllegalArgumentException("No Deck with given name exists: " + name);
+        }
+        return deck;
+    }
+
+    private static CardModel parseCard(String name, String rarity, String variant, String value, String image) {
+        return CardImporter.parseCard(name, rarity, NO_VARIANT.equals(variant) ? null : variant, value, image);
+    }
+
+    private static int parseCount(String text) {
+        try {
+            int count = Integer.parseInt(text);
+            if (count >= 0) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Quantity must be a whole number of 0 or more: " + text);
+    }
+
+    private static double parseAmount(String text) {
+        try {
+            double amount = Double.parseDouble(text);
+            if (amount >= 0 && !Double.isInfinite(amount)) {
+                return amount;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Price must be a number of 0 or more: " + text);
+    }
+
+    private static boolean flag(String argument, String flag) {
+        if (!argument.equals(flag)) {
+            throw new IllegalArgumentException("Unknown option: " + argument);
+        }
+        return true;
+    }
+
+    private static String argument(List<String> args, int index, String what) {
+        if (index >= args.size()) {
+            throw new IllegalArgumentException("Missing " + what);
+        }
+        return args.get(index);
+    }
+
+    private static void expectArguments(List<String> args, int min, int max) {
+        if (args.size() < min || args.size() > max) {
+            throw new IllegalArgumentException("Wrong number of arguments for " + String.join(" ", args));
+        }
+    }
+
+    private String describe(CardModel card) {
+        String variant = card.getVariantCode() == null ? "" : " " + card.getVariantCode().getLabel();
+        return card.getName() + " [" + card.getRarityCode().getLabel() + variant + "] value "
+                + df.format(card.getValue()) + " x" + card.getQuantity();
+    }
+
+    private String describe(BinderModel binder) {
+        CardAggregates cards = binder.getAggregates();
+        return "Binder " + binder.getName() + " [" + binder.getType() + "] " + cards.getCardCount() + "/"
+                + binder.getCapacity() + " cards, value " + df.format(cards.getTotalValue());
+    }
+
+    private String describe(DeckModel deck) {
+        CardAggregates cards = deck.getAggregates();
+        return "Deck " + deck.getName() + " [" + deck.getType() + "] " + cards.getCardCount() + "/"
+                + CollectionService.DECK_CAPACITY + " cards, value " + df.format(cards.getUnitValue());
+    }
+}
@@ -0,0 +1,242 @@
+package com.tradingcards.elements.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.collection.collectionUtils.CollectionStore;
+
+/**
+ * Runs the application without a window: opens the saved collection, carries
+ * out one command or a script of commands through {@link BatchCommands}, and
+ * saves the collection again.
+ * <p>
+ * Nothing here touches Swing or AWT, so it starts quickly and works on
+ * machines without a display. Usage:
+ *
+ * <pre>
+ * [--store &lt;directory&gt;] &lt;command&gt; [arguments...]
+ * [--store &lt;directory&gt;] script &lt;file|-&gt;
+ * </pre>
+ *
+ * A script holds one command per line. Blank lines and lines starting with
+ * {@code #} are skipped, and arguments containing spaces can be quoted. A
+ * command that fails is reported with its line number and the script carries
+ * on with the next one. Everything a run changes is saved as one transaction.
+ */
+public class BatchRunner {
+
+    /** Exit status when every command succeeded. */
+    public static final int OK = 0;
+
+    /** Exit status when at least one command failed. */
+    public static final int FAILED = 1;
+
+    /** Exit status when the arguments are wrong or the collection cannot be opened. */
+    public static final int USAGE = 2;
+
+    private static final String USAGE_TEXT = String.join(System.lineSeparator(),
+            "Usage: [--store <directory>] <command> [arguments...]",
+            "       [--store <directory>] script <file|->",
+            "",
+            "Commands:",
+            "  card add <name> <rarity> <variant|-> <value> [image]",
+            "  card sell <name>",
+            "  card quantity <name> <quantity>",
+            "  card show <name>",
+            "  card list [--owned]",
+            "  binder create <name> <Non-Curated|Pauper|Rares|Luxury|Collector>",
+            "  binder delete <binder>",
+            "  binder add <binder> <card>",
+            "  binder remove <binder> <card>",
+            "  binder trade <binder> <outgoing> <name> <rarity> <variant|-> <value> [--accept]",
+            "  binder sell <binder> [asking price]",
+            "  binder show <binder>",
+            "  binder list",
+            "  deck create <name> <Normal|Sellable>",
+            "  deck delete <deck>",
+            "  deck add <deck> <card>",
+            "  deck remove <deck> <card>",
+            "  deck sell <deck>",
+            "  deck show <deck>",
+            "  deck list",
+            "  import <file.csv|file.jsonl>",
+            "  export <file.csv|file.jsonl|file.snapshot>",
+            "  value");
+
+    /**
+     * Runs the command line and returns the exit status.
+     *
+     * @param args the command-line arguments
+     * @return {@link #OK}, {@link #FAILED} or {@link #USAGE}
+     */
+    public static int run(String[] args) {
+        return run(args, System.out, System.err);
+    }
+
+    /**
+     * Runs the command line, printing results and errors to the given streams.
+     *
+     * @param args the command-line arguments
+     * @param out  where results are printed
+     * @param err  where errors are printed
+     * @return {@link #OK}, {@link #FAILED} or {@link #USAGE}
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        List<String> command = new ArrayList<>(Arrays.asList(args));
+        Path directory = Path.of(CollectionStore.DEFAULT_DIRECTORY);
+
+        if (!command.isEmpty() && command.get(0).equals("--store")) {
+            if (command.size() < 2) {
+                err.println("Missing directory after --store");
+                return USAGE;
+            }
+            directory = Path.of(command.get(1));
+            command = command.subList(2, command.size());
+        }
+        if (command.isEmpty() || command.get(0).equals("help") || command.get(0).equals("--help")) {
+            out.println(USAGE_TEXT);
+            return command.isEmpty() ? USAGE : OK;
+        }
+
+        List<List<String>> commands;
+        List<Integer> lineNumbers = new ArrayList<>();
+        if (command.get(0).equals("script")) {
+            if (command.size() != 2) {
+                err.println("Usage: script <file|->");
+                return USAGE;
+            }
+            try {
+                commands = readScript(command.get(1), lineNumbers);
+            } catch (IOException | IllegalArgumentException e) {
+                err.println("Could not read script: " + e.getMessage());
+                return USAGE;
+            }
+        } else {
+            commands = List.of(command);
+            lineNumbers.add(0);
+        }
+
+        CollectionModel collection = new CollectionModel();
+        CollectionStore store = new CollectionStore(directory);
+        try {
+            store.open(collection);
+        } catch (IOException e) {
+            err.println("Could not load saved collection: " + e.getMessage());
+            return USAGE;
+        }
+
+        int status = OK;
+        BatchCommands commandSet = new BatchCommands(collection, out);
+        collection.beginTransaction();
+        try {
+            for (int i = 0; i < commands.size(); i++) {
+                try {
+                    commandSet.execute(commands.get(i));
+                } catch (IOException | RuntimeException e) {
+                    String line = lineNumbers.get(i) > 0 ? "line " + lineNumbers.get(i) + ": " : "";
+                    err.println(line + e.getMessage());
+                    status = FAILED;
+                }
+            }
+        } finally {
+            // The run's changes are journaled here, so a failing journal shows up here
+            try {
+                collection.endTransaction();
+            } catch (UncheckedIOException e) {
+                err.println("Could not save changes: " + e.getCause().getMessage());
+                status = FAILED;
+            }
+        }
+
+        try {
+            store.close();
+        } catch (IOException e) {
+            err.println("Could not save collection: " + e.getMessage());
+            return FAILED;
+        }
+        return status;
+    }
+
+    /**
+     * Reads the commands of a script, noting the line each one is on.
+     *
+     * @param source      the script file, or {@code -} for standard input
+     * @param lineNumbers receives the line number of each command
+     * @return the commands, each split into its arguments
+     */
+    private static List<List<String>> readScript(String source, List<Integer> lineNumbers) throws IOException {
+        List<List<String>> commands = new ArrayList<>();
+        try (BufferedReader reader = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(source), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    commands.add(split(trimmed));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage());
+                }
+                lineNumbers.add(lineNumber);
+            }
+        }
+        return commands;
+    }
+
+    /**
+     * Splits a script line into arguments at spaces, keeping text inside
+     * single or double quotes together.
+     */
+    private static List<String> split(String line) {
+        List<String> arguments = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inArgument = false;
+        char quote = 0;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inArgument = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inArgument) {
+                    arguments.add(current.toString());
+                    current.setLength(0);
+                    inArgument = false;
+                }
+            } else {
+                current.append(c);
+                inArgument = true;
+            }
+        }
+
+        if (quote != 0) {
+            throw new IllegalArgumentException("Unclosed quote");
+        }
+        if (inArgument) {
+            arguments.add(current.toString());
+        }
+        return arguments;
+    }
+}
@@ -2,27 +2,33 @@ package com.tradingcards.elements.binder;
 
 import java.awt.BorderLayout;
 import java.awt.event.ActionListener;
-import java.text.DecimalFormat;
-import java.util.HashMap;
+import java.util.TreeMap;
 
 import javax.swing.JPanel;
 
-import com.tradingcards.elements.card.CardController;
 import com.tradingcards.elements.card.CardModel;
 import com.tradingcards.elements.card.CardView;
 import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.collection.collectionUtils.CardNameIndex;
 import com.tradingcards.elements.menus.menuUtils.DialogUtil;
+import com.tradingcards.elements.service.CollectionService;
+import com.tradingcards.elements.service.ServiceResult;
 
 /**
  * Controller class for managing binder-related actions within the trading card
  * collection application. Handles logic for adding/removing binders and cards,
- * as well as trading cards between binders and the main collection.
+ * as well as trading cards between binders and the main collection. The
+ * changes themselves are made by a {@link CollectionService}; this class
+ * gathers the user's input and shows the outcome.
  */
 public class BinderController {
 
     /** Reference to the shared collection containing binders, cards, and decks. */
     private CollectionModel sharedCollection;
 
+    /** Operations on the shared collection. */
+    private CollectionService service;
+
     /** View responsible for user interaction related to binders. */
     private BinderView view;
 
@@ -38,6 +44,7 @@ public class BinderController {
      */
     public BinderController(CollectionModel sharedCollection, BinderView view) {
         this.sharedCollection = sharedCollection;
+        this.service = new CollectionService(sharedCollection);
         this.view = view;
     }
 
@@ -51,14 +58,11 @@ public class BinderController {
         if (binder == null) {
             DialogUtil.showWarning(null, "Binder creation cancelled.", "Cancelled");
         } else {
-            if (sharedCollection.getBinderCollection().containsKey(binder.getName())) {
-                DialogUtil.showWarning(null, "Binder of the same name already exists", "Duplicate Binder");
+            ServiceResult result = service.createBinder(binder.getName(), binder.getType());
+            if (result.succeeded()) {
+                DialogUtil.showInfo(null, result.message(), "New Binder");
             } else {
-                sharedCollection.setBinderCollection(binder, binder.getName());
-                DialogUtil.showInfo(
-                        null,
-                        "New " + binder.getType() + " binder successfully added to collection!",
-                        "New Binder");
+                DialogUtil.showWarning(null, result.message(), "Duplicate Binder");
             }
         }
     }
@@ -80,29 +84,12 @@ public class BinderController {
 
         // Proceed only if the operation wasn't cancelled
         if (!cancelled) {
-            HashMap<String, BinderModel> binders = sharedCollection.getBinderCollection();
-
-            // checks binder collection
-            if (binders.containsKey(name)) {
-
-                // Get the binder to be removed
-                BinderModel binder = binders.get(name);
-                HashMap<String, CardModel> cardsInBinder = binder.getBinder();
-
-                // Loop through each card in the binder
-                for (HashMap.Entry<String, CardModel> entry : cardsInBinder.entrySet()) {
-                    String cardName = entry.getKey();
-                    // Increase the quantity of each card in the main collection
-                    sharedCollection.getCardCollection().get(cardName)
-                            .increaseQuantity(cardsInBinder.get(cardName).getQuantity());
-                }
-
-                // Remove the binder from the shared collection
-                sharedCollection.removeBinderCollection(name);
-                DialogUtil.showInfo(panel, "Binder \"" + name + "\" removed and cards returned", "Binder Removed");
+            ServiceResult result = service.deleteBinder(name);
+            if (result.succeeded()) {
+                DialogUtil.showInfo(panel, result.message(), "Binder Removed");
                 refreshPanel(panel, displayBinders());
             } else {
-                DialogUtil.showInfo(panel, "Binder \"" + name + "\" not found", "Binder Not Found");
+                DialogUtil.showInfo(panel, result.message(), "Binder Not Found");
             }
         } else {
             DialogUtil.showWarning(null, "Operation cancelled", "Warning");
@@ -113,7 +100,7 @@ public class BinderController {
      * Displays all binders currently stored in the collection.
      */
     public JPanel displayBinders() {
-        HashMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
+        TreeMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
 
         if (!binderCollection.isEmpty()) {
             return (view.displayBinders(binderCollection));
@@ -129,7 +116,7 @@ public class BinderController {
      */
     public void displaySingleBinder(JPanel panel) {
         // Get the collection of binders
-        HashMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
+        TreeMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
         boolean cancelled = false;
         refreshPanel(panel, displayBinders());
 
@@ -144,7 +131,7 @@ public class BinderController {
             // Proceed only if not cancelled
             if (!cancelled) {
                 if (binderCollection.containsKey(binderName)) {
-                    refreshPanel(panel, displayBinderContent(binderCollection.get(binderName).getBinder()));
+                    refreshPanel(panel, displayBinderContent(binderCollection.get(binderName)));
                 } else {
                     DialogUtil.showWarning(null, "No Binder with given name exists", "Warning");
                 }
@@ -161,10 +148,10 @@ public class BinderController {
     /**
      * Displays the contents of the specified binder.
      *
-     * @param binder the map of cards inside the binder
+     * @param binder the binder to display
      */
-    public JPanel displayBinderContent(HashMap<String, CardModel> binder) {
-        if (!binder.isEmpty()) {
+    public JPanel displayBinderContent(BinderModel binder) {
+        if (!binder.getBinder().isEmpty()) {
             return (view.displayBinderContent(binder));
         } else {
             return (new JPanel());
@@ -177,10 +164,9 @@ public class BinderController {
      * Prompts the user to select a binder and card to remove.
      */
     public void removeCard(JPanel panel) {
-        // Get references to the main card and binder collections
-        HashMap<String, CardModel> collection = sharedCollection.getCardCollection();
-        HashMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
-        HashMap<String, CardModel> binder;
+        // Get references to the binder collection
+        TreeMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
+        TreeMap<String, CardModel> binder;
         String cardName;
         boolean taskDone = false;
         boolean cancelled = false;
@@ -205,27 +191,18 @@ public class BinderController {
                                 "Warning");
                     } else {
                         // Show binder contents before removing a card
-                        refreshPanel(panel, displayBinderContent(binder));
+                        refreshPanel(panel, displayBinderContent(binderCollection.get(binderName)));
                         do {
                             DialogUtil.showMessage(null, "Indicate card to be deleted", "Information", 1);
-                            cardName = cardView.setCardName();
+                            cardName = cardView.setCardName(CardNameIndex.of(binder.keySet()));
 
                             if (cardName == null || cardName.equals(EXIT_CODE)) {
                                 taskDone = true;
                             }
                             // Check if card exists in the binder
                             if (binder.containsKey(cardName) && !taskDone) {
-                                // Increase the quantity of the card in the main collection
-                                collection.get(cardName).increaseQuantity(1);
-                                if (binder.get(cardName).getQuantity() > 1) {
-                                    binder.get(cardName).setQuantity(binder.get(cardName).getQuantity() - 1);
-                                } else {
-                                    // Remove card entirely if only one was present
-                                    binder.remove(cardName);
-                                }
-                                refreshPanel(panel, displayBinderContent(binder));
-                                DialogUtil.showMessage(null, "Successfully transferred Card into Collection",
-                                        "Information", 1);
+                                // Return one copy of the card to the main collection
+                                showResult(service.removeFromBinder(binderName, cardName));
                                 taskDone = true;
                             } else {
                                 // Card not found in binder, ask for valid input
@@ -252,16 +229,13 @@ public class BinderController {
      * Constraints: A binder can only hold up to 20 unique cards.
      */
     public void addCard(JPanel panel) {
-        HashMap<String, CardModel> collection = sharedCollection.getCardCollection();
-        HashMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
+        TreeMap<String, CardModel> collection = sharedCollection.getCardCollection();
+        TreeMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
         CardView cardView = new CardView();
         BinderModel binder;
 
         String cardName;
         boolean taskDone = false;
-        CardModel cardInCollection;
-        CardModel cardInBinder;
-        CardModel cardCopy;
 
         boolean cancelled = false;
 
@@ -281,59 +255,30 @@ public class BinderController {
                 } else {
                     if (binderCollection.containsKey(binderName)) {
                         binder = binderCollection.get(binderName);
-                        refreshPanel(panel, cardView.displayCollection(collection));
-                        do {
-                            cardName = cardView.setCardName();
-                            if (cardName == null || cardName.equals(EXIT_CODE))
-                                taskDone = true;
-                            // checks if the collection has the card
-                            if (collection.containsKey(cardName) && !taskDone) {
-                                // checks if the collection has a positive number of card copies
-                                cardInCollection = collection.get(cardName);
-
-                                if (cardInCollection.getQuantity() > 0) {
-
-                                    // checks if binder can accommodate new card;
-                                    if (binder.getBinder().size() < 20) {
-
-                                        // checks if binder already contains the specified card
-                                        if (binder.getBinder().containsKey(cardName)) {
-
-                                            cardInBinder = binder.getBinder().get(cardName);
-                                            cardInBinder.setQuantity(cardInBinder.getQuantity() + 1);
-                                            cardInCollection.setQuantity(cardInCollection.getQuantity() - 1);
-                                            DialogUtil.showMessage(null, "Successfully transferred card into binder",
-                                                    "Information", 1);
-                                        } else {
-                                            // create a new card object to store details
-                                            cardCopy = createCardCopy(cardInCollection);
-
-                                            // checks if the card is compatible with the binder
-                                            if (binder.insertInBinder(cardCopy, cardName)) {
-                                                cardInCollection.setQuantity(cardInCollection.getQuantity() - 1);
-                                                DialogUtil.showMessage(null,
-                                                        "Successfully transferred card into binder", "Information", 1);
-                                            } else {
-                                                DialogUtil.showWarning(null, "Incompatible binder and card types",
-                                                        "Warning");
-                                            }
-                                        }
-                                        taskDone = true;
-                                    } else {
-                                        DialogUtil.showWarning(null, "Binder is already full", "Warning");
-                                        taskDone = true;
-                                    }
+                        // only list the owned cards this binder accepts
+                        TreeMap<String, CardModel> eligible = findEligibleCards(binder);
+
+                        if (eligible.isEmpty()) {
+                            DialogUtil.showWarning(null, "No cards in the collection fit this binder", "Warning");
+                        } else {
+                            refreshPanel(panel, cardView.displayCollection(eligible));
+                            do {
+                                cardName = cardView.setCardName(CardNameIndex.of(eligible.keySet()));
+                                if (cardName == null || cardName.equals(EXIT_CODE))
+                                    taskDone = true;
+                                // checks if the collection has the card
+                                if (collection.containsKey(cardName) && !taskDone) {
+                                    // moves one copy, if there is one and the binder has room for it
+                                    showResult(service.addToBinder(binderName, cardName));
+                                    taskDone = true;
                                 } else {
                                     DialogUtil.showWarning(null,
-                                            "Collection currently has zero copies of specified card", "Warning");
+                                            "No Card with given name exists in Collection, please re-input Card name",
+                                            "Warning");
                                 }
-                            } else {
-                                DialogUtil.showWarning(null,
-                                        "No Card with given name exists in Collection, please re-input Card name",
-                                        "Warning");
-                            }
 
-                        } while (!collection.containsKey(cardName) && !taskDone);
+                            } while (!collection.containsKey(cardName) && !taskDone);
+                        }
                     } else {
                         DialogUtil.showWarning(null, "No Binder with given name exists", "Warning");
                     }
@@ -345,6 +290,19 @@ public class BinderController {
 
     }
 
+    /**
+     * Shows the outcome of moving or trading a card.
+     *
+     * @param result the outcome of the operation
+     */
+    private void showResult(ServiceResult result) {
+        if (result.succeeded()) {
+            DialogUtil.showMessage(null, result.message(), "Information", 1);
+        } else {
+            DialogUtil.showWarning(null, result.message(), "Warning");
+        }
+    }
+
     /**
      * Refreshes the given UI panel by removing all existing components and adding
      * the specified element.
@@ -359,161 +317,6 @@ public class BinderController {
         uiPanel.repaint();
     }
 
-    /**
-     * Executes a card trade when the value difference between the incoming and
-     * outgoing card is less than 1.
-     * This trade proceeds automatically without user confirmation.
-     *
-     * @param incomingCard the name of the card being added to the binder
-     * @param outgoingCard the name of the card being removed from the binder
-     * @param binderName   the name of the binder where the trade occurs
-     * @param taskDone     a flag array to indicate whether the trade process was
-     *                     completed
-     */
-    private void executeTradeLesserThanOne(String incomingCard, String outgoingCard, String binderName,
-            boolean[] taskDone) {
-        HashMap<String, CardModel> collection = sharedCollection.getCardCollection();
-        HashMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
-        HashMap<String, CardModel> binder = binderCollection.get(binderName).getBinder();
-
-        CardModel cardInCollectionIncoming, cardCopyIncoming;
-        CardModel cardCopyOutgoing;
-
-        // Check if incoming card already exists in the binder
-        if (binder.containsKey(incomingCard)) {
-            DialogUtil.showWarning(null,
-                    "Trade failed: Incoming card already exists in the binder.", "Warning");
-
-            collection.get(incomingCard).setQuantity(collection.get(incomingCard).getQuantity() - 1);
-            taskDone[0] = true;
-        } else {
-            cardCopyOutgoing = createCardCopy(binder.get(outgoingCard));
-
-            // Remove outgoing card from binder
-            if (binder.get(outgoingCard).getQuantity() > 1) {
-                binder.get(outgoingCard)
-                        .setQuantity(binder.get(outgoingCard).getQuantity() - 1);
-            } else {
-                binder.remove(outgoingCard);
-            }
-
-            // Add incoming card to binder
-            if (binder.size() < 20) {
-                cardInCollectionIncoming = collection.get(incomingCard);
-                cardCopyIncoming = createCardCopy(cardInCollectionIncoming);
-
-                if (binderCollection.get(binderName).insertInBinder(cardCopyIncoming, incomingCard)) {
-                    // Remove from collection
-                    cardInCollectionIncoming.setQuantity(cardInCollectionIncoming.getQuantity() - 1);
-
-                    DialogUtil.showMessage(null,
-                            "Trade successful! " + outgoingCard + " removed, "
-                                    + incomingCard + " added.",
-                            "Information", 1);
-                    taskDone[0] = true;
-                } else {
-
-                    // adds the initial outgoing car back to the binder
-                    if (binder.get(outgoingCard) == null) {
-                        binderCollection.get(binderName).insertInBinder(cardCopyOutgoing, cardCopyOutgoing.getName());
-                    } else {
-                        binder.get(outgoingCard).setQuantity(binder.get(outgoingCard).getQuantity() + 1);
-                    }
-                    // remove the incoming card to undo operation
-                    collection.remove(incomingCard);
-
-                    DialogUtil.showWarning(null, "Type/Variant mismatch", "Warning");
-                    taskDone[0] = true;
-                }
-
-            } else {
-                // remove the incoming card to undo operation
-                collection.remove(incomingCard);
-                DialogUtil.showWarning(null, "Trade failed: Binder is full.", "Warning");
-                taskDone[0] = true; // mark task as done to exit loop
-            }
-        }
-    }
-
-    /**
-     * Executes a card trade when the value difference between the incoming and
-     * outgoing card is 1 or greater.
-     * This trade requires user confirmation before proceeding.
-     *
-     * @param incomingCard the name of the card being added to the binder
-     * @param outgoingCard the name of the card being removed from the binder
-     * @param binderName   the name of the binder where the trade occurs
-     * @param taskDone     a flag array to indicate whether the trade process was
-     *                     completed
-     */
-    private void executeTradeGreaterThanOne(String incomingCard, String outgoingCard, String binderName,
-            boolean[] taskDone) {
-        HashMap<String, CardModel> collection = sharedCollection.getCardCollection();
-        HashMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
-        HashMap<String, CardModel> binder = binderCollection.get(binderName).getBinder();
-
-        // Check if incoming card already exists in the binder
-        CardModel cardInCollectionIncoming, cardCopyIncoming;
-        CardModel cardCopyOutgoing;
-
-        if (binder.containsKey(incomingCard)) {
-            DialogUtil.showWarning(null,
-                    "Trade failed: Incoming card already exists in the binder.", "Warning");
-
-            // subtract one copy of the card since a duplicate copy has already been added
-            collection.get(incomingCard).setQuantity(collection.get(incomingCard).getQuantity() - 1);
-            taskDone[0] = true;
-        } else {
-            // Remove outgoing card from binder
-            cardCopyOutgoing = createCardCopy(binder.get(outgoingCard));
-
-            // this prevents binder capacity overflow
-            if (binder.get(outgoingCard).getQuantity() > 1) {
-                binder.get(outgoingCard)
-                        .setQuantity(binder.get(outgoingCard).getQuantity() - 1);
-            } else {
-                binder.remove(outgoingCard);
-            }
-
-            // Add incoming card to binder
-            if (binder.size() < 20) {
-                cardInCollectionIncoming = collection.get(incomingCard);
-                cardCopyIncoming = createCardCopy(cardInCollectionIncoming);
-
-                // checks if Incoming card can be inserted into binder
-                if (binderCollection.get(binderName).insertInBinder(cardCopyIncoming, incomingCard)) {
-                    // Remove from collection
-                    cardInCollectionIncoming.setQuantity(cardInCollectionIncoming.getQuantity() - 1);
-
-                    DialogUtil.showMessage(null,
-                            "Trade successful! " + outgoingCard + " removed, " + incomingCard + " added.",
-                            "Information", 1);
-                    taskDone[0] = true;
-                } else {
-
-                    // adds the initial outgoing car back to the binder
-                    if (binder.get(outgoingCard) == null) {
-                        binderCollection.get(binderName).insertInBinder(cardCopyOutgoing, cardCopyOutgoing.getName());
-                    } else {
-                        binder.get(outgoingCard).setQuantity(binder.get(outgoingCard).getQuantity() + 1);
-                    }
-
-                    // remove the incoming card to undo operation
-                    collection.remove(incomingCard);
-
-                    DialogUtil.showWarning(null, "Type/Variant mismatch", "Warning");
-                    taskDone[0] = true;
-                }
-
-            } else {
-                // remove the incoming card to undo operation
-                collection.remove(incomingCard);
-                DialogUtil.showWarning(null, "Trade failed: Binder is full.", "Warning");
-                taskDone[0] = true; // mark task as done to exit loop
-            }
-        }
-    }
-
     /**
      * Initiates the card trading process between a user's collection and a selected
      * binder.
@@ -540,98 +343,53 @@ public class BinderController {
     public void tradeCard(JPanel tradingPanel) {
         CardView cardView = new CardView();
 
-        CardController cardController = new CardController(sharedCollection, cardView);
-
-        HashMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
-
-        HashMap<String, CardModel> collection = sharedCollection.getCardCollection();
-
-        HashMap<String, CardModel> binder;
+        TreeMap<String, BinderModel> binderCollection = sharedCollection.getBinderCollection();
 
-        BinderModel binderModel;
+        TreeMap<String, CardModel> binder;
 
-        final boolean[] taskDone = new boolean[1]; // set to false by default
-        final boolean[] validAddCard = new boolean[1]; // set to false by default
-        final String[] outGoingCardName = new String[1];
-        final String[] incomingCardName = new String[1];
-        final String[] binderName = new String[1];
-
-        // final CardModel[] cardInCollection = new CardModel[1];
-        // final CardModel[] cardCopy = new CardModel[1];
+        String outGoingCardName;
 
         boolean cancelled = false;
 
+        boolean taskDone = false;
+
         // GUI component to display current binders
         refreshPanel(tradingPanel, displayBinders());
 
         // GUI component
-        binderName[0] = view.setBinderName("Indicate which binder to trade from");
+        String binderName = view.setBinderName("Indicate which binder to trade from");
 
-        if (binderName[0] == null || binderName[0].equals(EXIT_CODE))
+        if (binderName == null || binderName.equals(EXIT_CODE))
             cancelled = true;
 
         if (!cancelled) {
             // checks if bindercollection has specified binder
-            if (binderCollection.containsKey(binderName[0])) {
+            if (binderCollection.containsKey(binderName)) {
 
-                binder = binderCollection.get(binderName[0]).getBinder();
+                binder = binderCollection.get(binderName).getBinder();
                 // checks if binder has cards to choose from
                 if (!binder.isEmpty()) {
                     // displays binder content
-                    refreshPanel(tradingPanel, displayBinderContent(binder));
+                    refreshPanel(tradingPanel, displayBinderContent(binderCollection.get(binderName)));
                     do {
                         // selects card from selected binder
-                        outGoingCardName[0] = view.setCardName();
+                        outGoingCardName = view.setCardName(CardNameIndex.of(binder.keySet()));
 
-                        if (outGoingCardName[0].equals(EXIT_CODE))
+                        if (outGoingCardName == null || outGoingCardName.equals(EXIT_CODE))
                             cancelled = true;
 
                         if (!cancelled) {
                             // checks if binder contains specified card
-                            if (binder.containsKey(outGoingCardName[0])) {
-                                // adds a new card to collection
-                                incomingCardName[0] = cardController.addCard(validAddCard);
-
-                                if (validAddCard[0]) {
-                                    // gets absolute value difference
-                                    double difference = Math.abs(
-                                            sharedCollection.getCardCollection().get(incomingCardName[0]).getValue()
-                                                    - binder.get(outGoingCardName[0]).getValue());
-
-                                    refreshPanel(tradingPanel, view.showMainCardDisplay(collection, outGoingCardName[0],
-                                            incomingCardName[0], difference));
-
-                                    // executeTrade(incomingCardName, outGoingCardName, binder)
-                                    if (difference >= 1) {
-                                        // confirmation panel gui
-
-                                        // removes action listeners
-                                        for (ActionListener al : view.getButtonConfirm().getActionListeners()) {
-                                            view.getButtonConfirm().removeActionListener(al);
-                                        }
-
-                                        tradingPanel.add(view.showTradeConfirmation(), BorderLayout.SOUTH);
-
-                                        // user presses accept
-                                        view.getButtonConfirm().addActionListener(e -> {
-                                            refreshPanel(tradingPanel, new JPanel());
-                                            executeTradeGreaterThanOne(incomingCardName[0], outGoingCardName[0],
-                                                    binderName[0], taskDone);
-                                        });
-
-                                        // user presses decline
-                                        view.getButtonDecline().addActionListener(e -> {
-                                            refreshPanel(tradingPanel, new JPanel());
-                                            collection.remove(incomingCardName[0]);
-                                            DialogUtil.showMessage(null, "Trade declined", "Information", 1);
-                                        });
-                                    } else {
-                                        // difference of cards is less than 1
-                                        executeTradeLesserThanOne(incomingCardName[0], outGoingCardName[0],
-                                                binderName[0], taskDone);
-                                    }
+                            if (binder.containsKey(outGoingCardName)) {
+                                // asks for the card offered in exchange
+                                CardModel incoming = cardView.showAddCardForm();
+
+                                if (incoming != null) {
+                                    confirmTrade(tradingPanel, binderName, binder.get(outGoingCardName), incoming);
+                                    // the trade may have taken the last copy out of the binder
+                                    taskDone = true;
                                 } else {
-                                    DialogUtil.showWarning(null, "Please re-input card with novel details", "Warning");
+                                    DialogUtil.showWarning(null, "Cancelled trade", "Warning");
                                 }
 
                             } else {
@@ -645,7 +403,7 @@ public class BinderController {
                             DialogUtil.showWarning(null, "Operation Cancelled", "Warning");
                         }
 
-                    } while (!binder.containsKey(outGoingCardName[0]) && !taskDone[0] && !cancelled);
+                    } while (!cancelled && !taskDone && !binder.containsKey(outGoingCardName));
 
                 } else {
                     DialogUtil.showWarning(null, "No Cards in Binder", "Warning");
@@ -664,6 +422,55 @@ public class BinderController {
         tradingPanel.repaint();
     }
 
+    /**
+     * Shows the two cards of a trade side by side and carries the trade out.
+     * A trade whose values differ by 1 or more waits for the user to accept
+     * or decline it.
+     *
+     * @param tradingPanel the panel the trade is shown in
+     * @param binderName   the name of the binder the trade is from
+     * @param outgoing     the card leaving the binder
+     * @param incoming     the card offered in exchange
+     */
+    private void confirmTrade(JPanel tradingPanel, String binderName, CardModel outgoing, CardModel incoming) {
+        double difference = service.tradeDifference(binderName, outgoing.getName(), incoming);
+
+        // the incoming card is not in the collection yet, so show both from here
+        TreeMap<String, CardModel> shown = new TreeMap<>();
+        shown.put(outgoing.getName(), outgoing);
+        shown.put(incoming.getName(), incoming);
+        refreshPanel(tradingPanel, view.showMainCardDisplay(shown, outgoing.getName(), incoming.getName(),
+                difference));
+
+        if (difference >= 1) {
+            // removes action listeners
+            for (ActionListener al : view.getButtonConfirm().getActionListeners()) {
+                view.getButtonConfirm().removeActionListener(al);
+            }
+            for (ActionListener al : view.getButtonDecline().getActionListeners()) {
+                view.getButtonDecline().removeActionListener(al);
+            }
+
+            tradingPanel.add(view.showTradeConfirmation(), BorderLayout.SOUTH);
+
+            // user presses accept
+            view.getButtonConfirm().addActionListener(e -> {
+                refreshPanel(tradingPanel, new JPanel());
+                showResult(service.trade(binderName, outgoing.getName(), incoming, true));
+            });
+
+            // user presses decline
+            view.getButtonDecline().addActionListener(e -> {
+                refreshPanel(tradingPanel, new JPanel());
+                DialogUtil.showMessage(null, "Trade declined", "Information", 1);
+            });
+        } else {
+            // difference of cards is less than 1
+            showResult(service.trade(binderName, outgoing.getName(), incoming, false));
+        }
+    }
+
+
     /**
      * Sells the specified binder if it is eligible for selling. If successful, the
      * binder's
@@ -674,24 +481,45 @@ public class BinderController {
      *             "-999", the sale is cancelled.
      */
     public void sellBinder(String name) {
-        BinderModel binder = sharedCollection.getBinderCollection().get(name);
-        double newSellPrice = binder.getSellingPrice();
-        DecimalFormat df = new DecimalFormat("#.##");
-
         if (name == null || name.equals("-999")) {
             DialogUtil.showError(null, "Sell Binder Cancelled", "Cancelled");
-        } else {
-            if (newSellPrice== -1) {
-                DialogUtil.showError(null, "Binder is not sellable", "Cancelled");
-            } else {
-                sharedCollection.setMoney(sharedCollection.getMoney() + newSellPrice);
-                DialogUtil.showInfo(null, "Binder sold, you now have cash total of " + df.format(sharedCollection.getMoney()),
-                        "Success");
-                sharedCollection.removeBinderCollection(name);
+            return;
+        }
+
+        BinderModel binder = sharedCollection.getBinderCollection().get(name);
+        Double askingPrice = null;
+        if (binder != null && binder.getBinderType().takesAskingPrice() && !binder.getBinder().isEmpty()) {
+            askingPrice = view.setBinderPrice();
+            if (askingPrice == null || askingPrice < binder.getAggregates().getTotalValue()) {
+                DialogUtil.showError(null, "New price is lower than current price", "Error");
             }
+        }
 
+        ServiceResult result = service.sellBinder(name, askingPrice);
+        if (result.succeeded()) {
+            DialogUtil.showInfo(null, result.message(), "Success");
+        } else {
+            DialogUtil.showError(null, result.message(), "Cancelled");
         }
+    }
+
+    /**
+     * Finds the cards in the collection that have at least one copy and are
+     * accepted by the given binder, using the collection's indexes rather than
+     * checking every card.
+     *
+     * @param binder the binder the cards would be added to
+     * @return the eligible cards, keyed by name
+     */
+    private TreeMap<String, CardModel> findEligibleCards(BinderModel binder) {
+        TreeMap<String, CardModel> eligible = new TreeMap<>();
 
+        BinderRule rule = binder.getBinderType().rule();
+        for (CardModel card : sharedCollection.getIndex().find(rule.getAcceptedRarities(),
+                rule.getAcceptedVariants(), rule.getMinValue(), rule.getMaxValue(), true)) {
+            eligible.put(card.getName(), card);
+        }
+        return eligible;
     }
 
     /**
@@ -701,13 +529,6 @@ public class BinderController {
      * @return a new CardModel object with the same values as the original
      */
     public static CardModel createCardCopy(CardModel originalCard) {
-        CardModel copy = new CardModel();
-        copy.setName(originalCard.getName());
-        copy.setRarity(originalCard.getRarity());
-        copy.setVariant(originalCard.getVariant());
-        copy.setQuantity(1);
-        copy.setValue(originalCard.getValue());
-        copy.setImagePath(originalCard.getImagePath());
-        return copy;
+        return originalCard.copy();
     }
 }
@@ -1,15 +1,25 @@
 package com.tradingcards.elements.binder;
 
-import java.util.HashMap;
+import java.util.Set;
+import java.util.TreeMap;
 
+import com.tradingcards.elements.card.CardContainer;
+import com.tradingcards.elements.card.CardContainerListener;
+import com.tradingcards.elements.card.CardContainerSupport;
 import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+import com.tradingcards.elements.card.cardUtils.CardAggregates;
 
 /**
  * The {@code BinderModel} class represents a binder that holds a collection of
  * trading cards. It maintains the name of the binder and a list of cards stored
  * in it.
+ * <p>
+ * What a binder admits and how it is sold depend only on its
+ * {@link BinderType}, so every kind of binder is a {@code BinderModel}.
  */
-public abstract class BinderModel {
+public class BinderModel implements CardContainer {
 
     /**
      * The name of the binder.
@@ -22,20 +32,55 @@ public abstract class BinderModel {
     protected String binderType;
 
     /**
-     * A map of card names to {@link CardModel} instances stored in this binder.
+     * The registered type named by {@link #binderType}.
      */
-    protected HashMap<String, CardModel> cardsInBinder = new HashMap<>();
+    protected BinderType type;
+
+    /**
+     * A map of card names to {@link CardModel} instances stored in this binder,
+     * sorted by name.
+     */
+    protected TreeMap<String, CardModel> cardsInBinder = new TreeMap<>();
+
+    /**
+     * Running totals over the cards in {@link #cardsInBinder}.
+     */
+    protected final CardAggregates aggregates = new CardAggregates();
+
+    /**
+     * Listeners told about each card put into, taken out of or changed in
+     * the binder.
+     */
+    protected final CardContainerSupport events = new CardContainerSupport();
 
     /**
      * Constructs a new BinderModel with the specified binder type.
      *
      * @param binderType the type of the binder (e.g., "Non-curated", "Pauper",
      *                   "Rares", etc.)
+     * @throws IllegalArgumentException if the type is not registered
      */
     public BinderModel(String binderType) {
+        this.type = BinderType.forName(binderType);
         this.binderType = binderType;
     }
 
+    /**
+     * Creates an empty binder of the given type.
+     * <p>
+     * The type is the short name stored in {@link #getType()}, e.g.
+     * {@code "Non-Curated"}, {@code "Pauper"}, {@code "Rares"},
+     * {@code "Luxury"} or {@code "Collector"}, or any other type added with
+     * {@link BinderType#register}.
+     *
+     * @param binderType the short type name of the binder
+     * @return a new binder of that type
+     * @throws IllegalArgumentException if the type is not registered
+     */
+    public static BinderModel ofType(String binderType) {
+        return new BinderModel(binderType);
+    }
+
     /**
      * Sets the name of the binder.
      *
@@ -59,8 +104,10 @@ public abstract class BinderModel {
      *
      * @param binderType the type of the binder (e.g., "Non-curated", "Pauper",
      *                   etc.)
+     * @throws IllegalArgumentException if the type is not registered
      */
     public void setType(String binderType) {
+        this.type = BinderType.forName(binderType);
         this.binderType = binderType;
     }
 
@@ -73,26 +120,170 @@ public abstract class BinderModel {
         return this.binderType;
     }
 
+    /**
+     * Retrieves the registered type of the binder, which says what it admits
+     * and how it is sold.
+     *
+     * @return the binder's type
+     */
+    public BinderType getBinderType() {
+        return this.type;
+    }
+
     /**
      * Retrieves the collection of cards stored in the binder.
+     * <p>
+     * Cards must be added through {@link #insertInBinder} and removed through
+     * {@link #removeCard} so the binder's totals stay correct.
      *
-     * @return a {@code HashMap} containing card names mapped to {@link CardModel}
+     * @return a {@code TreeMap} containing card names mapped to {@link CardModel}
      *         instances
      */
-    public HashMap<String, CardModel> getBinder() {
+    public TreeMap<String, CardModel> getBinder() {
+        return this.cardsInBinder;
+    }
+
+    /**
+     * Stores a card in the binder and adds it to the binder's totals,
+     * replacing any card stored under the same name.
+     *
+     * @param card the {@link CardModel} object to store
+     * @param name the name of the card to use as the key in the binder
+     */
+    public void putCard(CardModel card, String name) {
+        CardModel previous = cardsInBinder.put(name, card);
+        if (previous != card) {
+            if (previous != null) {
+                aggregates.untrack(previous);
+                events.cardRemoved(name, previous);
+            }
+            aggregates.track(card);
+            events.cardAdded(name, card);
+        }
+    }
+
+    /**
+     * Removes a card from the binder and from the binder's totals.
+     *
+     * @param name the name of the card
+     * @return the removed card, or {@code null} if it was not in the binder
+     */
+    public CardModel removeCard(String name) {
+        CardModel card = cardsInBinder.remove(name);
+        if (card != null) {
+            aggregates.untrack(card);
+            events.cardRemoved(name, card);
+        }
+        return card;
+    }
+
+    @Override
+    public TreeMap<String, CardModel> getCards() {
         return this.cardsInBinder;
     }
 
+    @Override
+    public void addContainerListener(CardContainerListener listener) {
+        events.addListener(listener);
+    }
+
+    @Override
+    public void removeContainerListener(CardContainerListener listener) {
+        events.removeListener(listener);
+    }
+
+    /**
+     * Returns the running totals over the cards in the binder.
+     *
+     * @return the binder's card totals
+     */
+    public CardAggregates getAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * Returns the rarities of the cards this binder accepts.
+     *
+     * @return the accepted rarities, or {@code null} if any rarity is accepted
+     */
+    public Set<CardRarity> getAcceptedRarities() {
+        return type.rule().getAcceptedRarities();
+    }
+
+    /**
+     * Returns the variants of the cards this binder accepts.
+     *
+     * @return the accepted variants, or {@code null} if any variant is accepted
+     */
+    public Set<CardVariant> getAcceptedVariants() {
+        return type.rule().getAcceptedVariants();
+    }
+
+    /**
+     * Returns the most different cards this binder can hold.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return type.rule().getCapacity();
+    }
+
     /**
-     * Inserts a card into the binder.
-     * 
+     * Determines whether a card's rarity, variant and value are accepted by
+     * this binder.
+     *
+     * @param card the card to check
+     * @return {@code true} if the card may be inserted
+     */
+    public boolean accepts(CardModel card) {
+        return type.rule().admits(card);
+    }
+
+    /**
+     * Inserts a card into the binder if its type accepts it and, for a card
+     * not yet in the binder, there is room for it.
+     *
      * @param card the {@link CardModel} object to add
      * @param name the name of the card to use as the key in the binder
+     * @return {@code true} if the card was inserted; {@code false} otherwise
      */
-    public abstract boolean insertInBinder(CardModel card, String name);
+    public boolean insertInBinder(CardModel card, String name) {
+        if (!accepts(card) || (cardsInBinder.size() >= getCapacity() && !cardsInBinder.containsKey(name))) {
+            return false;
+        }
+        putCard(card, name);
+        return true;
+    }
 
     /**
-     * Determines selling price of binder
+     * Determines the selling price of the binder when no asking price is
+     * given: the total value of its cards with its type's markup.
+     *
+     * @return the selling price, or {@code -1} if the binder cannot be sold
      */
-    public abstract double getSellingPrice();
+    public double getSellingPrice() {
+        return getSellingPrice(null);
+    }
+
+    /**
+     * Calculates the selling price of the binder for a given asking price.
+     * <p>
+     * The asking price only counts for types that take one, and only when it
+     * is not lower than the total value of the cards. The type's markup is
+     * then added.
+     *
+     * @param askingPrice the price asked for the binder, or {@code null}
+     * @return the selling price, or {@code -1} if the binder cannot be sold
+     */
+    public double getSellingPrice(Double askingPrice) {
+        if (!type.sellable()) {
+            return -1;
+        }
+        double total = aggregates.getTotalValue();
+
+        if (type.takesAskingPrice() && askingPrice != null && askingPrice >= total) {
+            return askingPrice * type.markup();
+        }
+        return total * type.markup();
+    }
 }
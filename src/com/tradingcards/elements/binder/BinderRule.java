@@ -0,0 +1,224 @@
+package com.tradingcards.elements.binder;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+
+/**
+ * The cards a binder type admits: which rarities and variants, what range of
+ * values, and how many different cards at most.
+ * <p>
+ * The rarities and variants are compiled into bitmasks over the codes of
+ * {@link CardRarity} and {@link CardVariant}, so checking a card takes two
+ * shifts and two comparisons and no branches on the card's attributes. A card
+ * without a variant has variant code 0, and each variant has its ordinal plus
+ * one. {@link #admitAll} checks many cards given as arrays of codes at once,
+ * in a loop simple enough for the JIT to unroll and vectorize.
+ */
+public final class BinderRule {
+
+    /** Number of different cards a binder holds unless its rule says otherwise. */
+    public static final int DEFAULT_CAPACITY = 20;
+
+    /** Variant code of a card without a variant. */
+    public static final int NO_VARIANT = 0;
+
+    /** Admits every card, up to the default capacity. */
+    public static final BinderRule ANY = new BinderRule(null, null, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, DEFAULT_CAPACITY);
+
+    private final int rarityMask;
+    private final int variantMask;
+    private final double minValue;
+    private final double maxValue;
+    private final int capacity;
+    private final Set<CardRarity> acceptedRarities;
+    private final Set<CardVariant> acceptedVariants;
+
+    /**
+     * Compiles a rule.
+     *
+     * @param rarities the rarities admitted, or {@code null} for any rarity
+     * @param variants the variants admitted, or {@code null} for any variant
+     *                 or none; cards without a variant are only admitted when
+     *                 this is {@code null}
+     * @param minValue the lowest value admitted
+     * @param maxValue the highest value admitted
+     * @param capacity the most different cards a binder can hold
+     */
+    public BinderRule(Set<CardRarity> rarities, Set<CardVariant> variants, double minValue, double maxValue,
+            int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        if (minValue > maxValue) {
+            throw new IllegalArgumentException("Empty value range: " + minValue + " to " + maxValue);
+        }
+
+        int rarityBits = 0;
+        for (CardRarity rarity : rarities == null ? EnumSet.allOf(CardRarity.class) : rarities) {
+            rarityBits |= 1 << rarityCode(rarity);
+        }
+        int variantBits = variants == null ? 1 << NO_VARIANT : 0;
+        for (CardVariant variant : variants == null ? EnumSet.allOf(CardVariant.class) : variants) {
+            variantBits |= 1 << variantCode(variant);
+        }
+
+        this.rarityMask = rarityBits;
+        this.variantMask = variantBits;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.capacity = capacity;
+        this.acceptedRarities = rarities == null ? null
+                : Collections.unmodifiableSet(copy(rarities, CardRarity.class));
+        this.acceptedVariants = variants == null ? null
+                : Collections.unmodifiableSet(copy(variants, CardVariant.class));
+    }
+
+    /**
+     * Compiles a rule on rarity and variant only, with any value and the
+     * default capacity.
+     *
+     * @param rarities the rarities admitted, or {@code null} for any rarity
+     * @param variants the variants admitted, or {@code null} for any variant
+     *                 or none
+     * @return the rule
+     */
+    public static BinderRule of(Set<CardRarity> rarities, Set<CardVariant> variants) {
+        return new BinderRule(rarities, variants, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns the code of a rarity used by the rule.
+     *
+     * @param rarity the rarity
+     * @return its code
+     */
+    public static int rarityCode(CardRarity rarity) {
+        return rarity.ordinal();
+    }
+
+    /**
+     * Returns the code of a variant used by the rule.
+     *
+     * @param variant the variant, or {@code null} for none
+     * @return its code, {@link #NO_VARIANT} for none
+     */
+    public static int variantCode(CardVariant variant) {
+        return variant == null ? NO_VARIANT : variant.ordinal() + 1;
+    }
+
+    /**
+     * Determines whether a card's rarity, variant and value are admitted.
+     * Capacity is up to the binder.
+     *
+     * @param card the card
+     * @return {@code true} if the card may be inserted
+     */
+    public boolean admits(CardModel card) {
+        return admits(rarityCode(card.getRarityCode()), variantCode(card.getVariantCode()), card.getValue());
+    }
+
+    /**
+     * Determines whether a card with the given codes and value is admitted.
+     *
+     * @param rarityCode  the card's rarity code
+     * @param variantCode the card's variant code
+     * @param value       the card's value
+     * @return {@code true} if the card may be inserted
+     */
+    public boolean admits(int rarityCode, int variantCode, double value) {
+        return ((rarityMask >>> rarityCode) & (variantMask >>> variantCode) & 1) != 0
+                & value >= minValue & value <= maxValue;
+    }
+
+    /**
+     * Determines whether cards with the given codes are admitted for some
+     * value, i.e. whether the rule's rarities and variants allow them.
+     *
+     * @param rarityCode  the cards' rarity code
+     * @param variantCode the cards' variant code
+     * @return {@code true} if cards with these codes and a value within
+     *         {@link #getMinValue()} and {@link #getMaxValue()} are admitted
+     */
+    public boolean admits(int rarityCode, int variantCode) {
+        return ((rarityMask >>> rarityCode) & (variantMask >>> variantCode) & 1) != 0;
+    }
+
+    /**
+     * Checks many cards at once. The arrays describe the cards by position
+     * and must be at least {@code admitted.length} long.
+     *
+     * @param rarityCodes  the cards' rarity codes
+     * @param variantCodes the cards' variant codes
+     * @param values       the cards' values
+     * @param admitted     set to whether each card is admitted
+     * @return the number of cards admitted
+     */
+    public int admitAll(byte[] rarityCodes, byte[] variantCodes, double[] values, boolean[] admitted) {
+        int count = 0;
+        for (int i = 0; i < admitted.length; i++) {
+            int bit = (rarityMask >>> rarityCodes[i]) & (variantMask >>> variantCodes[i]) & 1;
+            boolean ok = bit != 0 & values[i] >= minValue & values[i] <= maxValue;
+            admitted[i] = ok;
+            count += ok ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the rarities admitted.
+     *
+     * @return the rarities, or {@code null} if any rarity is admitted
+     */
+    public Set<CardRarity> getAcceptedRarities() {
+        return acceptedRarities;
+    }
+
+    /**
+     * Returns the variants admitted.
+     *
+     * @return the variants, or {@code null} if any variant or none is admitted
+     */
+    public Set<CardVariant> getAcceptedVariants() {
+        return acceptedVariants;
+    }
+
+    /**
+     * Returns the lowest value admitted.
+     *
+     * @return the lowest value
+     */
+    public double getMinValue() {
+        return minValue;
+    }
+
+    /**
+     * Returns the highest value admitted.
+     *
+     * @return the highest value
+     */
+    public double getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * Returns the most different cards a binder can hold.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private static <E extends Enum<E>> EnumSet<E> copy(Set<E> values, Class<E> type) {
+        EnumSet<E> copy = EnumSet.noneOf(type);
+        copy.addAll(values);
+        return copy;
+    }
+}
@@ -0,0 +1,79 @@
+package com.tradingcards.elements.binder;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+
+/**
+ * A kind of binder, described entirely as data: the cards it admits and how
+ * it is sold. A new kind of binder is added by registering a
+ * {@code BinderType}, without writing a new class.
+ * <p>
+ * The built-in types are "Non-Curated", "Pauper", "Rares", "Luxury" and
+ * "Collector".
+ *
+ * @param name             the short name of the type, as stored in
+ *                         {@link BinderModel#getType()}
+ * @param rule             the cards a binder of this type admits
+ * @param sellable         whether a binder of this type can be sold
+ * @param markup           the factor the value of the cards is multiplied
+ *                         by when the binder is sold
+ * @param takesAskingPrice whether the seller names a price, used instead
+ *                         of the value of the cards when it is higher
+ */
+public record BinderType(String name, BinderRule rule, boolean sellable, double markup, boolean takesAskingPrice) {
+
+    /** The registered types by name, in the order they were registered. */
+    private static final Map<String, BinderType> TYPES = new LinkedHashMap<>();
+
+    static {
+        EnumSet<CardRarity> rares = EnumSet.of(CardRarity.RARE, CardRarity.LEGENDARY);
+        EnumSet<CardVariant> special = EnumSet.complementOf(EnumSet.of(CardVariant.NORMAL));
+
+        register(new BinderType("Non-Curated", BinderRule.ANY, false, 1.0, false));
+        register(new BinderType("Pauper", BinderRule.of(EnumSet.of(CardRarity.COMMON, CardRarity.UNCOMMON), null),
+                true, 1.0, false));
+        register(new BinderType("Rares", BinderRule.of(rares, null), true, 1.10, false));
+        register(new BinderType("Luxury", BinderRule.of(null, special), true, 1.10, true));
+        register(new BinderType("Collector", BinderRule.of(rares, special), false, 1.0, false));
+    }
+
+    /**
+     * Makes a type available to {@link BinderModel#ofType}, replacing any
+     * type of the same name.
+     *
+     * @param type the type
+     */
+    public static synchronized void register(BinderType type) {
+        TYPES.put(type.name(), type);
+    }
+
+    /**
+     * Looks up a registered type.
+     *
+     * @param name the short name of the type
+     * @return the type
+     * @throws IllegalArgumentException if no type has that name
+     */
+    public static synchronized BinderType forName(String name) {
+        BinderType type = TYPES.get(name);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown binder type: " + name);
+        }
+        return type;
+    }
+
+    /**
+     * Returns the registered types.
+     *
+     * @return the types, in the order they were registered
+     */
+    public static synchronized List<BinderType> all() {
+        return new ArrayList<>(TYPES.values());
+    }
+}
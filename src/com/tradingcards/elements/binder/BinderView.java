@@ -8,12 +8,11 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.Insets;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.TreeMap;
 
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -21,14 +20,12 @@ import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 
-import com.tradingcards.elements.binder.types.CollectorBinder;
-import com.tradingcards.elements.binder.types.LuxuryBinder;
-import com.tradingcards.elements.binder.types.NonCuratedBinder;
-import com.tradingcards.elements.binder.types.PauperBinder;
-import com.tradingcards.elements.binder.types.RaresBinder;
 import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardPager;
 import com.tradingcards.elements.card.CardView;
-import com.tradingcards.elements.card.cardUtils.ImageUtils;
+import com.tradingcards.elements.card.cardUtils.ImageLoader;
+import com.tradingcards.elements.collection.collectionUtils.CardNameIndex;
+import com.tradingcards.elements.menus.menuUtils.SearchInputDialog;
 
 /**
  * The {@code BinderView} class handles user interaction related to binders,
@@ -102,6 +99,18 @@ public class BinderView {
         return JOptionPane.showInputDialog(null, "Give Card Name (Enter -999 to cancel):");
     }
 
+    /**
+     * Prompts the user to input the name of a card, suggesting matching names
+     * from the given index while the user types.
+     *
+     * @param names the names to suggest from
+     * @return the card name entered by the user, or {@code null} if cancelled
+     */
+    public String setCardName(CardNameIndex names) {
+        return SearchInputDialog.showInputDialog(null, "Give Card Name (Enter -999 to cancel):",
+                query -> names.search(query, SearchInputDialog.SUGGESTION_LIMIT));
+    }
+
     /**
      * Prompts the user to set a custom binder price.
      *
@@ -171,7 +180,7 @@ public class BinderView {
      * @param difference   the value difference between the cards
      * @return a panel showing the two cards and the difference
      */
-    public JPanel showMainCardDisplay(HashMap<String, CardModel> collection, String outgoingCard, String incomingCard,
+    public JPanel showMainCardDisplay(TreeMap<String, CardModel> collection, String outgoingCard, String incomingCard,
             double difference) {
         CardView cardView = new CardView();
 
@@ -207,29 +216,26 @@ public class BinderView {
     }
 
     /**
-     * Displays a dialog for the user to select a binder type from a predefined
-     * list.
+     * Displays a dialog for the user to select a binder type from the
+     * registered types.
      * <p>
-     * The method shows a {@link JOptionPane} input dialog with the following
-     * options:
-     * <ul>
-     *
-     * <li>Non-curated Binder</li>
-     * <li>Sellable: Pauper Binder</li>
-     * <li>Sellable: Rares Binder</li>
-     * <li>Sellable: Luxury Binder</li>
-     * <li>Collector Binder</li>
-     * </ul>
-     * The first item ("Non-curated Binder") is selected by default.
+     * The method shows a {@link JOptionPane} input dialog with one option per
+     * registered {@link BinderType}, in the order they were registered, e.g.
+     * "Non-Curated Binder" or "Sellable: Pauper Binder". The first option is
+     * selected by default.
      * </p>
      *
-     * @return the selected binder type as a {@code String}, or {@code null} if the
-     *         user
-     *         cancels the dialog or closes it without making a selection.
+     * @return the name of the selected binder type, as taken by
+     *         {@link BinderModel#ofType}, or {@code null} if the user cancels
+     *         the dialog or closes it without making a selection.
      */
     public String setBinderType() {
-        String[] binderTypes = { "Non-curated Binder", "Sellable: Pauper Binder", "Sellable: Rares Binder",
-                "Sellable: Luxury Binder", "Collector Binder" };
+        // Maps each option shown to the name of its type
+        Map<String, String> binderTypes = new LinkedHashMap<>();
+        for (BinderType type : BinderType.all()) {
+            binderTypes.put((type.sellable() ? "Sellable: " : "") + type.name() + " Binder", type.name());
+        }
+        String[] options = binderTypes.keySet().toArray(new String[0]);
 
         String selectedType = (String) JOptionPane.showInputDialog(
                 null,
@@ -237,14 +243,14 @@ public class BinderView {
                 "Binder Type Selection",
                 JOptionPane.QUESTION_MESSAGE,
                 null,
-                binderTypes,
-                binderTypes[0]);
+                options,
+                options[0]);
 
         if (selectedType == null) {
             return null;
         }
 
-        return selectedType;
+        return binderTypes.get(selectedType);
     }
 
     /**
@@ -256,21 +262,13 @@ public class BinderView {
      * the method returns {@code null}.
      * </p>
      * <p>
-     * Based on the selected type, it creates an instance of one of the following:
-     * <ul>
-     * <li>{@link NonCuratedBinder}</li>
-     * <li>{@link PauperBinder}</li>
-     * <li>{@link RaresBinder}</li>
-     * <li>{@link LuxuryBinder}</li>
-     * <li>{@link CollectorBinder}</li>
-     * </ul>
-     * The display name used in the constructor is a shortened, internal-friendly
-     * version of the binder type.
+     * The binder is created with {@link BinderModel#ofType} for the selected
+     * {@link BinderType}, so types added with {@link BinderType#register} can
+     * be chosen as well.
      * </p>
      *
      * @return a new {@link BinderModel} instance with the selected name and type,
-     *         or {@code null} if the user cancels any part of the input process or
-     *         if the type is unrecognized.
+     *         or {@code null} if the user cancels any part of the input process.
      */
     public BinderModel showBinderForm() {
         String name = setBinderName();
@@ -281,18 +279,7 @@ public class BinderView {
         if (type == null || type.equals("-999"))
             return null;
 
-        BinderModel newBinder = switch (type) {
-            case "Non-curated Binder" -> new NonCuratedBinder("Non-Curated");
-            case "Sellable: Pauper Binder" -> new PauperBinder("Pauper");
-            case "Sellable: Rares Binder" -> new RaresBinder("Rares");
-            case "Sellable: Luxury Binder" -> new LuxuryBinder("Luxury");
-            case "Collector Binder" -> new CollectorBinder("Collector");
-            default -> null;
-        };
-
-        if (newBinder == null)
-            return null;
-
+        BinderModel newBinder = BinderModel.ofType(type);
         newBinder.setName(name);
         return newBinder;
     }
@@ -302,10 +289,7 @@ public class BinderView {
      *
      * @param binderCollection a map containing binder names and their models
      */
-    public JPanel displayBinders(HashMap<String, BinderModel> binderCollection) {
-        ArrayList<String> binderKeys = new ArrayList<>(binderCollection.keySet());
-        Collections.sort(binderKeys);
-
+    public JPanel displayBinders(TreeMap<String, BinderModel> binderCollection) {
         JPanel displayPanel = new JPanel(new GridLayout(0, 3, 0, 5));
 
         //
@@ -313,7 +297,7 @@ public class BinderView {
         // System.out.println("Current Binders:");
         // System.out.println("");
 
-        for (String binderNames : binderKeys) {
+        for (String binderNames : binderCollection.keySet()) {
 
             JPanel wrapper = new JPanel();
 
@@ -335,64 +319,25 @@ public class BinderView {
     /**
      * Displays the contents of a binder, including each card's name.
      * If a card has more than one copy, it is listed multiple times.
+     * Cards are shown one page at a time, and the page follows later changes
+     * to the binder.
      *
-     * @param binder a map containing card names and their models
+     * @param binder the binder to display
      */
-    public JPanel displayBinderContent(HashMap<String, CardModel> binder) {
-        ArrayList<String> cardByKey = new ArrayList<>(binder.keySet());
-        Collections.sort(cardByKey);
-
-        JPanel displayPanel = new JPanel(new GridLayout(0, 3, 5, 5));
-        boolean hasCards = false;
-
-        for (String name : cardByKey) {
-            if (binder.get(name).getQuantity() >= 1) {
-
-                hasCards = true;
-
-                for (int i = 1; i <= binder.get(name).getQuantity(); i++) {
-                    JPanel tempPanel = new JPanel(new BorderLayout());
-                    tempPanel.setBorder(new EmptyBorder(5, 5, 5, 5));
-
-                    JLabel image;
-
-                    String imagePath = binder.get(name).getImagePath();
-                    ImageIcon cardPhoto;
-
-                    if (imagePath != null) {
-                        cardPhoto = new ImageIcon(imagePath);
-                    } else {
-                        cardPhoto = new ImageIcon(getClass().getResource("/images/default.png"));
-                    }
-
-                    image = new JLabel(ImageUtils.scaleIcon(cardPhoto, 120, 120));
-                    image.setHorizontalAlignment(SwingConstants.CENTER);
-
-                    tempPanel.add(image, BorderLayout.CENTER);
-
-                    JLabel tempLabel = new JLabel("<html>Card Name: " + binder.get(name).getName() + "<br>Value: "
-                            + binder.get(name).getValue() + "</html>");
-                    tempPanel.add(tempLabel, BorderLayout.SOUTH);
-                    tempPanel.setPreferredSize(new Dimension(190, 190));
-
-                    displayPanel.setBackground(Color.white);
-                    displayPanel.add(tempPanel);
-
-                }
-            }
-        }
-
-        if (hasCards) {
-            JPanel wrapperPanel = new JPanel(new BorderLayout());
-            wrapperPanel.add(displayPanel, BorderLayout.NORTH);
-            wrapperPanel.setBackground(Color.WHITE);
-            return wrapperPanel;
-        } else {
-            JPanel emptyPanel = new JPanel(new BorderLayout());
-            JLabel emptyMessage = new JLabel("Binder is empty");
-            emptyMessage.setFont(new Font("inter", Font.PLAIN, 20));
-            emptyPanel.add(emptyMessage, BorderLayout.CENTER);
-            return emptyPanel;
-        }
+    public JPanel displayBinderContent(BinderModel binder) {
+        return new CardPager(binder, true, (card, position) -> {
+            JPanel tempPanel = new JPanel(new BorderLayout());
+            tempPanel.setBorder(new EmptyBorder(5, 5, 5, 5));
+
+            JLabel image = ImageLoader.shared().createLabel(card.getImagePath(), 120, 120);
+            image.setHorizontalAlignment(SwingConstants.CENTER);
+            tempPanel.add(image, BorderLayout.CENTER);
+
+            JLabel tempLabel = new JLabel("<html>Card Name: " + card.getName() + "<br>Value: " + card.getValue()
+                    + "</html>");
+            tempPanel.add(tempLabel, BorderLayout.SOUTH);
+            tempPanel.setPreferredSize(new Dimension(190, 190));
+            return tempPanel;
+        }, "Binder is empty");
     }
 }
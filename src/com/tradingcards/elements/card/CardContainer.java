@@ -0,0 +1,32 @@
+package com.tradingcards.elements.card;
+
+import java.util.TreeMap;
+
+/**
+ * A named group of cards, such as a binder or a deck, that reports changes
+ * to its cards.
+ */
+public interface CardContainer {
+
+    /**
+     * Returns the cards in the container. The map must only be read; changes
+     * go through the container so that its listeners are told.
+     *
+     * @return the cards, sorted by name
+     */
+    TreeMap<String, CardModel> getCards();
+
+    /**
+     * Registers a listener to be notified of each change to the cards.
+     *
+     * @param listener the listener to add
+     */
+    void addContainerListener(CardContainerListener listener);
+
+    /**
+     * Removes a listener added with {@link #addContainerListener}.
+     *
+     * @param listener the listener to remove
+     */
+    void removeContainerListener(CardContainerListener listener);
+}
@@ -0,0 +1,39 @@
+package com.tradingcards.elements.card;
+
+/**
+ * Listener notified of each change to the cards held by a
+ * {@link CardContainer}, such as a binder or a deck.
+ * <p>
+ * Every event names the single card that changed, so that a view can update
+ * just the part of the screen showing that card instead of rebuilding the
+ * whole container. The container already holds its new state when the
+ * listener is called.
+ */
+public interface CardContainerListener {
+
+    /**
+     * Called after a card has been put into the container.
+     *
+     * @param name the name the card is stored under
+     * @param card the card
+     */
+    void cardAdded(String name, CardModel card);
+
+    /**
+     * Called after a card has been taken out of the container.
+     *
+     * @param name the name the card was stored under
+     * @param card the card
+     */
+    void cardRemoved(String name, CardModel card);
+
+    /**
+     * Called after the rarity, variant, value or quantity of a card in the
+     * container has changed.
+     *
+     * @param name        the name the card is stored under
+     * @param card        the card
+     * @param oldQuantity the quantity before the change
+     */
+    void cardChanged(String name, CardModel card, int oldQuantity);
+}
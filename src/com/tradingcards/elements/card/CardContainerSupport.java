@@ -0,0 +1,98 @@
+package com.tradingcards.elements.card;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the listeners of a {@link CardContainer} and sends them its events.
+ * <p>
+ * A container registers its support object on each card it holds, so that
+ * changes made directly to a card, such as a new quantity, reach the
+ * container's listeners as well.
+ */
+public class CardContainerSupport implements CardListener {
+
+    /** Shared empty listener array. */
+    private static final CardContainerListener[] NO_LISTENERS = new CardContainerListener[0];
+
+    /**
+     * Listeners to notify. Replaced rather than modified, so a listener may
+     * remove itself while being notified.
+     */
+    private CardContainerListener[] listeners = NO_LISTENERS;
+
+    /**
+     * Registers a listener.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(CardContainerListener listener) {
+        CardContainerListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(CardContainerListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                CardContainerListener[] updated = new CardContainerListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+                listeners = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Tells every listener that a card was put into the container, and starts
+     * following the card's changes.
+     *
+     * @param name the name the card is stored under
+     * @param card the card
+     */
+    public void cardAdded(String name, CardModel card) {
+        card.addListener(this);
+        for (CardContainerListener listener : listeners) {
+            listener.cardAdded(name, card);
+        }
+    }
+
+    /**
+     * Tells every listener that a card was taken out of the container, and
+     * stops following the card's changes.
+     *
+     * @param name the name the card was stored under
+     * @param card the card
+     */
+    public void cardRemoved(String name, CardModel card) {
+        card.removeListener(this);
+        for (CardContainerListener listener : listeners) {
+            listener.cardRemoved(name, card);
+        }
+    }
+
+    /**
+     * Stops following the changes of the given cards, without telling the
+     * listeners. Called when the container itself is discarded.
+     *
+     * @param cards the cards of the container
+     */
+    public void release(Iterable<CardModel> cards) {
+        for (CardModel card : cards) {
+            card.removeListener(this);
+        }
+    }
+
+    @Override
+    public void cardChanged(CardModel card, CardRarity oldRarity, CardVariant oldVariant, double oldValue,
+            int oldQuantity) {
+        for (CardContainerListener listener : listeners) {
+            listener.cardChanged(card.getName(), card, oldQuantity);
+        }
+    }
+}
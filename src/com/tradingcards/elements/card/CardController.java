@@ -1,17 +1,26 @@
 package com.tradingcards.elements.card;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.JPanel;
+import javax.swing.SwingWorker;
 
 import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.collection.collectionUtils.CardImporter;
 import com.tradingcards.elements.menus.menuUtils.DialogUtil;
+import com.tradingcards.elements.service.CollectionService;
+import com.tradingcards.elements.service.ServiceResult;
 
 /**
  * Controller class for managing card-related operations in the user's
  * collection.
  * <p>
- * Provides methods for adding, selling, modifying, and displaying cards.
+ * Provides methods for adding, selling, modifying, and displaying cards. The
+ * changes themselves are made by a {@link CollectionService}; this class
+ * gathers the user's input and shows the outcome.
  */
 public class CardController {
 
@@ -20,6 +29,11 @@ public class CardController {
      */
     private CollectionModel sharedCollection;
 
+    /**
+     * Operations on the shared collection.
+     */
+    private CollectionService service;
+
     /**
      * View class used for interacting with the user (e.g., input/output).
      */
@@ -39,6 +53,7 @@ public class CardController {
      */
     public CardController(CollectionModel sharedCollection, CardView view) {
         this.sharedCollection = sharedCollection;
+        this.service = new CollectionService(sharedCollection);
         this.view = view;
     }
 
@@ -62,25 +77,66 @@ public class CardController {
         }
 
         String name = card.getName();
+        CardModel existing = sharedCollection.getCardCollection().get(name);
 
-        if (sharedCollection.getCardCollection().containsKey(name)) {
-            if (card.hasCopy(sharedCollection, name, card)) {
-                if (view.allowIncreaseCardCount(name)) {
-                    isValid[0] = true;
-                    sharedCollection.getCardCollection().get(name).increaseQuantity(1);
-                }
-            } else {
-                DialogUtil.showError(null, "Card of the same name with different details already exists",
-                        "Duplicate Card");
-                isValid[0] = false;
-            }
-        } else {
-            isValid[0] = true;
-            sharedCollection.setCardCollection(card, name);
+        // Adding a copy of a card already in the collection needs confirming
+        if (existing != null && existing.isCopyOf(card) && !view.allowIncreaseCardCount(name)) {
+            isValid[0] = false;
+            return name;
+        }
+
+        ServiceResult result = service.addCard(card);
+        isValid[0] = result.succeeded();
+        if (!result.succeeded()) {
+            DialogUtil.showError(null, result.message(), "Duplicate Card");
         }
         return name;
     }
 
+    /**
+     * Imports the cards listed in a CSV or JSON-lines file chosen by the user.
+     * <p>
+     * The file is parsed on background threads so the window stays
+     * responsive, then the cards are added to the collection on the Event
+     * Dispatch Thread as one transaction, merging copies of cards that are
+     * already there.
+     */
+    public void importCards() {
+        Path file = view.showImportFileChooser();
+        if (file == null) {
+            return;
+        }
+
+        new SwingWorker<CardImporter.Batch, Void>() {
+            @Override
+            protected CardImporter.Batch doInBackground() throws IOException {
+                return new CardImporter().read(file);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    view.showImportResult(CardImporter.apply(get(), sharedCollection));
+                } catch (ExecutionException e) {
+                    DialogUtil.showError(null, "Could not import cards: " + e.getCause().getMessage(),
+                            "Import Error");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Prompts the user for the name of a card in the collection, suggesting
+     * matching names while the user types.
+     *
+     * @return the card name entered by the user, or {@code null} if cancelled
+     */
+    public String promptCardName() {
+        return view.setCardName(sharedCollection.getNameIndex());
+    }
+
     /**
      * Attempts to sell a card from the shared collection based on its name.
      * <p>
@@ -96,23 +152,18 @@ public class CardController {
      * @return true if the card was sold, false otherwise
      */
     public boolean sellCard(String name) {
-
-        if (sharedCollection.getCardCollection().containsKey(name)
-                && sharedCollection.getCardCollection().get(name).getQuantity() > 0) {
-            sharedCollection
-                    .setMoney(sharedCollection.getMoney() + sharedCollection.getCardCollection().get(name).getValue());
-
-            sharedCollection.getCardCollection().get(name)
-                    .setQuantity(sharedCollection.getCardCollection().get(name).getQuantity() - 1);
-
-            DialogUtil.showInfo(null, "Your updated cash is now " + sharedCollection.getMoney(), "Sold card");
-
-        } else {
+        if (name == null) {
             DialogUtil.showError(null, "Card does not exist", "Undefined Card");
-
             return false;
         }
-        return true;
+
+        ServiceResult result = service.sellCard(name);
+        if (result.succeeded()) {
+            DialogUtil.showInfo(null, result.message(), "Sold card");
+        } else {
+            DialogUtil.showError(null, result.message(), "Undefined Card");
+        }
+        return result.succeeded();
     }
 
     /**
@@ -123,10 +174,10 @@ public class CardController {
      */
     public int modifyCardQuantity() {
         // Get the card collection from the shared collection
-        HashMap<String, CardModel> collection = sharedCollection.getCardCollection();
+        TreeMap<String, CardModel> collection = sharedCollection.getCardCollection();
         boolean cancelled = false;
 
-        String cardKey = view.setCardName();
+        String cardKey = promptCardName();
 
         // Cancel operation if user enters exit code
         if (cardKey == null || cardKey.equals(EXIT_CODE)) {
@@ -147,7 +198,7 @@ public class CardController {
 
                 } while (collection.get(cardKey).getQuantity() == newQuantity || newQuantity < 0);
                 // Update the quantity of the card
-                collection.get(cardKey).setQuantity(newQuantity);
+                service.setCardQuantity(cardKey, newQuantity);
                 return newQuantity;
 
             } else {
@@ -166,13 +217,13 @@ public class CardController {
      */
     public JPanel displayCard() {
         // Get the main card collection
-        HashMap<String, CardModel> collection = sharedCollection.getCardCollection();
+        TreeMap<String, CardModel> collection = sharedCollection.getCardCollection();
         boolean cancelled = false;
 
         // Proceed only if there are cards in the collection
         if (!collection.isEmpty()) {
             // Ask user to select a card name
-            String cardName = view.setCardName();
+            String cardName = promptCardName();
 
             if (cardName.equals(EXIT_CODE))
                 cancelled = true;
@@ -191,7 +242,7 @@ public class CardController {
      * @return a JPanel displaying the collection, or null if empty
      */
     public JPanel displayCollection() {
-        HashMap<String, CardModel> collection = sharedCollection.getCardCollection();
+        TreeMap<String, CardModel> collection = sharedCollection.getCardCollection();
 
         if (!collection.isEmpty()) {
             return (view.displayCollection(collection));
@@ -209,7 +260,7 @@ public class CardController {
      * @return a JPanel displaying the filtered collection, or null if empty
      */
     public JPanel displayCollection(int mode) {
-        HashMap<String, CardModel> collection = sharedCollection.getCardCollection();
+        TreeMap<String, CardModel> collection = sharedCollection.getCardCollection();
 
         if (!collection.isEmpty()) {
             return (view.displayCollection(collection, mode));
@@ -0,0 +1,212 @@
+package com.tradingcards.elements.card;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.GridLayout;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Future;
+
+import javax.swing.AbstractListModel;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingConstants;
+import javax.swing.border.EmptyBorder;
+
+import com.tradingcards.elements.card.cardUtils.ImageCache;
+import com.tradingcards.elements.card.cardUtils.ImageLoader;
+
+/**
+ * Grid of card tiles, three per row, that only builds what is on screen.
+ * <p>
+ * The grid is a {@link JList} over a {@link Model} of the cards, so like any
+ * list it paints just the visible cells, all with one shared renderer, and
+ * its Swing component count stays the same however many cards there are.
+ * Images that are not cached yet are loaded through the {@link ImageLoader}
+ * while a placeholder is shown, and loads for cells that scroll out of view
+ * before they finish are cancelled.
+ */
+public class CardGrid extends JList<CardModel> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Number of tiles per row. */
+    private static final int COLUMNS = 3;
+
+    /** Size of a tile. */
+    private static final int CELL_SIZE = 190;
+
+    /** Space around each tile. */
+    private static final int CELL_GAP = 5;
+
+    /** Size of the image on a tile. */
+    private static final int IMAGE_SIZE = 120;
+
+    /** Image loads in progress, by cell index. */
+    private final Map<Integer, Future<?>> pending = new HashMap<>();
+
+    /**
+     * Creates a grid over the cards of a collection, in name order.
+     *
+     * @param collection the cards to show
+     * @param ownedOnly  whether to leave out cards with a quantity of zero
+     * @param showValue  whether tiles show the card value
+     */
+    public CardGrid(TreeMap<String, CardModel> collection, boolean ownedOnly, boolean showValue) {
+        super(new Model(collection, ownedOnly));
+        setLayoutOrientation(HORIZONTAL_WRAP);
+        setVisibleRowCount(-1);
+        setFixedCellWidth(CELL_SIZE + 2 * CELL_GAP);
+        setFixedCellHeight(CELL_SIZE + 2 * CELL_GAP);
+        setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        setFocusable(false);
+        setBackground(Color.WHITE);
+        setCellRenderer(new Renderer(showValue));
+
+        // Stretch the tiles so each row holds exactly COLUMNS of them, like
+        // the GridLayout this grid replaces
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                int cellWidth = Math.max(CELL_SIZE + 2 * CELL_GAP, getWidth() / COLUMNS);
+                if (cellWidth != getFixedCellWidth()) {
+                    setFixedCellWidth(cellWidth);
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+
+        // Cancel loads for cells that are no longer visible
+        int first = getFirstVisibleIndex();
+        int last = getLastVisibleIndex();
+        Iterator<Map.Entry<Integer, Future<?>>> loads = pending.entrySet().iterator();
+        while (loads.hasNext()) {
+            Map.Entry<Integer, Future<?>> load = loads.next();
+            if (load.getKey() < first || load.getKey() > last) {
+                load.getValue().cancel(false);
+                loads.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the image of a cell, queuing a load and returning a placeholder
+     * if it is not cached yet.
+     */
+    private ImageIcon imageFor(int index, CardModel card) {
+        ImageIcon icon = ImageCache.shared().getCachedIcon(card.getImagePath(), IMAGE_SIZE, IMAGE_SIZE);
+        if (icon != null) {
+            return icon;
+        }
+
+        if (!pending.containsKey(index)) {
+            pending.put(index, ImageLoader.shared().load(card.getImagePath(), IMAGE_SIZE, IMAGE_SIZE, loaded -> {
+                pending.remove(index);
+                if (index < getModel().getSize()) {
+                    repaint(getCellBounds(index, index));
+                }
+            }));
+        }
+        return ImageLoader.shared().getPlaceholder(IMAGE_SIZE, IMAGE_SIZE);
+    }
+
+    /**
+     * Cards of a collection in name order, optionally leaving out those with
+     * a quantity of zero. The cards are picked when the model is created; a
+     * new model is built whenever the screen is refreshed.
+     */
+    public static class Model extends AbstractListModel<CardModel> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CardModel[] cards;
+
+        /**
+         * Creates a model over the cards of a collection.
+         *
+         * @param collection the cards to show
+         * @param ownedOnly  whether to leave out cards with a quantity of zero
+         */
+        public Model(TreeMap<String, CardModel> collection, boolean ownedOnly) {
+            List<CardModel> shown = new ArrayList<>(collection.size());
+            for (CardModel card : collection.values()) {
+                if (!ownedOnly || card.getQuantity() > 0) {
+                    shown.add(card);
+                }
+            }
+            this.cards = shown.toArray(new CardModel[0]);
+        }
+
+        @Override
+        public int getSize() {
+            return cards.length;
+        }
+
+        @Override
+        public CardModel getElementAt(int index) {
+            return cards[index];
+        }
+    }
+
+    /**
+     * Paints one tile: the card image with its name, optionally its value,
+     * and its quantity underneath. One renderer is reused for every cell.
+     */
+    private class Renderer extends JPanel implements ListCellRenderer<CardModel> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean showValue;
+        private final JLabel image = new JLabel();
+        private final JLabel name = new JLabel();
+        private final JLabel value = new JLabel();
+        private final JLabel quantity = new JLabel();
+
+        private Renderer(boolean showValue) {
+            super(new BorderLayout());
+            this.showValue = showValue;
+            setBorder(new EmptyBorder(CELL_GAP, CELL_GAP, CELL_GAP, CELL_GAP));
+            setBackground(Color.WHITE);
+
+            image.setHorizontalAlignment(SwingConstants.CENTER);
+            add(image, BorderLayout.CENTER);
+
+            JPanel text = new JPanel(new GridLayout(0, 1));
+            text.setOpaque(false);
+            text.add(name);
+            if (showValue) {
+                text.add(value);
+            }
+            text.add(quantity);
+            add(text, BorderLayout.SOUTH);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends CardModel> list, CardModel card, int index,
+                boolean isSelected, boolean cellHasFocus) {
+            image.setIcon(imageFor(index, card));
+            name.setText("Card Name: " + card.getName());
+            if (showValue) {
+                value.setText("Value: " + card.getValue());
+            }
+            quantity.setText("Quantity: " + card.getQuantity());
+            return this;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.tradingcards.elements.card;
+
+/**
+ * Listener notified whenever the rarity, variant, value or quantity of a
+ * {@link CardModel} changes.
+ * <p>
+ * The card already holds its new state when the listener is called, and the
+ * previous state is passed alongside it, so a listener can undo the old
+ * contribution of the card and apply the new one without keeping its own
+ * copy.
+ */
+public interface CardListener {
+
+    /**
+     * Called after a card has changed.
+     *
+     * @param card        the card that changed
+     * @param oldRarity   the rarity before the change
+     * @param oldVariant  the variant before the change
+     * @param oldValue    the value before the change
+     * @param oldQuantity the quantity before the change
+     */
+    void cardChanged(CardModel card, CardRarity oldRarity, CardVariant oldVariant, double oldValue,
+            int oldQuantity);
+}
@@ -1,7 +1,7 @@
 package com.tradingcards.elements.card;
 
-import java.util.HashMap;
-import java.util.Objects;
+import java.util.Arrays;
+import java.util.TreeMap;
 
 import com.tradingcards.elements.collection.CollectionModel;
 
@@ -21,12 +21,12 @@ public class CardModel {
     /**
      * The rarity of the card (e.g., Common, Rare, Legendary).
      */
-    private String cardRarity;
+    private CardRarity cardRarity;
 
     /**
      * The variant of the card (e.g., Normal, Full-art, Alt-art).
      */
-    private String cardVariant;
+    private CardVariant cardVariant;
 
     /**
      * The base value of the card.
@@ -43,6 +43,15 @@ public class CardModel {
      */
     private String cardImagePath;
 
+    /** Shared empty listener array. */
+    private static final CardListener[] NO_LISTENERS = new CardListener[0];
+
+    /**
+     * Listeners notified when the rarity, variant, value or quantity changes.
+     * Replaced rather than modified, since it is read on every change.
+     */
+    private CardListener[] listeners = NO_LISTENERS;
+
     /**
      * Sets the name of the card.
      *
@@ -80,38 +89,86 @@ public class CardModel {
     }
 
     /**
-     * Sets the rarity of the card.
+     * Sets the rarity of the card from its display label.
      *
      * @param rarity the rarity level to set (e.g., Common, Rare, Legendary)
+     * @throws IllegalArgumentException if the label is not a known rarity
      */
     public void setRarity(String rarity) {
+        setRarityCode(CardRarity.fromLabel(rarity));
+    }
+
+    /**
+     * Returns the display label of the card's rarity.
+     *
+     * @return the card's rarity, or {@code null} if none is set
+     */
+    public String getRarity() {
+        CardRarity rarity = getRarityCode();
+        return rarity == null ? null : rarity.getLabel();
+    }
+
+    /**
+     * Sets the rarity of the card.
+     *
+     * @param rarity the rarity to set
+     */
+    public void setRarityCode(CardRarity rarity) {
+        CardRarity oldRarity = cardRarity;
         this.cardRarity = rarity;
+        if (oldRarity != rarity) {
+            notifyListeners(oldRarity, cardVariant, cardValue, cardQuantity);
+        }
     }
 
     /**
      * Returns the rarity of the card.
      *
-     * @return the card's rarity
+     * @return the card's rarity, or {@code null} if none is set
      */
-    public String getRarity() {
+    public CardRarity getRarityCode() {
         return cardRarity;
     }
 
     /**
-     * Sets the variant of the card.
+     * Sets the variant of the card from its display label.
      *
      * @param variant the variant type to set (e.g., Normal, Full-art)
+     * @throws IllegalArgumentException if the label is not a known variant
      */
     public void setVariant(String variant) {
+        setVariantCode(CardVariant.fromLabel(variant));
+    }
+
+    /**
+     * Returns the display label of the card's variant.
+     *
+     * @return the card's variant, or {@code null} for cards without one
+     */
+    public String getVariant() {
+        CardVariant variant = getVariantCode();
+        return variant == null ? null : variant.getLabel();
+    }
+
+    /**
+     * Sets the variant of the card.
+     *
+     * @param variant the variant to set, or {@code null} for none
+     */
+    public void setVariantCode(CardVariant variant) {
+        CardVariant oldVariant = cardVariant;
         this.cardVariant = variant;
+        if (oldVariant != variant) {
+            notifyListeners(cardRarity, oldVariant, cardValue, cardQuantity);
+        }
     }
 
     /**
      * Returns the variant of the card.
      *
-     * @return the card's variant
+     * @return the card's variant, or {@code null} for cards without one
      */
-    public String getVariant() {
+    public CardVariant getVariantCode() {
         return cardVariant;
     }
 
@@ -121,7 +178,11 @@ public class CardModel {
      * @param value the monetary or numerical value to set
      */
     public void setValue(double value) {
+        double oldValue = cardValue;
         this.cardValue = value;
+        if (oldValue != value) {
+            notifyListeners(cardRarity, cardVariant, oldValue, cardQuantity);
+        }
     }
 
     /**
@@ -139,7 +200,11 @@ public class CardModel {
      * @param quantity the quantity to set (must be a non-negative integer)
      */
     public void setQuantity(int quantity) {
+        int oldQuantity = cardQuantity;
         this.cardQuantity = quantity;
+        if (oldQuantity != quantity) {
+            notifyListeners(cardRarity, cardVariant, cardValue, oldQuantity);
+        }
     }
 
     /**
@@ -148,7 +213,7 @@ public class CardModel {
      * @param quantity the number of copies to add to the current quantity
      */
     public void increaseQuantity(int quantity) {
-        this.cardQuantity += quantity;
+        setQuantity(cardQuantity + quantity);
     }
 
     /**
@@ -176,16 +241,57 @@ public class CardModel {
      * @return the calculated value after applying the variant multiplier
      */
     protected double calculateValue(double value, String variant) {
-        double calculatedValue = value;
+        return calculateValue(value, CardVariant.fromLabel(variant));
+    }
+
+    /**
+     * Calculates the final value of a card from its base value and variant,
+     * using the variant's entry in the multiplier table.
+     *
+     * @param value   the base value of the card
+     * @param variant the variant of the card, or {@code null} for none
+     * @return the calculated value after applying the variant multiplier
+     */
+    public static double calculateValue(double value, CardVariant variant) {
+        return variant == null ? value : value * variant.getMultiplier();
+    }
 
-        switch (variant) {
-            case "Normal" -> calculatedValue *= 1;
-            case "Extended-art" -> calculatedValue *= 1.5;
-            case "Full-art" -> calculatedValue *= 2;
-            case "Alt-art" -> calculatedValue *= 3;
+    /**
+     * Registers a listener to be notified whenever the card's rarity, variant,
+     * value or quantity changes.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(CardListener listener) {
+        CardListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(CardListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                CardListener[] updated = new CardListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+                listeners = updated;
+                return;
+            }
         }
+    }
 
-        return calculatedValue;
+    /**
+     * Tells every listener that the card changed from the given state.
+     */
+    private void notifyListeners(CardRarity oldRarity, CardVariant oldVariant, double oldValue, int oldQuantity) {
+        for (CardListener listener : listeners) {
+            listener.cardChanged(this, oldRarity, oldVariant, oldValue, oldQuantity);
+        }
     }
 
     /**
@@ -199,20 +305,40 @@ public class CardModel {
      *         {@code false} otherwise
      */
     protected Boolean hasCopy(CollectionModel sharedCollection, String name, CardModel newCard) {
-        HashMap<String, CardModel> cards = sharedCollection.getCardCollection();
+        TreeMap<String, CardModel> cards = sharedCollection.getCardCollection();
 
         if (cards.containsKey(name)) {
-            CardModel existingCard = cards.get(name);
-            if (!Objects.equals(existingCard.cardRarity, newCard.cardRarity)) {
-                return false;
-            }
-            if (!Objects.equals(existingCard.cardVariant, newCard.cardVariant)) {
-                return false;
-            }
-            if (existingCard.cardValue != newCard.cardValue) {
-                return false;
-            }
+            return cards.get(name).isCopyOf(newCard);
         }
         return true;
     }
+
+    /**
+     * Creates a copy of this card with a quantity of 1, such as the copy a
+     * binder keeps of a card moved into it.
+     *
+     * @return a new card with the same name, rarity, variant, value and image
+     */
+    public CardModel copy() {
+        CardModel copy = new CardModel();
+        copy.setName(cardName);
+        copy.setRarityCode(cardRarity);
+        copy.setVariantCode(cardVariant);
+        copy.setQuantity(1);
+        copy.setValue(cardValue);
+        copy.setImagePath(cardImagePath);
+        return copy;
+    }
+
+    /**
+     * Determines whether another card has the same rarity, variant, and value
+     * as this one, so that it can be merged into this card by increasing its
+     * quantity.
+     *
+     * @param other the card to compare with
+     * @return {@code true} if both cards have the same properties
+     */
+    public boolean isCopyOf(CardModel other) {
+        return cardRarity == other.cardRarity && cardVariant == other.cardVariant && cardValue == other.cardValue;
+    }
 }
@@ -0,0 +1,484 @@
+package com.tradingcards.elements.card;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.GridLayout;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Future;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import com.tradingcards.elements.card.cardUtils.ImageLoader;
+
+/**
+ * Shows the cards of a binder or deck one page at a time.
+ * <p>
+ * Pages are fetched straight from the sorted card map: a {@link Cursor} marks
+ * where a page starts, and fetching a page only walks the cards on it, so
+ * opening a large binder costs the same as opening a small one. Only the
+ * tiles of the current page are built. While a page is shown, the pages
+ * before and after it are fetched too and their images are loaded in the
+ * background, so that turning the page shows them without waiting.
+ * <p>
+ * While on screen, the pager listens to its {@link CardContainer} and
+ * patches itself after each change: the page is fetched again, tiles still
+ * on it are kept, and only the tiles of the changed card are built again,
+ * along with, in a deck, those whose card number moved. Changes made by one
+ * action are applied together.
+ * <p>
+ * In a binder each copy of a card takes its own tile; in a deck each card
+ * takes one. Must be used on the Event Dispatch Thread.
+ */
+public class CardPager extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Number of tiles on a page unless another size is given. */
+    public static final int DEFAULT_PAGE_SIZE = 24;
+
+    /** Size of the tile images, used when prefetching them. */
+    private static final int IMAGE_SIZE = 120;
+
+    /** The container whose cards are shown. */
+    private final CardContainer container;
+
+    /** Whether each copy of a card takes its own tile. */
+    private final boolean perCopy;
+
+    /** Builds the tile of one card. */
+    private final TileFactory tiles;
+
+    /** Maximum number of tiles on a page. */
+    private final int pageSize;
+
+    /** Applies the container's changes to the page. */
+    private final CardContainerListener changes = new Changes();
+
+    /** Total number of tiles over all pages. */
+    private int tileCount;
+
+    /** Starts of the pages before the current one, the latest on top. */
+    private final Deque<Cursor> history = new ArrayDeque<>();
+
+    /** Image loads queued for the neighbouring pages. */
+    private final List<Future<?>> prefetches = new ArrayList<>();
+
+    /** Tiles on the grid, by what they stand for. */
+    private Map<TileKey, JPanel> shownTiles = new HashMap<>();
+
+    /** Cards changed since the page was last shown, whose tiles are outdated. */
+    private final Set<CardModel> changedCards = new HashSet<>();
+
+    /** Whether a patch is queued on the Event Dispatch Thread. */
+    private boolean patchQueued;
+
+    /** Whether the pager was taken off the screen and may have missed changes. */
+    private boolean detached;
+
+    /** The page being shown. */
+    private Page current;
+
+    /** The page after the current one, or {@code null} if it is the last. */
+    private Page next;
+
+    /** The page before the current one, or {@code null} if it is the first. */
+    private Page previous;
+
+    private final JPanel grid = new JPanel(new GridLayout(0, 3, 5, 5));
+    private final JPanel navigation = new JPanel(new FlowLayout(FlowLayout.CENTER));
+    private final JButton previousButton = new JButton("< Previous");
+    private final JButton nextButton = new JButton("Next >");
+    private final JLabel pageLabel = new JLabel();
+    private final JLabel emptyLabel = new JLabel();
+
+    /**
+     * Builds the tile shown for one card on a page.
+     */
+    @FunctionalInterface
+    public interface TileFactory {
+
+        /**
+         * Creates the tile of a card. When each copy of a card takes a tile,
+         * tiles are kept as they move along the page, so they should not show
+         * their position.
+         *
+         * @param card     the card
+         * @param position the 1-based position of the tile over all pages
+         * @return the tile
+         */
+        JPanel createTile(CardModel card, int position);
+    }
+
+    /**
+     * Position of a tile in the card map: the name of its card, which copy
+     * of that card it is, and its 0-based position over all pages. The card
+     * does not have to exist any more; a cursor on a removed card starts at
+     * the next name.
+     *
+     * @param name     the name of the card, or {@code null} for the first card
+     * @param copy     the 0-based copy of the card
+     * @param position the 0-based position of the tile
+     */
+    public record Cursor(String name, int copy, int position) {
+
+        /** Cursor on the first tile. */
+        public static final Cursor FIRST = new Cursor(null, 0, 0);
+    }
+
+    /**
+     * One page of tiles.
+     *
+     * @param start the cursor on the first tile
+     * @param cards the card of each tile, in order
+     * @param end   the cursor on the tile after the last one, or {@code null}
+     *              if there are no more tiles
+     */
+    public record Page(Cursor start, List<CardModel> cards, Cursor end) {
+    }
+
+    /**
+     * What a tile stands for: its card, and which copy of the card it is when
+     * each copy takes a tile, or its position otherwise. A tile is kept while
+     * its key stays on the page.
+     */
+    private record TileKey(CardModel card, int index) {
+    }
+
+    /**
+     * Creates a pager showing the first page of a container's cards.
+     *
+     * @param container    the container whose cards are shown
+     * @param perCopy      whether each copy of a card takes its own tile;
+     *                     otherwise each card takes one
+     * @param tiles        builds the tile of a card
+     * @param emptyMessage the message shown while there are no tiles, or
+     *                     {@code null} for none
+     * @param pageSize     the maximum number of tiles on a page
+     */
+    public CardPager(CardContainer container, boolean perCopy, TileFactory tiles, String emptyMessage,
+            int pageSize) {
+        super(new BorderLayout());
+        this.container = container;
+        this.perCopy = perCopy;
+        this.tiles = tiles;
+        this.pageSize = pageSize;
+
+        previousButton.addActionListener(e -> showPrevious());
+        nextButton.addActionListener(e -> showNext());
+        navigation.add(previousButton);
+        navigation.add(pageLabel);
+        navigation.add(nextButton);
+        add(navigation, BorderLayout.NORTH);
+
+        grid.setBackground(Color.WHITE);
+        JPanel wrapperPanel = new JPanel(new BorderLayout());
+        wrapperPanel.add(grid, BorderLayout.NORTH);
+        wrapperPanel.setBackground(Color.WHITE);
+        add(wrapperPanel, BorderLayout.CENTER);
+
+        emptyLabel.setText(emptyMessage);
+        emptyLabel.setFont(new Font("inter", Font.PLAIN, 20));
+        emptyLabel.setVisible(false);
+        wrapperPanel.add(emptyLabel, BorderLayout.CENTER);
+
+        countTiles();
+        show(fetch(container.getCards(), perCopy, Cursor.FIRST, pageSize), null);
+    }
+
+    /**
+     * Creates a pager with the default page size.
+     *
+     * @param container    the container whose cards are shown
+     * @param perCopy      whether each copy of a card takes its own tile;
+     *                     otherwise each card takes one
+     * @param tiles        builds the tile of a card
+     * @param emptyMessage the message shown while there are no tiles, or
+     *                     {@code null} for none
+     */
+    public CardPager(CardContainer container, boolean perCopy, TileFactory tiles, String emptyMessage) {
+        this(container, perCopy, tiles, emptyMessage, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Fetches the page of tiles starting at a cursor, walking only the cards
+     * on that page.
+     *
+     * @param cards    the cards, sorted by name
+     * @param perCopy  whether each copy of a card takes its own tile
+     * @param start    the cursor on the first tile
+     * @param pageSize the maximum number of tiles on the page
+     * @return the page, which is empty if the cursor is past the last tile
+     */
+    public static Page fetch(TreeMap<String, CardModel> cards, boolean perCopy, Cursor start, int pageSize) {
+        Map<String, CardModel> from = start.name() == null ? cards : cards.tailMap(start.name(), true);
+        List<CardModel> page = new ArrayList<>(pageSize);
+        int position = start.position();
+
+        for (Map.Entry<String, CardModel> entry : from.entrySet()) {
+            int copy = entry.getKey().equals(start.name()) ? start.copy() : 0;
+            int count = tilesOf(entry.getValue().getQuantity(), perCopy);
+            while (copy < count) {
+                if (page.size() == pageSize) {
+                    return new Page(start, page, new Cursor(entry.getKey(), copy, position));
+                }
+                page.add(entry.getValue());
+                copy++;
+                position++;
+            }
+        }
+        return new Page(start, page, null);
+    }
+
+    /**
+     * Returns the page being shown.
+     *
+     * @return the current page
+     */
+    public Page getPage() {
+        return current;
+    }
+
+    /**
+     * Returns the number of pages.
+     *
+     * @return the page count, at least 1
+     */
+    public int getPageCount() {
+        return Math.max(1, (tileCount + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * Shows the page after the current one, if there is one.
+     */
+    public void showNext() {
+        if (next != null && !next.cards().isEmpty()) {
+            history.push(current.start());
+            show(next, current);
+        }
+    }
+
+    /**
+     * Shows the page before the current one, if there is one.
+     */
+    public void showPrevious() {
+        if (previous != null) {
+            history.pop();
+            show(previous, null);
+        }
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        container.addContainerListener(changes);
+        if (detached) {
+            // Changes made while off screen were not followed
+            detached = false;
+            countTiles();
+            queuePatch();
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        container.removeContainerListener(changes);
+        detached = true;
+        cancelPrefetches();
+        super.removeNotify();
+    }
+
+    /**
+     * Shows a page, keeping the tiles already on the grid that are still on
+     * it, and fetches its neighbours.
+     *
+     * @param page   the page to show
+     * @param before the page before it if already known, or {@code null}
+     */
+    private void show(Page page, Page before) {
+        current = page;
+
+        Map<TileKey, JPanel> pageTiles = new HashMap<>();
+        List<JPanel> ordered = new ArrayList<>(page.cards().size());
+        boolean reused = true;
+        int position = page.start().position();
+        int copy = page.start().copy() - 1;
+        CardModel last = null;
+        for (CardModel card : page.cards()) {
+            position++;
+            copy = card == last || last == null && card.getName().equals(page.start().name()) ? copy + 1 : 0;
+            last = card;
+
+            TileKey key = perCopy ? new TileKey(card, copy) : new TileKey(card, position);
+            JPanel tile = changedCards.contains(card) ? null : shownTiles.get(key);
+            if (tile == null) {
+                tile = tiles.createTile(card, position);
+                reused = false;
+            }
+            pageTiles.put(key, tile);
+            ordered.add(tile);
+        }
+        changedCards.clear();
+
+        // Keys only ever grow along the page, so the same keys mean the same order
+        if (!reused || !pageTiles.keySet().equals(shownTiles.keySet())) {
+            grid.removeAll();
+            for (JPanel tile : ordered) {
+                grid.add(tile);
+            }
+        }
+        shownTiles = pageTiles;
+
+        next = page.end() == null ? null : fetch(container.getCards(), perCopy, page.end(), pageSize);
+        previous = before != null ? before
+                : history.isEmpty() ? null : fetch(container.getCards(), perCopy, history.peek(), pageSize);
+        prefetchImages();
+
+        int pageNumber = page.start().position() / pageSize + 1;
+        pageLabel.setText("Page " + pageNumber + " of " + getPageCount());
+        previousButton.setEnabled(previous != null);
+        nextButton.setEnabled(next != null && !next.cards().isEmpty());
+
+        boolean empty = tileCount == 0 && emptyLabel.getText() != null;
+        navigation.setVisible(!empty);
+        grid.setVisible(!empty);
+        emptyLabel.setVisible(empty);
+
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Queues a patch of the page after the current event, so that several
+     * changes made by one action are applied together.
+     */
+    private void queuePatch() {
+        if (!patchQueued) {
+            patchQueued = true;
+            SwingUtilities.invokeLater(this::patch);
+        }
+    }
+
+    /**
+     * Fetches the current page again and shows it, going back a page if it
+     * has become empty.
+     */
+    private void patch() {
+        patchQueued = false;
+        Page page = fetch(container.getCards(), perCopy, current.start(), pageSize);
+        while (page.cards().isEmpty() && !history.isEmpty()) {
+            page = fetch(container.getCards(), perCopy, history.pop(), pageSize);
+        }
+        show(page, null);
+    }
+
+    /**
+     * Adds the number of tiles a card gained to the total, and to the
+     * positions of the current and earlier pages that start after the card.
+     */
+    private void shiftPositions(String name, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        tileCount += delta;
+
+        current = new Page(shift(current.start(), name, delta), current.cards(), current.end());
+        List<Cursor> starts = new ArrayList<>(history);
+        history.clear();
+        for (Cursor start : starts) {
+            history.add(shift(start, name, delta));
+        }
+    }
+
+    private static Cursor shift(Cursor cursor, String name, int delta) {
+        if (cursor.name() == null || name.compareTo(cursor.name()) >= 0) {
+            return cursor;
+        }
+        return new Cursor(cursor.name(), cursor.copy(), Math.max(0, cursor.position() + delta));
+    }
+
+    /**
+     * Counts the tiles over all pages.
+     */
+    private void countTiles() {
+        int count = 0;
+        for (CardModel card : container.getCards().values()) {
+            count += tilesOf(card.getQuantity(), perCopy);
+        }
+        tileCount = count;
+    }
+
+    /**
+     * Returns the number of tiles of a card with the given quantity.
+     */
+    private static int tilesOf(int quantity, boolean perCopy) {
+        return perCopy ? Math.max(0, quantity) : 1;
+    }
+
+    /**
+     * Queues the images of the neighbouring pages, cancelling those queued
+     * for the pages that were neighbours before.
+     */
+    private void prefetchImages() {
+        cancelPrefetches();
+
+        // Copies of a card share one image, so queue each path only once
+        Set<String> queued = new HashSet<>();
+        for (Page page : new Page[] { next, previous }) {
+            if (page == null) {
+                continue;
+            }
+            for (CardModel card : page.cards()) {
+                if (queued.add(String.valueOf(card.getImagePath()))) {
+                    prefetches.add(ImageLoader.shared().load(card.getImagePath(), IMAGE_SIZE, IMAGE_SIZE, icon -> {
+                    }));
+                }
+            }
+        }
+    }
+
+    private void cancelPrefetches() {
+        for (Future<?> prefetch : prefetches) {
+            prefetch.cancel(false);
+        }
+        prefetches.clear();
+    }
+
+    /**
+     * Records each change of the container and queues a patch.
+     */
+    private class Changes implements CardContainerListener {
+
+        @Override
+        public void cardAdded(String name, CardModel card) {
+            shiftPositions(name, tilesOf(card.getQuantity(), perCopy));
+            queuePatch();
+        }
+
+        @Override
+        public void cardRemoved(String name, CardModel card) {
+            shiftPositions(name, -tilesOf(card.getQuantity(), perCopy));
+            changedCards.add(card);
+            queuePatch();
+        }
+
+        @Override
+        public void cardChanged(String name, CardModel card, int oldQuantity) {
+            shiftPositions(name, tilesOf(card.getQuantity(), perCopy) - tilesOf(oldQuantity, perCopy));
+            changedCards.add(card);
+            queuePatch();
+        }
+    }
+}
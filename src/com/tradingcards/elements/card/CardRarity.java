@@ -0,0 +1,86 @@
+package com.tradingcards.elements.card;
+
+import java.util.HashMap;
+
+/**
+ * The rarity of a trading card.
+ * <p>
+ * Rarities are stored on a {@link CardModel} as enum constants rather than
+ * Strings, so comparing or grouping cards by rarity is a reference or ordinal
+ * check. The display label of each rarity is still available through
+ * {@link #getLabel()} for the views.
+ */
+public enum CardRarity {
+
+    /** Common cards. */
+    COMMON("Common"),
+
+    /** Uncommon cards. */
+    UNCOMMON("Uncommon"),
+
+    /** Rare cards, which may have a variant. */
+    RARE("Rare"),
+
+    /** Legendary cards, which may have a variant. */
+    LEGENDARY("Legendary");
+
+    /** Lookup table from display label to rarity. */
+    private static final HashMap<String, CardRarity> BY_LABEL = new HashMap<>();
+
+    static {
+        for (CardRarity rarity : values()) {
+            BY_LABEL.put(rarity.label, rarity);
+        }
+    }
+
+    /** The label shown to the user, e.g. {@code "Legendary"}. */
+    private final String label;
+
+    /**
+     * Creates a rarity with the given display label.
+     *
+     * @param label the label shown to the user
+     */
+    CardRarity(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the label shown to the user.
+     *
+     * @return the display label of this rarity
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns whether cards of this rarity can have a variant, i.e. whether
+     * the rarity is Rare or Legendary.
+     *
+     * @return {@code true} for Rare and Legendary
+     */
+    public boolean hasVariant() {
+        return this == RARE || this == LEGENDARY;
+    }
+
+    /**
+     * Returns the rarity with the given display label.
+     *
+     * @param label the display label, e.g. {@code "Rare"}; may be {@code null}
+     * @return the matching rarity, or {@code null} if {@code label} is
+     *         {@code null}
+     * @throws IllegalArgumentException if the label is not a known rarity
+     */
+    public static CardRarity fromLabel(String label) {
+        if (label == null) {
+            return null;
+        }
+
+        CardRarity rarity = BY_LABEL.get(label);
+        if (rarity == null) {
+            throw new IllegalArgumentException("Unknown rarity: " + label);
+        }
+        return rarity;
+    }
+}
@@ -0,0 +1,88 @@
+package com.tradingcards.elements.card;
+
+import java.util.HashMap;
+
+/**
+ * The variant of a Rare or Legendary trading card.
+ * <p>
+ * Each variant multiplies the base value of a card. The multipliers are kept
+ * in a table indexed by the variant's ordinal, so valuing a card is a single
+ * array lookup instead of a String {@code switch}.
+ */
+public enum CardVariant {
+
+    /** Normal art, valued at the base value. */
+    NORMAL("Normal"),
+
+    /** Extended art, valued at 1.5 times the base value. */
+    EXTENDED_ART("Extended-art"),
+
+    /** Full art, valued at 2 times the base value. */
+    FULL_ART("Full-art"),
+
+    /** Alternate art, valued at 3 times the base value. */
+    ALT_ART("Alt-art");
+
+    /** Value multiplier of each variant, indexed by ordinal. */
+    private static final double[] MULTIPLIERS = { 1.0, 1.5, 2.0, 3.0 };
+
+    /** Lookup table from display label to variant. */
+    private static final HashMap<String, CardVariant> BY_LABEL = new HashMap<>();
+
+    static {
+        for (CardVariant variant : values()) {
+            BY_LABEL.put(variant.label, variant);
+        }
+    }
+
+    /** The label shown to the user, e.g. {@code "Full-art"}. */
+    private final String label;
+
+    /**
+     * Creates a variant with the given display label.
+     *
+     * @param label the label shown to the user
+     */
+    CardVariant(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the label shown to the user.
+     *
+     * @return the display label of this variant
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns the factor this variant multiplies a card's base value by.
+     *
+     * @return the value multiplier
+     */
+    public double getMultiplier() {
+        return MULTIPLIERS[ordinal()];
+    }
+
+    /**
+     * Returns the variant with the given display label.
+     *
+     * @param label the display label, e.g. {@code "Alt-art"}; may be
+     *              {@code null}
+     * @return the matching variant, or {@code null} if {@code label} is
+     *         {@code null}
+     * @throws IllegalArgumentException if the label is not a known variant
+     */
+    public static CardVariant fromLabel(String label) {
+        if (label == null) {
+            return null;
+        }
+
+        CardVariant variant = BY_LABEL.get(label);
+        if (variant == null) {
+            throw new IllegalArgumentException("Unknown variant: " + label);
+        }
+        return variant;
+    }
+}
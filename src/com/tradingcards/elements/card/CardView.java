@@ -6,16 +6,13 @@ import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
-import java.awt.GridLayout;
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.util.TreeMap;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
@@ -24,10 +21,12 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
-import javax.swing.border.EmptyBorder;
 
-import com.tradingcards.elements.card.cardUtils.ImageUtils;
+import com.tradingcards.elements.card.cardUtils.ImageLoader;
+import com.tradingcards.elements.collection.collectionUtils.CardImporter;
+import com.tradingcards.elements.collection.collectionUtils.CardNameIndex;
 import com.tradingcards.elements.menus.menuUtils.DialogUtil;
+import com.tradingcards.elements.menus.menuUtils.SearchInputDialog;
 
 /**
  * Provides methods for user interaction related to trading cards, such as
@@ -219,6 +218,18 @@ public class CardView {
         return JOptionPane.showInputDialog(null, "Give Card Name (Enter -999 to cancel):");
     }
 
+    /**
+     * Prompts the user to input the name of the card, suggesting matching names
+     * from the given index while the user types.
+     *
+     * @param names the names to suggest from
+     * @return the card name entered by the user, or {@code null} if cancelled
+     */
+    public String setCardName(CardNameIndex names) {
+        return SearchInputDialog.showInputDialog(null, "Give Card Name (Enter -999 to cancel):",
+                query -> names.search(query, SearchInputDialog.SUGGESTION_LIMIT));
+    }
+
     /**
      * Prompts the user to input the quantity of the card.
      *
@@ -250,10 +261,10 @@ public class CardView {
     /**
      * Displays detailed information about a specific card from the collection.
      *
-     * @param collection the HashMap of card name to CardModel
+     * @param collection the TreeMap of card name to CardModel
      * @param cardName   the name of the card to display
      */
-    public JPanel displayCard(HashMap<String, CardModel> collection, String cardName) {
+    public JPanel displayCard(TreeMap<String, CardModel> collection, String cardName) {
         JPanel displayPanel = new JPanel(new BorderLayout());
         JPanel imagePanel = new JPanel(new BorderLayout());
 
@@ -261,15 +272,8 @@ public class CardView {
 
         if (collection.containsKey(cardName)) {
             String imagePath = collection.get(cardName).getImagePath();
-            ImageIcon cardPhoto;
-
-            if (imagePath != null) {
-                cardPhoto = new ImageIcon(imagePath);
-            } else {
-                cardPhoto = new ImageIcon(getClass().getResource("/images/default.png"));
-            }
 
-            JLabel image = new JLabel(ImageUtils.scaleIcon(cardPhoto));
+            JLabel image = ImageLoader.shared().createLabel(imagePath);
 
             if (collection.get(cardName).getQuantity() > 0) {
 
@@ -316,7 +320,7 @@ public class CardView {
                 imagePanel.add(cardNameDisplay, BorderLayout.NORTH);
 
                 // Image centered
-                image = new JLabel(ImageUtils.scaleIcon(cardPhoto));
+                image = ImageLoader.shared().createLabel(imagePath);
                 image.setHorizontalAlignment(SwingConstants.CENTER);
                 imagePanel.add(image, BorderLayout.CENTER);
 
@@ -399,7 +403,7 @@ public class CardView {
         return null;
     }
 
-    public JPanel displayCardForBinderAndDeck(HashMap<String, CardModel> collection, String cardName) {
+    public JPanel displayCardForBinderAndDeck(TreeMap<String, CardModel> collection, String cardName) {
 
         JPanel displayPanel = new JPanel(new BorderLayout());
         JPanel imagePanel = new JPanel(new BorderLayout());
@@ -408,15 +412,8 @@ public class CardView {
 
         if (collection.containsKey(cardName)) {
             String imagePath = collection.get(cardName).getImagePath();
-            ImageIcon cardPhoto;
 
-            if (imagePath != null) {
-                cardPhoto = new ImageIcon(imagePath);
-            } else {
-                cardPhoto = new ImageIcon(getClass().getResource("/images/default.png"));
-            }
-
-            JLabel image = new JLabel(ImageUtils.scaleIcon(cardPhoto));
+            JLabel image = ImageLoader.shared().createLabel(imagePath);
 
             // Main container
             displayPanel = new JPanel(new BorderLayout());
@@ -461,7 +458,7 @@ public class CardView {
             imagePanel.add(cardNameDisplay, BorderLayout.NORTH);
 
             // Image centered
-            image = new JLabel(ImageUtils.scaleIcon(cardPhoto));
+            image = ImageLoader.shared().createLabel(imagePath);
             image.setHorizontalAlignment(SwingConstants.CENTER);
             imagePanel.add(image, BorderLayout.CENTER);
 
@@ -532,46 +529,8 @@ public class CardView {
      * @param collection the card collection to display
      * @param mode       display mode; mode 0 displays all including zeroes
      */
-    public JPanel displayCollection(HashMap<String, CardModel> collection, int mode) {
-        ArrayList<String> cardByKey = new ArrayList<>(collection.keySet());
-        Collections.sort(cardByKey);
-
-        JPanel displayPanel = new JPanel(new GridLayout(0, 3, 5, 5));
-
-        for (String name : cardByKey) {
-            JPanel tempPanel = new JPanel(new BorderLayout());
-            tempPanel.setBorder(new EmptyBorder(5, 5, 5, 5));
-
-            JLabel image;
-
-            String imagePath = collection.get(name).getImagePath();
-            ImageIcon cardPhoto;
-
-            if (imagePath != null) {
-                cardPhoto = new ImageIcon(imagePath);
-            } else {
-                cardPhoto = new ImageIcon(getClass().getResource("/images/default.png"));
-            }
-
-            image = new JLabel(ImageUtils.scaleIcon(cardPhoto, 120, 120));
-            image.setHorizontalAlignment(SwingConstants.CENTER);
-            tempPanel.add(image, BorderLayout.CENTER);
-
-            JLabel tempLabel = new JLabel("<html>Card Name: " + collection.get(name).getName() + "<br>Quantity: "
-                    + collection.get(name).getQuantity() + "</html>");
-
-            tempPanel.add(tempLabel, BorderLayout.SOUTH);
-            tempPanel.setPreferredSize(new Dimension(190, 190));
-
-            displayPanel.setBackground(Color.white);
-            displayPanel.add(tempPanel);
-
-        }
-        JPanel wrapperPanel = new JPanel(new BorderLayout());
-        wrapperPanel.add(displayPanel, BorderLayout.NORTH);
-        wrapperPanel.setBackground(Color.WHITE);
-
-        return wrapperPanel;
+    public JPanel displayCollection(TreeMap<String, CardModel> collection, int mode) {
+        return wrapGrid(new CardGrid(collection, false, false));
     }
 
     /**
@@ -579,46 +538,17 @@ public class CardView {
      *
      * @param collection the card collection to display
      */
-    public JPanel displayCollection(HashMap<String, CardModel> collection) {
-        ArrayList<String> cardByKey = new ArrayList<>(collection.keySet());
-        Collections.sort(cardByKey);
-
-        JPanel displayPanel = new JPanel(new GridLayout(0, 3, 5, 5));
-
-        for (String name : cardByKey) {
-            if (collection.get(name).getQuantity() > 0) {
-                JPanel tempPanel = new JPanel(new BorderLayout());
-                tempPanel.setBorder(new EmptyBorder(5, 5, 5, 5));
-
-                JLabel image;
-
-                String imagePath = collection.get(name).getImagePath();
-                ImageIcon cardPhoto;
-
-                if (imagePath != null) {
-                    cardPhoto = new ImageIcon(imagePath);
-                } else {
-                    cardPhoto = new ImageIcon(getClass().getResource("/images/default.png"));
-                }
-
-                image = new JLabel(ImageUtils.scaleIcon(cardPhoto, 120, 120));
-                image.setHorizontalAlignment(SwingConstants.CENTER);
-                tempPanel.add(image, BorderLayout.CENTER);
-
-                JLabel tempLabel = new JLabel("<html>Card Name: " + collection.get(name).getName() + "<br>Value: "
-                        + collection.get(name).getValue() + "<br>Quantity: " + collection.get(name).getQuantity()
-                        + "</html>");
-
-                tempPanel.add(tempLabel, BorderLayout.SOUTH);
-                tempPanel.setPreferredSize(new Dimension(190, 190));
-
-                displayPanel.setBackground(Color.white);
-                displayPanel.add(tempPanel);
-            }
-        }
+    public JPanel displayCollection(TreeMap<String, CardModel> collection) {
+        return wrapGrid(new CardGrid(collection, true, true));
+    }
 
+    /**
+     * Places a card grid at the top of a white panel, so that a short
+     * collection is not stretched over the whole screen.
+     */
+    private JPanel wrapGrid(CardGrid grid) {
         JPanel wrapperPanel = new JPanel(new BorderLayout());
-        wrapperPanel.add(displayPanel, BorderLayout.NORTH);
+        wrapperPanel.add(grid, BorderLayout.NORTH);
         wrapperPanel.setBackground(Color.WHITE);
 
         return wrapperPanel;
@@ -639,5 +569,51 @@ public class CardView {
         return result == JOptionPane.YES_OPTION;
     }
 
+    /**
+     * Prompts the user to choose a CSV or JSON-lines file of cards to import.
+     *
+     * @return the chosen file, or {@code null} if cancelled
+     */
+    public Path showImportFileChooser() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Select Cards to Import");
+        fileChooser.addChoosableFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+                "Card lists (CSV, JSON lines)", "csv", "jsonl", "ndjson", "json"));
+
+        int result = fileChooser.showOpenDialog(null);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            return fileChooser.getSelectedFile().toPath();
+        }
+        return null;
+    }
+
+    /**
+     * Shows how many cards an import added, merged and rejected, what they
+     * are worth, and how fast it ran.
+     *
+     * @param result the outcome of the import
+     */
+    public void showImportResult(CardImporter.Result result) {
+        StringBuilder message = new StringBuilder();
+        message.append("Added ").append(result.added()).append(" new cards and merged ").append(result.merged())
+                .append(" into existing ones.\n");
+        message.append(String.format("The imported cards are worth %.2f.\n", result.value()));
+        message.append(String.format("Processed %d cards in %.2f s (%,.0f cards/s).", result.parsed(),
+                result.nanos() / 1e9, result.cardsPerSecond()));
+
+        if (result.rejected() > 0) {
+            message.append("\n\n").append(result.rejected()).append(" lines could not be imported:");
+            for (String rejection : result.rejections()) {
+                message.append("\n").append(rejection);
+            }
+            if (result.rejected() > result.rejections().size()) {
+                message.append("\n...");
+            }
+            DialogUtil.showWarning(null, message.toString(), "Import Finished");
+        } else {
+            DialogUtil.showInfo(null, message.toString(), "Import Finished");
+        }
+    }
+
 
 }
@@ -0,0 +1,223 @@
+package com.tradingcards.elements.card.cardUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.tradingcards.elements.card.CardListener;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+
+/**
+ * Running totals over a group of cards, such as the main collection, a binder
+ * or a deck.
+ * <p>
+ * Cards are added with {@link #track(CardModel)}, which also registers the
+ * aggregates as a {@link CardListener} on the card, so later changes to the
+ * card's rarity, variant, value or quantity adjust the totals straight away.
+ * Every total can then be read in constant time instead of walking the cards.
+ * <p>
+ * Two value totals are kept: the sum of each card's value times its quantity
+ * (what the copies are worth) and the plain sum of each card's value (what
+ * one copy of each card is worth). Per-rarity and per-variant totals use the
+ * former. Cards without a rarity or variant are counted in the overall totals
+ * only.
+ */
+public class CardAggregates implements CardListener {
+
+    /** Number of distinct cards tracked. */
+    private int cardCount;
+
+    /** Sum of the quantities of all tracked cards. */
+    private long totalQuantity;
+
+    /** Sum of value times quantity over all tracked cards. */
+    private double totalValue;
+
+    /** Sum of the values of all tracked cards, ignoring quantity. */
+    private double unitValue;
+
+    /** Quantities per rarity, indexed by ordinal. */
+    private final long[] rarityQuantities = new long[CardRarity.values().length];
+
+    /** Value times quantity per rarity, indexed by ordinal. */
+    private final double[] rarityValues = new double[CardRarity.values().length];
+
+    /** Quantities per variant, indexed by ordinal. */
+    private final long[] variantQuantities = new long[CardVariant.values().length];
+
+    /** Value times quantity per variant, indexed by ordinal. */
+    private final double[] variantValues = new double[CardVariant.values().length];
+
+    /**
+     * Adds a card to the totals and starts following its changes.
+     *
+     * @param card the card to track
+     */
+    public void track(CardModel card) {
+        apply(card.getRarityCode(), card.getVariantCode(), card.getValue(), card.getQuantity(), 1);
+        cardCount++;
+        card.addListener(this);
+    }
+
+    /**
+     * Removes a card from the totals and stops following its changes.
+     *
+     * @param card the card to stop tracking
+     */
+    public void untrack(CardModel card) {
+        card.removeListener(this);
+        cardCount--;
+        apply(card.getRarityCode(), card.getVariantCode(), card.getValue(), card.getQuantity(), -1);
+
+        // Drop any rounding error left over once the group is empty
+        if (cardCount == 0) {
+            clearTotals();
+        }
+    }
+
+    /**
+     * Adds every given card to the totals and starts following their changes,
+     * in a single pass.
+     *
+     * @param cards the cards to track; none of them may be tracked already
+     */
+    public void trackAll(Collection<CardModel> cards) {
+        for (CardModel card : cards) {
+            apply(card.getRarityCode(), card.getVariantCode(), card.getValue(), card.getQuantity(), 1);
+            card.addListener(this);
+        }
+        cardCount += cards.size();
+    }
+
+    /**
+     * Stops following the given cards and resets every total to zero.
+     *
+     * @param cards every card currently tracked
+     */
+    public void untrackAll(Collection<CardModel> cards) {
+        for (CardModel card : cards) {
+            card.removeListener(this);
+        }
+        cardCount = 0;
+        clearTotals();
+    }
+
+    @Override
+    public void cardChanged(CardModel card, CardRarity oldRarity, CardVariant oldVariant, double oldValue,
+            int oldQuantity) {
+        apply(oldRarity, oldVariant, oldValue, oldQuantity, -1);
+        apply(card.getRarityCode(), card.getVariantCode(), card.getValue(), card.getQuantity(), 1);
+    }
+
+    /**
+     * Sets every total except the card count to zero.
+     */
+    private void clearTotals() {
+        totalQuantity = 0;
+        totalValue = 0;
+        unitValue = 0;
+        Arrays.fill(rarityQuantities, 0);
+        Arrays.fill(rarityValues, 0);
+        Arrays.fill(variantQuantities, 0);
+        Arrays.fill(variantValues, 0);
+    }
+
+    /**
+     * Adds ({@code sign} 1) or subtracts ({@code sign} -1) one card's
+     * contribution to every total.
+     */
+    private void apply(CardRarity rarity, CardVariant variant, double value, int quantity, int sign) {
+        double worth = value * quantity * sign;
+        long copies = (long) quantity * sign;
+
+        totalQuantity += copies;
+        totalValue += worth;
+        unitValue += value * sign;
+
+        if (rarity != null) {
+            rarityQuantities[rarity.ordinal()] += copies;
+            rarityValues[rarity.ordinal()] += worth;
+        }
+        if (variant != null) {
+            variantQuantities[variant.ordinal()] += copies;
+            variantValues[variant.ordinal()] += worth;
+        }
+    }
+
+    /**
+     * Returns the number of distinct cards tracked.
+     *
+     * @return the number of cards
+     */
+    public int getCardCount() {
+        return cardCount;
+    }
+
+    /**
+     * Returns the total number of copies of all tracked cards.
+     *
+     * @return the sum of the card quantities
+     */
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    /**
+     * Returns the combined worth of all copies of the tracked cards.
+     *
+     * @return the sum of value times quantity
+     */
+    public double getTotalValue() {
+        return totalValue;
+    }
+
+    /**
+     * Returns the combined value of one copy of each tracked card.
+     *
+     * @return the sum of the card values
+     */
+    public double getUnitValue() {
+        return unitValue;
+    }
+
+    /**
+     * Returns the number of copies of tracked cards with the given rarity.
+     *
+     * @param rarity the rarity to count
+     * @return the sum of the quantities of cards with that rarity
+     */
+    public long getQuantity(CardRarity rarity) {
+        return rarityQuantities[rarity.ordinal()];
+    }
+
+    /**
+     * Returns the combined worth of tracked cards with the given rarity.
+     *
+     * @param rarity the rarity to sum
+     * @return the sum of value times quantity of cards with that rarity
+     */
+    public double getValue(CardRarity rarity) {
+        return rarityValues[rarity.ordinal()];
+    }
+
+    /**
+     * Returns the number of copies of tracked cards with the given variant.
+     *
+     * @param variant the variant to count
+     * @return the sum of the quantities of cards with that variant
+     */
+    public long getQuantity(CardVariant variant) {
+        return variantQuantities[variant.ordinal()];
+    }
+
+    /**
+     * Returns the combined worth of tracked cards with the given variant.
+     *
+     * @param variant the variant to sum
+     * @return the sum of value times quantity of cards with that variant
+     */
+    public double getValue(CardVariant variant) {
+        return variantValues[variant.ordinal()];
+    }
+}
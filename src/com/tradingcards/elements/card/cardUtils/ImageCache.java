@@ -0,0 +1,363 @@
+package com.tradingcards.elements.card.cardUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * Shared cache of decoded and scaled card images.
+ * <p>
+ * Images are cached per source and target size, so the same card shown as a
+ * grid thumbnail and as a full card takes two entries. Each entry is charged
+ * four bytes per pixel against a fixed byte budget, and the least recently
+ * used entries are evicted once the budget is exceeded. Redrawing a screen
+ * whose images are all cached does no disk I/O and no scaling.
+ * <p>
+ * A cache may be backed by a {@link ThumbnailStore}. Misses on image files
+ * are then answered from the pre-scaled thumbnails on disk when possible, and
+ * newly scaled images are written there for the next start.
+ * <p>
+ * Hits, misses and evictions are counted so the budget can be tuned. The
+ * cache is thread-safe.
+ */
+public class ImageCache {
+
+    /** Default budget: enough for about 2,000 grid thumbnails. */
+    public static final long DEFAULT_BUDGET_BYTES = 128L * 1024 * 1024;
+
+    /** Classpath image shown for cards without an image of their own. */
+    public static final String DEFAULT_IMAGE = "/images/default.png";
+
+    /** Bytes charged per pixel of a cached image. */
+    private static final int BYTES_PER_PIXEL = 4;
+
+    /** Cache used by all views. */
+    private static final ImageCache SHARED = new ImageCache(DEFAULT_BUDGET_BYTES,
+            new ThumbnailStore(Path.of(ThumbnailStore.DEFAULT_DIRECTORY)));
+
+    /** Cached icons, least recently used first. */
+    private final LinkedHashMap<Key, ImageIcon> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    /** Largest number of bytes the cached images may take. */
+    private final long budgetBytes;
+
+    /** Disk store of scaled images, or {@code null} for none. */
+    private final ThumbnailStore thumbnails;
+
+    /** Bytes currently taken by the cached images. */
+    private long sizeBytes;
+
+    /** Number of lookups answered from the cache. */
+    private long hits;
+
+    /** Number of lookups that had to load and scale an image. */
+    private long misses;
+
+    /** Number of entries evicted to stay within the budget. */
+    private long evictions;
+
+    /** Number of misses answered from the thumbnail store. */
+    private long thumbnailHits;
+
+    /**
+     * Creates an empty cache that is not backed by a thumbnail store.
+     *
+     * @param budgetBytes the largest number of bytes the cached images may take
+     */
+    public ImageCache(long budgetBytes) {
+        this(budgetBytes, null);
+    }
+
+    /**
+     * Creates an empty cache backed by a thumbnail store.
+     *
+     * @param budgetBytes the largest number of bytes the cached images may take
+     * @param thumbnails  the disk store of scaled images, or {@code null} for
+     *                    none
+     */
+    public ImageCache(long budgetBytes, ThumbnailStore thumbnails) {
+        this.budgetBytes = budgetBytes;
+        this.thumbnails = thumbnails;
+    }
+
+    /**
+     * Returns the cache shared by all views.
+     *
+     * @return the shared cache
+     */
+    public static ImageCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns a card image scaled to the given size, loading it on a miss.
+     *
+     * @param imagePath the path of the image file, or {@code null} for the
+     *                  default card image
+     * @param width     the target width
+     * @param height    the target height
+     * @return the scaled icon, or {@code null} if the image could not be read
+     */
+    public ImageIcon getIcon(String imagePath, int width, int height) {
+        return get(keyOf(imagePath, width, height));
+    }
+
+    /**
+     * Returns a card image scaled to the default card size.
+     *
+     * @param imagePath the path of the image file, or {@code null} for the
+     *                  default card image
+     * @return the scaled icon, or {@code null} if the image could not be read
+     */
+    public ImageIcon getIcon(String imagePath) {
+        return getIcon(imagePath, ImageUtils.TARGET_WIDTH, ImageUtils.TARGET_HEIGHT);
+    }
+
+    /**
+     * Returns a card image scaled to the given size only if it is already
+     * cached. Never reads or scales an image, so it is safe to call on the
+     * Event Dispatch Thread.
+     *
+     * @param imagePath the path of the image file, or {@code null} for the
+     *                  default card image
+     * @param width     the target width
+     * @param height    the target height
+     * @return the cached icon, or {@code null} if it is not cached
+     */
+    public synchronized ImageIcon getCachedIcon(String imagePath, int width, int height) {
+        ImageIcon icon = entries.get(keyOf(imagePath, width, height));
+        if (icon != null) {
+            hits++;
+        }
+        return icon;
+    }
+
+    /**
+     * Returns a classpath image scaled to the given size, loading it on a miss.
+     *
+     * @param resource the classpath resource, such as {@code /images/cards.png}
+     * @param width    the target width
+     * @param height   the target height
+     * @return the scaled icon, or {@code null} if the image could not be read
+     */
+    public ImageIcon getResourceIcon(String resource, int width, int height) {
+        return get(new Key(true, resource, width, height));
+    }
+
+    /**
+     * Returns the key of a card image, mapping a missing path to the default
+     * card image.
+     */
+    private static Key keyOf(String imagePath, int width, int height) {
+        if (imagePath == null) {
+            return new Key(true, DEFAULT_IMAGE, width, height);
+        }
+        return new Key(false, imagePath, width, height);
+    }
+
+    /**
+     * Returns the cached icon for a key, loading and caching it on a miss. The
+     * image is loaded without holding the lock, so a slow file does not block
+     * lookups of other images.
+     */
+    private ImageIcon get(Key key) {
+        synchronized (this) {
+            ImageIcon icon = entries.get(key);
+            if (icon != null) {
+                hits++;
+                return icon;
+            }
+            misses++;
+        }
+
+        ImageIcon icon = load(key);
+        if (icon != null) {
+            put(key, icon);
+        }
+        return icon;
+    }
+
+    /**
+     * Adds an icon and evicts the least recently used entries until the cache
+     * fits its budget again. An icon larger than the whole budget is not kept.
+     */
+    private synchronized void put(Key key, ImageIcon icon) {
+        long cost = costOf(icon);
+        if (cost > budgetBytes) {
+            return;
+        }
+
+        ImageIcon previous = entries.put(key, icon);
+        if (previous != null) {
+            sizeBytes -= costOf(previous);
+        }
+        sizeBytes += cost;
+
+        Iterator<Map.Entry<Key, ImageIcon>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > budgetBytes && eldest.hasNext()) {
+            sizeBytes -= costOf(eldest.next().getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Reads and scales the image for a key, going through the thumbnail store
+     * for image files.
+     */
+    private ImageIcon load(Key key) {
+        if (!key.resource() && thumbnails != null) {
+            BufferedImage stored = thumbnails.load(key.path(), key.width(), key.height());
+            if (stored != null) {
+                synchronized (this) {
+                    thumbnailHits++;
+                }
+                return new ImageIcon(stored);
+            }
+        }
+
+        BufferedImage source = read(key);
+        if (source == null) {
+            return null;
+        }
+        BufferedImage scaled = ImageScaler.scale(source, key.width(), key.height());
+        if (!key.resource() && thumbnails != null) {
+            thumbnails.save(key.path(), scaled);
+        }
+        return new ImageIcon(scaled);
+    }
+
+    /**
+     * Decodes the full-size image for a key.
+     *
+     * @return the image, or {@code null} if it cannot be read
+     */
+    private static BufferedImage read(Key key) {
+        try {
+            BufferedImage image;
+            if (key.resource()) {
+                URL url = ImageCache.class.getResource(key.path());
+                if (url == null) {
+                    System.out.println("Image resource not found: " + key.path());
+                    return null;
+                }
+                image = ImageIO.read(url);
+            } else {
+                image = ImageIO.read(new File(key.path()));
+            }
+
+            if (image == null) {
+                System.out.println("Unsupported image format: " + key.path());
+            }
+            return image;
+        } catch (IOException e) {
+            System.out.println("Could not read image " + key.path() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of bytes charged for an icon.
+     */
+    private static long costOf(ImageIcon icon) {
+        return (long) icon.getIconWidth() * icon.getIconHeight() * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Removes every entry. The counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    /**
+     * Returns the number of cached images.
+     *
+     * @return the number of entries
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of bytes taken by the cached images.
+     *
+     * @return the cache size in bytes
+     */
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * Returns the largest number of bytes the cached images may take.
+     *
+     * @return the budget in bytes
+     */
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that had to load and scale an image.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries evicted to stay within the budget.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of misses answered from the thumbnail store instead
+     * of decoding the source image.
+     *
+     * @return the thumbnail hit count
+     */
+    public synchronized long getThumbnailHits() {
+        return thumbnailHits;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ImageCache[entries=" + entries.size() + ", bytes=" + sizeBytes + "/" + budgetBytes + ", hits="
+                + hits + ", misses=" + misses + ", thumbnailHits=" + thumbnailHits + ", evictions=" + evictions + "]";
+    }
+
+    /**
+     * Source and target size of a cached image.
+     *
+     * @param resource whether the path names a classpath resource rather than
+     *                 a file
+     * @param path     the file path or resource name
+     * @param width    the target width
+     * @param height   the target height
+     */
+    private record Key(boolean resource, String path, int width, int height) {
+    }
+}
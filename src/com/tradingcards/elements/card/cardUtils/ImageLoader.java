@@ -0,0 +1,211 @@
+package com.tradingcards.elements.card.cardUtils;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.AncestorEvent;
+import javax.swing.event.AncestorListener;
+
+/**
+ * Loads card images in the background so that opening a large collection does
+ * not freeze the window.
+ * <p>
+ * A label created by {@link #createLabel} shows the image straight away if it
+ * is already in the {@link ImageCache}. Otherwise it shows a plain
+ * placeholder, and the image is decoded and scaled by a small pool of worker
+ * threads and swapped in on the Event Dispatch Thread once ready.
+ * <p>
+ * Work is only queued for labels that are on screen. A label that scrolls out
+ * of view, or whose panel is replaced, has its pending request cancelled, and
+ * the request is queued again if the label comes back into view.
+ */
+public class ImageLoader {
+
+    /** Colour of the placeholder shown while an image loads. */
+    private static final Color PLACEHOLDER_COLOR = new Color(0xEEEEEE);
+
+    /** Loader used by all views. */
+    private static final ImageLoader SHARED = new ImageLoader(ImageCache.shared(),
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+
+    /** Cache the images are loaded through. */
+    private final ImageCache cache;
+
+    /** Worker threads that decode and scale images. */
+    private final ExecutorService workers;
+
+    /** Placeholder icons, one per size. */
+    private final Map<Long, ImageIcon> placeholders = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a loader with its own worker threads. The threads are daemons,
+     * so they do not keep the application alive.
+     *
+     * @param cache   the cache to load images through
+     * @param threads the number of worker threads
+     */
+    public ImageLoader(ImageCache cache, int threads) {
+        this.cache = cache;
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "image-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the loader shared by all views.
+     *
+     * @return the shared loader
+     */
+    public static ImageLoader shared() {
+        return SHARED;
+    }
+
+    /**
+     * Creates a label that shows a card image scaled to the given size,
+     * loading it in the background if it is not cached yet. Must be called on
+     * the Event Dispatch Thread.
+     *
+     * @param imagePath the path of the image file, or {@code null} for the
+     *                  default card image
+     * @param width     the target width
+     * @param height    the target height
+     * @return the label
+     */
+    public JLabel createLabel(String imagePath, int width, int height) {
+        JLabel label = new JLabel();
+        ImageIcon icon = cache.getCachedIcon(imagePath, width, height);
+        if (icon != null) {
+            label.setIcon(icon);
+        } else {
+            label.setIcon(getPlaceholder(width, height));
+            label.addAncestorListener(new Request(label, imagePath, width, height));
+        }
+        return label;
+    }
+
+    /**
+     * Creates a label that shows a card image scaled to the default card
+     * size, loading it in the background if it is not cached yet.
+     *
+     * @param imagePath the path of the image file, or {@code null} for the
+     *                  default card image
+     * @return the label
+     */
+    public JLabel createLabel(String imagePath) {
+        return createLabel(imagePath, ImageUtils.TARGET_WIDTH, ImageUtils.TARGET_HEIGHT);
+    }
+
+    /**
+     * Loads a card image on a worker thread and passes it to a callback on
+     * the Event Dispatch Thread.
+     *
+     * @param imagePath the path of the image file, or {@code null} for the
+     *                  default card image
+     * @param width     the target width
+     * @param height    the target height
+     * @param onLoaded  receives the icon, or {@code null} if the image could
+     *                  not be read
+     * @return the queued load, which can be cancelled while it waits
+     */
+    public Future<?> load(String imagePath, int width, int height, Consumer<ImageIcon> onLoaded) {
+        return workers.submit(() -> {
+            ImageIcon icon = cache.getIcon(imagePath, width, height);
+            SwingUtilities.invokeLater(() -> onLoaded.accept(icon));
+        });
+    }
+
+    /**
+     * Returns a plain icon of the given size to show while an image loads.
+     *
+     * @param width  the icon width
+     * @param height the icon height
+     * @return the placeholder icon
+     */
+    public ImageIcon getPlaceholder(int width, int height) {
+        return placeholders.computeIfAbsent(((long) width << 32) | height, key -> {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(PLACEHOLDER_COLOR);
+            graphics.fillRect(0, 0, width, height);
+            graphics.dispose();
+            return new ImageIcon(image);
+        });
+    }
+
+    /**
+     * Pending image of one label. It follows the label's visibility: it queues
+     * the load when the label comes into view and cancels it when the label
+     * leaves the view or the screen.
+     * <p>
+     * Every method runs on the Event Dispatch Thread.
+     */
+    private class Request implements AncestorListener {
+
+        private final JLabel label;
+        private final String imagePath;
+        private final int width;
+        private final int height;
+
+        /** The queued load, or {@code null} if none is queued. */
+        private Future<?> pending;
+
+        private Request(JLabel label, String imagePath, int width, int height) {
+            this.label = label;
+            this.imagePath = imagePath;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void ancestorAdded(AncestorEvent event) {
+            update();
+        }
+
+        @Override
+        public void ancestorMoved(AncestorEvent event) {
+            // Also called while the enclosing scroll pane scrolls
+            update();
+        }
+
+        @Override
+        public void ancestorRemoved(AncestorEvent event) {
+            cancel();
+        }
+
+        /**
+         * Queues or cancels the load depending on whether the label can be
+         * seen.
+         */
+        private void update() {
+            boolean visible = label.isShowing() && !label.getVisibleRect().isEmpty();
+            if (visible && pending == null) {
+                pending = load(imagePath, width, height, icon -> {
+                    label.removeAncestorListener(this);
+                    pending = null;
+                    label.setIcon(icon);
+                });
+            } else if (!visible) {
+                cancel();
+            }
+        }
+
+        private void cancel() {
+            if (pending != null) {
+                pending.cancel(false);
+                pending = null;
+            }
+        }
+    }
+}
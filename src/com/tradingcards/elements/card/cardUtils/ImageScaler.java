@@ -0,0 +1,250 @@
+package com.tradingcards.elements.card.cardUtils;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Scales card images into {@link BufferedImage}s.
+ * <p>
+ * A single bilinear step skips most source pixels when shrinking a large
+ * image, and {@code Image.getScaledInstance} is slow and scales again
+ * whenever it is painted. Instead, the image is halved until it is less than
+ * twice the target size, and then drawn at the target size with bilinear
+ * filtering. This is close to area averaging in quality and much faster.
+ * <p>
+ * Bilinear filtering at exactly half size averages each 2x2 block of pixels,
+ * so the halving steps do that directly on the pixel arrays rather than going
+ * through Java2D's general-purpose scaling loop. Their results go into
+ * scratch arrays per thread, which later calls on the same thread reuse. Only
+ * the returned image is newly allocated.
+ */
+public class ImageScaler {
+
+    /** Bit masks of the channels of a packed ARGB pixel. */
+    private static final int[] ARGB_MASKS = { 0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000 };
+
+    /** Scratch arrays of the calling thread, grown as needed. */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Scales an image to the given size.
+     *
+     * @param source the image to scale
+     * @param width  the target width
+     * @param height the target height
+     * @return a new image of width x height
+     */
+    public static BufferedImage scale(BufferedImage source, int width, int height) {
+        Scratch scratch = SCRATCH.get();
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        int[] current = null;
+        int level = 0;
+
+        while (true) {
+            // Halve each dimension that stays at least its target size
+            int nextWidth = currentWidth / 2 >= width ? currentWidth / 2 : currentWidth;
+            int nextHeight = currentHeight / 2 >= height ? currentHeight / 2 : currentHeight;
+            if (nextWidth == currentWidth && nextHeight == currentHeight) {
+                break;
+            }
+
+            int[] next = scratch.level(level, nextWidth * nextHeight);
+            if (current == null) {
+                halveSource(source, next, nextWidth, nextHeight, scratch);
+            } else {
+                halve(current, currentWidth, currentHeight, next, nextWidth, nextHeight);
+            }
+
+            current = next;
+            currentWidth = nextWidth;
+            currentHeight = nextHeight;
+            level ^= 1;
+        }
+
+        BufferedImage last = current == null ? source : wrap(current, currentWidth, currentHeight);
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setComposite(AlphaComposite.Src);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(last, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    /**
+     * Scales many images to the same size in parallel.
+     *
+     * @param sources the images to scale
+     * @param width   the target width
+     * @param height  the target height
+     * @return the scaled images, in the order of the sources
+     */
+    public static BufferedImage[] scaleAll(List<BufferedImage> sources, int width, int height) {
+        BufferedImage[] results = new BufferedImage[sources.size()];
+        IntStream.range(0, results.length).parallel()
+                .forEach(i -> results[i] = scale(sources.get(i), width, height));
+        return results;
+    }
+
+    /**
+     * First halving step, reading the source image two rows at a time.
+     */
+    private static void halveSource(BufferedImage source, int[] target, int targetWidth, int targetHeight,
+            Scratch scratch) {
+        int sourceWidth = source.getWidth();
+        boolean halveRows = targetHeight != source.getHeight();
+        int[] upper = scratch.row(0, sourceWidth);
+        int[] lower = scratch.row(1, sourceWidth);
+
+        for (int y = 0; y < targetHeight; y++) {
+            int sourceY = halveRows ? 2 * y : y;
+            readRow(source, sourceY, upper, scratch);
+            if (halveRows) {
+                readRow(source, sourceY + 1, lower, scratch);
+                halveRow(upper, 0, lower, 0, sourceWidth, target, y * targetWidth, targetWidth);
+            } else {
+                halveRow(upper, 0, upper, 0, sourceWidth, target, y * targetWidth, targetWidth);
+            }
+        }
+    }
+
+    /**
+     * Later halving steps, reading a previous step's pixels in place.
+     */
+    private static void halve(int[] source, int sourceWidth, int sourceHeight, int[] target, int targetWidth,
+            int targetHeight) {
+        boolean halveRows = targetHeight != sourceHeight;
+        for (int y = 0; y < targetHeight; y++) {
+            int upper = (halveRows ? 2 * y : y) * sourceWidth;
+            int lower = halveRows ? upper + sourceWidth : upper;
+            halveRow(source, upper, source, lower, sourceWidth, target, y * targetWidth, targetWidth);
+        }
+    }
+
+    /**
+     * Averages two source rows into one target row, halving the width too if
+     * the target is narrower. Passing the same row twice halves only the
+     * width.
+     */
+    private static void halveRow(int[] upper, int upperOffset, int[] lower, int lowerOffset, int sourceWidth,
+            int[] target, int targetOffset, int targetWidth) {
+        if (targetWidth == sourceWidth) {
+            for (int x = 0; x < targetWidth; x++) {
+                target[targetOffset + x] = average(upper[upperOffset + x], lower[lowerOffset + x],
+                        upper[upperOffset + x], lower[lowerOffset + x]);
+            }
+            return;
+        }
+        for (int x = 0; x < targetWidth; x++) {
+            int sourceX = 2 * x;
+            target[targetOffset + x] = average(upper[upperOffset + sourceX], upper[upperOffset + sourceX + 1],
+                    lower[lowerOffset + sourceX], lower[lowerOffset + sourceX + 1]);
+        }
+    }
+
+    /**
+     * Averages four ARGB pixels channel by channel, rounding to nearest. Red
+     * and blue are summed together in one int, alpha and green in another;
+     * each 16-bit lane has room for the sum of four channels.
+     */
+    private static int average(int a, int b, int c, int d) {
+        int redBlue = (a & 0x00FF00FF) + (b & 0x00FF00FF) + (c & 0x00FF00FF) + (d & 0x00FF00FF) + 0x00020002;
+        int alphaGreen = ((a >>> 8) & 0x00FF00FF) + ((b >>> 8) & 0x00FF00FF) + ((c >>> 8) & 0x00FF00FF)
+                + ((d >>> 8) & 0x00FF00FF) + 0x00020002;
+        return ((alphaGreen >>> 2) & 0x00FF00FF) << 8 | ((redBlue >>> 2) & 0x00FF00FF);
+    }
+
+    /**
+     * Reads one row of an image as ARGB pixels. The pixel layouts produced
+     * by {@code ImageIO} for PNG and JPEG files are unpacked directly; other
+     * layouts go through the slower {@link BufferedImage#getRGB}.
+     */
+    private static void readRow(BufferedImage image, int y, int[] row, Scratch scratch) {
+        int width = image.getWidth();
+        Raster raster = image.getRaster();
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_ARGB -> raster.getDataElements(0, y, width, 1, row);
+            case BufferedImage.TYPE_INT_RGB -> {
+                raster.getDataElements(0, y, width, 1, row);
+                for (int x = 0; x < width; x++) {
+                    row[x] |= 0xFF000000;
+                }
+            }
+            case BufferedImage.TYPE_3BYTE_BGR -> {
+                // Elements come back in band order: red, green, blue
+                byte[] bytes = (byte[]) raster.getDataElements(0, y, width, 1, scratch.bytes(width * 3));
+                for (int x = 0, i = 0; x < width; x++, i += 3) {
+                    row[x] = 0xFF000000 | (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+                }
+            }
+            case BufferedImage.TYPE_4BYTE_ABGR -> {
+                // Elements come back in band order: red, green, blue, alpha
+                byte[] bytes = (byte[]) raster.getDataElements(0, y, width, 1, scratch.bytes(width * 4));
+                for (int x = 0, i = 0; x < width; x++, i += 4) {
+                    row[x] = (bytes[i + 3] & 0xFF) << 24 | (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8
+                            | (bytes[i + 2] & 0xFF);
+                }
+            }
+            default -> image.getRGB(0, y, width, 1, row, 0, width);
+        }
+    }
+
+    /**
+     * Wraps the first {@code width * height} pixels of an array as an ARGB
+     * image without copying them.
+     */
+    private static BufferedImage wrap(int[] pixels, int width, int height) {
+        WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(pixels, width * height), width, height,
+                width, ARGB_MASKS, null);
+        return new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+    }
+
+    /**
+     * Reusable arrays of one thread.
+     */
+    private static class Scratch {
+
+        /** Results of alternate halving steps. */
+        private final int[][] levels = new int[2][0];
+
+        /** Two source rows being averaged. */
+        private final int[][] rows = new int[2][0];
+
+        /** Raw bytes of one source row. */
+        private byte[] bytes = new byte[0];
+
+        private int[] level(int index, int size) {
+            if (levels[index].length < size) {
+                levels[index] = new int[size];
+            }
+            return levels[index];
+        }
+
+        private int[] row(int index, int size) {
+            if (rows[index].length < size) {
+                rows[index] = new int[size];
+            }
+            return rows[index];
+        }
+
+        private byte[] bytes(int size) {
+            if (bytes.length < size) {
+                bytes = new byte[size];
+            }
+            return bytes;
+        }
+    }
+}
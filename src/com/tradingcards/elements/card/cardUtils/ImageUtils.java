@@ -9,8 +9,8 @@ import javax.swing.ImageIcon;
  */
 public class ImageUtils {
 
-    private static final int TARGET_WIDTH = 300;
-    private static final int TARGET_HEIGHT = 380;
+    static final int TARGET_WIDTH = 300;
+    static final int TARGET_HEIGHT = 380;
 
     /**
      * Scales the given ImageIcon to the default target width and height.
@@ -47,4 +47,4 @@ public class ImageUtils {
         Image scaledImage = icon.getImage().getScaledInstance(preferredWidth, preferredHeight, Image.SCALE_SMOOTH);
         return new ImageIcon(scaledImage);
     }
-}
\ No newline at end of file
+}
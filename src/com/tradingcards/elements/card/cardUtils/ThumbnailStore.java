@@ -0,0 +1,336 @@
+package com.tradingcards.elements.card.cardUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Disk cache of scaled card images, so a restart does not have to decode the
+ * full-size images again.
+ * <p>
+ * Thumbnails are keyed by the SHA-256 hash of the source file's content and
+ * the target size, so two paths holding the same image share their
+ * thumbnails, and editing an image gives it a new key. To avoid reading every
+ * source on start-up, the hash of each path is remembered together with the
+ * file's size and modification time in an append-only log; the file is only
+ * hashed again once either of those changes.
+ * <p>
+ * The store is only a cache: when it cannot be read or written, the error is
+ * printed and callers fall back to decoding the source image. It is
+ * thread-safe.
+ */
+public class ThumbnailStore {
+
+    /** Default directory holding the thumbnails, relative to the working directory. */
+    public static final String DEFAULT_DIRECTORY = "data/thumbnails";
+
+    /** File name of the source log inside the store directory. */
+    private static final String SOURCES_FILE = "sources.log";
+
+    /** Format of the stored thumbnails. */
+    private static final String IMAGE_FORMAT = "png";
+
+    /** Size of the buffer used to hash source files. */
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    /** Directory holding the thumbnails and the source log. */
+    private final Path directory;
+
+    /** Last known state of each source path. */
+    private final Map<String, Source> sources = new HashMap<>();
+
+    /** Open source log, or {@code null} until the store is opened. */
+    private DataOutputStream sourceLog;
+
+    /** Whether {@link #open()} has run, successfully or not. */
+    private boolean opened;
+
+    /**
+     * Creates a store in the given directory. Nothing is read until the first
+     * lookup.
+     *
+     * @param directory the directory holding the thumbnails
+     */
+    public ThumbnailStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the stored thumbnail of a source image at the given size.
+     *
+     * @param imagePath the path of the source image
+     * @param width     the thumbnail width
+     * @param height    the thumbnail height
+     * @return the thumbnail, or {@code null} if none is stored or the source
+     *         cannot be read
+     */
+    public BufferedImage load(String imagePath, int width, int height) {
+        String hash = hashOf(imagePath);
+        if (hash == null) {
+            return null;
+        }
+
+        Path file = thumbnailPath(hash, width, height);
+        try {
+            return Files.exists(file) ? ImageIO.read(file.toFile()) : null;
+        } catch (IOException e) {
+            System.out.println("Could not read thumbnail " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the thumbnail of a source image at the size of the thumbnail.
+     *
+     * @param imagePath the path of the source image
+     * @param thumbnail the scaled image
+     */
+    public void save(String imagePath, BufferedImage thumbnail) {
+        String hash = hashOf(imagePath);
+        if (hash == null) {
+            return;
+        }
+
+        Path file = thumbnailPath(hash, thumbnail.getWidth(), thumbnail.getHeight());
+        try {
+            // Write to a temporary file first so a crash never leaves a
+            // truncated thumbnail behind
+            Path temp = Files.createTempFile(directory, "thumbnail", ".tmp");
+            try {
+                ImageIO.write(thumbnail, IMAGE_FORMAT, temp.toFile());
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not write thumbnail " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the source log. The store opens it again on the next lookup.
+     */
+    public synchronized void close() {
+        if (sourceLog != null) {
+            try {
+                sourceLog.close();
+            } catch (IOException e) {
+                System.out.println("Could not close thumbnail log: " + e.getMessage());
+            }
+            sourceLog = null;
+        }
+        sources.clear();
+        opened = false;
+    }
+
+    /**
+     * Returns the content hash of a source image, hashing the file only if
+     * its size or modification time changed since it was last hashed.
+     *
+     * @return the hash, or {@code null} if the source or the store cannot be
+     *         read
+     */
+    private String hashOf(String imagePath) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(Path.of(imagePath), BasicFileAttributes.class);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        synchronized (this) {
+            if (!open()) {
+                return null;
+            }
+            Source known = sources.get(imagePath);
+            if (known != null && known.size() == size && known.modified() == modified) {
+                return known.hash();
+            }
+        }
+
+        // Hash outside the lock so other lookups are not held up by a large file
+        String hash;
+        try {
+            hash = hashFile(Path.of(imagePath));
+        } catch (IOException e) {
+            return null;
+        }
+
+        synchronized (this) {
+            Source source = new Source(imagePath, size, modified, hash);
+            sources.put(imagePath, source);
+            if (sourceLog != null) {
+                try {
+                    writeSource(sourceLog, source);
+                    sourceLog.flush();
+                } catch (IOException e) {
+                    System.out.println("Could not write thumbnail log: " + e.getMessage());
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Reads the source log on first use. When the log holds outdated records
+     * it is rewritten with the latest ones, and thumbnails no longer
+     * referenced by any source are deleted.
+     *
+     * @return {@code true} if the store can be used
+     */
+    private boolean open() {
+        if (opened) {
+            return sourceLog != null;
+        }
+        opened = true;
+
+        Path logPath = directory.resolve(SOURCES_FILE);
+        try {
+            Files.createDirectories(directory);
+
+            int records = readSources(logPath);
+            if (records > sources.size()) {
+                rewriteSources(logPath);
+                deleteUnreferenced();
+            }
+
+            sourceLog = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(logPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+            return true;
+        } catch (IOException e) {
+            System.out.println("Could not open thumbnail store " + directory + ": " + e.getMessage());
+            sources.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Loads the source log into {@link #sources}, later records replacing
+     * earlier ones. A record cut short by a crash ends the log.
+     *
+     * @return the number of records read
+     */
+    private int readSources(Path logPath) throws IOException {
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logPath)))) {
+            while (true) {
+                Source source = new Source(in.readUTF(), in.readLong(), in.readLong(), in.readUTF());
+                sources.put(source.path(), source);
+                records++;
+            }
+        } catch (NoSuchFileException | EOFException e) {
+            // A missing log means an empty store; EOF ends the log
+        }
+        return records;
+    }
+
+    /**
+     * Replaces the source log with one record per known source.
+     */
+    private void rewriteSources(Path logPath) throws IOException {
+        Path temp = Files.createTempFile(directory, "sources", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                for (Source source : sources.values()) {
+                    writeSource(out, source);
+                }
+            }
+            Files.move(temp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Deletes the thumbnails of images that no known source holds any more.
+     */
+    private void deleteUnreferenced() throws IOException {
+        Set<String> live = new HashSet<>();
+        for (Source source : sources.values()) {
+            live.add(source.hash());
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*." + IMAGE_FORMAT)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int dash = name.indexOf('-');
+                if (dash > 0 && !live.contains(name.substring(0, dash))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends one source record to a log.
+     */
+    private static void writeSource(DataOutputStream out, Source source) throws IOException {
+        out.writeUTF(source.path());
+        out.writeLong(source.size());
+        out.writeLong(source.modified());
+        out.writeUTF(source.hash());
+    }
+
+    /**
+     * Returns the path of the thumbnail of an image at a given size.
+     */
+    private Path thumbnailPath(String hash, int width, int height) {
+        return directory.resolve(hash + "-" + width + "x" + height + "." + IMAGE_FORMAT);
+    }
+
+    /**
+     * Returns the hex-encoded SHA-256 hash of a file's content.
+     */
+    private static String hashFile(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Last known state of a source image.
+     *
+     * @param path     the path of the image
+     * @param size     the file size in bytes when it was hashed
+     * @param modified the modification time in milliseconds when it was hashed
+     * @param hash     the hex-encoded SHA-256 hash of its content
+     */
+    private record Source(String path, long size, long modified, String hash) {
+    }
+}
@@ -1,11 +1,32 @@
 package com.tradingcards.elements.collection;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardContainerListener;
+import com.tradingcards.elements.card.CardListener;
 import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.cardUtils.CardAggregates;
+import com.tradingcards.elements.collection.collectionUtils.CardNameIndex;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent.Kind;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent.Target;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEventBus;
+import com.tradingcards.elements.collection.collectionUtils.CollectionIndex;
+import com.tradingcards.elements.collection.collectionUtils.CollectionJournal;
+import com.tradingcards.elements.collection.collectionUtils.CollectionListener;
 import com.tradingcards.elements.deck.DeckModel;
-import com.tradingcards.elements.menus.menuUtils.DialogUtil;
 
 /**
  * The {@code CollectionModel} class manages a user's trading card collection,
@@ -13,6 +34,29 @@ import com.tradingcards.elements.menus.menuUtils.DialogUtil;
  * <p>
  * It provides methods to add, retrieve, and remove elements from each type of
  * collection.
+ * <p>
+ * Every change is published as a {@link CollectionEvent} on the collection's
+ * {@link CollectionEventBus}: changes made through this class, changes made
+ * in place to a card in the collection or in a binder, and cards added to or
+ * removed from a deck. Listeners receive them in batches, one per
+ * transaction (see {@link #beginTransaction()}), with the changes of each
+ * element merged into one event.
+ * <p>
+ * When a {@link CollectionJournal} is attached, the changes are written to it
+ * on the changing thread, not through the bus: a change made outside a
+ * transaction is journaled before the call that made it returns, and the
+ * changes of a transaction are journaled together when the outermost
+ * transaction ends, before listeners hear of them. Writing to the journal
+ * does not wait for the disk (see {@link CollectionJournal}); a change the
+ * journal can no longer take is reported to the handler set with
+ * {@link #setJournalErrorHandler}. Changes the collection cannot see, such
+ * as a new deck type, must be reported with {@link #cardChanged},
+ * {@link #binderChanged} or {@link #deckChanged}.
+ * <p>
+ * Every change also moves on the version of the element it affects, which
+ * lets a {@link CollectionTransaction} tell whether what it read is still
+ * current when it commits. A restore moves every element on at once when it
+ * ends, rather than one change at a time.
  */
 public class CollectionModel {
 
@@ -23,19 +67,154 @@ public class CollectionModel {
     private double money = 0.0;
 
     /**
-     * Stores a collection of cards with their associated names as keys.
+     * Stores a collection of cards with their associated names as keys. The
+     * map is kept sorted by name so screens can list it without sorting.
+     */
+    private TreeMap<String, CardModel> cardCollection = new TreeMap<>();
+
+    /**
+     * Stores a collection of binders with their associated names as keys,
+     * sorted by name.
+     */
+    private TreeMap<String, BinderModel> binderCollection = new TreeMap<>();
+
+    /**
+     * Stores a collection of decks with their associated names as keys,
+     * sorted by name.
+     */
+    private TreeMap<String, DeckModel> deckCollection = new TreeMap<>();
+
+    /**
+     * Running totals over the cards in {@link #cardCollection}.
+     */
+    private final CardAggregates aggregates = new CardAggregates();
+
+    /**
+     * Secondary indexes on rarity, variant and value over {@link #cardCollection}.
+     */
+    private final CollectionIndex index = new CollectionIndex();
+
+    /**
+     * Search index over the names in {@link #cardCollection}, or {@code null}
+     * until it is first asked for.
+     */
+    private CardNameIndex nameIndex;
+
+    /**
+     * Number of {@link #beginRestore()} calls not yet matched by
+     * {@link #endRestore()}.
      */
-    private HashMap<String, CardModel> cardCollection = new HashMap<>();
+    private int restoreDepth;
 
     /**
-     * Stores a collection of binders with their associated names as keys.
+     * Journal that records every change, or {@code null} if changes are not
+     * being persisted.
      */
-    private HashMap<String, BinderModel> binderCollection = new HashMap<>();
+    private CollectionJournal journal;
 
     /**
-     * Stores a collection of decks with their associated names as keys.
+     * Told when a change cannot be journaled, or {@code null} to throw.
      */
-    private HashMap<String, DeckModel> deckCollection = new HashMap<>();
+    private Consumer<IOException> journalErrorHandler;
+
+    /**
+     * Elements changed in the open transactions and not journaled yet, as
+     * {@link Kind#CHANGED} events so each element appears once.
+     */
+    private final Set<CollectionEvent> unjournaled = new LinkedHashSet<>();
+
+    /**
+     * Number of transactions that have begun and not yet ended.
+     */
+    private int openTransactions;
+
+    /**
+     * Bus that delivers the collection's changes to its listeners.
+     */
+    private final CollectionEventBus events;
+
+    /**
+     * Publishes in-place changes of the cards in {@link #cardCollection}.
+     */
+    private final CardListener cardEvents;
+
+    /**
+     * Listeners publishing the content changes of each binder and deck, by
+     * name, so they can be removed with their binder or deck.
+     */
+    private final Map<String, CardContainerListener> binderEvents = new HashMap<>();
+    private final Map<String, CardContainerListener> deckEvents = new HashMap<>();
+
+    /**
+     * Last version handed out. Every change takes the next one, whatever
+     * element it affects, so an element's version only ever goes up.
+     */
+    private long lastVersion;
+
+    /**
+     * Version of each element at its last change. The entries of removed
+     * elements are dropped once no transaction is open.
+     */
+    private final Map<CollectionEvent, Long> versions = new HashMap<>();
+
+    /**
+     * Version of the elements without an entry: at least that of every entry
+     * dropped, so a removed element never goes back to an earlier version.
+     */
+    private long versionFloor;
+
+    /**
+     * Elements removed in the open transactions, whose entries in
+     * {@link #versions} are dropped when the outermost one ends.
+     */
+    private final Set<CollectionEvent> removed = new HashSet<>();
+
+    /**
+     * Creates an empty collection whose changes made outside a transaction
+     * are delivered to listeners at once.
+     */
+    public CollectionModel() {
+        this(null);
+    }
+
+    /**
+     * Creates an empty collection whose changes made outside a transaction
+     * are delivered through the given dispatcher, so that bursts of changes
+     * arrive as one batch. A Swing application passes
+     * {@code SwingUtilities::invokeLater}, which also delivers every batch on
+     * the Event Dispatch Thread.
+     *
+     * @param dispatcher runs the delivery of batches, or {@code null} to
+     *                   deliver each change at once
+     */
+    public CollectionModel(Executor dispatcher) {
+        this.events = new CollectionEventBus(dispatcher);
+        this.cardEvents = (card, oldRarity, oldVariant, oldValue, oldQuantity) -> publish(Target.CARD, Kind.CHANGED,
+                card.getName());
+    }
+
+    /**
+     * Attaches the journal that every later change is written to.
+     *
+     * @param journal the journal to write to, or {@code null} to stop journaling
+     */
+    public void setJournal(CollectionJournal journal) {
+        this.journal = journal;
+        unjournaled.clear();
+    }
+
+    /**
+     * Sets what happens when a change cannot be written to the journal. The
+     * change is still made in memory, and the handler is told why it will
+     * not survive a restart. Without a handler the error is thrown to the
+     * code that made the change.
+     *
+     * @param handler told the cause of each change that could not be
+     *                journaled, or {@code null} to throw it instead
+     */
+    public void setJournalErrorHandler(Consumer<IOException> handler) {
+        this.journalErrorHandler = handler;
+    }
 
     /**
      * Sets the total amount of money in the collection.
@@ -44,6 +223,7 @@ public class CollectionModel {
      */
     public void setMoney(double money) {
         this.money = money;
+        publish(Target.MONEY, Kind.CHANGED, null);
     }
 
     /**
@@ -62,15 +242,142 @@ public class CollectionModel {
      * @param name the key or name associated with the card
      */
     public void setCardCollection(CardModel card, String name) {
-        cardCollection.put(name, card);
+        CardModel previous = cardCollection.put(name, card);
+        if (previous == null && nameIndex != null) {
+            nameIndex.add(name);
+        }
+        if (previous != card && restoreDepth == 0) {
+            if (previous != null) {
+                aggregates.untrack(previous);
+                index.remove(previous);
+                previous.removeListener(cardEvents);
+            }
+            aggregates.track(card);
+            index.add(card);
+            card.addListener(cardEvents);
+        }
+        publish(Target.CARD, previous == null ? Kind.ADDED : Kind.CHANGED, name);
+    }
+
+    /**
+     * Removes a card from the card collection by its name.
+     *
+     * @param name the key or name associated with the card
+     */
+    public void removeCardCollection(String name) {
+        CardModel removed = cardCollection.remove(name);
+        if (removed != null) {
+            if (nameIndex != null) {
+                nameIndex.remove(name);
+            }
+            if (restoreDepth == 0) {
+                aggregates.untrack(removed);
+                index.remove(removed);
+                removed.removeListener(cardEvents);
+            }
+            publish(Target.CARD, Kind.REMOVED, name);
+        }
+    }
+
+    /**
+     * Records that the card stored under {@code name} was changed in place, or
+     * removed.
+     *
+     * @param name the key or name associated with the card
+     */
+    public void cardChanged(String name) {
+        Kind kind = cardCollection.containsKey(name) ? Kind.CHANGED : Kind.REMOVED;
+        publish(Target.CARD, kind, name);
+    }
+
+    /**
+     * Starts restoring saved cards into the collection, e.g. from a snapshot
+     * and journal. Until the matching {@link #endRestore()}, cards are only
+     * put in and taken out of the map, and the running totals and indexes are
+     * built in one pass at the end instead of on every insert; the name index
+     * waits until it is next asked for. Change events are held back as in a
+     * transaction, and are only built at all if someone is listening, and
+     * element versions are left alone. Calls may be nested; only the
+     * outermost pair does the work.
+     */
+    public void beginRestore() {
+        events.begin();
+        if (restoreDepth++ == 0) {
+            aggregates.untrackAll(cardCollection.values());
+            index.clear();
+            nameIndex = null;
+            for (CardModel card : cardCollection.values()) {
+                card.removeListener(cardEvents);
+            }
+        }
+    }
+
+    /**
+     * Ends a restore started with {@link #beginRestore()} and brings the
+     * running totals and indexes up to date with the restored cards. Ending
+     * the outermost restore moves every element on to a new version and
+     * delivers its change events as one batch.
+     */
+    public void endRestore() {
+        if (--restoreDepth == 0) {
+            aggregates.trackAll(cardCollection.values());
+            index.addAll(cardCollection.values());
+            for (CardModel card : cardCollection.values()) {
+                card.addListener(cardEvents);
+            }
+            // Anything may have changed, so nothing read before the restore is current
+            versions.clear();
+            removed.clear();
+            versionFloor = ++lastVersion;
+        }
+        events.end();
+    }
+
+    /**
+     * Returns the running totals over the card collection, such as the number
+     * of copies and their combined value. They are kept up to date as cards
+     * are added, removed or changed.
+     *
+     * @return the collection's card totals
+     */
+    public CardAggregates getAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * Returns the secondary indexes over the card collection, used to find
+     * cards by rarity, variant and value range without scanning them all.
+     *
+     * @return the collection's card index
+     */
+    public CollectionIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the search index over the names of the cards in the collection,
+     * used to suggest names while the user types. The index is built from
+     * the current names the first time it is asked for, so loading a large
+     * collection does not pay for it, and is kept up to date afterwards.
+     *
+     * @return the collection's name index
+     */
+    public CardNameIndex getNameIndex() {
+        if (nameIndex == null) {
+            nameIndex = CardNameIndex.of(cardCollection.keySet());
+        }
+        return nameIndex;
     }
 
     /**
      * Returns the entire card collection.
+     * <p>
+     * Cards must be added and removed through {@link #setCardCollection} and
+     * {@link #removeCardCollection} so the totals and indexes stay correct.
      *
-     * @return a {@code HashMap} containing all cards
+     * @return a {@code TreeMap} containing all cards, sorted by name
      */
-    public HashMap<String, CardModel> getCardCollection() {
+    public TreeMap<String, CardModel> getCardCollection() {
         return this.cardCollection;
     }
 
@@ -81,7 +388,16 @@ public class CollectionModel {
      * @param name   the key or name associated with the binder
      */
     public void setBinderCollection(BinderModel binder, String name) {
-        binderCollection.put(name, binder);
+        BinderModel previous = binderCollection.put(name, binder);
+        if (previous != binder) {
+            if (previous != null) {
+                previous.removeContainerListener(binderEvents.remove(name));
+            }
+            CardContainerListener listener = containerEvents(Target.BINDER, name, true);
+            binder.addContainerListener(listener);
+            binderEvents.put(name, listener);
+        }
+        publish(Target.BINDER, previous == null ? Kind.ADDED : Kind.CHANGED, name);
     }
 
     /**
@@ -94,15 +410,30 @@ public class CollectionModel {
      * @param name the name of the binder to be removed
      */
     public void removeBinderCollection(String name) {
-        binderCollection.remove(name);
+        BinderModel removed = binderCollection.remove(name);
+        if (removed != null) {
+            removed.removeContainerListener(binderEvents.remove(name));
+            publish(Target.BINDER, Kind.REMOVED, name);
+        }
+    }
+
+    /**
+     * Records that the binder stored under {@code name}, or one of its cards,
+     * was changed in place, or that the binder was removed.
+     *
+     * @param name the key or name associated with the binder
+     */
+    public void binderChanged(String name) {
+        Kind kind = binderCollection.containsKey(name) ? Kind.CHANGED : Kind.REMOVED;
+        publish(Target.BINDER, kind, name);
     }
 
     /**
      * Returns the entire binder collection.
      *
-     * @return a {@code HashMap} containing all binders
+     * @return a {@code TreeMap} containing all binders
      */
-    public HashMap<String, BinderModel> getBinderCollection() {
+    public TreeMap<String, BinderModel> getBinderCollection() {
         return this.binderCollection;
     }
 
@@ -113,7 +444,18 @@ public class CollectionModel {
      * @param name the key or name associated with the deck
      */
     public void setDeckCollection(DeckModel deck, String name) {
-        deckCollection.put(name, deck);
+        DeckModel previous = deckCollection.put(name, deck);
+        if (previous != deck) {
+            if (previous != null) {
+                previous.removeContainerListener(deckEvents.remove(name));
+                previous.release();
+            }
+            // A deck only stores card names, so changes to its cards are not its own
+            CardContainerListener listener = containerEvents(Target.DECK, name, false);
+            deck.addContainerListener(listener);
+            deckEvents.put(name, listener);
+        }
+        publish(Target.DECK, previous == null ? Kind.ADDED : Kind.CHANGED, name);
     }
 
     /**
@@ -125,15 +467,220 @@ public class CollectionModel {
      * @param name the name (key) of the deck to be removed
      */
     public void removeDeckCollection(String name) {
-        deckCollection.remove(name);
+        DeckModel removed = deckCollection.remove(name);
+        if (removed != null) {
+            removed.removeContainerListener(deckEvents.remove(name));
+            removed.release();
+            publish(Target.DECK, Kind.REMOVED, name);
+        }
+    }
+
+    /**
+     * Records that the deck stored under {@code name} was changed in place, or
+     * that the deck was removed.
+     *
+     * @param name the key or name associated with the deck
+     */
+    public void deckChanged(String name) {
+        Kind kind = deckCollection.containsKey(name) ? Kind.CHANGED : Kind.REMOVED;
+        publish(Target.DECK, kind, name);
     }
 
     /**
      * Returns the entire deck collection.
      *
-     * @return a {@code HashMap} containing all decks
+     * @return a {@code TreeMap} containing all decks
      */
-    public HashMap<String, DeckModel> getDeckCollection() {
+    public TreeMap<String, DeckModel> getDeckCollection() {
         return this.deckCollection;
     }
+
+    /**
+     * Registers a listener to receive every later batch of changes.
+     *
+     * @param listener the listener to add
+     */
+    public void addCollectionListener(CollectionListener listener) {
+        events.addListener(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addCollectionListener}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeCollectionListener(CollectionListener listener) {
+        events.removeListener(listener);
+    }
+
+    /**
+     * Begins a transaction: changes are held back from listeners until every
+     * transaction begun has ended, and then delivered as one batch.
+     * Transactions nest, and each must be ended with
+     * {@link #endTransaction()}, typically in a {@code finally} block.
+     */
+    public void beginTransaction() {
+        events.begin();
+        openTransactions++;
+    }
+
+    /**
+     * Ends a transaction begun with {@link #beginTransaction()}. Ending the
+     * outermost one journals and delivers its changes before returning.
+     *
+     * @throws IllegalStateException if no transaction is open
+     */
+    public void endTransaction() {
+        if (openTransactions == 0) {
+            throw new IllegalStateException("No transaction is open");
+        }
+        // In the journal before the views hear of it
+        if (--openTransactions == 0) {
+            journal(unjournaled);
+            dropRemovedVersions();
+        }
+        events.end();
+    }
+
+    /**
+     * Returns the version of an element. It goes up whenever the element
+     * changes, including while it does not exist, and never goes down. It
+     * may also go up when another element is removed, which only costs a
+     * transaction that read this one a retry.
+     *
+     * @param target what kind of element
+     * @param name   the name it is stored under, or {@code null} for the money
+     * @return the element's version
+     */
+    long getVersion(Target target, String name) {
+        Long version = versions.get(new CollectionEvent(target, Kind.CHANGED, name));
+        return version != null ? version : versionFloor;
+    }
+
+    /**
+     * Moves on the version of the element a change affects, journals the
+     * change or holds it for the end of the transaction, and publishes it.
+     * While restoring, versions are left to {@link #endRestore()} and the
+     * event is only built for listeners.
+     */
+    private void publish(Target target, Kind kind, String name) {
+        if (restoreDepth == 0) {
+            CollectionEvent element = new CollectionEvent(target, Kind.CHANGED, name);
+            versions.put(element, ++lastVersion);
+            if (kind == Kind.REMOVED) {
+                removed.add(element);
+                if (openTransactions == 0) {
+                    dropRemovedVersions();
+                }
+            }
+        }
+        if (journal != null) {
+            unjournaled.add(new CollectionEvent(target, Kind.CHANGED, name));
+            if (openTransactions == 0) {
+                journal(unjournaled);
+            }
+        }
+        if (restoreDepth == 0 || events.hasListeners()) {
+            events.publish(new CollectionEvent(target, kind, name));
+        }
+    }
+
+    /**
+     * Drops the version entries of the elements removed since the last call
+     * that are still gone, so the entries follow the elements that exist.
+     */
+    private void dropRemovedVersions() {
+        for (CollectionEvent element : removed) {
+            boolean exists = switch (element.target()) {
+                case MONEY -> true;
+                case CARD -> cardCollection.containsKey(element.name());
+                case BINDER -> binderCollection.containsKey(element.name());
+                case DECK -> deckCollection.containsKey(element.name());
+            };
+            Long version = versions.get(element);
+            if (!exists && version != null) {
+                // The element keeps the dropped version, so it never goes back to an earlier one
+                versionFloor = Math.max(versionFloor, version);
+                versions.remove(element);
+            }
+        }
+        removed.clear();
+    }
+
+    /**
+     * Returns a listener that publishes the content changes of a binder or
+     * deck as changes of the binder or deck itself.
+     */
+    private CardContainerListener containerEvents(Target target, String name, boolean includeCardChanges) {
+        return new CardContainerListener() {
+            @Override
+            public void cardAdded(String cardName, CardModel card) {
+                publish(target, Kind.CHANGED, name);
+            }
+
+            @Override
+            public void cardRemoved(String cardName, CardModel card) {
+                publish(target, Kind.CHANGED, name);
+            }
+
+            @Override
+            public void cardChanged(String cardName, CardModel card, int oldQuantity) {
+                if (includeCardChanges) {
+                    publish(target, Kind.CHANGED, name);
+                }
+            }
+        };
+    }
+
+    /**
+     * Writes the current state of the changed elements to the journal, if one
+     * is attached, and forgets them.
+     */
+    private void journal(Set<CollectionEvent> changed) {
+        CollectionJournal target = journal;
+        if (target == null || changed.isEmpty()) {
+            return;
+        }
+        List<CollectionEvent> batch = new ArrayList<>(changed);
+        changed.clear();
+
+        for (CollectionEvent event : batch) {
+            String name = event.name();
+            switch (event.target()) {
+                case MONEY -> record(() -> target.logMoney(money));
+                case CARD -> {
+                    CardModel card = cardCollection.get(name);
+                    record(card != null ? () -> target.logCard(name, card) : () -> target.logCardRemoved(name));
+                }
+                case BINDER -> {
+                    BinderModel binder = binderCollection.get(name);
+                    record(binder != null ? () -> target.logBinder(name, binder)
+                            : () -> target.logBinderRemoved(name));
+                }
+                case DECK -> {
+                    DeckModel deck = deckCollection.get(name);
+                    record(deck != null ? () -> target.logDeck(name, deck) : () -> target.logDeckRemoved(name));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a change to the journal, reporting it to the journal error
+     * handler if the journal can no longer be written.
+     *
+     * @param entry the journal call to make
+     * @throws UncheckedIOException if the journal fails and no handler is set
+     */
+    private void record(Runnable entry) {
+        try {
+            entry.run();
+        } catch (UncheckedIOException e) {
+            Consumer<IOException> handler = journalErrorHandler;
+            if (handler == null) {
+                throw e;
+            }
+            handler.accept(e.getCause());
+        }
+    }
 }
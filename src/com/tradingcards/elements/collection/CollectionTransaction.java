@@ -0,0 +1,368 @@
+package com.tradingcards.elements.collection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent.Kind;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent.Target;
+import com.tradingcards.elements.deck.DeckModel;
+
+/**
+ * A group of changes to a {@link CollectionModel} that spans several cards,
+ * binders and decks and is made all at once or not at all, such as a trade or
+ * moving a card between the collection and a binder or deck.
+ * <p>
+ * Its reads note the version of each element they look at, and its changes
+ * are only recorded. {@link #commit()} then checks that none of those
+ * elements has changed since, and if so makes every change inside one
+ * {@link CollectionModel#beginTransaction()}, so listeners see them as one
+ * batch. If an element has changed, nothing is made. If a change turns out
+ * not to be possible, those already made are undone before the error is
+ * reported; listeners are then told the elements changed and find them as
+ * they were.
+ * <p>
+ * Like every change to the collection, a transaction must be read and
+ * committed on the thread that owns the collection; it takes no locks. The
+ * version check is for a transaction held open across other work on that
+ * thread, such as a dialog between its reads and its commit, during which
+ * the collection may change.
+ * <p>
+ * Reads return the collection's own objects as they are now, not as the
+ * transaction will leave them, and must not be changed directly. A
+ * transaction itself belongs to the thread that started it.
+ */
+public class CollectionTransaction {
+
+    /**
+     * A recorded change. Applying it adds the steps that undo it to the front
+     * of {@code undo}, or throws {@link IllegalStateException} if it cannot be
+     * made.
+     */
+    private interface Change {
+        void apply(Deque<Runnable> undo);
+    }
+
+    private final CollectionModel collection;
+
+    /** Version of each element read or changed, as first seen. */
+    private final Map<CollectionEvent, Long> versions = new HashMap<>();
+
+    /** Changes to make on commit, in order. */
+    private final List<Change> changes = new ArrayList<>();
+
+    private boolean finished;
+
+    /**
+     * Starts a transaction on a collection.
+     *
+     * @param collection the collection to change
+     */
+    public CollectionTransaction(CollectionModel collection) {
+        this.collection = collection;
+    }
+
+    // -------------------------------
+    // Reads
+    // -------------------------------
+
+    /**
+     * Reads a card in the collection.
+     *
+     * @param name the name of the card
+     * @return the card, or {@code null} if there is none
+     */
+    public CardModel card(String name) {
+        watch(Target.CARD, name);
+        return collection.getCardCollection().get(name);
+    }
+
+    /**
+     * Reads a binder.
+     *
+     * @param name the name of the binder
+     * @return the binder, or {@code null} if there is none
+     */
+    public BinderModel binder(String name) {
+        watch(Target.BINDER, name);
+        return collection.getBinderCollection().get(name);
+    }
+
+    /**
+     * Reads a deck.
+     *
+     * @param name the name of the deck
+     * @return the deck, or {@code null} if there is none
+     */
+    public DeckModel deck(String name) {
+        watch(Target.DECK, name);
+        return collection.getDeckCollection().get(name);
+    }
+
+    /**
+     * Reads the money.
+     *
+     * @return the current amount of money
+     */
+    public double money() {
+        watch(Target.MONEY, null);
+        return collection.getMoney();
+    }
+
+    // -------------------------------
+    // Changes
+    // -------------------------------
+
+    /**
+     * Adds a new card to the collection.
+     *
+     * @param card the card, with its quantity in the collection
+     */
+    public void addCard(CardModel card) {
+        String name = card.getName();
+        record(Target.CARD, name, undo -> {
+            if (collection.getCardCollection().containsKey(name)) {
+                throw new IllegalStateException("Card already exists: " + name);
+            }
+            collection.setCardCollection(card, name);
+            undo.push(() -> collection.removeCardCollection(name));
+        });
+    }
+
+    /**
+     * Changes the number of copies of a card in the collection.
+     *
+     * @param name  the name of the card
+     * @param delta the copies to add, or to take away if negative
+     */
+    public void changeQuantity(String name, int delta) {
+        record(Target.CARD, name, undo -> {
+            CardModel card = collection.getCardCollection().get(name);
+            if (card == null) {
+                throw new IllegalStateException("Card does not exist: " + name);
+            }
+            int quantity = card.getQuantity();
+            if (quantity + delta < 0) {
+                throw new IllegalStateException("Collection currently has zero copies of " + name);
+            }
+            card.setQuantity(quantity + delta);
+            undo.push(() -> card.setQuantity(quantity));
+        });
+    }
+
+    /**
+     * Puts one copy of a card into a binder, as a new entry if the binder does
+     * not hold the card yet.
+     *
+     * @param binderName the name of the binder
+     * @param card       the card, whose details the binder's copy takes
+     */
+    public void addToBinder(String binderName, CardModel card) {
+        String name = card.getName();
+        record(Target.BINDER, binderName, undo -> {
+            BinderModel binder = existingBinder(binderName);
+            CardModel inBinder = binder.getBinder().get(name);
+            if (inBinder != null) {
+                inBinder.setQuantity(inBinder.getQuantity() + 1);
+                undo.push(() -> inBinder.setQuantity(inBinder.getQuantity() - 1));
+            } else if (binder.insertInBinder(card.copy(), name)) {
+                undo.push(() -> binder.removeCard(name));
+            } else {
+                throw new IllegalStateException("Incompatible binder and card types: " + binderName + ", " + name);
+            }
+        });
+    }
+
+    /**
+     * Takes one copy of a card out of a binder, removing its entry when it
+     * was the last.
+     *
+     * @param binderName the name of the binder
+     * @param cardName   the name of the card
+     */
+    public void removeFromBinder(String binderName, String cardName) {
+        record(Target.BINDER, binderName, undo -> {
+            BinderModel binder = existingBinder(binderName);
+            CardModel inBinder = binder.getBinder().get(cardName);
+            if (inBinder == null) {
+                throw new IllegalStateException("No Card with given name exists in Binder: " + cardName);
+            }
+            if (inBinder.getQuantity() > 1) {
+                inBinder.setQuantity(inBinder.getQuantity() - 1);
+                undo.push(() -> inBinder.setQuantity(inBinder.getQuantity() + 1));
+            } else {
+                binder.removeCard(cardName);
+                undo.push(() -> binder.putCard(inBinder, cardName));
+            }
+        });
+    }
+
+    /**
+     * Removes a binder with its cards.
+     *
+     * @param name the name of the binder
+     */
+    public void removeBinder(String name) {
+        record(Target.BINDER, name, undo -> {
+            BinderModel binder = existingBinder(name);
+            collection.removeBinderCollection(name);
+            undo.push(() -> collection.setBinderCollection(binder, name));
+        });
+    }
+
+    /**
+     * Puts a card of the collection into a deck.
+     *
+     * @param deckName the name of the deck
+     * @param cardName the name of the card
+     */
+    public void addToDeck(String deckName, String cardName) {
+        record(Target.DECK, deckName, undo -> {
+            DeckModel deck = existingDeck(deckName);
+            CardModel card = collection.getCardCollection().get(cardName);
+            if (card == null) {
+                throw new IllegalStateException("No Card with given name exists in Collection: " + cardName);
+            }
+            if (!deck.addCardtoDeck(card, cardName)) {
+                throw new IllegalStateException("Deck already contains " + cardName);
+            }
+            undo.push(() -> deck.removeCardFromDeck(cardName));
+        });
+    }
+
+    /**
+     * Takes a card out of a deck.
+     *
+     * @param deckName the name of the deck
+     * @param cardName the name of the card
+     */
+    public void removeFromDeck(String deckName, String cardName) {
+        record(Target.DECK, deckName, undo -> {
+            DeckModel deck = existingDeck(deckName);
+            CardModel card = deck.removeCardFromDeck(cardName);
+            if (card == null) {
+                throw new IllegalStateException("No Card with given name exists in Deck: " + cardName);
+            }
+            undo.push(() -> deck.addCardtoDeck(card, cardName));
+        });
+    }
+
+    /**
+     * Removes a deck. Its cards stay in the collection.
+     *
+     * @param name the name of the deck
+     */
+    public void removeDeck(String name) {
+        record(Target.DECK, name, undo -> {
+            DeckModel deck = existingDeck(name);
+            collection.removeDeckCollection(name);
+            // A removed deck no longer follows its cards, so a new one takes its place
+            undo.push(() -> {
+                DeckModel restored = new DeckModel();
+                restored.setName(deck.getName());
+                restored.setType(deck.getType());
+                deck.getDeck().forEach((cardName, card) -> restored.addCardtoDeck(card, cardName));
+                collection.setDeckCollection(restored, name);
+            });
+        });
+    }
+
+    /**
+     * Adds to the money.
+     *
+     * @param amount the amount to add, or to take away if negative
+     */
+    public void addMoney(double amount) {
+        record(Target.MONEY, null, undo -> {
+            double money = collection.getMoney();
+            collection.setMoney(money + amount);
+            undo.push(() -> collection.setMoney(money));
+        });
+    }
+
+    // -------------------------------
+    // Commit
+    // -------------------------------
+
+    /**
+     * Makes every recorded change, provided nothing the transaction read or
+     * changed has been changed by anyone else since. A transaction can only
+     * be committed once, whatever the outcome.
+     *
+     * @return {@code true} if the changes were made, {@code false} if the
+     *         collection had changed and nothing was made
+     * @throws IllegalStateException if a change could not be made; any made
+     *                               before it have been undone
+     */
+    public boolean commit() {
+        if (finished) {
+            throw new IllegalStateException("Transaction already committed");
+        }
+        finished = true;
+        for (Map.Entry<CollectionEvent, Long> entry : versions.entrySet()) {
+            CollectionEvent element = entry.getKey();
+            if (collection.getVersion(element.target(), element.name()) != entry.getValue()) {
+                return false;
+            }
+        }
+
+        Deque<Runnable> undo = new ArrayDeque<>();
+        collection.beginTransaction();
+        try {
+            for (Change change : changes) {
+                change.apply(undo);
+            }
+        } catch (RuntimeException e) {
+            while (!undo.isEmpty()) {
+                undo.pop().run();
+            }
+            throw e;
+        } finally {
+            collection.endTransaction();
+        }
+        return true;
+    }
+
+    // -------------------------------
+    // Helpers
+    // -------------------------------
+
+    /**
+     * Notes the version of an element, unless it was already noted.
+     */
+    private void watch(Target target, String name) {
+        versions.computeIfAbsent(new CollectionEvent(target, Kind.CHANGED, name),
+                element -> collection.getVersion(target, name));
+    }
+
+    /**
+     * Records a change to an element, watching the element too so that a
+     * change made by someone else in between is noticed.
+     */
+    private void record(Target target, String name, Change change) {
+        watch(target, name);
+        changes.add(change);
+    }
+
+    private BinderModel existingBinder(String name) {
+        BinderModel binder = collection.getBinderCollection().get(name);
+        if (binder == null) {
+            throw new IllegalStateException("No Binder with given name exists: " + name);
+        }
+        return binder;
+    }
+
+    private DeckModel existingDeck(String name) {
+        DeckModel deck = collection.getDeckCollection().get(name);
+        if (deck == null) {
+            throw new IllegalStateException("No Deck with given name exists: " + name);
+        }
+        return deck;
+    }
+}
@@ -0,0 +1,602 @@
+package com.tradingcards.elements.collection;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.service.CollectionService;
+import com.tradingcards.elements.service.ServiceResult;
+
+/**
+ * A working copy of the cards, binders and money of a {@link CollectionModel}
+ * that any number of threads can add cards to, sell cards from and trade and
+ * move cards between at once.
+ * <p>
+ * A caller that wants to do such work off the thread that owns the
+ * collection takes a copy with {@link #of}, or starts from an empty one with
+ * the constructor, works on it from as many threads as it likes, and writes
+ * it back with {@link #writeTo} on the owning thread. The importer works
+ * this way: it merges the cards of a file into an empty copy on a
+ * background thread, values them there, and writes them back on the Event
+ * Dispatch Thread.
+ * <p>
+ * The write-back applies what changed in the copy, not the copy itself:
+ * quantities and money move by the difference between the copy now and when
+ * it was taken, and cards added to the copy are added to the collection or
+ * merged into a copy of them already there. Changes the owning thread makes
+ * to the collection in the meantime are therefore kept. Changes that no
+ * longer fit, such as a card sold both here and in the collection, are
+ * skipped and reported.
+ * <p>
+ * The cards and binders are kept in {@link ConcurrentHashMap}s. Each card
+ * and each binder is guarded by one of a fixed set of striped locks, chosen
+ * by its name, so operations on different cards or binders rarely wait for
+ * each other while those on the same one take turns. An operation that
+ * touches a binder and a card locks the binder first, so two operations can
+ * never wait for each other. The money is updated with compare-and-set, while
+ * the lock of the card it pays for is held, so {@link #writeTo}, which takes
+ * every lock, never sees a card sold and not yet paid for.
+ * <p>
+ * The operations follow the same rules as those of {@link CollectionService}
+ * and return the same results. Decks are not copied: their cards are those
+ * of the collection itself, which {@link #writeTo} updates in place.
+ */
+public class ConcurrentCollection {
+
+    /** Number of lock stripes for cards and for binders; a power of two. */
+    private static final int STRIPES = 64;
+
+    /** Cards by name. A card is only read or changed under its stripe lock. */
+    private final ConcurrentHashMap<String, CardModel> cards = new ConcurrentHashMap<>();
+
+    /** Binders by name. A binder is only read or changed under its stripe lock. */
+    private final ConcurrentHashMap<String, BinderModel> binders = new ConcurrentHashMap<>();
+
+    /** Locks guarding the cards, by the hash of their name. */
+    private final ReentrantLock[] cardLocks = newLocks();
+
+    /** Locks guarding the binders, by the hash of their name. */
+    private final ReentrantLock[] binderLocks = newLocks();
+
+    /** The money, as the bits of a {@code double}. */
+    private final AtomicLong money = new AtomicLong(Double.doubleToRawLongBits(0.0));
+
+    /**
+     * Card quantities as of the copy or the last write-back, by name. Only
+     * used on the owning thread.
+     */
+    private final Map<String, Integer> baseCards = new HashMap<>();
+
+    /**
+     * Binder card quantities as of the copy or the last write-back, by binder
+     * and card name. Only used on the owning thread.
+     */
+    private final Map<String, Map<String, Integer>> baseBinders = new HashMap<>();
+
+    /** Money as of the copy or the last write-back. */
+    private double baseMoney;
+
+    /**
+     * Creates an empty copy with no money. Writing it back only adds what was
+     * added to it.
+     */
+    public ConcurrentCollection() {
+    }
+
+    /**
+     * Copies the cards, binders and money of a collection. Must be called on
+     * the thread that owns the collection.
+     *
+     * @param collection the collection to copy
+     * @return the copy
+     */
+    public static ConcurrentCollection of(CollectionModel collection) {
+        ConcurrentCollection copy = new ConcurrentCollection();
+        copy.money.set(Double.doubleToRawLongBits(collection.getMoney()));
+        for (Map.Entry<String, CardModel> entry : collection.getCardCollection().entrySet()) {
+            copy.cards.put(entry.getKey(), copyOf(entry.getValue()));
+        }
+        for (Map.Entry<String, BinderModel> entry : collection.getBinderCollection().entrySet()) {
+            copy.binders.put(entry.getKey(), copyOf(entry.getValue()));
+        }
+        copy.rebase(copy.getMoney(), copy.cards, copy.binders);
+        return copy;
+    }
+
+    /**
+     * Writes what changed in the copy since it was taken, or since the last
+     * write-back, into a collection as one transaction. The copy is read
+     * with every lock held, so operations still running on other threads are
+     * either wholly included or left for the next write-back. Cards already
+     * in the collection are updated in place, so decks keep pointing at them.
+     * Must be called on the thread that owns the collection.
+     *
+     * @param collection the collection to update
+     * @return what was written back
+     */
+    public WriteBack writeTo(CollectionModel collection) {
+        double currentMoney;
+        Map<String, CardModel> currentCards = new HashMap<>();
+        Map<String, BinderModel> currentBinders = new HashMap<>();
+
+        // Binders before cards, as the operations take them
+        lockAll(binderLocks);
+        lockAll(cardLocks);
+        try {
+            currentMoney = getMoney();
+            for (Map.Entry<String, CardModel> entry : cards.entrySet()) {
+                currentCards.put(entry.getKey(), copyOf(entry.getValue()));
+            }
+            for (Map.Entry<String, BinderModel> entry : binders.entrySet()) {
+                currentBinders.put(entry.getKey(), copyOf(entry.getValue()));
+            }
+        } finally {
+            unlockAll(cardLocks);
+            unlockAll(binderLocks);
+        }
+
+        int added = 0;
+        int changed = 0;
+        List<String> conflicts = new ArrayList<>();
+        collection.beginTransaction();
+        try {
+            if (currentMoney != baseMoney) {
+                collection.setMoney(collection.getMoney() + currentMoney - baseMoney);
+            }
+
+            for (Map.Entry<String, CardModel> entry : currentCards.entrySet()) {
+                String name = entry.getKey();
+                CardModel card = entry.getValue();
+                Integer base = baseCards.get(name);
+                CardModel existing = collection.getCardCollection().get(name);
+
+                if (existing == null) {
+                    if (base == null) {
+                        collection.setCardCollection(copyOf(card), name);
+                        added++;
+                    } else if (card.getQuantity() != base) {
+                        conflicts.add("Card was removed from the collection: " + name);
+                    }
+                } else if (base == null && !existing.isCopyOf(card)) {
+                    conflicts.add("Card of the same name with different details already exists: " + name);
+                } else {
+                    int difference = card.getQuantity() - (base == null ? 0 : base);
+                    if (existing.getQuantity() + difference < 0) {
+                        conflicts.add("Collection currently has zero copies of " + name);
+                    } else if (base == null || difference != 0) {
+                        existing.increaseQuantity(difference);
+                        changed++;
+                    }
+                }
+            }
+
+            for (Map.Entry<String, BinderModel> entry : currentBinders.entrySet()) {
+                String name = entry.getKey();
+                BinderModel binder = collection.getBinderCollection().get(name);
+                Map<String, Integer> base = baseBinders.getOrDefault(name, Map.of());
+                if (binder == null) {
+                    if (!quantities(entry.getValue()).equals(base)) {
+                        conflicts.add("Binder was removed from the collection: " + name);
+                    }
+                    continue;
+                }
+                changed += writeBinder(entry.getValue(), base, binder, conflicts);
+            }
+        } finally {
+            collection.endTransaction();
+        }
+
+        rebase(currentMoney, currentCards, currentBinders);
+        return new WriteBack(added, changed, List.copyOf(conflicts));
+    }
+
+    // -------------------------------
+    // Cards
+    // -------------------------------
+
+    /**
+     * Adds a card, or its copies to a card of that name with the same
+     * details.
+     *
+     * @param card the card to add, with the number of copies as its quantity
+     * @return the result
+     */
+    public ServiceResult addCard(CardModel card) {
+        String name = card.getName();
+        ReentrantLock lock = cardLock(name);
+        lock.lock();
+        try {
+            CardModel existing = cards.get(name);
+            if (existing == null) {
+                cards.put(name, copyOf(card));
+                return ServiceResult.success("Added " + name);
+            }
+            if (!existing.isCopyOf(card)) {
+                return ServiceResult.failure("Card of the same name with different details already exists: " + name);
+            }
+            existing.setQuantity(existing.getQuantity() + card.getQuantity());
+            return ServiceResult.success("Added a copy of " + name + ", quantity is now " + existing.getQuantity());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sells one copy of a card, adding its value to the money.
+     *
+     * @param name the name of the card
+     * @return the result
+     */
+    public ServiceResult sellCard(String name) {
+        double cash;
+        ReentrantLock lock = cardLock(name);
+        lock.lock();
+        try {
+            CardModel card = cards.get(name);
+            if (card == null) {
+                return ServiceResult.failure("Card does not exist: " + name);
+            }
+            if (card.getQuantity() <= 0) {
+                return ServiceResult.failure("Collection currently has zero copies of " + name);
+            }
+            card.setQuantity(card.getQuantity() - 1);
+            cash = addMoney(card.getValue());
+        } finally {
+            lock.unlock();
+        }
+        return ServiceResult.success("Sold " + name + ", your updated cash is now " + format(cash));
+    }
+
+    // -------------------------------
+    // Binders
+    // -------------------------------
+
+    /**
+     * Moves one copy of a card from the collection into a binder.
+     *
+     * @param binderName the name of the binder
+     * @param cardName   the name of the card
+     * @return the result
+     */
+    public ServiceResult addToBinder(String binderName, String cardName) {
+        ReentrantLock binderLock = binderLock(binderName);
+        ReentrantLock cardLock = cardLock(cardName);
+        binderLock.lock();
+        cardLock.lock();
+        try {
+            BinderModel binder = binders.get(binderName);
+            CardModel card = cards.get(cardName);
+            if (binder == null) {
+                return ServiceResult.failure("No Binder with given name exists: " + binderName);
+            }
+            if (card == null) {
+                return ServiceResult.failure("No Card with given name exists in Collection: " + cardName);
+            }
+            if (card.getQuantity() <= 0) {
+                return ServiceResult.failure("Collection currently has zero copies of " + cardName);
+            }
+            if (binder.getBinder().size() >= binder.getCapacity()) {
+                return ServiceResult.failure("Binder is already full: " + binderName);
+            }
+
+            CardModel inBinder = binder.getBinder().get(cardName);
+            if (inBinder != null) {
+                inBinder.setQuantity(inBinder.getQuantity() + 1);
+            } else if (!binder.insertInBinder(card.copy(), cardName)) {
+                return ServiceResult.failure("Incompatible binder and card types: " + binderName + ", " + cardName);
+            }
+            card.setQuantity(card.getQuantity() - 1);
+            return ServiceResult.success("Successfully transferred " + cardName + " into binder " + binderName);
+        } finally {
+            cardLock.unlock();
+            binderLock.unlock();
+        }
+    }
+
+    /**
+     * Moves one copy of a card from a binder back into the collection.
+     *
+     * @param binderName the name of the binder
+     * @param cardName   the name of the card
+     * @return the result
+     */
+    public ServiceResult removeFromBinder(String binderName, String cardName) {
+        ReentrantLock binderLock = binderLock(binderName);
+        ReentrantLock cardLock = cardLock(cardName);
+        binderLock.lock();
+        cardLock.lock();
+        try {
+            BinderModel binder = binders.get(binderName);
+            if (binder == null) {
+                return ServiceResult.failure("No Binder with given name exists: " + binderName);
+            }
+            CardModel inBinder = binder.getBinder().get(cardName);
+            if (inBinder == null) {
+                return ServiceResult.failure("No Card with given name exists in Binder: " + cardName);
+            }
+
+            CardModel card = cards.get(cardName);
+            card.setQuantity(card.getQuantity() + 1);
+            if (inBinder.getQuantity() > 1) {
+                inBinder.setQuantity(inBinder.getQuantity() - 1);
+            } else {
+                binder.removeCard(cardName);
+            }
+            return ServiceResult.success("Successfully transferred " + cardName + " into Collection");
+        } finally {
+            cardLock.unlock();
+            binderLock.unlock();
+        }
+    }
+
+    /**
+     * Trades one copy of a card in a binder for an incoming card, as
+     * {@link CollectionService#trade} does.
+     *
+     * @param binderName   the name of the binder
+     * @param outgoingName the name of the card leaving the binder
+     * @param incoming     the card offered in exchange
+     * @param accept       whether to go on if the values differ by 1 or more
+     * @return the result
+     */
+    public ServiceResult trade(String binderName, String outgoingName, CardModel incoming, boolean accept) {
+        String incomingName = incoming.getName();
+        ReentrantLock binderLock = binderLock(binderName);
+        ReentrantLock cardLock = cardLock(incomingName);
+        binderLock.lock();
+        cardLock.lock();
+        try {
+            BinderModel binder = binders.get(binderName);
+            if (binder == null) {
+                return ServiceResult.failure("No Binder with given name exists: " + binderName);
+            }
+            Map<String, CardModel> contents = binder.getBinder();
+            CardModel outgoing = contents.get(outgoingName);
+            CardModel existing = cards.get(incomingName);
+
+            if (outgoing == null) {
+                return ServiceResult.failure("No Card with given name exists in Binder: " + outgoingName);
+            }
+            if (existing != null && !existing.isCopyOf(incoming)) {
+                return ServiceResult.failure(
+                        "Card of the same name with different details already exists: " + incomingName);
+            }
+            if (contents.containsKey(incomingName)) {
+                return ServiceResult.failure("Trade failed: Incoming card already exists in the binder.");
+            }
+            if (!binder.accepts(incoming)) {
+                return ServiceResult.failure("Type/Variant mismatch");
+            }
+            if (outgoing.getQuantity() > 1 && contents.size() >= binder.getCapacity()) {
+                return ServiceResult.failure("Trade failed: Binder is full.");
+            }
+            double difference = Math.abs(incoming.getValue() - outgoing.getValue());
+            if (difference >= 1 && !accept) {
+                return ServiceResult.failure("Trade declined: values differ by " + format(difference));
+            }
+
+            if (outgoing.getQuantity() > 1) {
+                outgoing.setQuantity(outgoing.getQuantity() - 1);
+            } else {
+                binder.removeCard(outgoingName);
+            }
+            if (existing == null) {
+                existing = incoming.copy();
+                existing.setQuantity(0);
+                cards.put(incomingName, existing);
+            }
+            binder.insertInBinder(existing.copy(), incomingName);
+            return ServiceResult.success("Trade successful! " + outgoingName + " removed, " + incomingName + " added.");
+        } finally {
+            cardLock.unlock();
+            binderLock.unlock();
+        }
+    }
+
+    // -------------------------------
+    // Totals
+    // -------------------------------
+
+    /**
+     * Returns the money.
+     *
+     * @return the current amount of money
+     */
+    public double getMoney() {
+        return Double.longBitsToDouble(money.get());
+    }
+
+    /**
+     * Adds up the value of every copy in the collection and in the binders.
+     * Each card and binder is read under its lock, but other threads may
+     * change the collection while the total is being added up.
+     *
+     * @return the total value of the cards
+     */
+    public double getTotalValue() {
+        double total = 0;
+        for (Map.Entry<String, CardModel> entry : cards.entrySet()) {
+            ReentrantLock lock = cardLock(entry.getKey());
+            lock.lock();
+            try {
+                total += entry.getValue().getValue() * entry.getValue().getQuantity();
+            } finally {
+                lock.unlock();
+            }
+        }
+        for (Map.Entry<String, BinderModel> entry : binders.entrySet()) {
+            ReentrantLock lock = binderLock(entry.getKey());
+            lock.lock();
+            try {
+                total += entry.getValue().getAggregates().getTotalValue();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    // -------------------------------
+    // Helpers
+    // -------------------------------
+
+    /**
+     * Adds to the money and returns the new amount.
+     */
+    private double addMoney(double amount) {
+        long current;
+        double updated;
+        do {
+            current = money.get();
+            updated = Double.longBitsToDouble(current) + amount;
+        } while (!money.compareAndSet(current, Double.doubleToRawLongBits(updated)));
+        return updated;
+    }
+
+    /**
+     * Formats an amount for a result message. {@link DecimalFormat} is not
+     * thread-safe, so each call makes its own.
+     */
+    private static String format(double amount) {
+        return new DecimalFormat("#.##").format(amount);
+    }
+
+    /**
+     * Applies the changes to the cards of one binder to the collection's
+     * binder of that name.
+     *
+     * @return 1 if the binder changed, 0 otherwise
+     */
+    private static int writeBinder(BinderModel current, Map<String, Integer> base, BinderModel binder,
+            List<String> conflicts) {
+        Set<String> names = new HashSet<>(base.keySet());
+        names.addAll(current.getBinder().keySet());
+        boolean changed = false;
+        for (String cardName : names) {
+            CardModel card = current.getBinder().get(cardName);
+            int difference = (card == null ? 0 : card.getQuantity()) - base.getOrDefault(cardName, 0);
+            if (difference == 0) {
+                continue;
+            }
+            CardModel inBinder = binder.getBinder().get(cardName);
+            int quantity = (inBinder == null ? 0 : inBinder.getQuantity()) + difference;
+            if (quantity < 0) {
+                conflicts.add("No Card with given name exists in Binder: " + cardName);
+            } else if (quantity == 0) {
+                binder.removeCard(cardName);
+                changed = true;
+            } else if (inBinder == null) {
+                CardModel copy = copyOf(card);
+                copy.setQuantity(quantity);
+                binder.putCard(copy, cardName);
+                changed = true;
+            } else {
+                inBinder.setQuantity(quantity);
+                changed = true;
+            }
+        }
+        return changed ? 1 : 0;
+    }
+
+    /**
+     * Makes the given state the one later write-backs are measured from.
+     */
+    private void rebase(double money, Map<String, CardModel> cards, Map<String, BinderModel> binders) {
+        baseMoney = money;
+        baseCards.clear();
+        for (Map.Entry<String, CardModel> entry : cards.entrySet()) {
+            baseCards.put(entry.getKey(), entry.getValue().getQuantity());
+        }
+        baseBinders.clear();
+        for (Map.Entry<String, BinderModel> entry : binders.entrySet()) {
+            baseBinders.put(entry.getKey(), quantities(entry.getValue()));
+        }
+    }
+
+    /**
+     * Returns the quantity of each card in a binder, by name.
+     */
+    private static Map<String, Integer> quantities(BinderModel binder) {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (Map.Entry<String, CardModel> entry : binder.getBinder().entrySet()) {
+            quantities.put(entry.getKey(), entry.getValue().getQuantity());
+        }
+        return quantities;
+    }
+
+    private static void lockAll(ReentrantLock[] locks) {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    private static void unlockAll(ReentrantLock[] locks) {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    private ReentrantLock cardLock(String name) {
+        return cardLocks[stripe(name)];
+    }
+
+    private ReentrantLock binderLock(String name) {
+        return binderLocks[stripe(name)];
+    }
+
+    private static int stripe(String name) {
+        int hash = name.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static ReentrantLock[] newLocks() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    /**
+     * Copies a card with its quantity and no listeners.
+     */
+    private static CardModel copyOf(CardModel card) {
+        CardModel copy = card.copy();
+        copy.setQuantity(card.getQuantity());
+        return copy;
+    }
+
+    /**
+     * Copies a binder and its cards.
+     */
+    private static BinderModel copyOf(BinderModel binder) {
+        BinderModel copy = BinderModel.ofType(binder.getType());
+        copy.setName(binder.getName());
+        for (Map.Entry<String, CardModel> entry : binder.getBinder().entrySet()) {
+            copy.putCard(copyOf(entry.getValue()), entry.getKey());
+        }
+        return copy;
+    }
+
+    /**
+     * Outcome of a write-back.
+     *
+     * @param added     number of cards new to the collection
+     * @param changed   number of cards and binders already in the collection
+     *                  that were changed, including cards added to the copy
+     *                  that were merged into a copy of them already there
+     * @param conflicts descriptions of the changes that no longer fit the
+     *                  collection and were skipped
+     */
+    public record WriteBack(int added, int changed, List<String> conflicts) {
+    }
+}
@@ -0,0 +1,694 @@
+package com.tradingcards.elements.collection.collectionUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.collection.ConcurrentCollection;
+
+/**
+ * Imports many cards at once from a CSV or JSON-lines file.
+ * <p>
+ * Each line describes one card with the fields {@code name}, {@code rarity},
+ * {@code variant}, {@code value} (the base value), and optionally
+ * {@code quantity} (1 if missing) and {@code imagePath}. A CSV file lists them
+ * in that order, or in any order if its first line is a header naming them. A
+ * JSON-lines file holds one object per line with those keys. Cards are
+ * checked the way the Add Card form checks them: the rarity must be known,
+ * Rare and Legendary cards take a variant ({@code Normal} if missing), and
+ * the base value must not be negative. The stored value is the base value
+ * with the variant multiplier applied.
+ * <p>
+ * {@link #read(Path)} streams the file on the calling thread and hands blocks
+ * of lines to worker threads, which parse them in parallel. The parsed blocks
+ * are merged in file order as they complete, with only a few in flight at a
+ * time, so memory use does not depend on the file size. The cards are merged
+ * into a {@link ConcurrentCollection} of their own: cards listed more than
+ * once become one by adding up their quantities, as long as they are copies
+ * of each other ({@link CardModel#isCopyOf}); otherwise the later line is
+ * rejected. The value of the imported cards is added up there too, still off
+ * the thread that owns the collection. {@link #apply} then writes the cards
+ * back into the collection in a single transaction.
+ * <p>
+ * Lines that cannot be imported are counted and skipped rather than failing
+ * the whole import, and the first few are described in the result.
+ */
+public class CardImporter {
+
+    /** Format of an import file. */
+    public enum Format {
+
+        /** Comma-separated values, one card per line. */
+        CSV,
+
+        /** One JSON object per line. */
+        JSON_LINES;
+
+        /**
+         * Returns the format of a file from its extension: JSON lines for
+         * {@code .jsonl}, {@code .ndjson} and {@code .json}, CSV otherwise.
+         *
+         * @param file the file to import
+         * @return the format of the file
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+                return JSON_LINES;
+            }
+            return CSV;
+        }
+    }
+
+    /** Number of lines parsed together by one worker. */
+    private static final int BLOCK_LINES = 4096;
+
+    /** Number of rejected lines described in a result. */
+    private static final int DESCRIBED_REJECTIONS = 20;
+
+    /** Size of the buffer the file is read through. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Field names, in the default CSV column order. */
+    private static final String[] FIELDS = { "name", "rarity", "variant", "value", "quantity", "imagepath" };
+
+    private static final int NAME = 0;
+    private static final int RARITY = 1;
+    private static final int VARIANT = 2;
+    private static final int VALUE = 3;
+    private static final int QUANTITY = 4;
+    private static final int IMAGE_PATH = 5;
+
+    /** Number of worker threads parsing blocks. */
+    private final int threads;
+
+    /**
+     * Creates an importer that parses on one worker thread per processor.
+     */
+    public CardImporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an importer that parses on the given number of worker threads.
+     *
+     * @param threads the number of worker threads
+     */
+    public CardImporter(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Reads and applies a file in one go.
+     *
+     * @param file       the file to import
+     * @param collection the collection to add the cards to
+     * @return what was imported
+     * @throws IOException if the file cannot be read
+     */
+    public Result importFile(Path file, CollectionModel collection) throws IOException {
+        return apply(read(file), collection);
+    }
+
+    /**
+     * Parses a file in parallel and merges the cards it lists. The collection
+     * is not touched, so this can run on a background thread.
+     *
+     * @param file the file to import
+     * @return the merged cards of the file
+     * @throws IOException if the file cannot be read
+     */
+    public Batch read(Path file) throws IOException {
+        long start = System.nanoTime();
+        Format format = Format.of(file);
+        Batch batch = new Batch();
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "card-importer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<Block>> inFlight = new ArrayDeque<>();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            int[] columns = defaultColumns();
+            String[] lines = new String[BLOCK_LINES];
+            int count = 0;
+            long firstLine = 1;
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && format == Format.CSV && isHeader(line)) {
+                    try {
+                        columns = headerColumns(line);
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException(e.getMessage(), e);
+                    }
+                    firstLine = 2;
+                    continue;
+                }
+
+                lines[count++] = line;
+                if (count == BLOCK_LINES) {
+                    submit(workers, inFlight, batch, lines, count, firstLine, format, columns);
+                    lines = new String[BLOCK_LINES];
+                    count = 0;
+                    firstLine = lineNumber + 1;
+                }
+            }
+            if (count > 0) {
+                submit(workers, inFlight, batch, lines, count, firstLine, format, columns);
+            }
+            while (!inFlight.isEmpty()) {
+                batch.merge(await(inFlight.poll()));
+            }
+            batch.value = batch.cards.getTotalValue();
+        } finally {
+            for (Future<Block> block : inFlight) {
+                block.cancel(true);
+            }
+            workers.shutdownNow();
+        }
+
+        batch.nanos = System.nanoTime() - start;
+        return batch;
+    }
+
+    /**
+     * Adds the cards of a batch to a collection as one transaction. A card
+     * already in the collection gets its quantity increased if the imported
+     * card is a copy of it, and is rejected otherwise. Must be called on the
+     * thread that changes the collection.
+     *
+     * @param batch      the cards read from a file
+     * @param collection the collection to add them to
+     * @return what was imported
+     */
+    public static Result apply(Batch batch, CollectionModel collection) {
+        long start = System.nanoTime();
+        ConcurrentCollection.WriteBack written = batch.cards.writeTo(collection);
+
+        int rejected = batch.rejected + written.conflicts().size();
+        List<String> rejections = new ArrayList<>(batch.rejections);
+        for (String conflict : written.conflicts()) {
+            if (rejections.size() < DESCRIBED_REJECTIONS) {
+                rejections.add(conflict);
+            }
+        }
+        return new Result(written.added(), written.changed(), rejected, List.copyOf(rejections), batch.parsed,
+                batch.value, batch.nanos + System.nanoTime() - start);
+    }
+
+    /**
+     * Hands a block of lines to the workers, first merging the oldest block
+     * if enough are already in flight.
+     */
+    private void submit(ExecutorService workers, Deque<Future<Block>> inFlight, Batch batch, String[] lines,
+            int count, long firstLine, Format format, int[] columns) throws IOException {
+        while (inFlight.size() >= 2 * threads) {
+            batch.merge(await(inFlight.poll()));
+        }
+        Callable<Block> parse = () -> parseBlock(lines, count, firstLine, format, columns);
+        inFlight.add(workers.submit(parse));
+    }
+
+    /**
+     * Waits for a block to be parsed.
+     */
+    private static Block await(Future<Block> block) throws IOException {
+        try {
+            return block.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not parse import file: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Parses a block of lines into cards. Runs on a worker thread.
+     */
+    private static Block parseBlock(String[] lines, int count, long firstLine, Format format, int[] columns) {
+        Block block = new Block(count, firstLine);
+        for (int i = 0; i < count; i++) {
+            String line = lines[i];
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                String[] fields = format == Format.CSV ? splitCsv(line, columns) : parseJsonObject(line);
+                block.cards[i] = toCard(fields);
+            } catch (IllegalArgumentException e) {
+                block.reasons[i] = e.getMessage();
+            }
+        }
+        return block;
+    }
+
+    /**
+     * Builds and checks a single card the way a line of an import file is
+     * checked.
+     *
+     * @param name      the card name
+     * @param rarity    the rarity label
+     * @param variant   the variant label, or {@code null} for {@code Normal}
+     * @param value     the base value
+     * @param imagePath the path of the image file, or {@code null}
+     * @return the card, with a quantity of 1
+     * @throws IllegalArgumentException if a field is missing or invalid
+     */
+    public static CardModel parseCard(String name, String rarity, String variant, String value, String imagePath) {
+        return toCard(new String[] { name, rarity, variant, value, null, imagePath });
+    }
+
+    /**
+     * Builds and checks a card from its fields, indexed like {@link #FIELDS}.
+     *
+     * @throws IllegalArgumentException if a field is missing or invalid
+     */
+    private static CardModel toCard(String[] fields) {
+        String name = trimmed(fields[NAME]);
+        if (name == null) {
+            throw new IllegalArgumentException("Missing card name");
+        }
+
+        String rarityLabel = trimmed(fields[RARITY]);
+        if (rarityLabel == null) {
+            throw new IllegalArgumentException("Missing rarity for " + name);
+        }
+        CardRarity rarity = CardRarity.fromLabel(rarityLabel);
+
+        CardVariant variant = null;
+        if (rarity.hasVariant()) {
+            String variantLabel = trimmed(fields[VARIANT]);
+            variant = variantLabel == null ? CardVariant.NORMAL : CardVariant.fromLabel(variantLabel);
+        }
+
+        String valueText = trimmed(fields[VALUE]);
+        if (valueText == null) {
+            throw new IllegalArgumentException("Missing value for " + name);
+        }
+        double value = parseNumber(valueText, name);
+        if (value < 0 || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Value must be non-negative for " + name);
+        }
+
+        int quantity = 1;
+        String quantityText = trimmed(fields[QUANTITY]);
+        if (quantityText != null) {
+            double parsed = parseNumber(quantityText, name);
+            if (parsed < 1 || parsed > Integer.MAX_VALUE || parsed != Math.floor(parsed)) {
+                throw new IllegalArgumentException("Quantity must be a positive whole number for " + name);
+            }
+            quantity = (int) parsed;
+        }
+
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarityCode(rarity);
+        card.setVariantCode(variant);
+        card.setValue(CardModel.calculateValue(value, variant));
+        card.setQuantity(quantity);
+        card.setImagePath(trimmed(fields[IMAGE_PATH]));
+        return card;
+    }
+
+    private static double parseNumber(String text, String name) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number \"" + text + "\" for " + name);
+        }
+    }
+
+    private static String trimmed(String field) {
+        if (field == null) {
+            return null;
+        }
+        String trimmed = field.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    // -------------------------------
+    // CSV
+    // -------------------------------
+
+    /**
+     * Returns the column of each field when the file has no header.
+     */
+    private static int[] defaultColumns() {
+        int[] columns = new int[FIELDS.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = i;
+        }
+        return columns;
+    }
+
+    /**
+     * Returns whether the first line of a CSV file is a header rather than a
+     * card.
+     */
+    private static boolean isHeader(String line) {
+        try {
+            return splitCsv(line)[0].trim().equalsIgnoreCase(FIELDS[NAME]);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the column of each field named in a header, or -1 for fields it
+     * does not name.
+     *
+     * @throws IllegalArgumentException if the header misses a required field
+     */
+    private static int[] headerColumns(String line) {
+        String[] cells = splitCsv(line);
+        int[] columns = new int[FIELDS.length];
+        Arrays.fill(columns, -1);
+        for (int cell = 0; cell < cells.length; cell++) {
+            int field = Arrays.asList(FIELDS).indexOf(cells[cell].trim().toLowerCase(Locale.ROOT));
+            if (field >= 0) {
+                columns[field] = cell;
+            }
+        }
+        if (columns[NAME] < 0 || columns[RARITY] < 0 || columns[VALUE] < 0) {
+            throw new IllegalArgumentException("The header must name the name, rarity and value columns");
+        }
+        return columns;
+    }
+
+    /**
+     * Splits a CSV line and picks out the fields, indexed like
+     * {@link #FIELDS}.
+     */
+    private static String[] splitCsv(String line, int[] columns) {
+        String[] cells = splitCsv(line);
+        String[] fields = new String[FIELDS.length];
+        for (int field = 0; field < fields.length; field++) {
+            int column = columns[field];
+            fields[field] = column >= 0 && column < cells.length ? cells[column] : null;
+        }
+        return fields;
+    }
+
+    /**
+     * Splits a CSV line into cells. A cell may be quoted to hold commas, with
+     * quotes inside it doubled.
+     *
+     * @throws IllegalArgumentException if a quoted cell is not closed
+     */
+    private static String[] splitCsv(String line) {
+        List<String> cells = new ArrayList<>(FIELDS.length);
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unclosed quote");
+        }
+        cells.add(cell.toString());
+        return cells.toArray(new String[0]);
+    }
+
+    // -------------------------------
+    // JSON lines
+    // -------------------------------
+
+    /**
+     * Parses one flat JSON object and picks out the fields, indexed like
+     * {@link #FIELDS}. Keys are matched ignoring case, numbers are kept as
+     * their text, and unknown keys are ignored.
+     *
+     * @throws IllegalArgumentException if the line is not a flat JSON object
+     */
+    private static String[] parseJsonObject(String line) {
+        JsonReader json = new JsonReader(line);
+        String[] fields = new String[FIELDS.length];
+
+        json.expect('{');
+        if (!json.consume('}')) {
+            do {
+                String key = json.readString().toLowerCase(Locale.ROOT);
+                json.expect(':');
+                String value = json.readValue();
+                int field = Arrays.asList(FIELDS).indexOf(key);
+                if (field >= 0) {
+                    fields[field] = value;
+                }
+            } while (json.consume(','));
+            json.expect('}');
+        }
+        json.expectEnd();
+        return fields;
+    }
+
+    /**
+     * Cursor over the text of one JSON object.
+     */
+    private static class JsonReader {
+
+        private final String text;
+        private int position;
+
+        private JsonReader(String text) {
+            this.text = text;
+        }
+
+        private void skipSpace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean consume(char c) {
+            skipSpace();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw new IllegalArgumentException("Invalid JSON: expected '" + c + "' at column " + (position + 1));
+            }
+        }
+
+        private void expectEnd() {
+            skipSpace();
+            if (position < text.length()) {
+                throw new IllegalArgumentException("Invalid JSON: unexpected text at column " + (position + 1));
+            }
+        }
+
+        /**
+         * Reads a string, number, boolean or null, returning numbers and
+         * booleans as their text and null as {@code null}.
+         */
+        private String readValue() {
+            skipSpace();
+            if (position < text.length() && text.charAt(position) == '"') {
+                return readString();
+            }
+
+            int start = position;
+            while (position < text.length() && ",}".indexOf(text.charAt(position)) < 0
+                    && !Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.isEmpty() || literal.charAt(0) == '{' || literal.charAt(0) == '[') {
+                throw new IllegalArgumentException("Invalid JSON: expected a plain value at column " + (start + 1));
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 't' -> value.append('\t');
+                    case 'r' -> value.append('\r');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (position + 4 > text.length()) {
+                            throw new IllegalArgumentException("Invalid JSON: bad unicode escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid JSON: bad unicode escape");
+                        }
+                        position += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            }
+            throw new IllegalArgumentException("Invalid JSON: unclosed string");
+        }
+    }
+
+    // -------------------------------
+    // Results
+    // -------------------------------
+
+    /**
+     * Cards parsed from one block of lines, indexed by their line in the
+     * block. Blank lines have neither a card nor a reason.
+     */
+    private static class Block {
+
+        private final CardModel[] cards;
+        private final String[] reasons;
+        private final long firstLine;
+
+        private Block(int size, long firstLine) {
+            this.cards = new CardModel[size];
+            this.reasons = new String[size];
+            this.firstLine = firstLine;
+        }
+    }
+
+    /**
+     * Cards read from a file, with those listed more than once merged, ready
+     * to be added to a collection with {@link CardImporter#apply}. It holds
+     * new card objects only, so it can be handed between threads.
+     */
+    public static class Batch {
+
+        /** Merged cards, by name. */
+        private final ConcurrentCollection cards = new ConcurrentCollection();
+
+        /** Descriptions of the first rejected lines. */
+        private final List<String> rejections = new ArrayList<>();
+
+        /** Number of rejected lines. */
+        private int rejected;
+
+        /** Number of lines that held a valid card. */
+        private long parsed;
+
+        /** Total value of the merged cards. */
+        private double value;
+
+        /** Time spent reading the file, in nanoseconds. */
+        private long nanos;
+
+        private Batch() {
+        }
+
+        /**
+         * Merges a parsed block into the batch, in file order.
+         */
+        private void merge(Block block) {
+            for (int i = 0; i < block.cards.length; i++) {
+                CardModel card = block.cards[i];
+                if (card == null) {
+                    if (block.reasons[i] != null) {
+                        reject(block.firstLine + i, block.reasons[i]);
+                    }
+                    continue;
+                }
+
+                if (cards.addCard(card).succeeded()) {
+                    parsed++;
+                } else {
+                    reject(block.firstLine + i, card.getName() + " is listed earlier with different details");
+                }
+            }
+        }
+
+        private void reject(long lineNumber, String reason) {
+            rejected++;
+            if (rejections.size() < DESCRIBED_REJECTIONS) {
+                rejections.add("Line " + lineNumber + ": " + reason);
+            }
+        }
+    }
+
+    /**
+     * Outcome of an import.
+     *
+     * @param added      number of cards new to the collection
+     * @param merged     number of cards merged into copies already in the
+     *                   collection
+     * @param rejected   number of lines or cards that could not be imported
+     * @param rejections descriptions of the first rejected lines or cards
+     * @param parsed     number of lines that held a valid card
+     * @param value      total value of the cards the file lists
+     * @param nanos      time the whole import took, in nanoseconds
+     */
+    public record Result(int added, int merged, int rejected, List<String> rejections, long parsed, double value,
+            long nanos) {
+
+        /**
+         * Returns the import throughput.
+         *
+         * @return valid card lines processed per second
+         */
+        public double cardsPerSecond() {
+            return nanos == 0 ? 0 : parsed / (nanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,671 @@
+package com.tradingcards.elements.collection.collectionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Search index over card names supporting prefix, substring and
+ * typo-tolerant matching, used to suggest names while the user types.
+ * <p>
+ * Names are matched case-insensitively. Prefix matches come from a
+ * {@link TreeMap} of lower-cased names, so they cost a lookup plus the number
+ * of results. Substring and typo-tolerant matches come from an inverted index
+ * of the trigrams (three-character pieces) of every name, padded at both ends
+ * so even short names have trigrams:
+ * <ul>
+ * <li>A substring match must contain every trigram of the query, so only the
+ * names under the query's rarest trigram are checked.</li>
+ * <li>A typo (an insertion, deletion, substitution or swap of neighbouring
+ * characters) changes at most four trigrams, so a name starting within
+ * {@code d} typos of the query shares all but {@code 4d} of the query's
+ * trigrams. Trigrams are counted per name, new candidates are only taken from
+ * the rarest lists, and only names with enough shared trigrams get an edit
+ * distance check, which gives up once it exceeds {@code d}.</li>
+ * </ul>
+ * Like {@code CollectionModel}, this class is not thread-safe.
+ */
+public class CardNameIndex {
+
+    /** Character used to pad names at both ends before taking trigrams. */
+    private static final char PAD = '\u0000';
+
+    /** Separates the lower-cased name from the original in prefix keys. */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /** Most trigrams one typo can change; a swap of two characters changes four. */
+    private static final int EDIT_REACH = 4;
+
+    /** Initial capacity of the id table. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Ids of the indexed names. */
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /** Indexed names, by id; {@code null} for free ids. */
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    /** Lower-cased names, by id. */
+    private String[] lowerNames = new String[INITIAL_CAPACITY];
+
+    /** Ids freed by removed names, reused before new ones are handed out. */
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+
+    /** Number of entries in {@link #freeIds}. */
+    private int freeCount;
+
+    /** Next id that has never been used. */
+    private int nextId;
+
+    /** Names keyed by their lower-cased form, for prefix lookups. */
+    private final TreeMap<String, String> sorted = new TreeMap<>();
+
+    /** Ids of the names containing each trigram. */
+    private final TrigramTable trigrams = new TrigramTable();
+
+    /** Query stamp per id, marking the candidates of the current query. */
+    private int[] seen = new int[INITIAL_CAPACITY];
+
+    /** Number of the query's trigrams found per candidate id. */
+    private int[] counts = new int[INITIAL_CAPACITY];
+
+    /** Candidate ids of the current query. */
+    private int[] candidates = new int[INITIAL_CAPACITY];
+
+    /** Number of entries in {@link #candidates}. */
+    private int candidateCount;
+
+    /** Current query stamp. */
+    private int stamp;
+
+    /** Rows reused by the edit distance computation. */
+    private final int[][] rows = new int[3][32];
+
+    /**
+     * Builds an index over the given names.
+     *
+     * @param names the names to index
+     * @return a new index holding the names
+     */
+    public static CardNameIndex of(Collection<String> names) {
+        CardNameIndex index = new CardNameIndex();
+        for (String name : names) {
+            index.add(name);
+        }
+        return index;
+    }
+
+    /**
+     * Adds a name to the index. Adding a name that is already indexed does
+     * nothing.
+     *
+     * @param name the name to add
+     */
+    public void add(String name) {
+        if (name == null || ids.containsKey(name)) {
+            return;
+        }
+
+        int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        if (id >= names.length) {
+            int capacity = names.length * 2;
+            names = Arrays.copyOf(names, capacity);
+            lowerNames = Arrays.copyOf(lowerNames, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+
+        String lower = name.toLowerCase(Locale.ROOT);
+        names[id] = name;
+        lowerNames[id] = lower;
+        ids.put(name, id);
+        sorted.put(lower + KEY_SEPARATOR + name, name);
+
+        for (long trigram : trigramsOf(lower)) {
+            trigrams.getOrAdd(trigram).addOnce(id);
+        }
+    }
+
+    /**
+     * Removes a name from the index.
+     *
+     * @param name the name to remove
+     */
+    public void remove(String name) {
+        Integer id = ids.remove(name);
+        if (id == null) {
+            return;
+        }
+
+        String lower = lowerNames[id];
+        sorted.remove(lower + KEY_SEPARATOR + name);
+
+        for (long trigram : trigramsOf(lower)) {
+            IdList list = trigrams.get(trigram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                trigrams.remove(trigram);
+            }
+        }
+
+        names[id] = null;
+        lowerNames[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    /**
+     * Returns the number of names in the index.
+     *
+     * @return the number of indexed names
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Returns up to {@code limit} names that best match the query: an exact
+     * match first, then names starting with the query in alphabetical order,
+     * then names containing it, then names starting within a few typos of it,
+     * closest first.
+     *
+     * @param query the text typed so far
+     * @param limit the maximum number of names to return
+     * @return the matching names, best first
+     */
+    public List<String> search(String query, int limit) {
+        LinkedHashSet<String> result = new LinkedHashSet<>();
+        if (query == null || query.isEmpty() || limit <= 0) {
+            return new ArrayList<>(result);
+        }
+
+        String lower = query.toLowerCase(Locale.ROOT);
+
+        if (ids.containsKey(query)) {
+            result.add(query);
+        }
+        collectPrefix(lower, limit, result);
+        if (result.size() < limit) {
+            collectSubstring(lower, limit, result);
+        }
+        if (result.size() < limit) {
+            collectFuzzy(lower, maxEdits(lower.length()), limit, result);
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Returns up to {@code limit} names starting with the given prefix, in
+     * alphabetical order.
+     *
+     * @param prefix the start of the name
+     * @param limit  the maximum number of names to return
+     * @return the matching names
+     */
+    public List<String> findByPrefix(String prefix, int limit) {
+        LinkedHashSet<String> result = new LinkedHashSet<>();
+        collectPrefix(prefix.toLowerCase(Locale.ROOT), limit, result);
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Returns up to {@code limit} names containing the given text.
+     *
+     * @param text  the text to look for
+     * @param limit the maximum number of names to return
+     * @return the matching names
+     */
+    public List<String> findBySubstring(String text, int limit) {
+        LinkedHashSet<String> result = new LinkedHashSet<>();
+        collectSubstring(text.toLowerCase(Locale.ROOT), limit, result);
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Returns up to {@code limit} names that start with something within
+     * {@code maxEdits} typos of the query, closest first. Insertions,
+     * deletions, substitutions and swaps of neighbouring characters each count
+     * as one typo. Queries must be longer than four characters per typo.
+     *
+     * @param query    the misspelled name
+     * @param maxEdits the largest edit distance to accept
+     * @param limit    the maximum number of names to return
+     * @return the matching names
+     */
+    public List<String> findSimilar(String query, int maxEdits, int limit) {
+        LinkedHashSet<String> result = new LinkedHashSet<>();
+        collectFuzzy(query.toLowerCase(Locale.ROOT), maxEdits, limit, result);
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Adds names starting with {@code lower} until {@code result} holds
+     * {@code limit} names.
+     */
+    private void collectPrefix(String lower, int limit, LinkedHashSet<String> result) {
+        for (String name : sorted.subMap(lower, true, lower + Character.MAX_VALUE, true).values()) {
+            if (result.size() >= limit) {
+                return;
+            }
+            result.add(name);
+        }
+    }
+
+    /**
+     * Adds names containing {@code lower} until {@code result} holds
+     * {@code limit} names.
+     */
+    private void collectSubstring(String lower, int limit, LinkedHashSet<String> result) {
+        if (lower.length() < 3) {
+            // Too short to have a trigram of its own; prefix matches cover it
+            return;
+        }
+
+        // Every trigram of the query appears in a matching name, so the rarest
+        // one gives the smallest set of candidates
+        IdList rarest = null;
+        for (int i = 0; i + 3 <= lower.length(); i++) {
+            IdList list = trigrams.get(pack(lower.charAt(i), lower.charAt(i + 1), lower.charAt(i + 2)));
+            if (list == null) {
+                return;
+            }
+            if (rarest == null || list.size < rarest.size) {
+                rarest = list;
+            }
+        }
+
+        for (int i = 0; i < rarest.size && result.size() < limit; i++) {
+            int id = rarest.ids[i];
+            if (lowerNames[id].contains(lower)) {
+                result.add(names[id]);
+            }
+        }
+    }
+
+    /**
+     * Adds names that start with something within {@code maxEdits} of
+     * {@code lower}, closest first, until {@code result} holds {@code limit}
+     * names.
+     * <p>
+     * Each tolerance is tried in turn, since a stricter one filters far more
+     * candidates out and often fills the result on its own.
+     */
+    private void collectFuzzy(String lower, int maxEdits, int limit, LinkedHashSet<String> result) {
+        for (int edits = 1; edits <= maxEdits && result.size() < limit; edits++) {
+            collectFuzzyWithin(lower, edits, limit, result);
+        }
+    }
+
+    /**
+     * Adds names that start with something within exactly the given
+     * tolerance of {@code lower}, closest first.
+     */
+    private void collectFuzzyWithin(String lower, int maxEdits, int limit, LinkedHashSet<String> result) {
+        // Only the start of a name has to match, so the query is padded on the
+        // left alone. An edit or a swap changes at most four of its trigrams.
+        long[] queryTrigrams = prefixTrigramsOf(lower);
+        int required = queryTrigrams.length - EDIT_REACH * maxEdits;
+        if (required <= 0) {
+            return;
+        }
+
+        IdList[] lists = new IdList[queryTrigrams.length];
+        int listCount = 0;
+        for (long trigram : queryTrigrams) {
+            IdList list = trigrams.get(trigram);
+            if (list != null) {
+                lists[listCount++] = list;
+            }
+        }
+        if (listCount < required) {
+            return;
+        }
+        Arrays.sort(lists, 0, listCount, (a, b) -> Integer.compare(a.size, b.size));
+
+        // A match misses at most listCount - required lists, so it appears in
+        // one of the smallest listCount - required + 1. Only those can add new
+        // candidates; the larger lists just count towards existing ones.
+        int seeding = listCount - required + 1;
+        nextStamp();
+        candidateCount = 0;
+        for (int l = 0; l < listCount; l++) {
+            IdList list = lists[l];
+            boolean seed = l < seeding;
+            for (int i = 0; i < list.size; i++) {
+                int id = list.ids[i];
+                if (seen[id] == stamp) {
+                    counts[id]++;
+                } else if (seed) {
+                    seen[id] = stamp;
+                    counts[id] = 1;
+                    if (candidateCount == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                    }
+                    candidates[candidateCount++] = id;
+                }
+            }
+        }
+
+        // Group the surviving candidates by distance so the closest come first
+        List<List<Integer>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= maxEdits; d++) {
+            byDistance.add(new ArrayList<>());
+        }
+        char[] query = lower.toCharArray();
+        for (int c = 0; c < candidateCount; c++) {
+            int id = candidates[c];
+            if (counts[id] >= required) {
+                int distance = prefixDistance(query, lowerNames[id], maxEdits);
+                if (distance <= maxEdits) {
+                    byDistance.get(distance).add(id);
+                }
+            }
+        }
+
+        for (List<Integer> group : byDistance) {
+            group.sort((a, b) -> lowerNames[a].compareTo(lowerNames[b]));
+            for (int id : group) {
+                if (result.size() >= limit) {
+                    return;
+                }
+                result.add(names[id]);
+            }
+        }
+    }
+
+    /**
+     * Starts a new query stamp, clearing the stamps when they wrap around.
+     */
+    private void nextStamp() {
+        if (++stamp == 0) {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Returns the number of typos tolerated for a query of the given length.
+     */
+    private static int maxEdits(int length) {
+        if (length < 5) {
+            return 0;
+        }
+        return length < 12 ? 1 : 2;
+    }
+
+    /**
+     * Computes the smallest edit distance between the query and any prefix of
+     * the name, counting insertions, deletions, substitutions and swaps of
+     * neighbouring characters as one edit each. Gives up and returns
+     * {@code maxEdits + 1} as soon as the distance must exceed
+     * {@code maxEdits}.
+     */
+    private int prefixDistance(char[] query, String name, int maxEdits) {
+        int n = query.length;
+        int m = Math.min(name.length(), n + maxEdits);
+
+        // Rows are indexed by query position, columns by name position
+        if (rows[0].length <= m + 1) {
+            for (int r = 0; r < rows.length; r++) {
+                rows[r] = new int[m + 2];
+            }
+        }
+        int[] beforePrevious = rows[0];
+        int[] previous = rows[1];
+        int[] current = rows[2];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = Math.min(j, maxEdits + 1);
+        }
+
+        for (int i = 1; i <= n; i++) {
+            // Cells further than maxEdits from the diagonal can never be
+            // within the limit, so only a band around it is computed
+            int from = Math.max(1, i - maxEdits);
+            int to = Math.min(m, i + maxEdits);
+            current[0] = i;
+            if (from > 1) {
+                current[from - 1] = maxEdits + 1;
+            }
+            if (to < m) {
+                current[to + 1] = maxEdits + 1;
+            }
+            int rowMin = from == 1 ? current[0] : maxEdits + 1;
+            char q = query[i - 1];
+            for (int j = from; j <= to; j++) {
+                char c = name.charAt(j - 1);
+                int cost = q == c ? 0 : 1;
+                int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && q == name.charAt(j - 2) && query[i - 2] == c) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] swap = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = swap;
+        }
+
+        // The query may match any prefix of the name inside the last band
+        int best = maxEdits + 1;
+        for (int j = Math.max(0, n - maxEdits); j <= Math.min(m, n + maxEdits); j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    /**
+     * Returns the distinct trigrams of a lower-cased query padded with two
+     * {@link #PAD} characters at the start only, as used for matching the
+     * start of names.
+     */
+    private static long[] prefixTrigramsOf(String lower) {
+        char[] padded = new char[lower.length() + 2];
+        padded[0] = PAD;
+        padded[1] = PAD;
+        lower.getChars(0, lower.length(), padded, 2);
+        return distinctTrigrams(padded);
+    }
+
+    /**
+     * Returns the distinct trigrams of a lower-cased name padded with two
+     * {@link #PAD} characters at each end.
+     */
+    private static long[] trigramsOf(String lower) {
+        int length = lower.length() + 4;
+        char[] padded = new char[length];
+        padded[0] = PAD;
+        padded[1] = PAD;
+        lower.getChars(0, lower.length(), padded, 2);
+        padded[length - 2] = PAD;
+        padded[length - 1] = PAD;
+        return distinctTrigrams(padded);
+    }
+
+    /**
+     * Returns the distinct trigrams of the given characters, sorted.
+     */
+    private static long[] distinctTrigrams(char[] chars) {
+        if (chars.length < 3) {
+            return new long[0];
+        }
+        long[] result = new long[chars.length - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = pack(chars[i], chars[i + 1], chars[i + 2]);
+        }
+        Arrays.sort(result);
+
+        int distinct = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    /**
+     * Packs three characters into one key.
+     */
+    private static long pack(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Hash table from a packed trigram to the ids of the names containing it.
+     * Keys are kept as plain {@code long}s with linear probing, so building
+     * and querying the index does not box a {@code Long} per trigram.
+     */
+    private static class TrigramTable {
+
+        /** Packed trigrams; a slot is in use when its list is not {@code null}. */
+        private long[] keys = new long[INITIAL_CAPACITY];
+
+        /** Id lists, by slot. */
+        private IdList[] lists = new IdList[INITIAL_CAPACITY];
+
+        /** Number of slots in use. */
+        private int size;
+
+        /**
+         * Returns the list of a trigram, or {@code null} if no name has it.
+         */
+        private IdList get(long key) {
+            int mask = lists.length - 1;
+            for (int slot = home(key, mask); lists[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return lists[slot];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the list of a trigram, adding an empty one if needed.
+         */
+        private IdList getOrAdd(long key) {
+            int mask = lists.length - 1;
+            int slot = home(key, mask);
+            for (; lists[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return lists[slot];
+                }
+            }
+
+            IdList list = new IdList();
+            keys[slot] = key;
+            lists[slot] = list;
+            if (++size * 2 > lists.length) {
+                grow();
+            }
+            return list;
+        }
+
+        /**
+         * Removes a trigram and its list.
+         */
+        private void remove(long key) {
+            int mask = lists.length - 1;
+            int slot = home(key, mask);
+            while (lists[slot] != null && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (lists[slot] == null) {
+                return;
+            }
+            lists[slot] = null;
+            size--;
+
+            // Move later entries of the same probe run back into the hole
+            int hole = slot;
+            for (int next = (hole + 1) & mask; lists[next] != null; next = (next + 1) & mask) {
+                int wanted = home(keys[next], mask);
+                if (((next - wanted) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    lists[hole] = lists[next];
+                    lists[next] = null;
+                    hole = next;
+                }
+            }
+        }
+
+        /**
+         * Doubles the table and re-inserts every entry.
+         */
+        private void grow() {
+            long[] oldKeys = keys;
+            IdList[] oldLists = lists;
+            keys = new long[oldKeys.length * 2];
+            lists = new IdList[oldLists.length * 2];
+
+            int mask = lists.length - 1;
+            for (int i = 0; i < oldLists.length; i++) {
+                if (oldLists[i] != null) {
+                    int slot = home(oldKeys[i], mask);
+                    while (lists[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    lists[slot] = oldLists[i];
+                }
+            }
+        }
+
+        /**
+         * Returns the first slot to probe for a trigram.
+         */
+        private static int home(long key, int mask) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed >>> 32) & mask;
+        }
+    }
+
+    /**
+     * Growable list of name ids sharing one trigram.
+     */
+    private static class IdList {
+
+        /** The ids; only the first {@link #size} are in use. */
+        private int[] ids = new int[2];
+
+        /** Number of ids in the list. */
+        private int size;
+
+        /**
+         * Appends an id. Callers pass each id at most once per list, since
+         * {@link #trigramsOf} returns distinct trigrams.
+         */
+        private void addOnce(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        /**
+         * Removes an id by moving the last id into its place.
+         *
+         * @return {@code true} if the id was found
+         */
+        private boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.tradingcards.elements.collection.collectionUtils;
+
+/**
+ * A change to one part of a {@link com.tradingcards.elements.collection.CollectionModel}:
+ * the money balance, or a card, binder or deck stored under a name.
+ * <p>
+ * Events only say what changed. Listeners read the new state from the
+ * collection, so two changes to the same card can be merged into one event.
+ *
+ * @param target what kind of element changed
+ * @param kind   how it changed
+ * @param name   the name the element is stored under, or {@code null} for the
+ *               money balance
+ */
+public record CollectionEvent(Target target, Kind kind, String name) {
+
+    /**
+     * The kind of element that changed.
+     */
+    public enum Target {
+        MONEY, CARD, BINDER, DECK
+    }
+
+    /**
+     * How an element changed.
+     */
+    public enum Kind {
+        ADDED, CHANGED, REMOVED
+    }
+
+    /** Event for a change of the money balance. */
+    public static final CollectionEvent MONEY_CHANGED = new CollectionEvent(Target.MONEY, Kind.CHANGED, null);
+
+    /**
+     * Merges this event with a later event for the same element into the one
+     * event that describes both.
+     *
+     * @param later the later event
+     * @return the merged event, or {@code null} if the element was added and
+     *         then removed again, so that nothing changed
+     */
+    public CollectionEvent then(CollectionEvent later) {
+        Kind merged = switch (kind) {
+            case ADDED -> later.kind == Kind.REMOVED ? null : Kind.ADDED;
+            case CHANGED -> later.kind == Kind.REMOVED ? Kind.REMOVED : Kind.CHANGED;
+            case REMOVED -> later.kind == Kind.REMOVED ? Kind.REMOVED : Kind.CHANGED;
+        };
+        return merged == null ? null : merged == kind ? this : new CollectionEvent(target, merged, name);
+    }
+}
@@ -0,0 +1,200 @@
+package com.tradingcards.elements.collection.collectionUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent.Target;
+
+/**
+ * Delivers the {@link CollectionEvent}s of a collection to its listeners in
+ * batches.
+ * <p>
+ * Publishing an event only adds it to a lock-free queue, so it costs the
+ * changing thread a few atomic operations however many listeners there are.
+ * The queue is flushed as a batch, with the events of each element merged
+ * into one:
+ * <ul>
+ * <li>when the outermost transaction ends, on the thread that ends it;</li>
+ * <li>outside transactions, through the dispatcher given to the bus, so that
+ * a burst of changes made before the dispatcher runs arrives as one batch. A
+ * bus without a dispatcher flushes each event at once.</li>
+ * </ul>
+ * Batches are delivered one at a time. A listener that changes the
+ * collection adds to the next batch rather than receiving a nested one.
+ */
+public class CollectionEventBus {
+
+    /** Events published but not yet delivered. */
+    private final ConcurrentLinkedQueue<CollectionEvent> queue = new ConcurrentLinkedQueue<>();
+
+    /** Listeners, in the order they were added. */
+    private final CopyOnWriteArrayList<CollectionListener> listeners = new CopyOnWriteArrayList<>();
+
+    /** Number of transactions that have begun and not yet ended. */
+    private final AtomicInteger openTransactions = new AtomicInteger();
+
+    /** Whether a flush has been handed to the dispatcher and not run yet. */
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    /** Runs queued flushes, or {@code null} to flush on the publishing thread. */
+    private final Executor dispatcher;
+
+    /** Guards delivery so batches never overlap. */
+    private final Object deliveryLock = new Object();
+
+    /** Whether a batch is being delivered; guarded by {@link #deliveryLock}. */
+    private boolean delivering;
+
+    /**
+     * Creates a bus that flushes each event outside a transaction as soon as
+     * it is published.
+     */
+    public CollectionEventBus() {
+        this(null);
+    }
+
+    /**
+     * Creates a bus that flushes events published outside a transaction
+     * through the given dispatcher, such as
+     * {@code SwingUtilities::invokeLater}.
+     *
+     * @param dispatcher runs queued flushes, or {@code null} to flush each
+     *                   event at once
+     */
+    public CollectionEventBus(Executor dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Registers a listener to receive every later batch.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(CollectionListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(CollectionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns whether any listener is registered, so a publisher can skip
+     * building events nobody would receive.
+     *
+     * @return {@code true} if at least one listener is registered
+     */
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Queues an event for the next batch.
+     *
+     * @param event the event
+     */
+    public void publish(CollectionEvent event) {
+        queue.offer(event);
+        if (openTransactions.get() == 0) {
+            if (dispatcher == null) {
+                flush();
+            } else if (flushQueued.compareAndSet(false, true)) {
+                dispatcher.execute(() -> {
+                    flushQueued.set(false);
+                    flush();
+                });
+            }
+        }
+    }
+
+    /**
+     * Begins a transaction. Events are held back until every transaction
+     * begun has ended. Transactions nest.
+     */
+    public void begin() {
+        openTransactions.incrementAndGet();
+    }
+
+    /**
+     * Ends a transaction begun with {@link #begin}, delivering the held back
+     * events as one batch if it was the outermost one.
+     *
+     * @throws IllegalStateException if no transaction is open
+     */
+    public void end() {
+        int open = openTransactions.decrementAndGet();
+        if (open < 0) {
+            openTransactions.incrementAndGet();
+            throw new IllegalStateException("No transaction is open");
+        }
+        if (open == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Delivers every queued event as batches until the queue is empty, unless
+     * a transaction is open or a batch is already being delivered.
+     */
+    public void flush() {
+        synchronized (deliveryLock) {
+            if (delivering) {
+                return;
+            }
+            delivering = true;
+            try {
+                while (openTransactions.get() == 0 && !queue.isEmpty()) {
+                    List<CollectionEvent> batch = drain();
+                    if (!batch.isEmpty()) {
+                        for (CollectionListener listener : listeners) {
+                            listener.collectionChanged(batch);
+                        }
+                    }
+                }
+            } finally {
+                delivering = false;
+            }
+        }
+    }
+
+    /**
+     * Takes every queued event, merging the events of each element.
+     */
+    private List<CollectionEvent> drain() {
+        Map<Key, CollectionEvent> merged = new LinkedHashMap<>();
+        CollectionEvent event;
+        while ((event = queue.poll()) != null) {
+            Key key = new Key(event.target(), event.name());
+            CollectionEvent earlier = merged.get(key);
+            if (earlier == null) {
+                merged.put(key, event);
+            } else {
+                CollectionEvent combined = earlier.then(event);
+                if (combined == null) {
+                    merged.remove(key);
+                } else {
+                    merged.put(key, combined);
+                }
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Identity of the element an event is about.
+     */
+    private record Key(Target target, String name) {
+    }
+}
@@ -0,0 +1,692 @@
+package com.tradingcards.elements.collection.collectionUtils;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardContainer;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.deck.DeckModel;
+
+/**
+ * Writes a {@link CollectionModel} to a file as CSV, JSON lines or the binary
+ * snapshot format.
+ * <p>
+ * The CSV and JSON-lines formats hold one row per money balance, card,
+ * binder, card in a binder, deck and card in a deck, told apart by their
+ * {@code section} field ({@code money}, {@code card}, {@code binder},
+ * {@code binderCard}, {@code deck} or {@code deckCard}). Every row has the
+ * same fields: {@code section}, {@code container} and {@code containerType}
+ * (the binder or deck a row belongs to, and its type), then {@code name},
+ * {@code rarity}, {@code variant}, {@code value} (the stored value, with the
+ * variant multiplier applied), {@code quantity} and {@code imagePath}. Deck
+ * cards only carry their name, since decks share the collection's cards. The
+ * snapshot format is the one {@link CollectionSnapshot#load} reads.
+ * <p>
+ * The collection is never copied as a whole. The exporter walks each map
+ * with a cursor holding the last key written, and reads the next page of
+ * rows through the executor that owns the collection, such as
+ * {@code SwingUtilities::invokeLater}. The thread changing the collection is
+ * only busy for one page at a time, and the exporter never holds more than a
+ * page of rows and a write buffer, however large the collection is. The rows
+ * go through a fixed buffer into a {@link FileChannel}.
+ * <p>
+ * Changes made while an export runs may or may not be included, since the
+ * export is not a point-in-time copy. Every row is consistent on its own. The
+ * file is written under a temporary name and moved into place when complete.
+ */
+public class CollectionExporter {
+
+    /** Format of an export file. */
+    public enum Format {
+
+        /** Comma-separated values with a header line. */
+        CSV,
+
+        /** One JSON object per line. */
+        JSON_LINES,
+
+        /** The binary format of {@link CollectionSnapshot}. */
+        SNAPSHOT;
+
+        /**
+         * Returns the format of a file from its extension: JSON lines for
+         * {@code .jsonl}, {@code .ndjson} and {@code .json}, snapshot for
+         * {@code .snapshot}, CSV otherwise.
+         *
+         * @param file the file to export to
+         * @return the format of the file
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+                return JSON_LINES;
+            }
+            if (name.endsWith(".snapshot")) {
+                return SNAPSHOT;
+            }
+            return CSV;
+        }
+    }
+
+    /** Number of rows read from the collection at a time. */
+    private static final int PAGE_SIZE = 1024;
+
+    /** Size of the buffer in front of the file channel. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Field names of the CSV and JSON-lines formats, in column order. */
+    private static final String[] FIELDS = { "section", "container", "containerType", "name", "rarity", "variant",
+            "value", "quantity", "imagePath" };
+
+    /** Collection to export. */
+    private final CollectionModel collection;
+
+    /** Runs reads of the collection on the thread that changes it. */
+    private final Executor modelThread;
+
+    /**
+     * Creates an exporter for a collection.
+     *
+     * @param collection  the collection to export
+     * @param modelThread runs reads of the collection on the thread that
+     *                    changes it, e.g. {@code SwingUtilities::invokeLater};
+     *                    {@code Runnable::run} if the exporting thread owns
+     *                    the collection
+     */
+    public CollectionExporter(CollectionModel collection, Executor modelThread) {
+        this.collection = collection;
+        this.modelThread = modelThread;
+    }
+
+    /**
+     * Writes the collection to a file in the format given by its extension.
+     * Must not be called on the thread the reads are executed on.
+     *
+     * @param file the file to write
+     * @return what was written
+     * @throws IOException if the file cannot be written
+     */
+    public Result export(Path file) throws IOException {
+        return export(file, Format.of(file));
+    }
+
+    /**
+     * Writes the collection to a file. Must not be called on the thread the
+     * reads are executed on.
+     *
+     * @param file   the file to write
+     * @param format the format to write
+     * @return what was written
+     * @throws IOException if the file cannot be written
+     */
+    public Result export(Path file, Format format) throws IOException {
+        long start = System.nanoTime();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        long rows;
+        long bytes;
+        try (ChannelSink sink = new ChannelSink(FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+            RowWriter writer = switch (format) {
+                case CSV -> new CsvWriter(sink);
+                case JSON_LINES -> new JsonWriter(sink);
+                case SNAPSHOT -> new SnapshotWriter(sink);
+            };
+            rows = writeAll(writer);
+            writer.finish();
+            bytes = sink.position();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return new Result(rows, bytes, System.nanoTime() - start);
+    }
+
+    /**
+     * Walks the collection, handing every row to the writer.
+     *
+     * @return the number of rows written
+     */
+    private long writeAll(RowWriter writer) throws IOException {
+        writer.money(read(collection::getMoney));
+        long rows = 1;
+
+        writer.startList();
+        long cards = copy(collection::getCardCollection, CardRow::of, writer::card);
+        writer.endList(cards);
+        rows += cards;
+
+        writer.startList();
+        long binders = 0;
+        Page<ContainerRow> binderPage = null;
+        do {
+            String after = binderPage == null ? null : binderPage.last();
+            binderPage = read(() -> nextPage(collection.getBinderCollection(), after, ContainerRow::ofBinder));
+            for (ContainerRow binder : binderPage.rows()) {
+                writer.binder(binder);
+                writer.startList();
+                long size = copy(() -> contentsOf(collection.getBinderCollection().get(binder.name())),
+                        CardRow::of, card -> writer.binderCard(binder, card));
+                writer.endList(size);
+                rows += 1 + size;
+            }
+            binders += binderPage.rows().size();
+        } while (binderPage.rows().size() == PAGE_SIZE);
+        writer.endList(binders);
+
+        writer.startList();
+        long decks = 0;
+        Page<ContainerRow> deckPage = null;
+        do {
+            String after = deckPage == null ? null : deckPage.last();
+            deckPage = read(() -> nextPage(collection.getDeckCollection(), after, ContainerRow::ofDeck));
+            for (ContainerRow deck : deckPage.rows()) {
+                writer.deck(deck);
+                writer.startList();
+                long size = copy(() -> contentsOf(collection.getDeckCollection().get(deck.name())),
+                        (name, card) -> name, name -> writer.deckCard(deck, name));
+                writer.endList(size);
+                rows += 1 + size;
+            }
+            decks += deckPage.rows().size();
+        } while (deckPage.rows().size() == PAGE_SIZE);
+        writer.endList(decks);
+
+        return rows;
+    }
+
+    /**
+     * Copies every entry of a map, one page at a time, into rows handed to
+     * the writer.
+     *
+     * @param map   returns the map; called on the model thread for every page
+     * @param toRow copies an entry into a row; called on the model thread
+     * @param out   writes a row
+     * @return the number of rows written
+     */
+    private <V, R> long copy(Supplier<TreeMap<String, V>> map, BiFunction<String, V, R> toRow, RowSink<R> out)
+            throws IOException {
+        long count = 0;
+        Page<R> page = null;
+        do {
+            String after = page == null ? null : page.last();
+            page = read(() -> nextPage(map.get(), after, toRow));
+            for (R row : page.rows()) {
+                out.accept(row);
+            }
+            count += page.rows().size();
+        } while (page.rows().size() == PAGE_SIZE);
+        return count;
+    }
+
+    /**
+     * Copies up to a page of entries following a key into rows. Runs on the
+     * model thread.
+     */
+    private static <V, R> Page<R> nextPage(TreeMap<String, V> map, String after, BiFunction<String, V, R> toRow) {
+        Map<String, V> tail = after == null ? map : map.tailMap(after, false);
+        List<R> rows = new ArrayList<>();
+        String last = after;
+        for (Map.Entry<String, V> entry : tail.entrySet()) {
+            if (rows.size() == PAGE_SIZE) {
+                break;
+            }
+            rows.add(toRow.apply(entry.getKey(), entry.getValue()));
+            last = entry.getKey();
+        }
+        return new Page<>(rows, last);
+    }
+
+    /**
+     * Returns the cards of a binder or deck, or an empty map if it was
+     * removed while exporting.
+     */
+    private static TreeMap<String, CardModel> contentsOf(CardContainer container) {
+        return container == null ? new TreeMap<>() : container.getCards();
+    }
+
+    /**
+     * Runs a read of the collection on the model thread and waits for it.
+     */
+    private <T> T read(Supplier<T> query) throws IOException {
+        try {
+            return CompletableFuture.supplyAsync(query, modelThread).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not read collection: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Rows copied from one page of a map, and the key of the last one.
+     */
+    private record Page<R>(List<R> rows, String last) {
+    }
+
+    /**
+     * Copy of a card taken on the model thread.
+     */
+    private record CardRow(String name, CardRarity rarity, CardVariant variant, double value, int quantity,
+            String imagePath) {
+
+        private static CardRow of(String name, CardModel card) {
+            return new CardRow(name, card.getRarityCode(), card.getVariantCode(), card.getValue(),
+                    card.getQuantity(), card.getImagePath());
+        }
+    }
+
+    /**
+     * Name and type of a binder or deck.
+     */
+    private record ContainerRow(String name, String type) {
+
+        private static ContainerRow ofBinder(String name, BinderModel binder) {
+            return new ContainerRow(name, binder.getType());
+        }
+
+        private static ContainerRow ofDeck(String name, DeckModel deck) {
+            return new ContainerRow(name, deck.getType());
+        }
+    }
+
+    /**
+     * Consumer of rows that may fail to write.
+     */
+    private interface RowSink<R> {
+
+        void accept(R row) throws IOException;
+    }
+
+    /**
+     * Encodes rows in one format. The rows of each list, and the nested
+     * lists of binders and decks, are bracketed by {@link #startList()} and
+     * {@link #endList(long)}.
+     */
+    private interface RowWriter {
+
+        void money(double money) throws IOException;
+
+        void startList() throws IOException;
+
+        void endList(long count) throws IOException;
+
+        void card(CardRow card) throws IOException;
+
+        void binder(ContainerRow binder) throws IOException;
+
+        void binderCard(ContainerRow binder, CardRow card) throws IOException;
+
+        void deck(ContainerRow deck) throws IOException;
+
+        void deckCard(ContainerRow deck, String name) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * Base of the text formats: every row is the same list of fields, written
+     * one line at a time through a reused character buffer.
+     */
+    private abstract static class TextWriter implements RowWriter {
+
+        private final ChannelSink sink;
+        protected final StringBuilder text = new StringBuilder(BUFFER_SIZE);
+
+        private TextWriter(ChannelSink sink) {
+            this.sink = sink;
+        }
+
+        /**
+         * Appends one row, with its fields in the order of {@link #FIELDS},
+         * ending with a line break.
+         */
+        protected abstract void appendRow(String[] fields);
+
+        private void row(String... fields) throws IOException {
+            appendRow(fields);
+            if (text.length() >= BUFFER_SIZE / 2) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            sink.write(bytes, 0, bytes.length);
+            text.setLength(0);
+        }
+
+        private void cardRow(String section, ContainerRow container, CardRow card) throws IOException {
+            row(section, container == null ? null : container.name(), container == null ? null : container.type(),
+                    card.name(), card.rarity() == null ? null : card.rarity().getLabel(),
+                    card.variant() == null ? null : card.variant().getLabel(), Double.toString(card.value()),
+                    Integer.toString(card.quantity()), card.imagePath());
+        }
+
+        @Override
+        public void money(double money) throws IOException {
+            row("money", null, null, null, null, null, Double.toString(money), null, null);
+        }
+
+        @Override
+        public void startList() {
+        }
+
+        @Override
+        public void endList(long count) {
+        }
+
+        @Override
+        public void card(CardRow card) throws IOException {
+            cardRow("card", null, card);
+        }
+
+        @Override
+        public void binder(ContainerRow binder) throws IOException {
+            row("binder", binder.name(), binder.type(), null, null, null, null, null, null);
+        }
+
+        @Override
+        public void binderCard(ContainerRow binder, CardRow card) throws IOException {
+            cardRow("binderCard", binder, card);
+        }
+
+        @Override
+        public void deck(ContainerRow deck) throws IOException {
+            row("deck", deck.name(), deck.type(), null, null, null, null, null, null);
+        }
+
+        @Override
+        public void deckCard(ContainerRow deck, String name) throws IOException {
+            row("deckCard", deck.name(), deck.type(), name, null, null, null, null, null);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            drain();
+        }
+    }
+
+    /**
+     * Writes rows as CSV under a header line, quoting fields that need it.
+     */
+    private static class CsvWriter extends TextWriter {
+
+        private CsvWriter(ChannelSink sink) {
+            super(sink);
+            text.append(String.join(",", FIELDS)).append('\n');
+        }
+
+        @Override
+        protected void appendRow(String[] fields) {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    text.append(',');
+                }
+                String field = fields[i];
+                if (field == null) {
+                    continue;
+                }
+                if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0
+                        && field.indexOf('\r') < 0) {
+                    text.append(field);
+                } else {
+                    text.append('"').append(field.replace("\"", "\"\"")).append('"');
+                }
+            }
+            text.append('\n');
+        }
+    }
+
+    /**
+     * Writes rows as JSON objects, one per line, leaving out empty fields.
+     * Numbers are written as JSON numbers.
+     */
+    private static class JsonWriter extends TextWriter {
+
+        private JsonWriter(ChannelSink sink) {
+            super(sink);
+        }
+
+        @Override
+        protected void appendRow(String[] fields) {
+            text.append('{');
+            boolean first = true;
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] == null) {
+                    continue;
+                }
+                if (!first) {
+                    text.append(", ");
+                }
+                first = false;
+                appendString(FIELDS[i]);
+                text.append(": ");
+                if (FIELDS[i].equals("value") || FIELDS[i].equals("quantity")) {
+                    text.append(fields[i]);
+                } else {
+                    appendString(fields[i]);
+                }
+            }
+            text.append("}\n");
+        }
+
+        private void appendString(String value) {
+            text.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> text.append("\\\"");
+                    case '\\' -> text.append("\\\\");
+                    case '\n' -> text.append("\\n");
+                    case '\r' -> text.append("\\r");
+                    case '\t' -> text.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            text.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            text.append(c);
+                        }
+                    }
+                }
+            }
+            text.append('"');
+        }
+    }
+
+    /**
+     * Writes rows in the snapshot format. The format puts the size of each
+     * list before its items, so a placeholder is written first and filled in
+     * once the list has been written.
+     */
+    private static class SnapshotWriter implements RowWriter {
+
+        private final ChannelSink sink;
+        private final DataOutputStream out;
+
+        /** Positions of the size placeholders of the open lists. */
+        private final Deque<Long> openLists = new ArrayDeque<>();
+
+        private SnapshotWriter(ChannelSink sink) {
+            this.sink = sink;
+            this.out = new DataOutputStream(new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    sink.write(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    sink.write(bytes, offset, length);
+                }
+            });
+        }
+
+        @Override
+        public void money(double money) throws IOException {
+            CollectionSnapshot.writeHeader(out, 0, money);
+        }
+
+        @Override
+        public void startList() throws IOException {
+            openLists.push(sink.position());
+            out.writeInt(0);
+        }
+
+        @Override
+        public void endList(long count) throws IOException {
+            if (count > Integer.MAX_VALUE) {
+                throw new IOException("Too many items for the snapshot format");
+            }
+            sink.patchInt(openLists.pop(), (int) count);
+        }
+
+        @Override
+        public void card(CardRow card) throws IOException {
+            writeCard(card);
+        }
+
+        @Override
+        public void binder(ContainerRow binder) throws IOException {
+            out.writeUTF(binder.name());
+            out.writeUTF(binder.type());
+        }
+
+        @Override
+        public void binderCard(ContainerRow binder, CardRow card) throws IOException {
+            writeCard(card);
+        }
+
+        @Override
+        public void deck(ContainerRow deck) throws IOException {
+            out.writeUTF(deck.name());
+            CollectionSnapshot.writeNullableString(out, deck.type());
+        }
+
+        @Override
+        public void deckCard(ContainerRow deck, String name) throws IOException {
+            out.writeUTF(name);
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeCard(CardRow card) throws IOException {
+            CollectionSnapshot.writeCard(out, card.name(), card.rarity(), card.variant(), card.value(),
+                    card.quantity(), card.imagePath());
+        }
+    }
+
+    /**
+     * Fixed buffer in front of a file channel that can go back and overwrite
+     * an int already written.
+     */
+    private static class ChannelSink implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        /** Number of bytes already written to the channel. */
+        private long written;
+
+        private ChannelSink(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        /**
+         * Returns the number of bytes written so far, buffered or not.
+         */
+        private long position() {
+            return written + buffer.position();
+        }
+
+        private void patchInt(long position, int value) throws IOException {
+            drain();
+            ByteBuffer patch = ByteBuffer.allocate(Integer.BYTES).putInt(value).flip();
+            while (patch.hasRemaining()) {
+                channel.write(patch, position + patch.position());
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Outcome of an export.
+     *
+     * @param rows  number of rows written
+     * @param bytes size of the file
+     * @param nanos time the export took, in nanoseconds
+     */
+    public record Result(long rows, long bytes, long nanos) {
+
+        /**
+         * Returns the export throughput.
+         *
+         * @return rows written per second
+         */
+        public double rowsPerSecond() {
+            return nanos == 0 ? 0 : rows / (nanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package com.tradingcards.elements.collection.collectionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.tradingcards.elements.card.CardListener;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+
+/**
+ * Secondary indexes over the cards of a collection, answering questions such
+ * as "all Legendary Alt-art cards worth more than 50" without scanning every
+ * card.
+ * <p>
+ * Each card gets a small dense id. Rarity, variant and ownership (quantity
+ * above zero) are indexed as one {@link BitSet} per value, so combining
+ * filters is a few word-wide AND and OR operations. Values are indexed in a
+ * {@link TreeMap} from value to the ids of the cards with that value, so a
+ * value range only visits the cards inside it.
+ * <p>
+ * The index registers itself as a {@link CardListener} on every card it
+ * holds, so changes made to a card in place are picked up immediately. Like
+ * {@code CollectionModel}, this class is not thread-safe.
+ */
+public class CollectionIndex implements CardListener {
+
+    /** Initial capacity of the id table. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Dense ids of the indexed cards. */
+    private final Map<CardModel, Integer> ids = new IdentityHashMap<>();
+
+    /** Indexed cards, by id; {@code null} for free ids. */
+    private CardModel[] cards = new CardModel[INITIAL_CAPACITY];
+
+    /** Ids freed by removed cards, reused before new ones are handed out. */
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+
+    /** Number of entries in {@link #freeIds}. */
+    private int freeCount;
+
+    /** Next id that has never been used. */
+    private int nextId;
+
+    /** Ids of cards per rarity, indexed by ordinal. */
+    private final BitSet[] byRarity = newBitSets(CardRarity.values().length);
+
+    /** Ids of cards per variant, indexed by ordinal. */
+    private final BitSet[] byVariant = newBitSets(CardVariant.values().length);
+
+    /** Ids of cards with a quantity above zero. */
+    private final BitSet owned = new BitSet();
+
+    /** Ids of cards per value, in ascending order of value. */
+    private final TreeMap<Double, IdList> byValue = new TreeMap<>();
+
+    /**
+     * Adds a card to the index and starts following its changes.
+     *
+     * @param card the card to index
+     */
+    public void add(CardModel card) {
+        if (ids.containsKey(card)) {
+            return;
+        }
+
+        int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        if (id >= cards.length) {
+            cards = Arrays.copyOf(cards, cards.length * 2);
+        }
+        cards[id] = card;
+        ids.put(card, id);
+
+        setBit(byRarity, card.getRarityCode(), id, true);
+        setBit(byVariant, card.getVariantCode(), id, true);
+        owned.set(id, card.getQuantity() > 0);
+        byValue.computeIfAbsent(card.getValue(), value -> new IdList()).add(id);
+
+        card.addListener(this);
+    }
+
+    /**
+     * Adds many cards to the index at once, e.g. after a collection has been
+     * restored. The ids are handed out in one run and the value index is
+     * updated once per distinct value rather than once per card.
+     *
+     * @param added the cards to index; cards already indexed are skipped
+     */
+    public void addAll(Collection<CardModel> added) {
+        int needed = nextId + added.size();
+        if (needed > cards.length) {
+            cards = Arrays.copyOf(cards, Math.max(needed, cards.length * 2));
+        }
+
+        HashMap<Double, IdList> grouped = new HashMap<>();
+        for (CardModel card : added) {
+            if (ids.containsKey(card)) {
+                continue;
+            }
+            int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+            cards[id] = card;
+            ids.put(card, id);
+
+            setBit(byRarity, card.getRarityCode(), id, true);
+            setBit(byVariant, card.getVariantCode(), id, true);
+            if (card.getQuantity() > 0) {
+                owned.set(id);
+            }
+            grouped.computeIfAbsent(card.getValue(), value -> new IdList()).add(id);
+
+            card.addListener(this);
+        }
+
+        for (Map.Entry<Double, IdList> group : grouped.entrySet()) {
+            IdList list = byValue.get(group.getKey());
+            if (list == null) {
+                byValue.put(group.getKey(), group.getValue());
+            } else {
+                list.addAll(group.getValue());
+            }
+        }
+    }
+
+    /**
+     * Removes every card from the index and stops following their changes.
+     */
+    public void clear() {
+        for (CardModel card : ids.keySet()) {
+            card.removeListener(this);
+        }
+        ids.clear();
+        Arrays.fill(cards, 0, nextId, null);
+        freeCount = 0;
+        nextId = 0;
+        for (BitSet bits : byRarity) {
+            bits.clear();
+        }
+        for (BitSet bits : byVariant) {
+            bits.clear();
+        }
+        owned.clear();
+        byValue.clear();
+    }
+
+    /**
+     * Removes a card from the index and stops following its changes.
+     *
+     * @param card the card to remove
+     */
+    public void remove(CardModel card) {
+        Integer id = ids.remove(card);
+        if (id == null) {
+            return;
+        }
+
+        card.removeListener(this);
+
+        setBit(byRarity, card.getRarityCode(), id, false);
+        setBit(byVariant, card.getVariantCode(), id, false);
+        owned.clear(id);
+        removeValue(card.getValue(), id);
+
+        cards[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    @Override
+    public void cardChanged(CardModel card, CardRarity oldRarity, CardVariant oldVariant, double oldValue,
+            int oldQuantity) {
+        Integer id = ids.get(card);
+        if (id == null) {
+            return;
+        }
+
+        if (oldRarity != card.getRarityCode()) {
+            setBit(byRarity, oldRarity, id, false);
+            setBit(byRarity, card.getRarityCode(), id, true);
+        }
+        if (oldVariant != card.getVariantCode()) {
+            setBit(byVariant, oldVariant, id, false);
+            setBit(byVariant, card.getVariantCode(), id, true);
+        }
+        if (oldValue != card.getValue()) {
+            removeValue(oldValue, id);
+            byValue.computeIfAbsent(card.getValue(), value -> new IdList()).add(id);
+        }
+        owned.set(id, card.getQuantity() > 0);
+    }
+
+    /**
+     * Returns the number of cards in the index.
+     *
+     * @return the number of indexed cards
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Finds the cards matching every given filter.
+     * <p>
+     * When a value range is given the cards come back in ascending order of
+     * value; otherwise they come back in no particular order.
+     *
+     * @param rarities  the rarities to accept, or {@code null} for any
+     * @param variants  the variants to accept, or {@code null} for any
+     * @param minValue  the lowest value to accept, inclusive
+     * @param maxValue  the highest value to accept, inclusive
+     * @param ownedOnly whether to skip cards with a quantity of zero
+     * @return the matching cards
+     */
+    public List<CardModel> find(Set<CardRarity> rarities, Set<CardVariant> variants, double minValue,
+            double maxValue, boolean ownedOnly) {
+        List<CardModel> result = new ArrayList<>();
+        if (minValue > maxValue) {
+            return result;
+        }
+
+        if (minValue == Double.NEGATIVE_INFINITY && maxValue == Double.POSITIVE_INFINITY) {
+            // No value range, so combine the bitmaps word by word
+            BitSet mask = rarities == null ? null : union(byRarity, rarities);
+            if (variants != null) {
+                mask = intersect(mask, union(byVariant, variants));
+            }
+            if (ownedOnly) {
+                mask = intersect(mask, owned);
+            }
+
+            if (mask == null) {
+                for (int id = 0; id < nextId; id++) {
+                    if (cards[id] != null) {
+                        result.add(cards[id]);
+                    }
+                }
+            } else {
+                for (int id = mask.nextSetBit(0); id >= 0; id = mask.nextSetBit(id + 1)) {
+                    result.add(cards[id]);
+                }
+            }
+            return result;
+        }
+
+        // Walk only the cards inside the value range, testing each against the
+        // bitmaps in place, so nothing proportional to the collection is built
+        BitSet[] rarityBits = select(byRarity, rarities);
+        BitSet[] variantBits = select(byVariant, variants);
+
+        for (IdList list : byValue.subMap(minValue, true, maxValue, true).values()) {
+            for (int i = 0; i < list.size; i++) {
+                int id = list.ids[i];
+                if ((!ownedOnly || owned.get(id)) && anyContains(rarityBits, id) && anyContains(variantBits, id)) {
+                    result.add(cards[id]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the cards with one of the given rarities and variants, at any
+     * value.
+     *
+     * @param rarities the rarities to accept, or {@code null} for any
+     * @param variants the variants to accept, or {@code null} for any
+     * @return the matching cards
+     */
+    public List<CardModel> find(Set<CardRarity> rarities, Set<CardVariant> variants) {
+        return find(rarities, variants, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, false);
+    }
+
+    /**
+     * Counts the cards with one of the given rarities and variants, at any
+     * value, without collecting them.
+     *
+     * @param rarities the rarities to accept, or {@code null} for any
+     * @param variants the variants to accept, or {@code null} for any
+     * @return the number of matching cards
+     */
+    public int count(Set<CardRarity> rarities, Set<CardVariant> variants) {
+        if (rarities == null && variants == null) {
+            return size();
+        }
+        BitSet mask = rarities == null ? null : union(byRarity, rarities);
+        if (variants != null) {
+            mask = intersect(mask, union(byVariant, variants));
+        }
+        return mask.cardinality();
+    }
+
+    /**
+     * Removes an id from the list of cards with the given value.
+     */
+    private void removeValue(double value, int id) {
+        IdList list = byValue.get(value);
+        if (list != null && list.remove(id) && list.size == 0) {
+            byValue.remove(value);
+        }
+    }
+
+    /**
+     * Sets or clears the bit of a card in the bitmap for its rarity or variant.
+     */
+    private static void setBit(BitSet[] index, Enum<?> key, int id, boolean value) {
+        if (key != null) {
+            index[key.ordinal()].set(id, value);
+        }
+    }
+
+    /**
+     * Returns a new bitmap holding the ids found under any of the given keys.
+     */
+    private static BitSet union(BitSet[] index, Set<? extends Enum<?>> keys) {
+        BitSet result = new BitSet();
+        for (Enum<?> key : keys) {
+            result.or(index[key.ordinal()]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the bitmaps stored under the given keys, or {@code null} if
+     * there are no keys to filter on.
+     */
+    private static BitSet[] select(BitSet[] index, Set<? extends Enum<?>> keys) {
+        if (keys == null) {
+            return null;
+        }
+        BitSet[] selected = new BitSet[keys.size()];
+        int i = 0;
+        for (Enum<?> key : keys) {
+            selected[i++] = index[key.ordinal()];
+        }
+        return selected;
+    }
+
+    /**
+     * Determines whether any of the bitmaps holds the id, treating
+     * {@code null} as "every card".
+     */
+    private static boolean anyContains(BitSet[] bitmaps, int id) {
+        if (bitmaps == null) {
+            return true;
+        }
+        for (BitSet bitmap : bitmaps) {
+            if (bitmap.get(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Intersects a bitmap into a mask, treating a {@code null} mask as "every
+     * card". The mask is changed in place unless it is {@code null}.
+     */
+    private static BitSet intersect(BitSet mask, BitSet other) {
+        if (mask == null) {
+            return (BitSet) other.clone();
+        }
+        mask.and(other);
+        return mask;
+    }
+
+    /**
+     * Creates an array of empty bitmaps.
+     */
+    private static BitSet[] newBitSets(int count) {
+        BitSet[] sets = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            sets[i] = new BitSet();
+        }
+        return sets;
+    }
+
+    /**
+     * Growable list of card ids sharing one value. Most values are shared by
+     * only a handful of cards, so a plain array beats a set here.
+     */
+    private static class IdList {
+
+        /** The ids; only the first {@link #size} are in use. */
+        private int[] ids = new int[2];
+
+        /** Number of ids in the list. */
+        private int size;
+
+        /**
+         * Appends an id.
+         */
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        /**
+         * Appends every id of another list.
+         */
+        private void addAll(IdList other) {
+            if (size + other.size > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.ids, 0, ids, size, other.size);
+            size += other.size;
+        }
+
+        /**
+         * Removes an id by moving the last id into its place.
+         *
+         * @return {@code true} if the id was found
+         */
+        private boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
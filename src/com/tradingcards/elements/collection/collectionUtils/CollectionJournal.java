@@ -0,0 +1,733 @@
+package com.tradingcards.elements.collection.collectionUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.deck.DeckModel;
+
+/**
+ * Append-only write-ahead journal of every change made to a
+ * {@link CollectionModel}.
+ * <p>
+ * Each entry records the new state of one card, binder, deck or the money
+ * balance, so replaying entries in order on top of a
+ * {@link CollectionSnapshot} rebuilds the collection exactly. Entries are
+ * framed with their length and a CRC32 checksum; a torn entry at the end of a
+ * file (e.g. after a crash mid-write) simply ends the replay.
+ * <p>
+ * Appends are group-committed: callers hand their entry to a single writer
+ * thread and return at once. The writer drains every entry queued while the
+ * previous {@code fsync} was running and writes them with a single
+ * {@code fsync}, so many appends share the cost of one disk flush and the
+ * appending thread, usually the Event Dispatch Thread, never waits for the
+ * disk. A crash can lose the entries queued in the last few milliseconds,
+ * but what is on disk is always every entry up to some point, so replay
+ * rebuilds the collection as it was at that point. If the writer fails,
+ * the next append throws.
+ * <p>
+ * The journal is split into numbered segment files. {@link #roll()} starts a
+ * new segment, and once a snapshot covering the older segments has been
+ * written they can be deleted with {@link #deleteSegmentsCoveredBy(long)}.
+ */
+public class CollectionJournal implements Closeable {
+
+    /** Number of entries in the current segment that triggers a compaction. */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 100_000;
+
+    /** File name suffix of journal segments. */
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    /** Size of the frame header: length and checksum. */
+    private static final int HEADER_SIZE = 8;
+
+    /** Largest frame accepted on replay; anything bigger is treated as corrupt. */
+    private static final int MAX_FRAME_SIZE = 1 << 24;
+
+    /** Entry holding the new money balance. */
+    private static final byte MONEY = 1;
+
+    /** Entry holding the full state of a card in the collection. */
+    private static final byte CARD_PUT = 2;
+
+    /** Entry for a card removed from the collection. */
+    private static final byte CARD_REMOVE = 3;
+
+    /** Entry holding the full state of a binder. */
+    private static final byte BINDER_PUT = 4;
+
+    /** Entry for a removed binder. */
+    private static final byte BINDER_REMOVE = 5;
+
+    /** Entry holding the full state of a deck. */
+    private static final byte DECK_PUT = 6;
+
+    /** Entry for a removed deck. */
+    private static final byte DECK_REMOVE = 7;
+
+    /** Directory that holds the segment files. */
+    private final Path directory;
+
+    /** Guards every field below. */
+    private final Object lock = new Object();
+
+    /** Entries waiting for the writer thread; a {@code null} body rolls the segment. */
+    private final ArrayList<PendingEntry> pending = new ArrayList<>();
+
+    /** Highest sequence number stored in each finished segment, by segment number. */
+    private final TreeMap<Integer, Long> finishedSegments = new TreeMap<>();
+
+    /** Sequence number given to the most recent entry. */
+    private long lastSequence;
+
+    /** Highest sequence number known to be on disk. */
+    private long durableSequence;
+
+    /** Number of the segment currently being written. */
+    private int currentSegment;
+
+    /** Number of the segment the next roll will switch to. */
+    private int nextSegment;
+
+    /** Number of the segment the last roll switches to. */
+    private int rolledSegment;
+
+    /** Number of entries appended to the current segment. */
+    private long segmentEntries;
+
+    /** Channel of the segment currently being written. */
+    private FileChannel channel;
+
+    /** Thread that writes and flushes queued entries. */
+    private Thread writer;
+
+    /** Whether {@link #close()} has been called. */
+    private boolean closed;
+
+    /** Error that stopped the writer thread, if any. */
+    private IOException failure;
+
+    /** Called on the appending thread when the current segment grows too large. */
+    private Runnable compactionTrigger;
+
+    /** Entry count of the current segment at which compaction is triggered. */
+    private int compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+    /**
+     * An entry waiting to be written.
+     *
+     * @param sequence the sequence number of the entry
+     * @param body     the encoded entry, or {@code null} to roll to
+     *                 {@code segment}
+     * @param segment  the segment to roll to when {@code body} is {@code null}
+     */
+    private record PendingEntry(long sequence, byte[] body, int segment) {
+    }
+
+    /**
+     * Creates a journal stored in the given directory. The directory is scanned
+     * for existing segments, but nothing is written until {@link #start(long)}
+     * is called.
+     *
+     * @param directory the directory holding the segment files
+     * @throws IOException if the directory cannot be created or listed
+     */
+    public CollectionJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+
+        for (int segment : listSegments().keySet()) {
+            nextSegment = Math.max(nextSegment, segment + 1);
+        }
+    }
+
+    /**
+     * Sets the action run when the current segment holds more than
+     * {@code threshold} entries. The action runs on the thread that made the
+     * append, right after queuing it.
+     *
+     * @param threshold the number of entries that triggers the action
+     * @param trigger   the action to run, typically a compaction
+     */
+    public void setCompactionTrigger(int threshold, Runnable trigger) {
+        synchronized (lock) {
+            this.compactionThreshold = threshold;
+            this.compactionTrigger = trigger;
+        }
+    }
+
+    /**
+     * Replays every entry newer than {@code afterSequence} onto the given
+     * collection. The collection must not have a journal attached while it is
+     * being replayed onto.
+     *
+     * @param collection    the collection to apply entries to
+     * @param afterSequence entries with this sequence number or lower are
+     *                      skipped because the snapshot already contains them
+     * @return the highest sequence number found in the journal, or
+     *         {@code afterSequence} if it holds nothing newer
+     * @throws IOException if a segment cannot be read, or holds an entry that
+     *                     cannot be applied, such as a binder of a type that
+     *                     does not exist
+     */
+    public long replay(CollectionModel collection, long afterSequence) throws IOException {
+        long highest = afterSequence;
+
+        for (Map.Entry<Integer, Path> segment : listSegments().entrySet()) {
+            long segmentHighest = replaySegment(collection, segment.getValue(), afterSequence);
+            highest = Math.max(highest, segmentHighest);
+
+            synchronized (lock) {
+                finishedSegments.put(segment.getKey(), segmentHighest);
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Opens a new segment and starts the writer thread. Sequence numbers of new
+     * entries continue after {@code startSequence}.
+     *
+     * @param startSequence the highest sequence number already used
+     * @throws IOException if the new segment cannot be created
+     */
+    public void start(long startSequence) throws IOException {
+        synchronized (lock) {
+            lastSequence = startSequence;
+            durableSequence = startSequence;
+            currentSegment = nextSegment++;
+            channel = openSegment(currentSegment);
+        }
+
+        writer = new Thread(this::writeLoop, "collection-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Returns the sequence number of the most recent entry.
+     *
+     * @return the last sequence number handed out
+     */
+    public long getLastSequence() {
+        synchronized (lock) {
+            return lastSequence;
+        }
+    }
+
+    /**
+     * Records the new money balance.
+     *
+     * @param money the new balance
+     */
+    public void logMoney(double money) {
+        append(out -> {
+            out.writeByte(MONEY);
+            out.writeDouble(money);
+        });
+    }
+
+    /**
+     * Records the current state of a card in the collection.
+     *
+     * @param name the key of the card in the collection
+     * @param card the card's current state
+     */
+    public void logCard(String name, CardModel card) {
+        append(out -> {
+            out.writeByte(CARD_PUT);
+            CollectionSnapshot.writeCard(out, name, card);
+        });
+    }
+
+    /**
+     * Records that a card was removed from the collection.
+     *
+     * @param name the key of the removed card
+     */
+    public void logCardRemoved(String name) {
+        append(out -> {
+            out.writeByte(CARD_REMOVE);
+            out.writeUTF(name);
+        });
+    }
+
+    /**
+     * Records the current state of a binder and all of its cards.
+     *
+     * @param name   the key of the binder in the collection
+     * @param binder the binder's current state
+     */
+    public void logBinder(String name, BinderModel binder) {
+        append(out -> {
+            out.writeByte(BINDER_PUT);
+            out.writeUTF(name);
+            out.writeUTF(binder.getType());
+            out.writeInt(binder.getBinder().size());
+            for (Map.Entry<String, CardModel> card : binder.getBinder().entrySet()) {
+                CollectionSnapshot.writeCard(out, card.getKey(), card.getValue());
+            }
+        });
+    }
+
+    /**
+     * Records that a binder was removed.
+     *
+     * @param name the key of the removed binder
+     */
+    public void logBinderRemoved(String name) {
+        append(out -> {
+            out.writeByte(BINDER_REMOVE);
+            out.writeUTF(name);
+        });
+    }
+
+    /**
+     * Records the current state of a deck.
+     *
+     * @param name the key of the deck in the collection
+     * @param deck the deck's current state
+     */
+    public void logDeck(String name, DeckModel deck) {
+        append(out -> {
+            out.writeByte(DECK_PUT);
+            out.writeUTF(name);
+            CollectionSnapshot.writeNullableString(out, deck.getType());
+            out.writeInt(deck.getDeck().size());
+            for (String cardName : deck.getDeck().keySet()) {
+                out.writeUTF(cardName);
+            }
+        });
+    }
+
+    /**
+     * Records that a deck was removed.
+     *
+     * @param name the key of the removed deck
+     */
+    public void logDeckRemoved(String name) {
+        append(out -> {
+            out.writeByte(DECK_REMOVE);
+            out.writeUTF(name);
+        });
+    }
+
+    /**
+     * Starts a new segment. Every entry appended before this call ends up in
+     * an older segment. Returns without waiting for the writer to switch.
+     *
+     * @return the sequence number of the last entry in the older segments
+     */
+    public long roll() {
+        synchronized (lock) {
+            checkOpen();
+            long boundary = lastSequence;
+            rolledSegment = nextSegment++;
+            segmentEntries = 0;
+            pending.add(new PendingEntry(boundary, null, rolledSegment));
+            lock.notifyAll();
+            return boundary;
+        }
+    }
+
+    /**
+     * Deletes every finished segment whose entries are all contained in a
+     * snapshot taken at {@code sequence}. Waits for the writer to switch to
+     * the segment the last {@link #roll()} started, so the segments before it
+     * are finished.
+     *
+     * @param sequence the journal sequence number stored in the snapshot
+     * @throws IOException if a segment cannot be deleted
+     */
+    public void deleteSegmentsCoveredBy(long sequence) throws IOException {
+        ArrayList<Integer> covered = new ArrayList<>();
+
+        synchronized (lock) {
+            while (currentSegment < rolledSegment && failure == null) {
+                awaitWriter();
+            }
+            for (Map.Entry<Integer, Long> segment : finishedSegments.entrySet()) {
+                if (segment.getValue() <= sequence) {
+                    covered.add(segment.getKey());
+                }
+            }
+            for (int segment : covered) {
+                finishedSegments.remove(segment);
+            }
+        }
+
+        for (int segment : covered) {
+            Files.deleteIfExists(segmentPath(segment));
+        }
+    }
+
+    /**
+     * Waits for queued entries to be written, then stops the writer thread and
+     * closes the current segment.
+     *
+     * @throws IOException if the last entries could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (lock) {
+            if (channel != null) {
+                channel.close();
+                finishedSegments.put(currentSegment, lastSequence);
+                channel = null;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Writes the body of an entry.
+     */
+    private interface EntryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Encodes an entry and queues it for the writer thread, then runs the
+     * compaction trigger if the segment has grown too large.
+     *
+     * @param body writes the entry's type and fields
+     * @throws UncheckedIOException if the journal can no longer be written
+     */
+    private void append(EntryWriter body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try {
+            body.write(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        boolean compact = false;
+        Runnable trigger;
+
+        synchronized (lock) {
+            checkOpen();
+            long sequence = ++lastSequence;
+            pending.add(new PendingEntry(sequence, bytes.toByteArray(), currentSegment));
+            segmentEntries++;
+            lock.notifyAll();
+
+            trigger = compactionTrigger;
+            if (trigger != null && segmentEntries >= compactionThreshold) {
+                compact = true;
+            }
+        }
+
+        if (compact) {
+            trigger.run();
+        }
+    }
+
+    /**
+     * Body of the writer thread: repeatedly drains every queued entry, writes
+     * them in one go and flushes them with a single {@code fsync}.
+     */
+    private void writeLoop() {
+        ArrayList<PendingEntry> batch = new ArrayList<>();
+        CRC32 crc = new CRC32();
+
+        while (true) {
+            FileChannel target;
+            synchronized (lock) {
+                while (pending.isEmpty() && !closed) {
+                    awaitWriter();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch.addAll(pending);
+                pending.clear();
+                target = channel;
+            }
+
+            try {
+                int start = 0;
+                for (int i = 0; i <= batch.size(); i++) {
+                    boolean isRoll = i < batch.size() && batch.get(i).body() == null;
+                    if (i == batch.size() || isRoll) {
+                        // Flush everything queued before the roll into the old segment
+                        writeEntries(target, batch.subList(start, i), crc);
+                        markDurable(batch.subList(start, i));
+                        start = i + 1;
+                    }
+                    if (isRoll) {
+                        target = switchSegment(batch.get(i).segment());
+                    }
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes a run of entries to a segment and forces them to disk.
+     */
+    private void writeEntries(FileChannel target, List<PendingEntry> entries, CRC32 crc)
+            throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        int size = 0;
+        for (PendingEntry entry : entries) {
+            size += HEADER_SIZE + Long.BYTES + entry.body().length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (PendingEntry entry : entries) {
+            int length = Long.BYTES + entry.body().length;
+            int start = buffer.position() + HEADER_SIZE;
+
+            buffer.putInt(length);
+            buffer.putInt(0);
+            buffer.putLong(entry.sequence());
+            buffer.put(entry.body());
+
+            crc.reset();
+            crc.update(buffer.array(), start, length);
+            buffer.putInt(start - Integer.BYTES, (int) crc.getValue());
+        }
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        target.force(false);
+    }
+
+    /**
+     * Publishes that a run of entries is on disk and wakes their appenders.
+     */
+    private void markDurable(List<PendingEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            durableSequence = entries.get(entries.size() - 1).sequence();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Closes the current segment and opens the given one.
+     */
+    private FileChannel switchSegment(int segment) throws IOException {
+        FileChannel next = openSegment(segment);
+
+        synchronized (lock) {
+            channel.close();
+            finishedSegments.put(currentSegment, durableSequence);
+            channel = next;
+            currentSegment = segment;
+            lock.notifyAll();
+        }
+        return next;
+    }
+
+    /**
+     * Applies every valid entry of one segment to the collection.
+     *
+     * @return the highest sequence number in the segment
+     */
+    private long replaySegment(CollectionModel collection, Path path, long afterSequence) throws IOException {
+        long highest = 0;
+        CRC32 crc = new CRC32();
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (true) {
+                byte[] frame;
+                try {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    if (length < Long.BYTES || length > MAX_FRAME_SIZE) {
+                        break;
+                    }
+                    frame = new byte[length];
+                    in.readFully(frame);
+
+                    crc.reset();
+                    crc.update(frame, 0, length);
+                    if ((int) crc.getValue() != checksum) {
+                        break; // torn write at the end of the segment
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+
+                DataInputStream entry = new DataInputStream(new ByteArrayInputStream(frame));
+                long sequence = entry.readLong();
+                highest = Math.max(highest, sequence);
+
+                if (sequence > afterSequence) {
+                    apply(collection, entry);
+                }
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Applies a single decoded entry to the collection.
+     */
+    private static void apply(CollectionModel collection, DataInputStream in) throws IOException {
+        byte type = in.readByte();
+
+        switch (type) {
+            case MONEY -> collection.setMoney(in.readDouble());
+            case CARD_PUT -> {
+                CardModel card = CollectionSnapshot.readCard(in);
+                CardModel existing = collection.getCardCollection().get(card.getName());
+
+                // Update in place so decks sharing this card see the change
+                if (existing != null) {
+                    existing.setRarityCode(card.getRarityCode());
+                    existing.setVariantCode(card.getVariantCode());
+                    existing.setValue(card.getValue());
+                    existing.setQuantity(card.getQuantity());
+                    existing.setImagePath(card.getImagePath());
+                } else {
+                    collection.setCardCollection(card, card.getName());
+                }
+            }
+            case CARD_REMOVE -> collection.removeCardCollection(in.readUTF());
+            case BINDER_PUT -> {
+                String name = in.readUTF();
+                BinderModel binder = CollectionSnapshot.readBinderType(in);
+                binder.setName(name);
+
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    CardModel card = CollectionSnapshot.readCard(in);
+                    binder.putCard(card, card.getName());
+                }
+                collection.setBinderCollection(binder, name);
+            }
+            case BINDER_REMOVE -> collection.removeBinderCollection(in.readUTF());
+            case DECK_PUT -> {
+                DeckModel deck = new DeckModel();
+                deck.setName(in.readUTF());
+                deck.setType(CollectionSnapshot.readNullableString(in));
+
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    String cardName = in.readUTF();
+                    CardModel card = collection.getCardCollection().get(cardName);
+                    if (card != null) {
+                        deck.addCardtoDeck(card, cardName);
+                    }
+                }
+                collection.setDeckCollection(deck, deck.getName());
+            }
+            case DECK_REMOVE -> collection.removeDeckCollection(in.readUTF());
+            default -> throw new IOException("Unknown journal entry type " + type);
+        }
+    }
+
+    /**
+     * Lists the segment files in the journal directory, ordered by number.
+     */
+    private TreeMap<Integer, Path> listSegments() throws IOException {
+        TreeMap<Integer, Path> segments = new TreeMap<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.put(Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length())),
+                            file);
+                } catch (NumberFormatException e) {
+                    // Not one of our segments; leave it alone
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Returns the path of a segment file.
+     */
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("%08d%s", segment, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Creates a new, empty segment file.
+     */
+    private FileChannel openSegment(int segment) throws IOException {
+        return FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Waits on the lock for the writer thread to make progress.
+     */
+    private void awaitWriter() {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the journal", e);
+        }
+    }
+
+    /**
+     * Throws if the journal has failed or been closed.
+     */
+    private void checkOpen() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+}
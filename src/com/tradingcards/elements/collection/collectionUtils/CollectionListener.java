@@ -0,0 +1,19 @@
+package com.tradingcards.elements.collection.collectionUtils;
+
+import java.util.List;
+
+/**
+ * Listener notified of the changes made to a collection, one batch at a
+ * time.
+ */
+public interface CollectionListener {
+
+    /**
+     * Called once for each batch of changes, after the collection holds their
+     * new state.
+     *
+     * @param batch the changes, at most one per element, in the order the
+     *              elements were first changed
+     */
+    void collectionChanged(List<CollectionEvent> batch);
+}
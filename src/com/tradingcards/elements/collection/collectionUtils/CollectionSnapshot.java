@@ -0,0 +1,481 @@
+package com.tradingcards.elements.collection.collectionUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.deck.DeckModel;
+
+/**
+ * Utility class for saving and loading a {@link CollectionModel} as a compact
+ * binary snapshot.
+ * <p>
+ * The snapshot holds the money balance, every card in the collection, every
+ * binder (with its type and its own card copies) and every deck. Rarity and
+ * variant are written as single byte codes and deck contents are written as
+ * card names only, since decks share their {@link CardModel} instances with
+ * the main collection.
+ * <p>
+ * Snapshots are written to a temporary file first, forced to disk and then
+ * moved over the previous snapshot, so a crash while saving never leaves a
+ * half-written file behind. Each snapshot also records the sequence number
+ * of the last {@link CollectionJournal} entry it already contains, so replay
+ * can skip entries that are older than the snapshot.
+ * <p>
+ * A collection can also be copied into an {@link Image} with
+ * {@link #capture(CollectionModel)} on the thread that owns it, and the copy
+ * encoded and saved on another thread while the collection goes on changing.
+ */
+public class CollectionSnapshot {
+
+    /** Magic number identifying a snapshot file ("TCC1"). */
+    private static final int MAGIC = 0x54434331;
+
+    /** Current version of the snapshot format. */
+    private static final short VERSION = 2;
+
+    /** First version of the format, which had no journal sequence number. */
+    private static final short VERSION_WITHOUT_SEQUENCE = 1;
+
+    /** Size of the buffers placed in front of the file streams. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Byte code written for a {@code null} rarity or variant. */
+    private static final byte NO_CODE = -1;
+
+    /**
+     * Byte code that snapshots written before rarities and variants became
+     * enums put in front of a label without a fixed code. Such labels are
+     * still read, as long as they name a rarity or variant that exists.
+     */
+    private static final byte LABEL_CODE = 127;
+
+    /** Rarities, indexed by their byte code. */
+    private static final CardRarity[] RARITIES = CardRarity.values();
+
+    /** Variants, indexed by their byte code. */
+    private static final CardVariant[] VARIANTS = CardVariant.values();
+
+    /**
+     * Writes the given collection to the snapshot file at {@code path}.
+     *
+     * @param collection the collection to save
+     * @param path       the file to write the snapshot to
+     * @throws IOException if the snapshot could not be written
+     */
+    public static void save(CollectionModel collection, Path path) throws IOException {
+        save(collection, path, 0);
+    }
+
+    /**
+     * Writes the given collection to the snapshot file at {@code path},
+     * recording the last journal sequence number it contains.
+     *
+     * @param collection      the collection to save
+     * @param path            the file to write the snapshot to
+     * @param journalSequence the sequence number of the last journal entry
+     *                        already applied to {@code collection}
+     * @throws IOException if the snapshot could not be written
+     */
+    public static void save(CollectionModel collection, Path path, long journalSequence) throws IOException {
+        save(capture(collection), path, journalSequence);
+    }
+
+    /**
+     * Writes a copy of a collection taken earlier with
+     * {@link #capture(CollectionModel)} to the snapshot file at {@code path}.
+     * Can be called on any thread.
+     *
+     * @param image           the copy of the collection to save
+     * @param path            the file to write the snapshot to
+     * @param journalSequence the sequence number of the last journal entry
+     *                        already applied to the collection when it was
+     *                        copied
+     * @throws IOException if the snapshot could not be written
+     */
+    public static void save(Image image, Path path, long journalSequence) throws IOException {
+        Path temp = prepareTemp(path);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // write() flushes its buffer; the stream is not closed so the channel can be forced
+            write(image, Channels.newOutputStream(channel), journalSequence);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Creates the parent directory of {@code path} and returns the temporary
+     * file a new snapshot is written to before being moved into place.
+     */
+    private static Path prepareTemp(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    /**
+     * Loads the snapshot file at {@code path} into the given collection.
+     * <p>
+     * Cards, binders and decks from the snapshot are added on top of whatever
+     * the collection already holds, and the money balance is replaced. If no
+     * snapshot exists yet, the collection is left untouched.
+     *
+     * @param collection the collection to fill
+     * @param path       the snapshot file to read
+     * @return the journal sequence number recorded in the snapshot, or
+     *         {@code -1} if no snapshot exists
+     * @throws IOException if the file exists but could not be read
+     */
+    public static long load(CollectionModel collection, Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return -1;
+        }
+
+        try (InputStream in = Files.newInputStream(path)) {
+            return read(collection, in);
+        }
+    }
+
+    /**
+     * Writes the given collection to a stream in the snapshot format.
+     *
+     * @param collection      the collection to write
+     * @param stream          the stream to write to; it is flushed but not
+     *                        closed
+     * @param journalSequence the sequence number of the last journal entry
+     *                        already applied to {@code collection}
+     * @throws IOException if writing fails
+     */
+    public static void write(CollectionModel collection, OutputStream stream, long journalSequence)
+            throws IOException {
+        write(capture(collection), stream, journalSequence);
+    }
+
+    /**
+     * Writes a copy of a collection to a stream in the snapshot format. Can
+     * be called on any thread.
+     *
+     * @param image           the copy of the collection to write
+     * @param stream          the stream to write to; it is flushed but not
+     *                        closed
+     * @param journalSequence the sequence number of the last journal entry
+     *                        already applied to the collection when it was
+     *                        copied
+     * @throws IOException if writing fails
+     */
+    public static void write(Image image, OutputStream stream, long journalSequence) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+
+        writeHeader(out, journalSequence, image.money);
+
+        // Cards in the main collection
+        out.writeInt(image.cards.size());
+        for (CardImage card : image.cards) {
+            writeCard(out, card);
+        }
+
+        // Binders and their own card copies
+        out.writeInt(image.binders.size());
+        for (BinderImage binder : image.binders) {
+            out.writeUTF(binder.name());
+            out.writeUTF(binder.type());
+            out.writeInt(binder.cards().size());
+            for (CardImage card : binder.cards()) {
+                writeCard(out, card);
+            }
+        }
+
+        // Decks only reference cards of the main collection by name
+        out.writeInt(image.decks.size());
+        for (DeckImage deck : image.decks) {
+            out.writeUTF(deck.name());
+            writeNullableString(out, deck.type());
+            out.writeInt(deck.cards().size());
+            for (String cardName : deck.cards()) {
+                out.writeUTF(cardName);
+            }
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Copies what a snapshot holds out of a collection, without encoding it.
+     * Must be called on the thread that owns the collection.
+     *
+     * @param collection the collection to copy
+     * @return the copy
+     */
+    public static Image capture(CollectionModel collection) {
+        List<CardImage> cards = new ArrayList<>(collection.getCardCollection().size());
+        for (Map.Entry<String, CardModel> entry : collection.getCardCollection().entrySet()) {
+            cards.add(CardImage.of(entry.getKey(), entry.getValue()));
+        }
+
+        List<BinderImage> binders = new ArrayList<>(collection.getBinderCollection().size());
+        for (Map.Entry<String, BinderModel> entry : collection.getBinderCollection().entrySet()) {
+            BinderModel binder = entry.getValue();
+            List<CardImage> contents = new ArrayList<>(binder.getBinder().size());
+            for (Map.Entry<String, CardModel> card : binder.getBinder().entrySet()) {
+                contents.add(CardImage.of(card.getKey(), card.getValue()));
+            }
+            binders.add(new BinderImage(entry.getKey(), binder.getType(), contents));
+        }
+
+        List<DeckImage> decks = new ArrayList<>(collection.getDeckCollection().size());
+        for (Map.Entry<String, DeckModel> entry : collection.getDeckCollection().entrySet()) {
+            DeckModel deck = entry.getValue();
+            decks.add(new DeckImage(entry.getKey(), deck.getType(), new ArrayList<>(deck.getDeck().keySet())));
+        }
+        return new Image(collection.getMoney(), cards, binders, decks);
+    }
+
+    /**
+     * Reads a snapshot from a stream into the given collection. The cards are
+     * restored in bulk (see {@link CollectionModel#beginRestore()}).
+     *
+     * @param collection the collection to fill
+     * @param stream     the stream to read from; it is not closed
+     * @return the journal sequence number recorded in the snapshot
+     * @throws IOException if the stream is not a valid snapshot, or names a
+     *                     binder type that does not exist
+     */
+    public static long read(CollectionModel collection, InputStream stream) throws IOException {
+        collection.beginRestore();
+        try {
+            return readContents(collection, new DataInputStream(new BufferedInputStream(stream, BUFFER_SIZE)));
+        } finally {
+            collection.endRestore();
+        }
+    }
+
+    /**
+     * Reads the contents of a snapshot into a collection being restored.
+     */
+    private static long readContents(CollectionModel collection, DataInputStream in) throws IOException {
+
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a collection snapshot");
+        }
+        short version = in.readShort();
+        if (version != VERSION && version != VERSION_WITHOUT_SEQUENCE) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+
+        long journalSequence = version == VERSION ? in.readLong() : 0;
+        collection.setMoney(in.readDouble());
+
+        int cardCount = in.readInt();
+        TreeMap<String, CardModel> cards = collection.getCardCollection();
+        for (int i = 0; i < cardCount; i++) {
+            CardModel card = readCard(in);
+            collection.setCardCollection(card, card.getName());
+        }
+
+        int binderCount = in.readInt();
+        for (int i = 0; i < binderCount; i++) {
+            String name = in.readUTF();
+            BinderModel binder = readBinderType(in);
+            binder.setName(name);
+
+            int size = in.readInt();
+            for (int j = 0; j < size; j++) {
+                CardModel card = readCard(in);
+                binder.putCard(card, card.getName());
+            }
+            collection.setBinderCollection(binder, name);
+        }
+
+        int deckCount = in.readInt();
+        for (int i = 0; i < deckCount; i++) {
+            DeckModel deck = new DeckModel();
+            deck.setName(in.readUTF());
+            deck.setType(readNullableString(in));
+
+            int size = in.readInt();
+            for (int j = 0; j < size; j++) {
+                String cardName = in.readUTF();
+                CardModel card = cards.get(cardName);
+                if (card != null) {
+                    deck.addCardtoDeck(card, cardName);
+                }
+            }
+            collection.setDeckCollection(deck, deck.getName());
+        }
+        return journalSequence;
+    }
+
+    /**
+     * Reads a binder type and returns an empty binder of that type.
+     *
+     * @throws IOException if the type does not exist
+     */
+    static BinderModel readBinderType(DataInputStream in) throws IOException {
+        String type = in.readUTF();
+        try {
+            return BinderModel.ofType(type);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown binder type in snapshot: " + type, e);
+        }
+    }
+
+    /**
+     * Writes the fields that open a snapshot, up to the card count.
+     */
+    static void writeHeader(DataOutputStream out, long journalSequence, double money) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(journalSequence);
+        out.writeDouble(money);
+    }
+
+    /**
+     * Writes a single card record.
+     */
+    static void writeCard(DataOutputStream out, String name, CardModel card) throws IOException {
+        writeCard(out, name, card.getRarityCode(), card.getVariantCode(), card.getValue(), card.getQuantity(),
+                card.getImagePath());
+    }
+
+    /**
+     * Writes a single card record from a copy of the card.
+     */
+    private static void writeCard(DataOutputStream out, CardImage card) throws IOException {
+        writeCard(out, card.name(), card.rarity(), card.variant(), card.value(), card.quantity(), card.imagePath());
+    }
+
+    /**
+     * Writes a single card record from the card's fields.
+     */
+    static void writeCard(DataOutputStream out, String name, CardRarity rarity, CardVariant variant, double value,
+            int quantity, String imagePath) throws IOException {
+        out.writeUTF(name);
+        out.writeByte(codeOf(rarity));
+        out.writeByte(codeOf(variant));
+        out.writeDouble(value);
+        out.writeInt(quantity);
+        writeNullableString(out, imagePath);
+    }
+
+    /**
+     * Reads a single card record.
+     */
+    static CardModel readCard(DataInputStream in) throws IOException {
+        CardModel card = new CardModel();
+        card.setName(in.readUTF());
+        card.setRarityCode(readCode(in, RARITIES, CardRarity::fromLabel));
+        card.setVariantCode(readCode(in, VARIANTS, CardVariant::fromLabel));
+        card.setValue(in.readDouble());
+        card.setQuantity(in.readInt());
+        card.setImagePath(readNullableString(in));
+        return card;
+    }
+
+    /**
+     * Returns the byte code of a rarity or variant: its ordinal, or
+     * {@link #NO_CODE} for {@code null}.
+     */
+    private static byte codeOf(Enum<?> value) {
+        return value == null ? NO_CODE : (byte) value.ordinal();
+    }
+
+    /**
+     * Reads a byte code and returns the matching rarity or variant. A label
+     * written by an older snapshot is looked up with {@code fromLabel}.
+     */
+    private static <T> T readCode(DataInputStream in, T[] table, Function<String, T> fromLabel) throws IOException {
+        byte code = in.readByte();
+        if (code == NO_CODE) {
+            return null;
+        }
+        if (code == LABEL_CODE) {
+            String label = in.readUTF();
+            try {
+                return fromLabel.apply(label);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown rarity or variant in snapshot: " + label, e);
+            }
+        }
+        if (code < 0 || code >= table.length) {
+            throw new IOException("Invalid code " + code + " in snapshot");
+        }
+        return table[code];
+    }
+
+    /**
+     * Writes a string that may be {@code null}.
+     */
+    static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeNullableString}.
+     */
+    static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * The contents of a collection as a snapshot holds them, copied out of it
+     * by {@link #capture(CollectionModel)}. Later changes to the collection do
+     * not reach the copy.
+     */
+    public static final class Image {
+        private final double money;
+        private final List<CardImage> cards;
+        private final List<BinderImage> binders;
+        private final List<DeckImage> decks;
+
+        private Image(double money, List<CardImage> cards, List<BinderImage> binders, List<DeckImage> decks) {
+            this.money = money;
+            this.cards = cards;
+            this.binders = binders;
+            this.decks = decks;
+        }
+    }
+
+    /** The fields of a card a snapshot holds. */
+    private record CardImage(String name, CardRarity rarity, CardVariant variant, double value, int quantity,
+            String imagePath) {
+
+        private static CardImage of(String name, CardModel card) {
+            return new CardImage(name, card.getRarityCode(), card.getVariantCode(), card.getValue(),
+                    card.getQuantity(), card.getImagePath());
+        }
+    }
+
+    /** A binder with copies of its cards. */
+    private record BinderImage(String name, String type, List<CardImage> cards) {
+    }
+
+    /** A deck with the names of its cards. */
+    private record DeckImage(String name, String type, List<String> cards) {
+    }
+}
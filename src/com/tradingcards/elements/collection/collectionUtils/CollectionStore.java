@@ -0,0 +1,178 @@
+package com.tradingcards.elements.collection.collectionUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.tradingcards.elements.collection.CollectionModel;
+
+/**
+ * Keeps a {@link CollectionModel} on disk using a {@link CollectionSnapshot}
+ * plus a {@link CollectionJournal} of every change made since that snapshot.
+ * <p>
+ * On {@link #open(CollectionModel)} the latest snapshot is loaded, the journal
+ * is replayed on top of it and the journal is attached to the collection so
+ * every later change is logged. Whenever the journal grows past its threshold
+ * (and once right after a replay) the collection is compacted: it is copied
+ * with {@link CollectionSnapshot#capture} on the thread that owns it, and a
+ * background thread encodes the copy, writes and forces the new snapshot and
+ * deletes the journal segments it now covers. This keeps replay time bounded
+ * no matter how long the application runs, while the owning thread only pays
+ * for the copy.
+ */
+public class CollectionStore {
+
+    /** Default directory holding the snapshot and journal, relative to the working directory. */
+    public static final String DEFAULT_DIRECTORY = "data";
+
+    /** File name of the snapshot inside the store directory. */
+    private static final String SNAPSHOT_FILE = "collection.snapshot";
+
+    /** Name of the journal directory inside the store directory. */
+    private static final String JOURNAL_DIRECTORY = "journal";
+
+    /** Path of the snapshot file. */
+    private final Path snapshotPath;
+
+    /** Path of the journal directory. */
+    private final Path journalDirectory;
+
+    /** Number of journal entries that triggers a compaction. */
+    private final int compactionThreshold;
+
+    /** Background thread that writes compacted snapshots. */
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "collection-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Whether a compaction is currently running. */
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    /** The collection kept by this store, once opened. */
+    private CollectionModel collection;
+
+    /** Journal attached to the collection, once opened. */
+    private CollectionJournal journal;
+
+    /**
+     * Creates a store in the given directory with the default compaction
+     * threshold.
+     *
+     * @param directory the directory holding the snapshot and journal
+     */
+    public CollectionStore(Path directory) {
+        this(directory, CollectionJournal.DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Creates a store in the given directory.
+     *
+     * @param directory           the directory holding the snapshot and journal
+     * @param compactionThreshold the number of journal entries that triggers a
+     *                            compaction
+     */
+    public CollectionStore(Path directory, int compactionThreshold) {
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.journalDirectory = directory.resolve(JOURNAL_DIRECTORY);
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Loads the latest snapshot and journal into the given empty collection,
+     * then attaches the journal to it.
+     *
+     * @param collection the collection to restore and keep on disk
+     * @throws IOException if the snapshot or journal cannot be read
+     */
+    public void open(CollectionModel collection) throws IOException {
+        this.collection = collection;
+
+        long snapshotSequence;
+        long lastSequence;
+        journal = new CollectionJournal(journalDirectory);
+
+        // Restore snapshot and journal as one bulk load
+        collection.beginRestore();
+        try {
+            snapshotSequence = Math.max(0, CollectionSnapshot.load(collection, snapshotPath));
+            lastSequence = journal.replay(collection, snapshotSequence);
+        } finally {
+            collection.endRestore();
+        }
+        journal.start(lastSequence);
+        journal.setCompactionTrigger(compactionThreshold, this::compact);
+
+        collection.setJournal(journal);
+
+        // Fold whatever was replayed into a fresh snapshot
+        if (lastSequence > snapshotSequence) {
+            compact();
+        } else {
+            journal.deleteSegmentsCoveredBy(snapshotSequence);
+        }
+    }
+
+    /**
+     * Starts a compaction unless one is already running. Must be called on the
+     * thread that changes the collection.
+     */
+    public void compact() {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+
+        CollectionSnapshot.Image image;
+        long sequence;
+        try {
+            sequence = journal.roll();
+            image = CollectionSnapshot.capture(collection);
+        } catch (RuntimeException e) {
+            compacting.set(false);
+            System.out.println("Could not compact collection: " + e.getMessage());
+            return;
+        }
+
+        compactor.execute(() -> {
+            try {
+                CollectionSnapshot.save(image, snapshotPath, sequence);
+                journal.deleteSegmentsCoveredBy(sequence);
+            } catch (IOException e) {
+                System.out.println("Could not write compacted snapshot: " + e.getMessage());
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    /**
+     * Writes a final snapshot, closes the journal and removes the segments the
+     * snapshot covers.
+     *
+     * @throws IOException if the snapshot or journal cannot be written
+     */
+    public void close() throws IOException {
+        if (journal == null) {
+            return;
+        }
+
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        collection.setJournal(null);
+        journal.close();
+
+        long sequence = journal.getLastSequence();
+        CollectionSnapshot.save(collection, snapshotPath, sequence);
+        journal.deleteSegmentsCoveredBy(sequence);
+        journal = null;
+    }
+}
@@ -1,26 +1,33 @@
 package com.tradingcards.elements.deck;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.TreeMap;
 
 import javax.swing.JPanel;
 
 import com.tradingcards.elements.card.CardModel;
 import com.tradingcards.elements.card.CardView;
 import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.collection.collectionUtils.CardNameIndex;
 import com.tradingcards.elements.menus.menuUtils.DialogUtil;
+import com.tradingcards.elements.service.CollectionService;
+import com.tradingcards.elements.service.ServiceResult;
 
 /**
  * Controller class responsible for managing operations related to decks.
  * This includes adding, removing, and manipulating cards within decks
- * by interacting with the shared collection and view.
+ * by interacting with the shared collection and view. The changes themselves
+ * are made by a {@link CollectionService}; this class gathers the user's
+ * input and shows the outcome.
  */
 public class DeckController {
 
     /** Reference to the shared collection model containing decks and cards. */
     private CollectionModel sharedCollection;
 
+    /** Operations on the shared collection. */
+    private CollectionService service;
+
     /** The view component responsible for user interaction regarding decks. */
     private DeckView view;
 
@@ -35,6 +42,7 @@ public class DeckController {
      */
     public DeckController(CollectionModel sharedCollection, DeckView view) {
         this.sharedCollection = sharedCollection;
+        this.service = new CollectionService(sharedCollection);
         this.view = view;
     }
 
@@ -49,14 +57,11 @@ public class DeckController {
         if (deck == null) {
             DialogUtil.showWarning(null, "Deck creation cancelled.", "Cancelled");
         } else {
-            if (sharedCollection.getDeckCollection().containsKey(deck.getName())) {
-                DialogUtil.showWarning(null, "Deck of the same name already exists", "Duplicate Deck");
+            ServiceResult result = service.createDeck(deck.getName(), deck.getType());
+            if (result.succeeded()) {
+                DialogUtil.showInfo(null, result.message(), "New deck");
             } else {
-                sharedCollection.setDeckCollection(deck, deck.getName());
-                DialogUtil.showInfo(
-                        null,
-                        "New " + deck.getType() + " successfully added to collection!",
-                        "New deck");
+                DialogUtil.showWarning(null, result.message(), "Duplicate Deck");
             }
         }
     }
@@ -79,28 +84,12 @@ public class DeckController {
 
         // Proceed only if not cancelled
         if (!cancelled) {
-            // Get all existing decks
-            HashMap<String, DeckModel> decks = sharedCollection.getDeckCollection();
-
-            // Check if the specified deck exists
-            if (decks.containsKey(name)) {
-                DeckModel deck = decks.get(name);
-                HashMap<String, CardModel> cardsInDeck = deck.getDeck();
-
-                // Return each card from the deck to the main collection
-                for (HashMap.Entry<String, CardModel> entry : cardsInDeck.entrySet()) {
-                    String cardName = entry.getKey();
-                    // Increase the quantity of the card in the collection by 1
-                    sharedCollection.getCardCollection().get(cardName)
-                            .setQuantity(sharedCollection.getCardCollection().get(cardName).getQuantity() + 1);
-                }
-
-                // Remove the deck from the shared collection
-                sharedCollection.removeDeckCollection(name);
-                DialogUtil.showInfo(panel, "Deck \"" + name + "\" removed and cards returned", "Deck Removed");
+            ServiceResult result = service.deleteDeck(name);
+            if (result.succeeded()) {
+                DialogUtil.showInfo(panel, result.message(), "Deck Removed");
                 refreshPanel(panel, displayDecks());
             } else {
-                DialogUtil.showInfo(panel, "Deck \"" + name + "\" not found", "Deck Not Found");
+                DialogUtil.showInfo(panel, result.message(), "Deck Not Found");
             }
         }
     }
@@ -112,10 +101,9 @@ public class DeckController {
      * @param panel the JPanel to update with deck changes
      */
     public void removeCard(JPanel panel) {
-        // Get references to main collections
-        HashMap<String, CardModel> collection = sharedCollection.getCardCollection();
-        HashMap<String, DeckModel> deckCollection = sharedCollection.getDeckCollection();
-        HashMap<String, CardModel> deck;
+        // Get references to the deck collection
+        TreeMap<String, DeckModel> deckCollection = sharedCollection.getDeckCollection();
+        TreeMap<String, CardModel> deck;
         String cardToRemove;
         boolean taskDone = false;
         boolean cancelled = false;
@@ -139,12 +127,12 @@ public class DeckController {
 
                     } else {
                         // Show deck contents
-                        refreshPanel(panel, displayDeckContent(deck));
+                        refreshPanel(panel, displayDeckContent(deckCollection.get(deckName)));
 
                         // Repeat until a valid card is removed
                         do {
                             DialogUtil.showMessage(null, "Indicate card to be deleted", "Information", 1);
-                            cardToRemove = cardView.setCardName();
+                            cardToRemove = cardView.setCardName(CardNameIndex.of(deck.keySet()));
 
                             if (cardToRemove == null || cardToRemove.equals(EXIT_CODE)) {
                                 taskDone = true;
@@ -152,14 +140,8 @@ public class DeckController {
 
                             // Check if the card exists in the deck
                             if (deck.containsKey(cardToRemove) && !taskDone) {
-                                // Increase quantity back to main collection
-                                collection.get(cardToRemove)
-                                        .setQuantity(collection.get(cardToRemove).getQuantity() + 1);
-                                // Remove card from deck
-                                deck.remove(cardToRemove);
-                                refreshPanel(panel, displayDeckContent(deck));
-                                DialogUtil.showMessage(null, "Sucessfully transferred Card into Collection",
-                                        "Information", 1);
+                                // Return the card to the main collection
+                                showResult(service.removeFromDeck(deckName, cardToRemove));
                                 taskDone = true;
                             } else {
                                 // Invalid input; prompt again
@@ -190,11 +172,9 @@ public class DeckController {
      */
     public void addCard(JPanel panel) {
         // Get references to the card collection and deck collection
-        HashMap<String, CardModel> collection = sharedCollection.getCardCollection();
-        HashMap<String, DeckModel> deckCollection = sharedCollection.getDeckCollection();
+        TreeMap<String, CardModel> collection = sharedCollection.getCardCollection();
+        TreeMap<String, DeckModel> deckCollection = sharedCollection.getDeckCollection();
         CardView cardView = new CardView();
-        DeckModel deck;
-        CardModel cardInCollection;
 
         String cardToRemove;
         boolean taskDone = false;
@@ -219,43 +199,16 @@ public class DeckController {
                 } else {
                     // Proceed if the specified deck exists
                     if (deckCollection.containsKey(deckName)) {
-                        deck = deckCollection.get(deckName);
                         refreshPanel(panel, cardView.displayCollection(collection));
                         do {
-                            cardToRemove = cardView.setCardName();
+                            cardToRemove = cardView.setCardName(sharedCollection.getNameIndex());
                             if (cardToRemove == null || cardToRemove.equals(EXIT_CODE))
                                 taskDone = true;
                             // Check if card exists in collection
                             if (collection.containsKey(cardToRemove) && !taskDone) {
-                                cardInCollection = collection.get(cardToRemove);
-
-                                // Check if card has copies left in collection
-                                if (cardInCollection.getQuantity() > 0) {
-
-                                    // Check if deck has space for more cards (max 10)
-                                    if (deck.getDeck().size() < 10) {
-                                        if (deck.addCardtoDeck(collection.get(cardToRemove), cardToRemove)) {
-                                            // Decrease quantity in main collection
-                                            cardInCollection.setQuantity(cardInCollection.getQuantity() - 1);
-
-                                            // Confirm success
-                                            DialogUtil.showMessage(null, "Successfully transferred card into Deck",
-                                                    "Successful Operation", 1);
-                                            taskDone = true;
-                                        } else {
-                                            // Card is already in the deck
-                                            DialogUtil.showWarning(null, "Deck already contains specified card",
-                                                    "Warning");
-                                        }
-                                    } else {
-                                        // Deck has reached max size
-                                        DialogUtil.showWarning(null, "Deck is already full", "Warning");
-                                    }
-                                } else {
-                                    // No more copies of this card left in collection
-                                    DialogUtil.showWarning(null,
-                                            "Collection currently has zero copies of specified card", "Warning");
-                                }
+                                // Moves one copy, if there is one and the deck has room for it
+                                showResult(service.addToDeck(deckName, cardToRemove));
+                                taskDone = true;
                             } else {
                                 // Invalid card name entered
                                 DialogUtil.showWarning(null,
@@ -284,8 +237,8 @@ public class DeckController {
      */
     public void displaySingleDeck(JPanel panel) {
         // Get the map of all decks
-        HashMap<String, DeckModel> deckCollection = sharedCollection.getDeckCollection();
-        HashMap<String, CardModel> selectedDeck;
+        TreeMap<String, DeckModel> deckCollection = sharedCollection.getDeckCollection();
+        TreeMap<String, CardModel> selectedDeck;
 
         // Display all available decks to the user
         refreshPanel(panel, displayDecks());
@@ -307,7 +260,7 @@ public class DeckController {
                     selectedDeck = deckCollection.get(deckName).getDeck();
                     if (!selectedDeck.isEmpty()) {
 
-                        refreshPanel(panel, displayDeckContent(selectedDeck));
+                        refreshPanel(panel, displayDeckContent(deckCollection.get(deckName)));
 
                         chooseCardFromDeck(panel, selectedDeck);
                     } else {
@@ -328,8 +281,8 @@ public class DeckController {
      * @return a JPanel displaying the deck's contents or an empty panel if deck is
      *         empty
      */
-    public JPanel displayDeckContent(HashMap<String, CardModel> deck) {
-        if (!deck.isEmpty()) {
+    public JPanel displayDeckContent(DeckModel deck) {
+        if (!deck.getDeck().isEmpty()) {
             return (view.displayDeckContent(deck));
         } else {
             return (new JPanel());
@@ -347,15 +300,11 @@ public class DeckController {
         if (name == null || name.equals("-999")) {
             DialogUtil.showError(null, "Sell Deck Cancelled", "Cancelled");
         } else {
-            DeckModel deck = sharedCollection.getDeckCollection().get(name);
-
-            if (deck.getSellingPrice() == -1) {
-                DialogUtil.showError(null, "Deck is not sellable", "Cancelled");
+            ServiceResult result = service.sellDeck(name);
+            if (result.succeeded()) {
+                DialogUtil.showInfo(null, result.message(), "Success");
             } else {
-                sharedCollection.setMoney(sharedCollection.getMoney() + deck.getSellingPrice());
-                DialogUtil.showInfo(null, "Binder sold, you now have cash total of " + sharedCollection.getMoney(),
-                        "Success");
-                sharedCollection.removeDeckCollection(name);
+                DialogUtil.showError(null, result.message(), "Cancelled");
             }
         }
     }
@@ -366,7 +315,7 @@ public class DeckController {
      * @param panel the JPanel to update with card details
      * @param deck  the deck containing the cards to choose from
      */
-    public void chooseCardFromDeck(JPanel panel, HashMap<String, CardModel> deck) {
+    public void chooseCardFromDeck(JPanel panel, TreeMap<String, CardModel> deck) {
         CardView cardView = new CardView(); // Used to display card details
         // String toView = view.viewCardChoice(); // Ask user if they want to view a
         // card
@@ -382,10 +331,10 @@ public class DeckController {
 
             // If user chooses to select by card name
             if (selectionOption == 0) {
-                cardName = view.setCardName();
+                cardName = view.setCardName(CardNameIndex.of(deck.keySet()));
 
                 // Check if the specified card exists in the deck
-                if (deck.containsKey(cardName)) {
+                if (cardName != null && deck.containsKey(cardName)) {
                     refreshPanel(panel, cardView.displayCardForBinderAndDeck(deck, cardName));
                 } else {
                     DialogUtil.showWarning(null, "Card does not exist in Deck", "Warning");
@@ -395,11 +344,13 @@ public class DeckController {
             } else if (selectionOption == 1) {
                 cardNumber = view.setCardNumber();
 
-                if (cardNumber <= deck.size()) {
-                    ArrayList<String> cardByKey = new ArrayList<>(deck.keySet());
-                    Collections.sort(cardByKey);
-
-                    CardModel cardModel = deck.get(cardByKey.get((cardNumber - 1)));
+                if (cardNumber >= 1 && cardNumber <= deck.size()) {
+                    // The deck is kept sorted by name, so walk to the numbered card
+                    Iterator<CardModel> cards = deck.values().iterator();
+                    CardModel cardModel = cards.next();
+                    for (int i = 1; i < cardNumber; i++) {
+                        cardModel = cards.next();
+                    }
 
                     refreshPanel(panel, cardView.displayCardForBinderAndDeck(deck, cardModel.getName()));
                 } else {
@@ -420,7 +371,7 @@ public class DeckController {
      * @return a JPanel displaying all decks or a panel with a warning message
      */
     public JPanel displayDecks() {
-        HashMap<String, DeckModel> deckCollection = sharedCollection.getDeckCollection();
+        TreeMap<String, DeckModel> deckCollection = sharedCollection.getDeckCollection();
 
         if (!deckCollection.isEmpty()) {
             return (view.displayDecks(deckCollection));
@@ -430,6 +381,19 @@ public class DeckController {
         return view.basicPanel("Currently no decks");
     }
 
+    /**
+     * Shows the outcome of moving a card between the collection and a deck.
+     *
+     * @param result the outcome of the move
+     */
+    private void showResult(ServiceResult result) {
+        if (result.succeeded()) {
+            DialogUtil.showMessage(null, result.message(), "Successful Operation", 1);
+        } else {
+            DialogUtil.showWarning(null, result.message(), "Warning");
+        }
+    }
+
     /**
      * Refreshes the given UI panel with the specified element.
      *
@@ -1,14 +1,18 @@
 package com.tradingcards.elements.deck;
 
-import java.util.HashMap;
+import java.util.TreeMap;
 
+import com.tradingcards.elements.card.CardContainer;
+import com.tradingcards.elements.card.CardContainerListener;
+import com.tradingcards.elements.card.CardContainerSupport;
 import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.cardUtils.CardAggregates;
 
 /**
  * Model class representing a Deck of cards.
  * A deck has a name, a type, and contains a collection of unique cards.
  */
-public class DeckModel {
+public class DeckModel implements CardContainer {
 
     /** The name of the deck. */
     private String deckName;
@@ -16,8 +20,14 @@ public class DeckModel {
     /** The type of the deck. */
     private String deckType;
 
-    /** A map of card names to their corresponding CardModel objects in the deck. */
-    private HashMap<String, CardModel> cardsInDeck = new HashMap<>();
+    /** A map of card names to their corresponding CardModel objects in the deck, sorted by name. */
+    private TreeMap<String, CardModel> cardsInDeck = new TreeMap<>();
+
+    /** Running totals over the cards in the deck. */
+    private final CardAggregates aggregates = new CardAggregates();
+
+    /** Listeners told about each card added to, removed from or changed in the deck. */
+    private final CardContainerSupport events = new CardContainerSupport();
 
     /**
      * Sets the name of the deck.
@@ -57,10 +67,13 @@ public class DeckModel {
 
     /**
      * Returns the collection of cards in the deck.
+     * <p>
+     * Cards must be added and removed through {@link #addCardtoDeck} and
+     * {@link #removeCardFromDeck} so the deck's totals stay correct.
      *
-     * @return a HashMap of card names to CardModel objects
+     * @return a TreeMap of card names to CardModel objects, sorted by name
      */
-    public HashMap<String, CardModel> getDeck() {
+    public TreeMap<String, CardModel> getDeck() {
         return this.cardsInDeck;
     }
 
@@ -75,12 +88,65 @@ public class DeckModel {
     public boolean addCardtoDeck(CardModel card, String name) {
         if (!cardsInDeck.containsKey(name)) {
             cardsInDeck.put(name, card);
+            aggregates.track(card);
+            events.cardAdded(name, card);
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Removes a card from the deck.
+     *
+     * @param name the name of the card
+     * @return the removed card, or {@code null} if it was not in the deck
+     */
+    public CardModel removeCardFromDeck(String name) {
+        CardModel card = cardsInDeck.remove(name);
+        if (card != null) {
+            aggregates.untrack(card);
+            events.cardRemoved(name, card);
+        }
+        return card;
+    }
+
+    @Override
+    public TreeMap<String, CardModel> getCards() {
+        return this.cardsInDeck;
+    }
+
+    @Override
+    public void addContainerListener(CardContainerListener listener) {
+        events.addListener(listener);
+    }
+
+    @Override
+    public void removeContainerListener(CardContainerListener listener) {
+        events.removeListener(listener);
+    }
+
+    /**
+     * Stops the deck's totals and listeners from following its cards. Called
+     * when the deck is removed from the collection, since its cards live on in
+     * the main collection.
+     */
+    public void release() {
+        for (CardModel card : cardsInDeck.values()) {
+            card.removeListener(aggregates);
+        }
+        events.release(cardsInDeck.values());
+    }
+
+    /**
+     * Returns the running totals over the cards in the deck.
+     *
+     * @return the deck's card totals
+     */
+    public CardAggregates getAggregates() {
+        return aggregates;
+    }
+
     /**
      * Calculates and returns the selling price of the deck.
      * For "Normal" decks, returns -1. For other types, sums the value of all cards.
@@ -88,17 +154,12 @@ public class DeckModel {
      * @return the total selling price of the deck, or -1 if deck type is "Normal"
      */
     public double getSellingPrice() {
-        if (deckType.equals("Normal")) {
+        // The New Deck form stores the type as "Normal Deck"
+        if (deckType.startsWith("Normal")) {
             return -1;
         } else {
-            double total = 0.0;
-
-            for (CardModel card : cardsInDeck.values()) {
-                double cardTotal = card.getValue() * 1;
-                total += cardTotal;
-            }
-
-            return total;
+            // Each card is in the deck once, whatever its quantity in the collection
+            return aggregates.getUnitValue();
         }
     }
 
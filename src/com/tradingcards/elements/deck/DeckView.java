@@ -4,12 +4,9 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.GridLayout;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Scanner;
+import java.util.TreeMap;
 
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -17,9 +14,11 @@ import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 
-import com.tradingcards.elements.card.CardModel;
-import com.tradingcards.elements.card.cardUtils.ImageUtils;
+import com.tradingcards.elements.card.CardPager;
+import com.tradingcards.elements.card.cardUtils.ImageLoader;
+import com.tradingcards.elements.collection.collectionUtils.CardNameIndex;
 import com.tradingcards.elements.menus.menuUtils.DialogUtil;
+import com.tradingcards.elements.menus.menuUtils.SearchInputDialog;
 
 /**
  * View class responsible for handling user input and displaying output related
@@ -125,6 +124,18 @@ public class DeckView {
         return JOptionPane.showInputDialog(null, "Give Card Name (Enter -999 to cancel): ");
     }
 
+    /**
+     * Prompts the user to input the name of a card in the deck, suggesting matching names
+     * from the given index while the user types.
+     *
+     * @param names the names to suggest from
+     * @return the card name entered by the user, or {@code null} if cancelled
+     */
+    public String setCardName(CardNameIndex names) {
+        return SearchInputDialog.showInputDialog(null, "Give Card Name (Enter -999 to cancel): ",
+                query -> names.search(query, SearchInputDialog.SUGGESTION_LIMIT));
+    }
+
     /**
      * Prompts the user to input the number of a card in the deck.
      *
@@ -176,13 +187,10 @@ public class DeckView {
      *
      * @param deckCollection the collection of all existing decks
      */
-    public JPanel displayDecks(HashMap<String, DeckModel> deckCollection) {
-        ArrayList<String> deckKeys = new ArrayList<>(deckCollection.keySet());
-        Collections.sort(deckKeys);
-
+    public JPanel displayDecks(TreeMap<String, DeckModel> deckCollection) {
         JPanel displayPanel = new JPanel(new GridLayout(0, 3, 0, 5));
 
-        for (String deckNames : deckKeys) {
+        for (String deckNames : deckCollection.keySet()) {
 
             JPanel wrapper = new JPanel();
 
@@ -203,51 +211,25 @@ public class DeckView {
 
     /**
      * Displays the contents of a single deck including card names and their order
-     * number.
+     * number. Cards are shown one page at a time, and the page follows later
+     * changes to the deck.
      *
-     * @param deck the map of card names to card objects in the deck
+     * @param deck the deck to display
      */
-    public JPanel displayDeckContent(HashMap<String, CardModel> deck) {
-        ArrayList<String> cardByKey = new ArrayList<>(deck.keySet());
-        Collections.sort(cardByKey);
-
-        JPanel displayPanel = new JPanel(new GridLayout(0, 3, 5, 5));
-
-        int counter = 0;
-
-        for (String name : cardByKey) {
-            counter += 1;
+    public JPanel displayDeckContent(DeckModel deck) {
+        return new CardPager(deck, false, (card, position) -> {
             JPanel tempPanel = new JPanel(new BorderLayout());
             tempPanel.setBorder(new EmptyBorder(5, 5, 5, 5));
 
-            JLabel image;
-
-            String imagePath = deck.get(name).getImagePath();
-            ImageIcon cardPhoto;
-
-            if (imagePath != null) {
-                cardPhoto = new ImageIcon(imagePath);
-            } else {
-                cardPhoto = new ImageIcon(getClass().getResource("/images/default.png"));
-            }
-
-            image = new JLabel(ImageUtils.scaleIcon(cardPhoto, 120, 120));
+            JLabel image = ImageLoader.shared().createLabel(card.getImagePath(), 120, 120);
             image.setHorizontalAlignment(SwingConstants.CENTER);
             tempPanel.add(image, BorderLayout.CENTER);
 
-            JLabel tempLabel = new JLabel("<html>Card Name: " + deck.get(name).getName() + "<br>Value: "
-                    + deck.get(name).getValue() + "<br>Card Number: " + counter + "</html>");
-
+            JLabel tempLabel = new JLabel("<html>Card Name: " + card.getName() + "<br>Value: " + card.getValue()
+                    + "<br>Card Number: " + position + "</html>");
             tempPanel.add(tempLabel, BorderLayout.SOUTH);
             tempPanel.setPreferredSize(new Dimension(190, 190));
-
-            displayPanel.setBackground(Color.white);
-            displayPanel.add(tempPanel);
-        }
-        JPanel wrapperPanel = new JPanel(new BorderLayout());
-        wrapperPanel.add(displayPanel, BorderLayout.NORTH);
-        wrapperPanel.setBackground(Color.WHITE);
-
-        return wrapperPanel;
+            return tempPanel;
+        }, null);
     }
 }
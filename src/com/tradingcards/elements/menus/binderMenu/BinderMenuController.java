@@ -7,7 +7,6 @@ import javax.swing.JPanel;
 import com.tradingcards.MainFrame;
 import com.tradingcards.elements.binder.BinderController;
 import com.tradingcards.elements.binder.BinderView;
-import com.tradingcards.elements.menus.mainMenu.MainMenuView;
 
 /**
  * Controller class responsible for managing the interactions and actions
@@ -29,9 +28,6 @@ public class BinderMenuController {
     /** Main application frame that handles panel switching. */
     private final MainFrame mainFrame;
 
-    /** View component for the main menu. */
-    private final MainMenuView mainMenuView;
-
     /**
      * Constructs a new {@code BinderMenuController} with the provided
      * view, controller, and main application components.
@@ -39,15 +35,13 @@ public class BinderMenuController {
      * @param view             the binder menu view
      * @param binderController the binder logic controller
      * @param binderView       the binder view
-     * @param mainMenuView     the main menu view
      * @param mainFrame        the main application frame
      */
     public BinderMenuController(BinderMenuView view, BinderController binderController, BinderView binderView,
-            MainMenuView mainMenuView, MainFrame mainFrame) {
+            MainFrame mainFrame) {
         this.binderController = binderController;
         this.binderView = binderView;
         this.view = view;
-        this.mainMenuView = mainMenuView;
         this.mainFrame = mainFrame;
     }
 
@@ -60,11 +54,7 @@ public class BinderMenuController {
         JPanel displayPanel = new JPanel();
 
         // Back to main menu
-        view.setBackAction(e -> {
-            mainMenuView.updateMoneyLabel();
-            mainMenuView.updateButtonStatus();
-            mainFrame.showPanel("mainMenu");
-        });
+        view.setBackAction(e -> mainFrame.showPanel("mainMenu"));
 
         // Delete a binder
         view.setDeleteBinderAction(e -> {
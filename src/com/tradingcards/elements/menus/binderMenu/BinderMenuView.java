@@ -7,13 +7,12 @@ import java.awt.event.ActionListener;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 
-import com.tradingcards.elements.card.cardUtils.ImageUtils;
+import com.tradingcards.elements.card.cardUtils.ImageCache;
 
 /**
  * View class for the binder menu screen. This panel provides options
@@ -91,8 +90,7 @@ public class BinderMenuView extends JPanel {
 
         // Populate options panel with components
         optionPanel.add(Box.createVerticalStrut(10));
-        optionPanel.add(
-                new JLabel(ImageUtils.scaleIcon(new ImageIcon(getClass().getResource("/images/cards.png")), 198, 130)));
+        optionPanel.add(new JLabel(ImageCache.shared().getResourceIcon("/images/cards.png", 198, 130)));
         optionPanel.add(Box.createVerticalStrut(15));
         optionPanel.add(deleteBinderBtn);
         optionPanel.add(Box.createVerticalStrut(10));
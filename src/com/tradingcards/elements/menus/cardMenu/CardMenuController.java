@@ -3,7 +3,6 @@ package com.tradingcards.elements.menus.cardMenu;
 import com.tradingcards.MainFrame;
 import com.tradingcards.elements.card.CardController;
 import com.tradingcards.elements.card.CardView;
-import com.tradingcards.elements.menus.mainMenu.MainMenuView;
 
 /**
  * Controller class for handling logic and user interactions in the Card Menu.
@@ -24,24 +23,19 @@ public class CardMenuController {
     /** Reference to the main application frame for switching panels. */
     private final MainFrame mainFrame;
 
-    /** View component for the main menu. */
-    private final MainMenuView mainMenuView;
-
     /**
      * Constructs a new {@code CardMenuController} with all required components.
      *
      * @param view           the card menu view
      * @param cardController the controller that handles card logic
      * @param cardView       the view that prompts and displays card dialogs
-     * @param mainMenuView   the main menu view for navigation
      * @param mainFrame      the main application frame for panel switching
      */
     public CardMenuController(CardMenuView view, CardController cardController, CardView cardView,
-            MainMenuView mainMenuView, MainFrame mainFrame) {
+            MainFrame mainFrame) {
         this.cardController = cardController;
         this.cardView = cardView;
         this.view = view;
-        this.mainMenuView = mainMenuView;
         this.mainFrame = mainFrame;
     }
 
@@ -54,11 +48,7 @@ public class CardMenuController {
         view.setDataInPanel(cardController.displayCollection());
 
         // Action: Return to main menu
-        view.setBackAction(e -> {
-            mainMenuView.updateMoneyLabel();
-            mainMenuView.updateButtonStatus();
-            mainFrame.showPanel("mainMenu");
-        });
+        view.setBackAction(e -> mainFrame.showPanel("mainMenu"));
 
         // Action: Display a specific card
         view.setDisplayCardAction(e -> {
@@ -83,7 +73,7 @@ public class CardMenuController {
         // Action: Sell a card
         view.setSellCardAction(e -> {
             view.setDataInPanel(cardController.displayCollection());
-            boolean cardSold = cardController.sellCard(cardView.setCardName());
+            boolean cardSold = cardController.sellCard(cardController.promptCardName());
 
             if (cardSold) {
                 view.setDataInPanel(cardController.displayCollection()); // Refresh collection if sold
@@ -7,13 +7,12 @@ import java.awt.event.ActionListener;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 
-import com.tradingcards.elements.card.cardUtils.ImageUtils;
+import com.tradingcards.elements.card.cardUtils.ImageCache;
 
 /**
  * GUI view class responsible for displaying the Card Menu screen.
@@ -79,8 +78,7 @@ public class CardMenuView extends JPanel {
 
         // Add components to option panel
         optionPanel.add(Box.createVerticalStrut(10));
-        optionPanel.add(new JLabel(ImageUtils.scaleIcon(
-                new ImageIcon(getClass().getResource("/images/cards.png")), 160, 105)));
+        optionPanel.add(new JLabel(ImageCache.shared().getResourceIcon("/images/cards.png", 160, 105)));
         optionPanel.add(Box.createVerticalStrut(15));
         optionPanel.add(displayCardBtn);
         optionPanel.add(Box.createVerticalStrut(10));
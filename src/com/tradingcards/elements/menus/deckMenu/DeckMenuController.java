@@ -6,7 +6,6 @@ import javax.swing.JPanel;
 import com.tradingcards.MainFrame;
 import com.tradingcards.elements.deck.DeckController;
 import com.tradingcards.elements.deck.DeckView;
-import com.tradingcards.elements.menus.mainMenu.MainMenuView;
 
 /**
  * Controller class responsible for managing interactions within the deck menu
@@ -29,24 +28,19 @@ public class DeckMenuController {
     /** Reference to the main application frame for switching views. */
     private final MainFrame mainFrame;
 
-    /** The main menu view to return to after deck operations. */
-    private final MainMenuView mainMenuView;
-
     /**
      * Constructs a DeckMenuController to manage user interactions in the deck menu.
      *
      * @param view           the DeckMenuView UI component
      * @param deckController the controller managing deck logic
      * @param deckView       the view for individual deck input/output
-     * @param mainMenuView   the main menu UI view
      * @param mainFrame      the main frame for swapping application views
      */
     public DeckMenuController(DeckMenuView view, DeckController deckController, DeckView deckView,
-            MainMenuView mainMenuView, MainFrame mainFrame) {
+            MainFrame mainFrame) {
         this.deckController = deckController;
         this.deckView = deckView;
         this.view = view;
-        this.mainMenuView = mainMenuView;
         this.mainFrame = mainFrame;
     }
 
@@ -58,11 +52,7 @@ public class DeckMenuController {
         view.setDataInPanel(deckController.displayDecks());
         JPanel displayPanel = new JPanel();
 
-        view.setBackBtn(e -> {
-            mainMenuView.updateMoneyLabel();
-            mainMenuView.updateButtonStatus();
-            mainFrame.showPanel("mainMenu");
-        });
+        view.setBackBtn(e -> mainFrame.showPanel("mainMenu"));
 
         view.setDeleteDeckBtn(e -> {
             displayPanel.setLayout(new BorderLayout());
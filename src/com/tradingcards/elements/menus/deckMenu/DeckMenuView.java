@@ -7,13 +7,12 @@ import java.awt.event.ActionListener;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 
-import com.tradingcards.elements.card.cardUtils.ImageUtils;
+import com.tradingcards.elements.card.cardUtils.ImageCache;
 
 /**
  * View class for the Deck Menu. It provides a graphical interface where users
@@ -79,8 +78,7 @@ public class DeckMenuView extends JPanel {
 
         // Build option panel with spacing and image
         optionPanel.add(Box.createVerticalStrut(10));
-        optionPanel.add(
-                new JLabel(ImageUtils.scaleIcon(new ImageIcon(getClass().getResource("/images/cards.png")), 190, 125)));
+        optionPanel.add(new JLabel(ImageCache.shared().getResourceIcon("/images/cards.png", 190, 125)));
         optionPanel.add(Box.createVerticalStrut(15));
         optionPanel.add(deleteDeckBtn);
         optionPanel.add(Box.createVerticalStrut(10));
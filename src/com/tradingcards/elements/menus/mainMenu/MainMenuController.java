@@ -1,11 +1,22 @@
 package com.tradingcards.elements.menus.mainMenu;
 
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
 import com.tradingcards.MainFrame;
 import com.tradingcards.elements.binder.BinderController;
 import com.tradingcards.elements.binder.BinderView;
 import com.tradingcards.elements.card.CardController;
 import com.tradingcards.elements.card.CardView;
 import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.collection.collectionUtils.CollectionExporter;
+import com.tradingcards.elements.collection.collectionUtils.CollectionStore;
 import com.tradingcards.elements.deck.DeckController;
 import com.tradingcards.elements.deck.DeckView;
 import com.tradingcards.elements.menus.binderMenu.BinderMenuController;
@@ -14,6 +25,7 @@ import com.tradingcards.elements.menus.cardMenu.CardMenuController;
 import com.tradingcards.elements.menus.cardMenu.CardMenuView;
 import com.tradingcards.elements.menus.deckMenu.DeckMenuController;
 import com.tradingcards.elements.menus.deckMenu.DeckMenuView;
+import com.tradingcards.elements.menus.menuUtils.DialogUtil;
 
 /**
  * Controller responsible for managing the main menu interface and initializing
@@ -22,8 +34,14 @@ import com.tradingcards.elements.menus.deckMenu.DeckMenuView;
  */
 public class MainMenuController {
 
-    /** Shared data model used across all modules (cards, binders, decks). */
-    private final CollectionModel sharedCollection = new CollectionModel();
+    /**
+     * Shared data model used across all modules (cards, binders, decks). Its
+     * changes are delivered to listeners on the Event Dispatch Thread.
+     */
+    private final CollectionModel sharedCollection = new CollectionModel(SwingUtilities::invokeLater);
+
+    /** Snapshot and journal the collection is restored from and saved to. */
+    private final CollectionStore store = new CollectionStore(Path.of(CollectionStore.DEFAULT_DIRECTORY));
 
     /**
      * Initializes the entire GUI application. Sets up views, controllers, event
@@ -31,6 +49,17 @@ public class MainMenuController {
      * and displays the main menu.
      */
     public void start() {
+        // Changes that cannot be journaled stay in memory; tell the user they will be lost
+        sharedCollection.setJournalErrorHandler(
+                e -> DialogUtil.showError(null, "Could not save change: " + e.getMessage(), "Save Error"));
+
+        // Restore the collection saved by the previous session
+        try {
+            store.open(sharedCollection);
+        } catch (IOException e) {
+            DialogUtil.showError(null, "Could not load saved collection: " + e.getMessage(), "Load Error");
+        }
+
         MainFrame mainFrame = new MainFrame();
         MainMenuView mainMenuView = new MainMenuView(sharedCollection);
 
@@ -42,19 +71,19 @@ public class MainMenuController {
         CardView cardView = new CardView();
         CardController cardController = new CardController(sharedCollection, cardView);
         CardMenuController cardMenuController = new CardMenuController(
-                cardMenuView, cardController, cardView, mainMenuView, mainFrame);
+                cardMenuView, cardController, cardView, mainFrame);
 
         // Set up MVC components for Binder menu
         BinderView binderView = new BinderView();
         BinderController binderController = new BinderController(sharedCollection, binderView);
         BinderMenuController binderMenuController = new BinderMenuController(
-                binderMenuView, binderController, binderView, mainMenuView, mainFrame);
+                binderMenuView, binderController, binderView, mainFrame);
 
         // Set up MVC components for Deck menu
         DeckView deckView = new DeckView();
         DeckController deckController = new DeckController(sharedCollection, deckView);
         DeckMenuController deckMenuController = new DeckMenuController(
-                deckMenuView, deckController, deckView, mainMenuView, mainFrame);
+                deckMenuView, deckController, deckView, mainFrame);
 
         // Register all possible menu panels with the main frame
         mainFrame.addPanel("mainMenu", mainMenuView);
@@ -62,6 +91,14 @@ public class MainMenuController {
         mainFrame.addPanel("manageBinderMenu", binderMenuView);
         mainFrame.addPanel("manageDeckMenu", deckMenuView);
 
+        // Save the collection when the window is closed
+        mainFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                saveCollection();
+            }
+        });
+
         // Show main menu by default
         mainFrame.setVisible(true);
         mainFrame.showPanel("mainMenu");
@@ -70,29 +107,19 @@ public class MainMenuController {
         mainMenuView.setAddCardAction(e -> {
             boolean[] temp = new boolean[1]; // Used by addCard logic
             cardController.addCard(temp);
-
-            if (!sharedCollection.getCardCollection().isEmpty()) {
-                mainMenuView.showManageCardBtn(); // Enable manage card button if cards exist
-            }
         });
 
         // Handle "Add Binder" button logic
-        mainMenuView.setNewBinderAction(e -> {
-            binderController.addBinder();
-
-            if (!sharedCollection.getBinderCollection().isEmpty()) {
-                mainMenuView.showManageBinderBtn(); // Enable manage binder button if binders exist
-            }
-        });
+        mainMenuView.setNewBinderAction(e -> binderController.addBinder());
 
         // Handle "Add Deck" button logic
-        mainMenuView.setNewDeckAction(e -> {
-            deckController.addDeck();
+        mainMenuView.setNewDeckAction(e -> deckController.addDeck());
 
-            if (!sharedCollection.getDeckCollection().isEmpty()) {
-                mainMenuView.showManageDeckBtn(); // Enable manage deck button if decks exist
-            }
-        });
+        // Handle "Import Cards" button logic
+        mainMenuView.setImportCardsAction(e -> cardController.importCards());
+
+        // Handle "Export Collection" button logic
+        mainMenuView.setExportCollectionAction(e -> exportCollection(mainMenuView));
 
         // Navigate to Manage Cards screen
         mainMenuView.setManageCardsAction(e -> {
@@ -113,6 +140,57 @@ public class MainMenuController {
         });
 
         // Handle exit button
-        mainMenuView.setCloseApplicationButton(e -> System.exit(0));
+        mainMenuView.setCloseApplicationButton(e -> {
+            saveCollection();
+            System.exit(0);
+        });
+    }
+
+    /**
+     * Exports the shared collection to a file chosen by the user. The file is
+     * written on a background thread, which reads the collection a page at a
+     * time on the Event Dispatch Thread so the window stays responsive.
+     *
+     * @param mainMenuView the view to ask for the file
+     */
+    private void exportCollection(MainMenuView mainMenuView) {
+        Path file = mainMenuView.showExportFileChooser();
+        if (file == null) {
+            return;
+        }
+
+        new SwingWorker<CollectionExporter.Result, Void>() {
+            @Override
+            protected CollectionExporter.Result doInBackground() throws IOException {
+                return new CollectionExporter(sharedCollection, SwingUtilities::invokeLater).export(file);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    CollectionExporter.Result result = get();
+                    DialogUtil.showInfo(null, String.format("Exported %d rows (%.1f MB) in %.2f s (%,.0f rows/s).",
+                            result.rows(), result.bytes() / 1e6, result.nanos() / 1e9, result.rowsPerSecond()),
+                            "Export Finished");
+                } catch (ExecutionException e) {
+                    DialogUtil.showError(null, "Could not export collection: " + e.getCause().getMessage(),
+                            "Export Error");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Writes a final snapshot of the shared collection and closes its journal,
+     * showing an error dialog if it could not be written.
+     */
+    private void saveCollection() {
+        try {
+            store.close();
+        } catch (IOException e) {
+            DialogUtil.showError(null, "Could not save collection: " + e.getMessage(), "Save Error");
+        }
     }
 }
@@ -5,22 +5,33 @@ import java.awt.Component;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.awt.event.ActionListener;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
+import java.util.List;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
+import com.tradingcards.elements.card.cardUtils.CardAggregates;
 import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent.Kind;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent.Target;
 
 /**
  * View component for the Main Menu screen of the Trading Card Inventory System.
  * Displays options to create or manage cards, binders, decks, and exit the
  * application.
  * Also shows the user's current available money.
+ * <p>
+ * The labels and buttons follow the collection through its change events, so
+ * they are up to date whichever screen made the change.
  */
 public class MainMenuView extends JPanel {
 
@@ -33,17 +44,20 @@ public class MainMenuView extends JPanel {
     /** Button for creating a new deck. */
     private final JButton newDeckBtn = new JButton("Create Deck");
 
-    /** Button for managing existing cards. Disabled by default. */
+    /** Button for managing existing cards. Disabled while there are none. */
     private final JButton manageCardsBtn = new JButton("Manage Cards");
 
-    /** Button for managing existing binders. Disabled by default. */
+    /** Button for managing existing binders. Disabled while there are none. */
     private final JButton manageBindersBtn = new JButton("Manage Binders");
 
-    /** Button for managing existing decks. Disabled by default. */
+    /** Button for managing existing decks. Disabled while there are none. */
     private final JButton manageDecksBtn = new JButton("Manage Decks");
 
-    /** Invisible placeholder button to maintain grid layout symmetry. */
-    private final JButton placeHolderBtn = new JButton("");
+    /** Button for importing many cards at once from a file. */
+    private final JButton importCardsBtn = new JButton("Import Cards");
+
+    /** Button for exporting the whole collection to a file. */
+    private final JButton exportCollectionBtn = new JButton("Export Collection");
 
     /** Button to close or exit the application. */
     private final JButton closeApplicationBtn = new JButton("Exit");
@@ -51,6 +65,9 @@ public class MainMenuView extends JPanel {
     /** Label that displays the user's current cash balance. */
     private final JLabel moneyLabel;
 
+    /** Label that displays the number of cards owned and their combined value. */
+    private final JLabel inventoryLabel;
+
     /** Shared collection model that holds the cards, binders, decks, and money. */
     private final CollectionModel sharedCollection;
 
@@ -77,22 +94,25 @@ public class MainMenuView extends JPanel {
 
         moneyLabel = new JLabel("Cash: " + df.format(sharedCollection.getMoney()), SwingConstants.CENTER);
         moneyLabel.setFont(new Font("Inter", Font.PLAIN, 16));
-        moneyLabel.setBorder(BorderFactory.createEmptyBorder(5, 0, 20, 0));
+        moneyLabel.setBorder(BorderFactory.createEmptyBorder(5, 0, 5, 0));
         moneyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
+        inventoryLabel = new JLabel(inventoryText(), SwingConstants.CENTER);
+        inventoryLabel.setFont(new Font("Inter", Font.PLAIN, 14));
+        inventoryLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
+        inventoryLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
         northPanel.add(titleLabel);
         northPanel.add(moneyLabel);
+        northPanel.add(inventoryLabel);
         add(northPanel, BorderLayout.NORTH);
 
         // Button grid panel
         JPanel buttonPanel = new JPanel(new GridLayout(3, 3, 10, 10));
         buttonPanel.setBorder(BorderFactory.createEmptyBorder(20, 50, 20, 50));
 
-        // Disable manage buttons by default
-        manageCardsBtn.setEnabled(false);
-        manageBindersBtn.setEnabled(false);
-        manageDecksBtn.setEnabled(false);
-        placeHolderBtn.setVisible(false); // Invisible but balances grid layout
+        // Enable manage buttons only for what the collection holds
+        updateButtonStatus();
 
         // Improve accessibility
         addCardBtn.setFocusable(false);
@@ -101,6 +121,8 @@ public class MainMenuView extends JPanel {
         manageCardsBtn.setFocusable(false);
         manageBindersBtn.setFocusable(false);
         manageDecksBtn.setFocusable(false);
+        importCardsBtn.setFocusable(false);
+        exportCollectionBtn.setFocusable(false);
         closeApplicationBtn.setFocusable(false);
 
         // Add all buttons to grid
@@ -110,10 +132,13 @@ public class MainMenuView extends JPanel {
         buttonPanel.add(manageCardsBtn);
         buttonPanel.add(manageBindersBtn);
         buttonPanel.add(manageDecksBtn);
-        buttonPanel.add(placeHolderBtn);
+        buttonPanel.add(importCardsBtn);
+        buttonPanel.add(exportCollectionBtn);
         buttonPanel.add(closeApplicationBtn);
 
         add(buttonPanel, BorderLayout.CENTER);
+
+        sharedCollection.addCollectionListener(this::collectionChanged);
     }
 
     // -------------------------------
@@ -141,6 +166,20 @@ public class MainMenuView extends JPanel {
         newDeckBtn.addActionListener(listener);
     }
 
+    /**
+     * Sets the action listener for the "Import Cards" button.
+     */
+    public void setImportCardsAction(ActionListener listener) {
+        importCardsBtn.addActionListener(listener);
+    }
+
+    /**
+     * Sets the action listener for the "Export Collection" button.
+     */
+    public void setExportCollectionAction(ActionListener listener) {
+        exportCollectionBtn.addActionListener(listener);
+    }
+
     /**
      * Sets the action listener for the "Manage Cards" button.
      */
@@ -174,24 +213,49 @@ public class MainMenuView extends JPanel {
     // -------------------------------
 
     /**
-     * Enables the "Manage Cards" button.
-     */
-    public void showManageCardBtn() {
-        manageCardsBtn.setEnabled(true);
-    }
-
-    /**
-     * Enables the "Manage Binders" button.
+     * Prompts the user to choose the file to export the collection to. The
+     * format follows the file's extension; CSV is used if it has none.
+     *
+     * @return the chosen file, or {@code null} if cancelled
      */
-    public void showManageBinderBtn() {
-        manageBindersBtn.setEnabled(true);
+    public Path showExportFileChooser() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Collection");
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("JSON lines", "jsonl"));
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("Collection snapshots", "snapshot"));
+
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+        Path file = fileChooser.getSelectedFile().toPath();
+        if (!file.getFileName().toString().contains(".")
+                && fileChooser.getFileFilter() instanceof FileNameExtensionFilter filter) {
+            file = file.resolveSibling(file.getFileName() + "." + filter.getExtensions()[0]);
+        }
+        return file;
     }
 
     /**
-     * Enables the "Manage Decks" button.
+     * Updates the labels and buttons affected by a batch of collection
+     * changes.
+     *
+     * @param batch the changes, one per changed element
      */
-    public void showManageDeckBtn() {
-        manageDecksBtn.setEnabled(true);
+    private void collectionChanged(List<CollectionEvent> batch) {
+        boolean moneyChanged = false;
+        boolean membershipChanged = false;
+        for (CollectionEvent event : batch) {
+            moneyChanged |= event.target() == Target.MONEY || event.target() == Target.CARD;
+            membershipChanged |= event.kind() != Kind.CHANGED;
+        }
+
+        if (moneyChanged) {
+            updateMoneyLabel();
+        }
+        if (membershipChanged) {
+            updateButtonStatus();
+        }
     }
 
     /**
@@ -199,20 +263,29 @@ public class MainMenuView extends JPanel {
      * current collection.
      */
     public void updateButtonStatus() {
-        if (sharedCollection.getBinderCollection().isEmpty())
-            manageBindersBtn.setEnabled(false);
-
-        if (sharedCollection.getCardCollection().isEmpty())
-            manageCardsBtn.setEnabled(false);
-
-        if (sharedCollection.getDeckCollection().isEmpty())
-            manageDecksBtn.setEnabled(false);
+        manageCardsBtn.setEnabled(!sharedCollection.getCardCollection().isEmpty());
+        manageBindersBtn.setEnabled(!sharedCollection.getBinderCollection().isEmpty());
+        manageDecksBtn.setEnabled(!sharedCollection.getDeckCollection().isEmpty());
     }
 
     /**
-     * Updates the cash label to reflect the user's current amount of money.
+     * Updates the cash label to reflect the user's current amount of money, and
+     * the inventory label to reflect the cards currently owned.
      */
     public void updateMoneyLabel() {
         moneyLabel.setText("Cash: " + sharedCollection.getMoney());
+        inventoryLabel.setText(inventoryText());
+    }
+
+    /**
+     * Builds the inventory summary from the collection's running totals.
+     *
+     * @return the text shown in the inventory label
+     */
+    private String inventoryText() {
+        CardAggregates totals = sharedCollection.getAggregates();
+        DecimalFormat df = new DecimalFormat("#.##");
+
+        return "Cards: " + totals.getTotalQuantity() + " | Collection value: " + df.format(totals.getTotalValue());
     }
 }
@@ -1,12 +1,15 @@
 package com.tradingcards.elements.menus.menuUtils;
 
 import java.awt.Component;
+import java.awt.GraphicsEnvironment;
 
 import javax.swing.JOptionPane;
 
 /**
  * Utility class for displaying standardized dialog messages using JOptionPane.
  * Provides methods to show informational, warning, and error dialogs.
+ * When there is no display, e.g. in batch mode, messages are printed to
+ * standard error instead.
  */
 public class DialogUtil {
 
@@ -22,6 +25,10 @@ public class DialogUtil {
      *                    {@code JOptionPane.ERROR_MESSAGE}, etc.
      */
     public static void showMessage(Component parent, String message, String title, int messageType) {
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println(title + ": " + message);
+            return;
+        }
         JOptionPane.showMessageDialog(parent, message, title, messageType);
     }
 
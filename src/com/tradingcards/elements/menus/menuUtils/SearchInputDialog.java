@@ -0,0 +1,162 @@
+package com.tradingcards.elements.menus.menuUtils;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Function;
+
+import javax.swing.AbstractAction;
+import javax.swing.DefaultListModel;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.AncestorEvent;
+import javax.swing.event.AncestorListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+/**
+ * Utility class for an input dialog that suggests matches while the user
+ * types, used in place of a plain {@code JOptionPane.showInputDialog} when the
+ * answer must be one of many known names.
+ * <p>
+ * Suggestions are refreshed on every keystroke. The arrow keys move through
+ * them, and double-clicking one or pressing Enter while one is selected
+ * accepts it. Whatever is typed can still be accepted as is, so cancel codes
+ * such as {@code -999} keep working.
+ */
+public class SearchInputDialog {
+
+    /** Number of suggestions shown at once. */
+    public static final int SUGGESTION_LIMIT = 8;
+
+    /**
+     * Shows a modal input dialog with search-as-you-type suggestions.
+     *
+     * @param parent      the parent component of the dialog; can be {@code null}
+     * @param message     the prompt shown above the text field
+     * @param suggestions returns the suggestions for the text typed so far,
+     *                    best first
+     * @return the accepted text, or {@code null} if the dialog was cancelled
+     */
+    public static String showInputDialog(Component parent, String message,
+            Function<String, List<String>> suggestions) {
+        JTextField field = new JTextField(24);
+        DefaultListModel<String> matches = new DefaultListModel<>();
+        JList<String> list = new JList<>(matches);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setVisibleRowCount(SUGGESTION_LIMIT);
+        list.setFocusable(false);
+
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.setPreferredSize(new Dimension(field.getPreferredSize().width, 160));
+
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        JPanel top = new JPanel(new BorderLayout(0, 5));
+        top.add(new JLabel(message), BorderLayout.NORTH);
+        top.add(field, BorderLayout.CENTER);
+        panel.add(top, BorderLayout.NORTH);
+        panel.add(scroll, BorderLayout.CENTER);
+
+        JOptionPane pane = new JOptionPane(panel, JOptionPane.QUESTION_MESSAGE, JOptionPane.OK_CANCEL_OPTION);
+        JDialog dialog = pane.createDialog(parent, "Input");
+
+        // Refresh the suggestions on every edit
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                refresh();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                refresh();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                refresh();
+            }
+
+            private void refresh() {
+                matches.clear();
+                String text = field.getText().trim();
+                if (!text.isEmpty()) {
+                    for (String match : suggestions.apply(text)) {
+                        matches.addElement(match);
+                    }
+                }
+            }
+        });
+
+        // Arrow keys move through the suggestions without leaving the field
+        field.getInputMap().put(KeyStroke.getKeyStroke("DOWN"), "nextSuggestion");
+        field.getInputMap().put(KeyStroke.getKeyStroke("UP"), "previousSuggestion");
+        field.getActionMap().put("nextSuggestion", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (!matches.isEmpty()) {
+                    list.setSelectedIndex(Math.min(list.getSelectedIndex() + 1, matches.size() - 1));
+                    list.ensureIndexIsVisible(list.getSelectedIndex());
+                }
+            }
+        });
+        field.getActionMap().put("previousSuggestion", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (list.getSelectedIndex() > 0) {
+                    list.setSelectedIndex(list.getSelectedIndex() - 1);
+                    list.ensureIndexIsVisible(list.getSelectedIndex());
+                }
+            }
+        });
+
+        // Enter accepts the selected suggestion, or the typed text
+        field.addActionListener(e -> pane.setValue(JOptionPane.OK_OPTION));
+
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2 && list.getSelectedValue() != null) {
+                    pane.setValue(JOptionPane.OK_OPTION);
+                }
+            }
+        });
+
+        // Give the text field focus once the dialog is shown
+        field.addAncestorListener(new AncestorListener() {
+            @Override
+            public void ancestorAdded(AncestorEvent event) {
+                field.requestFocusInWindow();
+            }
+
+            @Override
+            public void ancestorRemoved(AncestorEvent event) {
+            }
+
+            @Override
+            public void ancestorMoved(AncestorEvent event) {
+            }
+        });
+
+        dialog.setVisible(true);
+        dialog.dispose();
+
+        Object value = pane.getValue();
+        if (!(value instanceof Integer) || (Integer) value != JOptionPane.OK_OPTION) {
+            return null;
+        }
+        String selected = list.getSelectedValue();
+        return selected != null ? selected : field.getText();
+    }
+}
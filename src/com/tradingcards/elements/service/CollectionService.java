@@ -0,0 +1,552 @@
+package com.tradingcards.elements.service;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.binder.BinderRule;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.collection.CollectionTransaction;
+import com.tradingcards.elements.deck.DeckModel;
+
+/**
+ * The card, binder and deck operations of the application, as plain requests
+ * that return a {@link ServiceResult} instead of showing dialogs.
+ * <p>
+ * Each operation checks everything it needs before it changes the
+ * collection, so a refused operation leaves the collection as it was. The
+ * rules are those of the menus: a binder holds only the cards its type
+ * accepts, and at most as many different ones as its type allows
+ * ({@value #BINDER_CAPACITY} for the built-in types),
+ * a deck holds at most {@value #DECK_CAPACITY}, and moving a card into a
+ * binder or deck takes one copy out of the collection. Anything the menus ask
+ * the user, such as the asking price of a Luxury binder or whether to go on
+ * with an uneven trade, is passed in as an argument.
+ * <p>
+ * Operations that change more than one card, binder or deck, such as trades,
+ * sales and moves between the collection and a binder or deck, are made as a
+ * {@link CollectionTransaction}: all of their changes are made or none are.
+ * <p>
+ * Like the collection, the service must be used from the thread that owns
+ * the collection. Other threads can use {@link #submit}, which runs an
+ * operation on that thread and completes a future with its result.
+ */
+public class CollectionService {
+
+    /** Most different cards a binder of a built-in type can hold. */
+    public static final int BINDER_CAPACITY = BinderRule.DEFAULT_CAPACITY;
+
+    /** Most cards a deck can hold. */
+    public static final int DECK_CAPACITY = 10;
+
+    /** The collection the operations work on. */
+    private final CollectionModel collection;
+
+    /** Runs submitted operations on the thread that owns the collection. */
+    private final Executor modelThread;
+
+    /** Format used for amounts of money. */
+    private final DecimalFormat df = new DecimalFormat("#.##");
+
+    /**
+     * Creates a service for a collection that is only used from the calling
+     * thread.
+     *
+     * @param collection the collection the operations work on
+     */
+    public CollectionService(CollectionModel collection) {
+        this(collection, Runnable::run);
+    }
+
+    /**
+     * Creates a service for a collection owned by another thread.
+     *
+     * @param collection  the collection the operations work on
+     * @param modelThread runs tasks on the thread that owns the collection,
+     *                    e.g. {@code SwingUtilities::invokeLater}
+     */
+    public CollectionService(CollectionModel collection, Executor modelThread) {
+        this.collection = collection;
+        this.modelThread = modelThread;
+    }
+
+    /**
+     * Runs an operation on the thread that owns the collection.
+     *
+     * @param <T>       the type of the operation's result
+     * @param operation the operation, given this service
+     * @return a future completed with the operation's result
+     */
+    public <T> CompletableFuture<T> submit(Function<CollectionService, T> operation) {
+        return CompletableFuture.supplyAsync(() -> operation.apply(this), modelThread);
+    }
+
+    // -------------------------------
+    // Cards
+    // -------------------------------
+
+    /**
+     * Adds a card to the collection, or one more copy if the collection
+     * already holds a card of that name with the same details.
+     *
+     * @param card the card to add, with a quantity of 1
+     * @return the result
+     */
+    public ServiceResult addCard(CardModel card) {
+        String name = card.getName();
+        CardModel existing = collection.getCardCollection().get(name);
+
+        if (existing == null) {
+            collection.setCardCollection(card, name);
+            return ServiceResult.success("Added " + name);
+        }
+        if (!existing.isCopyOf(card)) {
+            return ServiceResult.failure("Card of the same name with different details already exists: " + name);
+        }
+        existing.increaseQuantity(1);
+        return ServiceResult.success("Added a copy of " + name + ", quantity is now " + existing.getQuantity());
+    }
+
+    /**
+     * Sells one copy of a card, adding its value to the money.
+     *
+     * @param name the name of the card
+     * @return the result
+     */
+    public ServiceResult sellCard(String name) {
+        return transact(transaction -> {
+            CardModel card = transaction.card(name);
+            if (card == null) {
+                return ServiceResult.failure("Card does not exist: " + name);
+            }
+            if (card.getQuantity() <= 0) {
+                return ServiceResult.failure("Collection currently has zero copies of " + name);
+            }
+
+            double cash = transaction.money() + card.getValue();
+            transaction.addMoney(card.getValue());
+            transaction.changeQuantity(name, -1);
+            return ServiceResult.success("Sold " + name + ", your updated cash is now " + df.format(cash));
+        });
+    }
+
+    /**
+     * Sets the number of copies of a card in the collection.
+     *
+     * @param name     the name of the card
+     * @param quantity the new quantity, 0 or more
+     * @return the result
+     */
+    public ServiceResult setCardQuantity(String name, int quantity) {
+        CardModel card = collection.getCardCollection().get(name);
+        if (card == null) {
+            return ServiceResult.failure("Card does not exist: " + name);
+        }
+        if (quantity < 0) {
+            return ServiceResult.failure("Quantity cannot be negative");
+        }
+
+        card.setQuantity(quantity);
+        return ServiceResult.success("Quantity of " + name + " is now " + quantity);
+    }
+
+    // -------------------------------
+    // Binders
+    // -------------------------------
+
+    /**
+     * Creates an empty binder.
+     *
+     * @param name the name of the binder
+     * @param type the binder type, as taken by {@link BinderModel#ofType}
+     * @return the result
+     */
+    public ServiceResult createBinder(String name, String type) {
+        if (collection.getBinderCollection().containsKey(name)) {
+            return ServiceResult.failure("Binder of the same name already exists: " + name);
+        }
+
+        BinderModel binder;
+        try {
+            binder = BinderModel.ofType(type);
+        } catch (IllegalArgumentException e) {
+            return ServiceResult.failure(e.getMessage());
+        }
+        binder.setName(name);
+        collection.setBinderCollection(binder, name);
+        return ServiceResult.success("New " + type + " binder successfully added to collection!");
+    }
+
+    /**
+     * Removes a binder and returns all its cards to the collection.
+     *
+     * @param name the name of the binder
+     * @return the result
+     */
+    public ServiceResult deleteBinder(String name) {
+        return transact(transaction -> {
+            BinderModel binder = transaction.binder(name);
+            if (binder == null) {
+                return ServiceResult.failure("Binder \"" + name + "\" not found");
+            }
+
+            for (Map.Entry<String, CardModel> entry : binder.getBinder().entrySet()) {
+                transaction.changeQuantity(entry.getKey(), entry.getValue().getQuantity());
+            }
+            transaction.removeBinder(name);
+            return ServiceResult.success("Binder \"" + name + "\" removed and cards returned");
+        });
+    }
+
+    /**
+     * Moves one copy of a card from the collection into a binder.
+     *
+     * @param binderName the name of the binder
+     * @param cardName   the name of the card
+     * @return the result
+     */
+    public ServiceResult addToBinder(String binderName, String cardName) {
+        return transact(transaction -> {
+            BinderModel binder = transaction.binder(binderName);
+            CardModel card = transaction.card(cardName);
+            if (binder == null) {
+                return ServiceResult.failure("No Binder with given name exists: " + binderName);
+            }
+            if (card == null) {
+                return ServiceResult.failure("No Card with given name exists in Collection: " + cardName);
+            }
+            if (card.getQuantity() <= 0) {
+                return ServiceResult.failure("Collection currently has zero copies of " + cardName);
+            }
+            if (binder.getBinder().size() >= binder.getCapacity()) {
+                return ServiceResult.failure("Binder is already full: " + binderName);
+            }
+            if (!binder.getBinder().containsKey(cardName) && !binder.accepts(card)) {
+                return ServiceResult.failure("Incompatible binder and card types: " + binderName + ", " + cardName);
+            }
+
+            transaction.addToBinder(binderName, card);
+            transaction.changeQuantity(cardName, -1);
+            return ServiceResult.success("Successfully transferred " + cardName + " into binder " + binderName);
+        });
+    }
+
+    /**
+     * Moves one copy of a card from a binder back into the collection.
+     *
+     * @param binderName the name of the binder
+     * @param cardName   the name of the card
+     * @return the result
+     */
+    public ServiceResult removeFromBinder(String binderName, String cardName) {
+        return transact(transaction -> {
+            BinderModel binder = transaction.binder(binderName);
+            if (binder == null) {
+                return ServiceResult.failure("No Binder with given name exists: " + binderName);
+            }
+            if (!binder.getBinder().containsKey(cardName)) {
+                return ServiceResult.failure("No Card with given name exists in Binder: " + cardName);
+            }
+
+            transaction.removeFromBinder(binderName, cardName);
+            transaction.changeQuantity(cardName, 1);
+            return ServiceResult.success("Successfully transferred " + cardName + " into Collection");
+        });
+    }
+
+    /**
+     * Returns how far apart the values of an outgoing binder card and an
+     * incoming card are. A trade with a difference of 1 or more has to be
+     * accepted explicitly.
+     *
+     * @param binderName   the name of the binder
+     * @param outgoingName the name of the card leaving the binder
+     * @param incoming     the card offered in exchange
+     * @return the absolute value difference, or {@code NaN} if the binder or
+     *         the outgoing card does not exist
+     */
+    public double tradeDifference(String binderName, String outgoingName, CardModel incoming) {
+        BinderModel binder = collection.getBinderCollection().get(binderName);
+        CardModel outgoing = binder == null ? null : binder.getBinder().get(outgoingName);
+        if (outgoing == null) {
+            return Double.NaN;
+        }
+        return Math.abs(incoming.getValue() - outgoing.getValue());
+    }
+
+    /**
+     * Trades one copy of a card in a binder for an incoming card. The
+     * incoming card is recorded in the collection, with no copies of its own
+     * if it is new, and placed in the binder in place of the outgoing one.
+     *
+     * @param binderName   the name of the binder
+     * @param outgoingName the name of the card leaving the binder
+     * @param incoming     the card offered in exchange
+     * @param accept       whether to go on if the values differ by 1 or more
+     * @return the result
+     */
+    public ServiceResult trade(String binderName, String outgoingName, CardModel incoming, boolean accept) {
+        return transact(transaction -> {
+            TradeRequest request = new TradeRequest(binderName, outgoingName, incoming);
+            String reason = new TradeBatch(transaction, accept).add(request);
+            if (reason != null) {
+                return ServiceResult.failure(reason);
+            }
+            return ServiceResult.success(
+                    "Trade successful! " + outgoingName + " removed, " + incoming.getName() + " added.");
+        });
+    }
+
+    /**
+     * Finds trades across all binders that give away the wanted cards for the
+     * offered ones, with the values of each pair as close as possible. See
+     * {@link TradeMatcher}. Nothing is changed; the matches can be made with
+     * {@link #trade(List, boolean)}.
+     *
+     * @param wanted the names of the cards wanted from the binders, one entry
+     *               per copy
+     * @param offers the cards offered in return, one entry per copy
+     * @return the proposed trades
+     */
+    public List<TradeMatch> matchTrades(List<String> wanted, List<CardModel> offers) {
+        return new TradeMatcher(collection).match(wanted, offers);
+    }
+
+    /**
+     * Makes a batch of trades as one transaction. Each trade is checked by
+     * the rules of {@link #trade(String, String, CardModel, boolean)} against
+     * the binder as the earlier trades of the batch leave it; those that pass
+     * are made together, and those that do not are left out and reported.
+     *
+     * @param trades the trades, in the order to make them
+     * @param accept whether to go on with trades whose values differ by 1 or
+     *               more
+     * @return which trades were made and which were rejected, and why
+     */
+    public TradeReport trade(List<TradeRequest> trades, boolean accept) {
+        long start = System.nanoTime();
+        CollectionTransaction transaction = new CollectionTransaction(collection);
+        TradeBatch batch = new TradeBatch(transaction, accept);
+        List<TradeReport.Rejection> rejections = new ArrayList<>();
+        for (int i = 0; i < trades.size(); i++) {
+            String reason = batch.add(trades.get(i));
+            if (reason != null) {
+                rejections.add(new TradeReport.Rejection(i, trades.get(i), reason));
+            }
+        }
+        String failure = "The collection changed, please try again";
+        try {
+            if (transaction.commit()) {
+                return new TradeReport(trades.size() - rejections.size(), rejections, System.nanoTime() - start);
+            }
+        } catch (IllegalStateException e) {
+            failure = e.getMessage();
+        }
+
+        // Nothing was made, so every trade is reported as rejected
+        rejections.clear();
+        for (int i = 0; i < trades.size(); i++) {
+            rejections.add(new TradeReport.Rejection(i, trades.get(i), failure));
+        }
+        return new TradeReport(0, rejections, System.nanoTime() - start);
+    }
+
+    /**
+     * Sells a binder with all its cards, adding its selling price to the
+     * money.
+     *
+     * @param name        the name of the binder
+     * @param askingPrice the price asked for a Luxury binder, or {@code null}
+     *                    to ask for the value of its cards; ignored for other
+     *                    types
+     * @return the result
+     */
+    public ServiceResult sellBinder(String name, Double askingPrice) {
+        return transact(transaction -> {
+            BinderModel binder = transaction.binder(name);
+            if (binder == null) {
+                return ServiceResult.failure("No Binder with given name exists: " + name);
+            }
+            if (binder.getBinder().isEmpty()) {
+                return ServiceResult.failure("Cannot sell an empty binder");
+            }
+
+            double price = binder.getSellingPrice(askingPrice);
+            if (price == -1) {
+                return ServiceResult.failure("Binder is not sellable");
+            }
+
+            double cash = transaction.money() + price;
+            transaction.addMoney(price);
+            transaction.removeBinder(name);
+            return ServiceResult.success("Binder sold for " + df.format(price) + ", you now have cash total of "
+                    + df.format(cash));
+        });
+    }
+
+    // -------------------------------
+    // Decks
+    // -------------------------------
+
+    /**
+     * Creates an empty deck.
+     *
+     * @param name the name of the deck
+     * @param type {@code Normal} or {@code Sellable}, optionally followed by
+     *             {@code " Deck"} as the New Deck form gives it
+     * @return the result
+     */
+    public ServiceResult createDeck(String name, String type) {
+        if (collection.getDeckCollection().containsKey(name)) {
+            return ServiceResult.failure("Deck of the same name already exists: " + name);
+        }
+
+        String deckType;
+        switch (type) {
+            case "Normal", "Normal Deck" -> deckType = "Normal Deck";
+            case "Sellable", "Sellable Deck" -> deckType = "Sellable Deck";
+            default -> {
+                return ServiceResult.failure("Unknown deck type: " + type);
+            }
+        }
+
+        DeckModel deck = new DeckModel();
+        deck.setName(name);
+        deck.setType(deckType);
+        collection.setDeckCollection(deck, name);
+        return ServiceResult.success("New " + deckType + " successfully added to collection!");
+    }
+
+    /**
+     * Removes a deck and returns its cards to the collection.
+     *
+     * @param name the name of the deck
+     * @return the result
+     */
+    public ServiceResult deleteDeck(String name) {
+        return transact(transaction -> {
+            DeckModel deck = transaction.deck(name);
+            if (deck == null) {
+                return ServiceResult.failure("Deck \"" + name + "\" not found");
+            }
+
+            for (String cardName : deck.getDeck().keySet()) {
+                transaction.changeQuantity(cardName, 1);
+            }
+            transaction.removeDeck(name);
+            return ServiceResult.success("Deck \"" + name + "\" removed and cards returned");
+        });
+    }
+
+    /**
+     * Moves one copy of a card from the collection into a deck.
+     *
+     * @param deckName the name of the deck
+     * @param cardName the name of the card
+     * @return the result
+     */
+    public ServiceResult addToDeck(String deckName, String cardName) {
+        return transact(transaction -> {
+            DeckModel deck = transaction.deck(deckName);
+            CardModel card = transaction.card(cardName);
+            if (deck == null) {
+                return ServiceResult.failure("No Deck with given name exists: " + deckName);
+            }
+            if (card == null) {
+                return ServiceResult.failure("No Card with given name exists in Collection: " + cardName);
+            }
+            if (card.getQuantity() <= 0) {
+                return ServiceResult.failure("Collection currently has zero copies of " + cardName);
+            }
+            if (deck.getDeck().size() >= DECK_CAPACITY) {
+                return ServiceResult.failure("Deck is already full: " + deckName);
+            }
+            if (deck.getDeck().containsKey(cardName)) {
+                return ServiceResult.failure("Deck already contains " + cardName);
+            }
+
+            transaction.addToDeck(deckName, cardName);
+            transaction.changeQuantity(cardName, -1);
+            return ServiceResult.success("Successfully transferred " + cardName + " into Deck " + deckName);
+        });
+    }
+
+    /**
+     * Moves a card from a deck back into the collection.
+     *
+     * @param deckName the name of the deck
+     * @param cardName the name of the card
+     * @return the result
+     */
+    public ServiceResult removeFromDeck(String deckName, String cardName) {
+        return transact(transaction -> {
+            DeckModel deck = transaction.deck(deckName);
+            if (deck == null) {
+                return ServiceResult.failure("No Deck with given name exists: " + deckName);
+            }
+            if (!deck.getDeck().containsKey(cardName)) {
+                return ServiceResult.failure("No Card with given name exists in Deck: " + cardName);
+            }
+
+            transaction.removeFromDeck(deckName, cardName);
+            transaction.changeQuantity(cardName, 1);
+            return ServiceResult.success("Successfully transferred " + cardName + " into Collection");
+        });
+    }
+
+    /**
+     * Sells a deck, adding its selling price to the money.
+     *
+     * @param name the name of the deck
+     * @return the result
+     */
+    public ServiceResult sellDeck(String name) {
+        return transact(transaction -> {
+            DeckModel deck = transaction.deck(name);
+            if (deck == null) {
+                return ServiceResult.failure("No Deck with given name exists: " + name);
+            }
+            double price = deck.getSellingPrice();
+            if (price == -1) {
+                return ServiceResult.failure("Deck is not sellable");
+            }
+
+            double cash = transaction.money() + price;
+            transaction.addMoney(price);
+            transaction.removeDeck(name);
+            return ServiceResult.success("Deck sold for " + df.format(price) + ", you now have cash total of "
+                    + df.format(cash));
+        });
+    }
+
+    /**
+     * Works out an operation as a transaction and commits it. The operation
+     * runs straight through on the thread that owns the collection, so the
+     * collection can only have changed under it if the operation changed it
+     * itself; the commit is then refused rather than worked out again.
+     *
+     * @param operation checks the operation against the transaction's reads
+     *                  and records its changes, returning the result to give
+     *                  if they are committed
+     * @return the operation's result, or a failure if it could not be
+     *         committed
+     */
+    ServiceResult transact(Function<CollectionTransaction, ServiceResult> operation) {
+        CollectionTransaction transaction = new CollectionTransaction(collection);
+        ServiceResult result = operation.apply(transaction);
+        try {
+            if (!result.succeeded() || transaction.commit()) {
+                return result;
+            }
+        } catch (IllegalStateException e) {
+            return ServiceResult.failure(e.getMessage());
+        }
+        return ServiceResult.failure("The collection changed, please try again");
+    }
+}
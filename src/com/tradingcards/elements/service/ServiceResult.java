@@ -0,0 +1,32 @@
+package com.tradingcards.elements.service;
+
+/**
+ * Outcome of a {@link CollectionService} operation: whether it was carried
+ * out, and a message describing what happened or why it was refused.
+ *
+ * @param succeeded whether the operation changed the collection as asked
+ * @param message   a description for the user
+ */
+public record ServiceResult(boolean succeeded, String message) {
+
+    /**
+     * Creates the result of an operation that was carried out.
+     *
+     * @param message what was done
+     * @return the result
+     */
+    public static ServiceResult success(String message) {
+        return new ServiceResult(true, message);
+    }
+
+    /**
+     * Creates the result of an operation that was refused. The collection is
+     * left as it was.
+     *
+     * @param message why the operation was refused
+     * @return the result
+     */
+    public static ServiceResult failure(String message) {
+        return new ServiceResult(false, message);
+    }
+}
@@ -0,0 +1,182 @@
+package com.tradingcards.elements.service;
+
+import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.CollectionTransaction;
+
+/**
+ * Checks trades one after another and records those that pass in a
+ * {@link CollectionTransaction}, which makes them all at once when
+ * committed.
+ * <p>
+ * Since the recorded changes are only made on commit, the batch keeps its own
+ * view of each binder it touches, so that every trade is checked against the
+ * binder as the earlier trades of the batch leave it: a card traded in can be
+ * traded out again, and a slot freed by one trade can be filled by the next.
+ */
+class TradeBatch {
+
+    /**
+     * A card in a binder as the batch sees it: its details and how many
+     * copies the binder will hold.
+     */
+    private static final class Slot {
+        private final CardModel card;
+        private int quantity;
+
+        private Slot(CardModel card, int quantity) {
+            this.card = card;
+            this.quantity = quantity;
+        }
+    }
+
+    private final CollectionTransaction transaction;
+    private final boolean accept;
+
+    /** View of each binder touched, by name, or {@code null} if it does not exist. */
+    private final Map<String, Map<String, Slot>> binders = new HashMap<>();
+
+    /** Binders touched, by name. */
+    private final Map<String, BinderModel> binderModels = new HashMap<>();
+
+    /** Cards of the collection looked at or added, by name, or {@code null} if absent. */
+    private final Map<String, CardModel> cards = new HashMap<>();
+
+    private final DecimalFormat df = new DecimalFormat("#.##");
+
+    /**
+     * Starts a batch recording its trades in a transaction.
+     *
+     * @param transaction the transaction to record the trades in
+     * @param accept      whether to go on with trades whose values differ by
+     *                    1 or more
+     */
+    TradeBatch(CollectionTransaction transaction, boolean accept) {
+        this.transaction = transaction;
+        this.accept = accept;
+    }
+
+    /**
+     * Checks a trade against the binder as the batch leaves it, and records
+     * it if it passes. The rules are those of
+     * {@link CollectionService#trade(String, String, CardModel, boolean)}.
+     *
+     * @param trade the trade
+     * @return {@code null} if the trade was recorded, or why it was refused
+     */
+    String add(TradeRequest trade) {
+        String binderName = trade.binder();
+        Map<String, Slot> slots = slots(binderName);
+        if (slots == null) {
+            return "No Binder with given name exists: " + binderName;
+        }
+        BinderModel binder = binderModels.get(binderName);
+        String outgoingName = trade.outgoing();
+        CardModel incoming = trade.incoming();
+        String incomingName = incoming.getName();
+        Slot outgoing = slots.get(outgoingName);
+        CardModel existing = card(incomingName);
+
+        if (outgoing == null) {
+            return "No Card with given name exists in Binder: " + outgoingName;
+        }
+        if (existing != null && !existing.isCopyOf(incoming)) {
+            return "Card of the same name with different details already exists: " + incomingName;
+        }
+        if (slots.containsKey(incomingName)) {
+            return "Trade failed: Incoming card already exists in the binder.";
+        }
+        if (!binder.accepts(incoming)) {
+            return "Type/Variant mismatch";
+        }
+        // The outgoing card only frees its slot when it is the last copy
+        if (outgoing.quantity > 1 && slots.size() >= binder.getCapacity()) {
+            return "Trade failed: Binder is full.";
+        }
+        double difference = Math.abs(incoming.getValue() - outgoing.card.getValue());
+        if (difference >= 1 && !accept) {
+            return "Trade declined: values differ by " + df.format(difference);
+        }
+
+        if (--outgoing.quantity == 0) {
+            slots.remove(outgoingName);
+        }
+        transaction.removeFromBinder(binderName, outgoingName);
+
+        // The incoming card is recorded in the collection, then moved into the binder
+        if (existing == null) {
+            CardModel record = incoming.copy();
+            record.setQuantity(0);
+            cards.put(incomingName, record);
+            transaction.addCard(record);
+        }
+        slots.put(incomingName, new Slot(incoming, 1));
+        transaction.addToBinder(binderName, incoming);
+        return null;
+    }
+
+    /**
+     * Returns how many different cards a binder holds as the batch leaves it.
+     * Does not change the batch, so it may be called from several threads
+     * while no trades are being added.
+     *
+     * @param name   the name of the binder
+     * @param binder the binder
+     * @return the number of cards
+     */
+    int size(String name, BinderModel binder) {
+        Map<String, Slot> slots = binders.get(name);
+        return slots != null ? slots.size() : binder.getBinder().size();
+    }
+
+    /**
+     * Determines whether a binder holds a card as the batch leaves it. Like
+     * {@link #size}, does not change the batch.
+     *
+     * @param name     the name of the binder
+     * @param binder   the binder
+     * @param cardName the name of the card
+     * @return {@code true} if the binder holds at least one copy
+     */
+    boolean contains(String name, BinderModel binder, String cardName) {
+        Map<String, Slot> slots = binders.get(name);
+        return slots != null ? slots.containsKey(cardName) : binder.getBinder().containsKey(cardName);
+    }
+
+    /**
+     * Returns the batch's view of a binder, reading it on first use.
+     */
+    private Map<String, Slot> slots(String name) {
+        if (binders.containsKey(name)) {
+            return binders.get(name);
+        }
+        BinderModel binder = transaction.binder(name);
+        Map<String, Slot> slots = null;
+        if (binder != null) {
+            slots = new HashMap<>();
+            for (Map.Entry<String, CardModel> entry : binder.getBinder().entrySet()) {
+                slots.put(entry.getKey(), new Slot(entry.getValue(), entry.getValue().getQuantity()));
+            }
+            binderModels.put(name, binder);
+        }
+        binders.put(name, slots);
+        return slots;
+    }
+
+    /**
+     * Returns a card of the collection as the batch leaves it, reading it on
+     * first use.
+     */
+    private CardModel card(String name) {
+        if (cards.containsKey(name)) {
+            return cards.get(name);
+        }
+        CardModel card = transaction.card(name);
+        cards.put(name, card);
+        return card;
+    }
+}
@@ -0,0 +1,25 @@
+package com.tradingcards.elements.service;
+
+import com.tradingcards.elements.card.CardModel;
+
+/**
+ * A trade proposed by {@link TradeMatcher}: a wanted card leaving one of the
+ * binders in exchange for an offered card.
+ *
+ * @param binder     the name of the binder the wanted card leaves
+ * @param outgoing   the wanted card, as held in the binder
+ * @param incoming   the offered card taking its place
+ * @param difference how far apart the values of the two cards are
+ */
+public record TradeMatch(String binder, CardModel outgoing, CardModel incoming, double difference) {
+
+    /**
+     * Returns the trade to make for this match, e.g. with
+     * {@link CollectionService#trade(java.util.List, boolean)}.
+     *
+     * @return the trade
+     */
+    public TradeRequest toRequest() {
+        return new TradeRequest(binder, outgoing.getName(), incoming);
+    }
+}
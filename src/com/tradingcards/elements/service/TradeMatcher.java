@@ -0,0 +1,299 @@
+package com.tradingcards.elements.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.binder.BinderRule;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardVariant;
+import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.collection.CollectionTransaction;
+
+/**
+ * Pairs the cards someone wants from the binders with the cards they offer
+ * in return, instead of the user picking each outgoing and incoming card by
+ * hand.
+ * <p>
+ * Each wanted card can leave any binder that holds it, for any offered card
+ * that binder accepts under the rules of its type, and every pairing must be
+ * a valid trade given the pairings made before it. Among those, the pairs
+ * whose values are closest are taken first, so the value differences the
+ * trade screen shows are kept small. Each offered card is used at most once.
+ * <p>
+ * The offers are indexed by rarity and variant and sorted by value, so the
+ * closest offer a binder accepts, within the value range of its type, is
+ * found with a binary search rather than a scan, and the wanted cards are
+ * searched in parallel. The search runs in rounds: every wanted card still
+ * unmatched proposes its closest trade, and the proposals are then taken in
+ * order of value difference, skipping those that clash with one taken
+ * earlier. Those wanted cards propose again in the next round.
+ * <p>
+ * Matching only reads the collection; the matches are made with
+ * {@link CollectionService#trade(List, boolean)}. It must run on the thread
+ * that owns the collection.
+ */
+public class TradeMatcher {
+
+    /** Number of card variants, used to key the offer groups. */
+    private static final int VARIANTS = CardVariant.values().length;
+
+    /** A copy of a wanted card held by a binder. */
+    private static final class Holder {
+        private final int id;
+        private final String binderName;
+        private final BinderModel binder;
+        private final CardModel card;
+
+        /** Copies not yet matched; only changed between rounds. */
+        private int remaining;
+
+        private Holder(int id, String binderName, BinderModel binder, CardModel card) {
+            this.id = id;
+            this.binderName = binderName;
+            this.binder = binder;
+            this.card = card;
+            this.remaining = card.getQuantity();
+        }
+    }
+
+    /** The offers of one rarity and variant, sorted by value. */
+    private static final class Group {
+        private final int rarityCode;
+        private final int variantCode;
+        private final double[] values;
+        private final int[] offers;
+
+        private Group(List<CardModel> offers, List<Integer> ids) {
+            Integer[] order = ids.toArray(new Integer[0]);
+            Arrays.sort(order, Comparator.comparingDouble(id -> offers.get(id).getValue()));
+            CardModel sample = offers.get(order[0]);
+            this.rarityCode = BinderRule.rarityCode(sample.getRarityCode());
+            this.variantCode = BinderRule.variantCode(sample.getVariantCode());
+            this.values = new double[order.length];
+            this.offers = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                this.offers[i] = order[i];
+                this.values[i] = offers.get(order[i]).getValue();
+            }
+        }
+    }
+
+    /** A wanted card's closest trade in one round. */
+    private record Proposal(int wanted, Holder holder, int offer, double difference) {
+    }
+
+    /** Orders proposals by value difference, then by list position so results are repeatable. */
+    private static final Comparator<Proposal> CLOSEST_FIRST = Comparator.comparingDouble(Proposal::difference)
+            .thenComparingInt(Proposal::wanted)
+            .thenComparingInt(Proposal::offer);
+
+    private final CollectionModel collection;
+
+    /**
+     * Creates a matcher for the binders of a collection.
+     *
+     * @param collection the collection whose binders hold the wanted cards
+     */
+    public TradeMatcher(CollectionModel collection) {
+        this.collection = collection;
+    }
+
+    /**
+     * Finds trades that give away the wanted cards for the offered ones.
+     *
+     * @param wanted the names of the cards wanted from the binders, one entry
+     *               per copy
+     * @param offers the cards offered in return, one entry per copy
+     * @return the trades, in the order they were chosen; wanted cards that no
+     *         offer can be traded for are left out
+     */
+    public List<TradeMatch> match(List<String> wanted, List<CardModel> offers) {
+        Map<String, List<Holder>> holders = holders(new HashSet<>(wanted));
+        List<Group> groups = groups(offers);
+        boolean[] used = new boolean[offers.size()];
+        Set<Long> refused = new HashSet<>();
+
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < wanted.size(); i++) {
+            if (holders.containsKey(wanted.get(i))) {
+                pending.add(i);
+            }
+        }
+
+        // Checks each match against the binders as the earlier matches leave them
+        TradeBatch checked = new TradeBatch(new CollectionTransaction(collection), true);
+        List<TradeMatch> matches = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            List<Proposal> proposals = pending.parallelStream()
+                    .map(i -> propose(i, holders.get(wanted.get(i)), groups, offers, used, refused, checked))
+                    .filter(Objects::nonNull)
+                    .sorted(CLOSEST_FIRST)
+                    .toList();
+            if (proposals.isEmpty()) {
+                break;
+            }
+
+            Set<Integer> matched = new HashSet<>();
+            for (Proposal proposal : proposals) {
+                Holder holder = proposal.holder();
+                if (used[proposal.offer()] || holder.remaining == 0) {
+                    continue;
+                }
+                CardModel incoming = offers.get(proposal.offer());
+                if (checked.add(new TradeRequest(holder.binderName, holder.card.getName(), incoming)) == null) {
+                    used[proposal.offer()] = true;
+                    holder.remaining--;
+                    matched.add(proposal.wanted());
+                    matches.add(new TradeMatch(holder.binderName, holder.card, incoming, proposal.difference()));
+                } else {
+                    refused.add(pair(holder, proposal.offer()));
+                }
+            }
+            pending.removeAll(matched);
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the closest trade for a wanted card that is not ruled out yet.
+     *
+     * @return the trade, or {@code null} if there is none
+     */
+    private static Proposal propose(int wanted, List<Holder> holders, List<Group> groups, List<CardModel> offers,
+            boolean[] used, Set<Long> refused, TradeBatch checked) {
+        Proposal best = null;
+        for (Holder holder : holders) {
+            if (holder.remaining == 0) {
+                continue;
+            }
+            BinderModel binder = holder.binder;
+            // A card with copies left behind frees no slot for the incoming card
+            if (holder.remaining > 1 && checked.size(holder.binderName, binder) >= binder.getCapacity()) {
+                continue;
+            }
+
+            BinderRule rule = binder.getBinderType().rule();
+            double target = holder.card.getValue();
+            for (Group group : groups) {
+                // The whole group has the same codes; the value range is left to closest()
+                if (!rule.admits(group.rarityCode, group.variantCode)) {
+                    continue;
+                }
+                double limit = best == null ? Double.POSITIVE_INFINITY : best.difference();
+                int offer = closest(group, rule, target, limit, holder, offers, used, refused, checked);
+                if (offer >= 0) {
+                    double difference = Math.abs(offers.get(offer).getValue() - target);
+                    if (best == null || difference < best.difference()) {
+                        best = new Proposal(wanted, holder, offer, difference);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the offer in a group whose value is closest to the target, within
+     * the limit and the value range of the rule, that is still free and could
+     * go into the holder's binder as the matches so far leave it.
+     *
+     * @return the offer's position in the offer list, or -1 if there is none
+     */
+    private static int closest(Group group, BinderRule rule, double target, double limit, Holder holder,
+            List<CardModel> offers, boolean[] used, Set<Long> refused, TradeBatch checked) {
+        // Only the offers from first to last - 1 are within the rule's value range
+        int first = firstAbove(group.values, rule.getMinValue(), false);
+        int last = firstAbove(group.values, rule.getMaxValue(), true);
+        int above = Math.max(first, Math.min(last, firstAbove(group.values, target, false)));
+        int below = above - 1;
+
+        while (below >= first || above < last) {
+            double belowGap = below >= first ? target - group.values[below] : Double.POSITIVE_INFINITY;
+            double aboveGap = above < last ? group.values[above] - target : Double.POSITIVE_INFINITY;
+            if (Math.min(belowGap, aboveGap) >= limit) {
+                return -1;
+            }
+            int position = belowGap <= aboveGap ? below-- : above++;
+
+            int offer = group.offers[position];
+            if (!used[offer] && !refused.contains(pair(holder, offer))
+                    && !checked.contains(holder.binderName, holder.binder, offers.get(offer).getName())) {
+                return offer;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of the first value not below the bound, or above
+     * it if {@code strict}; the values must be sorted.
+     */
+    private static int firstAbove(double[] values, double bound, boolean strict) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < bound || (strict && values[middle] == bound)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the binders holding each wanted card.
+     */
+    private Map<String, List<Holder>> holders(Set<String> names) {
+        Map<String, List<Holder>> holders = new HashMap<>();
+        int id = 0;
+        for (Map.Entry<String, BinderModel> entry : collection.getBinderCollection().entrySet()) {
+            for (CardModel card : entry.getValue().getBinder().values()) {
+                if (names.contains(card.getName())) {
+                    holders.computeIfAbsent(card.getName(), name -> new ArrayList<>())
+                            .add(new Holder(id++, entry.getKey(), entry.getValue(), card));
+                }
+            }
+        }
+        return holders;
+    }
+
+    /**
+     * Groups the offers by rarity and variant, leaving out those that clash
+     * with a card of the same name already in the collection.
+     */
+    private List<Group> groups(List<CardModel> offers) {
+        // Keyed by rarity and variant, in declaration order so ties always go the same way
+        Map<Integer, List<Integer>> byKind = new TreeMap<>();
+        for (int i = 0; i < offers.size(); i++) {
+            CardModel offer = offers.get(i);
+            CardModel existing = collection.getCardCollection().get(offer.getName());
+            if (existing != null && !existing.isCopyOf(offer)) {
+                continue;
+            }
+            CardVariant variant = offer.getVariantCode();
+            int kind = offer.getRarityCode().ordinal() * (VARIANTS + 1) + (variant == null ? 0 : variant.ordinal() + 1);
+            byKind.computeIfAbsent(kind, key -> new ArrayList<>()).add(i);
+        }
+
+        List<Group> groups = new ArrayList<>();
+        for (List<Integer> ids : byKind.values()) {
+            groups.add(new Group(offers, ids));
+        }
+        return groups;
+    }
+
+    private static long pair(Holder holder, int offer) {
+        return (long) holder.id << 32 | offer;
+    }
+}
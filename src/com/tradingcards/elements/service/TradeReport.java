@@ -0,0 +1,33 @@
+package com.tradingcards.elements.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch of trades made with
+ * {@link CollectionService#trade(List, boolean)}.
+ *
+ * @param executed   number of trades made
+ * @param rejections the trades that were not made, in batch order
+ * @param nanos      time taken to check and make the trades, in nanoseconds
+ */
+public record TradeReport(int executed, List<Rejection> rejections, long nanos) {
+
+    /**
+     * A trade that was not made, and why.
+     *
+     * @param index  position of the trade in the batch, from 0
+     * @param trade  the trade
+     * @param reason why it was refused
+     */
+    public record Rejection(int index, TradeRequest trade, String reason) {
+    }
+
+    /**
+     * Returns how many trades were checked per second.
+     *
+     * @return the number of trades, made or rejected, per second
+     */
+    public double tradesPerSecond() {
+        return nanos == 0 ? 0 : (executed + rejections.size()) / (nanos / 1e9);
+    }
+}
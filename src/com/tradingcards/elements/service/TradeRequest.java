@@ -0,0 +1,14 @@
+package com.tradingcards.elements.service;
+
+import com.tradingcards.elements.card.CardModel;
+
+/**
+ * One trade in a batch: a card leaving a binder and the card taking its
+ * place.
+ *
+ * @param binder   the name of the binder
+ * @param outgoing the name of the card leaving the binder
+ * @param incoming the card offered in exchange
+ */
+public record TradeRequest(String binder, String outgoing, CardModel incoming) {
+}
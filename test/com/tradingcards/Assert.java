@@ -0,0 +1,113 @@
+package com.tradingcards;
+
+import java.util.Objects;
+
+/**
+ * Checks used by {@link Test} methods. Each one throws an
+ * {@link AssertionError} carrying the given message when it does not hold.
+ */
+public final class Assert {
+
+    /**
+     * An action expected to throw.
+     */
+    @FunctionalInterface
+    public interface ThrowingAction {
+        void run() throws Exception;
+    }
+
+    private Assert() {
+    }
+
+    /**
+     * Fails unless {@code condition} holds.
+     *
+     * @param condition the condition to check
+     * @param message   what the condition means
+     */
+    public static void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            fail(message);
+        }
+    }
+
+    /**
+     * Fails if {@code condition} holds.
+     *
+     * @param condition the condition to check
+     * @param message   what the negated condition means
+     */
+    public static void assertFalse(boolean condition, String message) {
+        assertTrue(!condition, message);
+    }
+
+    /**
+     * Fails unless two values are equal.
+     *
+     * @param expected the expected value
+     * @param actual   the value found
+     * @param message  what the value is
+     */
+    public static void assertEquals(Object expected, Object actual, String message) {
+        if (!Objects.equals(expected, actual)) {
+            fail(message + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    /**
+     * Fails unless two whole numbers are equal, whatever their types.
+     *
+     * @param expected the expected value
+     * @param actual   the value found
+     * @param message  what the value is
+     */
+    public static void assertEquals(long expected, long actual, String message) {
+        if (expected != actual) {
+            fail(message + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    /**
+     * Fails unless two numbers are within {@code tolerance} of each other.
+     *
+     * @param expected  the expected value
+     * @param actual    the value found
+     * @param tolerance the largest difference allowed
+     * @param message   what the value is
+     */
+    public static void assertEquals(double expected, double actual, double tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            fail(message + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    /**
+     * Fails unless {@code action} throws an exception of the given type.
+     *
+     * @param <T>     the type of exception expected
+     * @param type    the type of exception expected
+     * @param action  the action to run
+     * @param message what the exception means
+     * @return the exception thrown, for further checks
+     */
+    public static <T extends Throwable> T assertThrows(Class<T> type, ThrowingAction action, String message) {
+        try {
+            action.run();
+        } catch (Throwable e) {
+            if (type.isInstance(e)) {
+                return type.cast(e);
+            }
+            throw new AssertionError(message + ": expected " + type.getSimpleName() + " but got " + e, e);
+        }
+        throw new AssertionError(message + ": expected " + type.getSimpleName() + " but nothing was thrown");
+    }
+
+    /**
+     * Fails unconditionally.
+     *
+     * @param message why the test failed
+     */
+    public static void fail(String message) {
+        throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.tradingcards;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method as a test run by {@link TestRunner}.
+ * <p>
+ * A test method is public, takes no arguments and fails by throwing,
+ * usually through one of the checks in {@link Assert}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Test {
+}
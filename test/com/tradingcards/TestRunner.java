@@ -0,0 +1,111 @@
+package com.tradingcards;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs the {@link Test} methods of test classes and reports the results.
+ * <p>
+ * Every test method runs on a new instance of its class, so whatever the
+ * constructor sets up starts fresh for each test. Without arguments the
+ * runner finds the classes named {@code *Test} under the directories on the
+ * class path; otherwise it runs the classes named by the arguments.
+ * <p>
+ * Exits with status 1 if a test fails.
+ */
+public final class TestRunner {
+
+    private TestRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, ReflectiveOperationException {
+        List<Class<?>> classes = new ArrayList<>();
+        if (args.length > 0) {
+            for (String name : args) {
+                classes.add(Class.forName(name));
+            }
+        } else {
+            classes.addAll(findTestClasses());
+        }
+
+        int run = 0;
+        int failed = 0;
+        for (Class<?> testClass : classes) {
+            for (Method test : testMethods(testClass)) {
+                run++;
+                String name = testClass.getSimpleName() + "." + test.getName();
+                try {
+                    Constructor<?> constructor = testClass.getDeclaredConstructor();
+                    test.invoke(constructor.newInstance());
+                } catch (InvocationTargetException e) {
+                    failed++;
+                    System.out.println("FAILED " + name + ": " + e.getCause());
+                    for (StackTraceElement frame : e.getCause().getStackTrace()) {
+                        if (frame.getClassName().startsWith(testClass.getName())) {
+                            System.out.println("    at " + frame);
+                        }
+                    }
+                }
+            }
+        }
+
+        System.out.println(run + " tests in " + classes.size() + " classes, " + failed + " failed");
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Returns the test methods of a class, ordered by name so runs repeat.
+     */
+    private static List<Method> testMethods(Class<?> testClass) {
+        List<Method> tests = new ArrayList<>();
+        for (Method method : testClass.getMethods()) {
+            if (method.isAnnotationPresent(Test.class)) {
+                tests.add(method);
+            }
+        }
+        tests.sort(Comparator.comparing(Method::getName));
+        return tests;
+    }
+
+    /**
+     * Finds the classes named {@code *Test} that have test methods, under
+     * every directory on the class path.
+     */
+    private static List<Class<?>> findTestClasses() throws IOException, ClassNotFoundException {
+        List<String> names = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path root = Path.of(entry);
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                files.map(file -> root.relativize(file).toString())
+                        .filter(file -> file.endsWith("Test.class") && !file.contains("$"))
+                        .map(file -> file.substring(0, file.length() - ".class".length())
+                                .replace(File.separatorChar, '.'))
+                        .forEach(names::add);
+            }
+        }
+        names.sort(null);
+
+        List<Class<?>> classes = new ArrayList<>();
+        for (String name : names) {
+            Class<?> candidate = Class.forName(name);
+            if (!testMethods(candidate).isEmpty()) {
+                classes.add(candidate);
+            }
+        }
+        return classes;
+    }
+}
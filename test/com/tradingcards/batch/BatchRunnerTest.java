@@ -0,0 +1,73 @@
+package com.tradingcards.elements.batch;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.tradingcards.Test;
+
+/**
+ * Tests that {@link BatchRunner} runs commands against the saved collection
+ * and reports failing script lines without stopping.
+ */
+public class BatchRunnerTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Test
+    public void savesTheChangesOfEachRun() throws IOException {
+        Path directory = Files.createTempDirectory("batch-test");
+        try {
+            String store = directory.toString();
+            assertEquals(BatchRunner.OK, run("--store", store, "card", "add", "Goblin", "Common", "-", "2"), "add");
+            assertEquals(BatchRunner.OK, run("--store", store, "card", "show", "Goblin"), "show");
+            assertTrue(out.toString(StandardCharsets.UTF_8).contains("Goblin"), "card kept between runs");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void reportsFailingScriptLinesAndCarriesOn() throws IOException {
+        Path directory = Files.createTempDirectory("batch-test");
+        try {
+            Path script = directory.resolve("commands.txt");
+            Files.write(script, List.of("# set up", "card add Goblin Common - 2", "card sell Dragon",
+                    "card add Elf Common - 1"));
+
+            assertEquals(BatchRunner.FAILED, run("--store", directory.resolve("store").toString(), "script",
+                    script.toString()), "status");
+            assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("line 3: "), "failing line reported");
+
+            out.reset();
+            run("--store", directory.resolve("store").toString(), "card", "list");
+            String listed = out.toString(StandardCharsets.UTF_8);
+            assertTrue(listed.contains("Goblin") && listed.contains("Elf"), "other lines applied");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private int run(String... args) {
+        return BatchRunner.run(args, new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
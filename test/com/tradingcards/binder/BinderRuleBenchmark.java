@@ -0,0 +1,102 @@
+package com.tradingcards.elements.binder;
+
+import java.util.Random;
+import java.util.Set;
+
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+
+/**
+ * Checks millions of candidate cards against the rule of every built-in
+ * binder type, comparing the set lookups the binders used to do card by card
+ * with the compiled rule, both card by card and in bulk with
+ * {@link BinderRule#admitAll}.
+ * <p>
+ * Arguments: [candidates].
+ */
+public class BinderRuleBenchmark {
+
+    private static final String[] RARITIES = { "Common", "Uncommon", "Rare", "Legendary" };
+    private static final String[] VARIANTS = { "Normal", "Extended-art", "Full-art", "Alt-art" };
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int candidateCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Random random = new Random(42);
+
+        CardRarity[] rarities = new CardRarity[candidateCount];
+        CardVariant[] variants = new CardVariant[candidateCount];
+        byte[] rarityCodes = new byte[candidateCount];
+        byte[] variantCodes = new byte[candidateCount];
+        double[] values = new double[candidateCount];
+        for (int i = 0; i < candidateCount; i++) {
+            // Parsed through a card so the codes are those the application uses
+            CardModel card = new CardModel();
+            String rarity = RARITIES[random.nextInt(RARITIES.length)];
+            card.setRarity(rarity);
+            if (rarity.equals("Rare") || rarity.equals("Legendary")) {
+                card.setVariant(VARIANTS[random.nextInt(VARIANTS.length)]);
+            }
+            rarities[i] = card.getRarityCode();
+            variants[i] = card.getVariantCode();
+            rarityCodes[i] = (byte) BinderRule.rarityCode(rarities[i]);
+            variantCodes[i] = (byte) BinderRule.variantCode(variants[i]);
+            values[i] = Math.round(random.nextDouble() * 50_000) / 100.0;
+        }
+        // Every pass records its verdicts, as a bulk check would
+        boolean[] admitted = new boolean[candidateCount];
+
+        System.out.println("Candidates: " + candidateCount);
+        for (BinderType type : BinderType.all()) {
+            BinderRule rule = type.rule();
+            Set<CardRarity> acceptedRarities = rule.getAcceptedRarities();
+            Set<CardVariant> acceptedVariants = rule.getAcceptedVariants();
+            long setNanos = 0;
+            long ruleNanos = 0;
+            long bulkNanos = 0;
+            int setCount = 0;
+            int ruleCount = 0;
+            int bulkCount = 0;
+
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                setCount = 0;
+                for (int i = 0; i < candidateCount; i++) {
+                    boolean ok = (acceptedRarities == null || acceptedRarities.contains(rarities[i]))
+                            && (acceptedVariants == null || acceptedVariants.contains(variants[i]));
+                    admitted[i] = ok;
+                    setCount += ok ? 1 : 0;
+                }
+                setNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                ruleCount = 0;
+                for (int i = 0; i < candidateCount; i++) {
+                    boolean ok = rule.admits(rarityCodes[i], variantCodes[i], values[i]);
+                    admitted[i] = ok;
+                    ruleCount += ok ? 1 : 0;
+                }
+                ruleNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                bulkCount = rule.admitAll(rarityCodes, variantCodes, values, admitted);
+                bulkNanos = System.nanoTime() - start;
+            }
+
+            if (setCount != ruleCount || ruleCount != bulkCount) {
+                throw new IllegalStateException("Passes disagree for " + type.name() + ": " + setCount + ", "
+                        + ruleCount + ", " + bulkCount);
+            }
+            System.out.printf("%-12s %8d admitted | sets %6.1f M/s | rule %6.1f M/s | bulk %6.1f M/s%n",
+                    type.name(), bulkCount, perSecond(candidateCount, setNanos), perSecond(candidateCount, ruleNanos),
+                    perSecond(candidateCount, bulkNanos));
+        }
+    }
+
+    /** Millions of candidates checked per second. */
+    private static double perSecond(int candidates, long nanos) {
+        return candidates * 1_000.0 / nanos;
+    }
+}
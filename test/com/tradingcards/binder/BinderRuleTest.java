@@ -0,0 +1,97 @@
+package com.tradingcards.elements.binder;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertFalse;
+import static com.tradingcards.Assert.assertThrows;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+
+/**
+ * Tests what a {@link BinderRule} admits: rarities and variants through its
+ * masks, cards without a variant only when any variant is admitted, values
+ * within its bounds inclusive, and the same verdicts card by card and in
+ * bulk.
+ */
+public class BinderRuleTest {
+
+    private static final int COMMON = BinderRule.rarityCode(CardRarity.COMMON);
+    private static final int RARE = BinderRule.rarityCode(CardRarity.RARE);
+    private static final int LEGENDARY = BinderRule.rarityCode(CardRarity.LEGENDARY);
+    private static final int NORMAL = BinderRule.variantCode(CardVariant.NORMAL);
+    private static final int FULL_ART = BinderRule.variantCode(CardVariant.FULL_ART);
+    private static final int NONE = BinderRule.NO_VARIANT;
+
+    @Test
+    public void matchesRaritiesAndVariants() {
+        assertEquals(NONE, BinderRule.variantCode(null), "no variant has its own code");
+        assertTrue(BinderRule.ANY.admits(COMMON, NONE, 0) && BinderRule.ANY.admits(LEGENDARY, FULL_ART, 1e9),
+                "ANY admits every card");
+
+        BinderRule rares = BinderRule.of(EnumSet.of(CardRarity.RARE, CardRarity.LEGENDARY), null);
+        assertTrue(rares.admits(RARE, NORMAL, 5) && rares.admits(LEGENDARY, FULL_ART, 5), "rares admitted");
+        assertTrue(rares.admits(RARE, NONE, 5), "any variant or none admits a card without one");
+        assertFalse(rares.admits(COMMON, NORMAL, 5) || rares.admits(COMMON, NONE, 5), "common refused");
+
+        BinderRule collector = BinderRule.of(EnumSet.of(CardRarity.RARE), EnumSet.of(CardVariant.FULL_ART));
+        assertTrue(collector.admits(RARE, FULL_ART, 5), "rare full-art admitted");
+        assertFalse(collector.admits(RARE, NORMAL, 5), "rare normal refused");
+        assertFalse(collector.admits(RARE, NONE, 5), "listed variants refuse a card without one");
+        assertFalse(collector.admits(LEGENDARY, FULL_ART, 5), "legendary refused");
+        assertTrue(collector.admits(RARE, FULL_ART) && !collector.admits(RARE, NORMAL), "codes alone checked");
+    }
+
+    @Test
+    public void keepsItsOwnCopyOfTheRarities() {
+        Set<CardRarity> rarities = EnumSet.of(CardRarity.RARE);
+        BinderRule rule = BinderRule.of(rarities, null);
+        rarities.add(CardRarity.COMMON);
+
+        assertFalse(rule.admits(COMMON, NONE, 5), "later changes ignored");
+        assertEquals(EnumSet.of(CardRarity.RARE), rule.getAcceptedRarities(), "accepted rarities reported");
+        assertEquals(null, rule.getAcceptedVariants(), "any variant reported as null");
+        assertThrows(UnsupportedOperationException.class, () -> rule.getAcceptedRarities().add(CardRarity.COMMON),
+                "accepted rarities cannot be changed");
+    }
+
+    @Test
+    public void keepsToTheValueRange() {
+        BinderRule rule = new BinderRule(null, null, 1, 10, 5);
+        assertTrue(rule.admits(RARE, NORMAL, 1) && rule.admits(RARE, NORMAL, 10), "bounds admitted");
+        assertFalse(rule.admits(RARE, NORMAL, 0.99) || rule.admits(RARE, NORMAL, 10.01), "outside refused");
+        assertTrue(rule.admits(RARE, NORMAL), "codes alone ignore the value");
+        assertEquals(1.0, rule.getMinValue(), 0, "minimum");
+        assertEquals(10.0, rule.getMaxValue(), 0, "maximum");
+        assertEquals(5, rule.getCapacity(), "capacity");
+        assertEquals(BinderRule.DEFAULT_CAPACITY, BinderRule.of(null, null).getCapacity(), "default capacity");
+    }
+
+    @Test
+    public void admitsTheSameInBulk() {
+        BinderRule rule = new BinderRule(EnumSet.of(CardRarity.RARE, CardRarity.LEGENDARY),
+                EnumSet.of(CardVariant.FULL_ART), 2, 8, 5);
+        byte[] rarities = { (byte) RARE, (byte) RARE, (byte) COMMON, (byte) LEGENDARY, (byte) RARE, (byte) RARE };
+        byte[] variants = { (byte) FULL_ART, (byte) NORMAL, (byte) FULL_ART, (byte) FULL_ART, (byte) NONE,
+            (byte) FULL_ART };
+        double[] values = { 5, 5, 5, 8, 5, 9 };
+        boolean[] admitted = new boolean[values.length];
+
+        assertEquals(2, rule.admitAll(rarities, variants, values, admitted), "admitted in bulk");
+        for (int i = 0; i < admitted.length; i++) {
+            assertEquals(rule.admits(rarities[i], variants[i], values[i]), admitted[i], "bulk agrees for card " + i);
+        }
+        assertTrue(admitted[0] && admitted[3], "rare and legendary full-art within range admitted");
+    }
+
+    @Test
+    public void refusesInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> new BinderRule(null, null, 0, 1, 0), "capacity 0");
+        assertThrows(IllegalArgumentException.class, () -> new BinderRule(null, null, 2, 1, 5), "empty range");
+        assertEquals(3.0, new BinderRule(null, null, 3, 3, 1).getMinValue(), 0, "single value allowed");
+    }
+}
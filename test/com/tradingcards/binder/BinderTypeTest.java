@@ -0,0 +1,109 @@
+package com.tradingcards.elements.binder;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertFalse;
+import static com.tradingcards.Assert.assertThrows;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.util.List;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.card.CardModel;
+
+/**
+ * Tests the registry of {@link BinderType}s, that registering a type
+ * replaces one of the same name, and that a {@link BinderModel} takes its
+ * capacity and selling price from its type. The registry is shared, so the
+ * types registered here have names no other test uses.
+ */
+public class BinderTypeTest {
+
+    @Test
+    public void listsTheBuiltInTypesFirst() {
+        List<String> names = names();
+        assertEquals(List.of("Non-Curated", "Pauper", "Rares", "Luxury", "Collector"), names.subList(0, 5),
+                "built-in types in order");
+        assertEquals(1.10, BinderType.forName("Rares").markup(), 0, "Rares markup");
+        assertTrue(BinderType.forName("Luxury").takesAskingPrice(), "Luxury takes an asking price");
+        assertFalse(BinderType.forName("Collector").sellable(), "Collector not sellable");
+    }
+
+    @Test
+    public void replacesTypesOfTheSameName() {
+        BinderType.register(new BinderType("Small", new BinderRule(null, null, 0, 100, 1), true, 1.0, false));
+        BinderType.register(new BinderType("Other", BinderRule.ANY, true, 1.0, false));
+        BinderType replacement = new BinderType("Small", new BinderRule(null, null, 0, 100, 3), true, 2.0, false);
+        BinderType.register(replacement);
+
+        assertTrue(BinderType.forName("Small") == replacement, "lookup finds the replacement");
+        List<String> names = names();
+        assertEquals(names.indexOf("Small"), names.lastIndexOf("Small"), "listed once");
+        assertTrue(names.indexOf("Small") < names.indexOf("Other"), "replacement keeps its place");
+        assertEquals(3, BinderModel.ofType("Small").getCapacity(), "new binders take the replacement's rule");
+    }
+
+    @Test
+    public void refusesUnknownTypes() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BinderType.forName("Missing"), "unknown type");
+        assertEquals("Unknown binder type: Missing", e.getMessage(), "message");
+        assertThrows(IllegalArgumentException.class, () -> BinderModel.ofType("Missing"), "binder of an unknown type");
+    }
+
+    @Test
+    public void fillsUpToCapacity() {
+        BinderType.register(new BinderType("Two", new BinderRule(null, null, 0, 10, 2), false, 1.0, false));
+        BinderModel binder = BinderModel.ofType("Two");
+        assertEquals("Two", binder.getBinderType().name(), "registered type");
+        assertEquals("Two", binder.getType(), "type name");
+
+        assertTrue(binder.insertInBinder(card("A", "Rare", 1), "A"), "first card inserted");
+        assertFalse(binder.insertInBinder(card("Dear", "Rare", 11), "Dear"), "card over the value range refused");
+        assertTrue(binder.insertInBinder(card("B", "Rare", 2), "B"), "second card inserted");
+        assertFalse(binder.insertInBinder(card("C", "Rare", 3), "C"), "third card refused when full");
+        assertTrue(binder.insertInBinder(card("B", "Rare", 2), "B"), "card already held replaced when full");
+        assertEquals(2, binder.getBinder().size(), "binder holds two cards");
+    }
+
+    @Test
+    public void pricesByType() {
+        assertEquals(-1.0, binder("Non-Curated", card("A", "Rare", 10)).getSellingPrice(), 0,
+                "Non-Curated not sellable");
+        assertEquals(15.0, binder("Pauper", card("A", "Common", 10), card("B", "Uncommon", 5)).getSellingPrice(50.0),
+                1e-9, "Pauper sold for its cards, ignoring the asking price");
+        assertEquals(11.0, binder("Rares", card("A", "Rare", 10)).getSellingPrice(), 1e-9, "Rares marked up");
+
+        BinderModel luxury = binder("Luxury", fullArt("A", 10));
+        assertEquals(22.0, luxury.getSellingPrice(20.0), 1e-9, "Luxury takes a higher asking price");
+        assertEquals(11.0, luxury.getSellingPrice(5.0), 1e-9, "Luxury ignores a lower asking price");
+        assertEquals(11.0, luxury.getSellingPrice(), 1e-9, "Luxury without an asking price");
+    }
+
+    private static List<String> names() {
+        return BinderType.all().stream().map(BinderType::name).toList();
+    }
+
+    private static BinderModel binder(String type, CardModel... cards) {
+        BinderModel binder = BinderModel.ofType(type);
+        for (CardModel card : cards) {
+            assertTrue(binder.insertInBinder(card, card.getName()), type + " admits " + card.getName());
+        }
+        return binder;
+    }
+
+    private static CardModel fullArt(String name, double value) {
+        CardModel card = card(name, "Rare", value);
+        card.setVariant("Full-art");
+        return card;
+    }
+
+    private static CardModel card(String name, String rarity, double value) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(rarity);
+        card.setVariant("Normal");
+        card.setValue(value);
+        card.setQuantity(1);
+        return card;
+    }
+}
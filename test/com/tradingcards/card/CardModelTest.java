@@ -1,4 +1,53 @@
 package com.tradingcards.elements.card;
 
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertThrows;
+import static com.tradingcards.Assert.assertTrue;
+
+import com.tradingcards.Test;
+
+/**
+ * Tests that {@link CardModel} keeps its String accessors on top of the
+ * rarity and variant enums, and values cards from the multiplier table.
+ */
 public class CardModelTest {
+
+    @Test
+    public void mapsLabelsToCodes() {
+        CardModel card = new CardModel();
+        card.setRarity("Legendary");
+        card.setVariant("Extended-art");
+
+        assertTrue(card.getRarityCode() == CardRarity.LEGENDARY, "rarity code");
+        assertTrue(card.getVariantCode() == CardVariant.EXTENDED_ART, "variant code");
+        assertEquals("Legendary", card.getRarity(), "rarity label");
+        assertEquals("Extended-art", card.getVariant(), "variant label");
+    }
+
+    @Test
+    public void keepsMissingLabelsMissing() {
+        CardModel card = new CardModel();
+        card.setRarity(null);
+        card.setVariant(null);
+
+        assertEquals(null, card.getRarity(), "no rarity");
+        assertEquals(null, card.getVariant(), "no variant");
+    }
+
+    @Test
+    public void refusesUnknownLabels() {
+        CardModel card = new CardModel();
+
+        assertThrows(IllegalArgumentException.class, () -> card.setRarity("Mythic"), "unknown rarity");
+        assertThrows(IllegalArgumentException.class, () -> card.setVariant("Foil"), "unknown variant");
+    }
+
+    @Test
+    public void multipliesValueByVariant() {
+        assertEquals(10.0, CardModel.calculateValue(10, CardVariant.NORMAL), 0, "normal");
+        assertEquals(15.0, CardModel.calculateValue(10, CardVariant.EXTENDED_ART), 0, "extended art");
+        assertEquals(20.0, CardModel.calculateValue(10, CardVariant.FULL_ART), 0, "full art");
+        assertEquals(30.0, CardModel.calculateValue(10, CardVariant.ALT_ART), 0, "alt art");
+        assertEquals(10.0, CardModel.calculateValue(10, (CardVariant) null), 0, "no variant");
+    }
 }
@@ -0,0 +1,122 @@
+package com.tradingcards.elements.card;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compares valuing and filtering a large collection with String rarity and
+ * variant labels (a {@code switch} on the variant and {@code equals} checks
+ * like the old binders) against the enum codes and multiplier table.
+ * <p>
+ * Reports the time per card and the bytes allocated by the measuring thread
+ * for each pass.
+ */
+public class CardValuationBenchmark {
+
+    private static final String[] RARITIES = { "Common", "Uncommon", "Rare", "Legendary" };
+    private static final String[] VARIANTS = { "Normal", "Extended-art", "Full-art", "Alt-art" };
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int cardCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        // Labels are built fresh, as they would be when read from user input
+        List<String[]> labels = new ArrayList<>(cardCount);
+        List<CardModel> cards = new ArrayList<>(cardCount);
+        for (int i = 0; i < cardCount; i++) {
+            String rarity = new String(RARITIES[i % RARITIES.length]);
+            String variant = new String(VARIANTS[(i / 4) % VARIANTS.length]);
+            labels.add(new String[] { rarity, variant });
+
+            CardModel card = new CardModel();
+            card.setName("Card " + i);
+            card.setRarity(rarity);
+            card.setVariant(variant);
+            card.setValue(i % 500 + 0.25);
+            card.setQuantity(1 + i % 4);
+            cards.add(card);
+        }
+        double[] baseValues = new double[cardCount];
+        for (int i = 0; i < cardCount; i++) {
+            baseValues[i] = cards.get(i).getValue();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        System.out.println("Cards: " + cardCount);
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean report = round == ROUNDS - 1;
+
+            long bytes = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            double stringTotal = 0;
+            int stringMatches = 0;
+            for (int i = 0; i < cardCount; i++) {
+                String[] label = labels.get(i);
+                stringTotal += valueByString(baseValues[i], label[1]);
+                if (isCollectorByString(label[0], label[1])) {
+                    stringMatches++;
+                }
+            }
+            long stringTime = System.nanoTime() - start;
+            long stringBytes = threads.getThreadAllocatedBytes(threadId) - bytes;
+
+            bytes = threads.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            double enumTotal = 0;
+            int enumMatches = 0;
+            for (int i = 0; i < cardCount; i++) {
+                CardModel card = cards.get(i);
+                enumTotal += CardModel.calculateValue(baseValues[i], card.getVariantCode());
+                if (isCollectorByCode(card.getRarityCode(), card.getVariantCode())) {
+                    enumMatches++;
+                }
+            }
+            long enumTime = System.nanoTime() - start;
+            long enumBytes = threads.getThreadAllocatedBytes(threadId) - bytes;
+
+            if (stringTotal != enumTotal || stringMatches != enumMatches) {
+                throw new IllegalStateException("String and enum passes disagree");
+            }
+
+            if (report) {
+                System.out.printf("Strings: %.2f ns/card, %d bytes allocated%n",
+                        (double) stringTime / cardCount, stringBytes);
+                System.out.printf("Enums:   %.2f ns/card, %d bytes allocated%n",
+                        (double) enumTime / cardCount, enumBytes);
+                System.out.printf("Total value %.2f, collector cards %d%n", enumTotal, enumMatches);
+            }
+        }
+    }
+
+    /** The valuation {@code CardModel} used to do on the variant label. */
+    private static double valueByString(double value, String variant) {
+        double calculatedValue = value;
+
+        switch (variant) {
+            case "Normal" -> calculatedValue *= 1;
+            case "Extended-art" -> calculatedValue *= 1.5;
+            case "Full-art" -> calculatedValue *= 2;
+            case "Alt-art" -> calculatedValue *= 3;
+        }
+
+        return calculatedValue;
+    }
+
+    /** The check the Collector binder used to do on the labels. */
+    private static boolean isCollectorByString(String rarity, String variant) {
+        boolean isRareOrLegendary = Objects.equals(rarity, "Rare") || Objects.equals(rarity, "Legendary");
+        return isRareOrLegendary && variant != null && !variant.equals("Normal");
+    }
+
+    /** The check the Collector binder did on the codes before its rule was compiled. */
+    private static boolean isCollectorByCode(CardRarity rarity, CardVariant variant) {
+        boolean isRareOrLegendary = rarity == CardRarity.RARE || rarity == CardRarity.LEGENDARY;
+        return isRareOrLegendary && variant != null && variant != CardVariant.NORMAL;
+    }
+}
@@ -0,0 +1,101 @@
+package com.tradingcards.elements.card;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.card.cardUtils.ImageCache;
+
+/**
+ * Tests that {@link ImageCache} answers repeated lookups from memory and
+ * evicts the least recently used images to stay within its budget.
+ */
+public class ImageCacheTest {
+
+    /** Bytes charged for one 10 by 10 image. */
+    private static final long IMAGE_COST = 10 * 10 * 4;
+
+    @Test
+    public void reusesScaledImages() throws IOException {
+        Path directory = Files.createTempDirectory("image-cache-test");
+        try {
+            String goblin = image(directory, "goblin.png");
+            ImageCache cache = new ImageCache(10 * IMAGE_COST);
+
+            ImageIcon first = cache.getIcon(goblin, 10, 10);
+            ImageIcon second = cache.getIcon(goblin, 10, 10);
+            assertTrue(first != null && first == second, "same icon returned");
+            assertEquals(1, cache.getHits(), "hits");
+            assertEquals(1, cache.getMisses(), "misses");
+
+            cache.getIcon(goblin, 5, 5);
+            assertEquals(2, cache.getEntryCount(), "one entry per size");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedImages() throws IOException {
+        Path directory = Files.createTempDirectory("image-cache-test");
+        try {
+            String goblin = image(directory, "goblin.png");
+            String elf = image(directory, "elf.png");
+            String dragon = image(directory, "dragon.png");
+            ImageCache cache = new ImageCache(2 * IMAGE_COST);
+
+            cache.getIcon(goblin, 10, 10);
+            cache.getIcon(elf, 10, 10);
+            cache.getIcon(goblin, 10, 10);
+            cache.getIcon(dragon, 10, 10);
+            assertEquals(1, cache.getEvictions(), "evictions");
+            assertEquals(2 * IMAGE_COST, cache.getSizeBytes(), "size within budget");
+
+            long misses = cache.getMisses();
+            cache.getIcon(goblin, 10, 10);
+            assertEquals(misses, cache.getMisses(), "recently used image kept");
+            cache.getIcon(elf, 10, 10);
+            assertEquals(misses + 1, cache.getMisses(), "least recently used image evicted");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void skipsImagesLargerThanTheBudget() throws IOException {
+        Path directory = Files.createTempDirectory("image-cache-test");
+        try {
+            String goblin = image(directory, "goblin.png");
+            ImageCache cache = new ImageCache(IMAGE_COST - 1);
+
+            assertTrue(cache.getIcon(goblin, 10, 10) != null, "icon still returned");
+            assertEquals(0, cache.getEntryCount(), "not kept");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static String image(Path directory, String name) throws IOException {
+        Path file = directory.resolve(name);
+        ImageIO.write(new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB), "png", file.toFile());
+        return file.toString();
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
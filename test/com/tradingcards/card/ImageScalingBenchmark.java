@@ -0,0 +1,166 @@
+package com.tradingcards.elements.card;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.ImageIcon;
+
+import com.tradingcards.elements.card.cardUtils.ImageScaler;
+import com.tradingcards.elements.card.cardUtils.ImageUtils;
+
+/**
+ * Compares scaling full-size card images with {@code getScaledInstance}
+ * ({@link ImageUtils#scaleIcon}), with a single bilinear step, and with
+ * {@link ImageScaler} on one thread and in parallel.
+ * <p>
+ * Reports the images scaled per second at the grid and detail sizes, and the
+ * quality of each method as PSNR against the area-averaged result of
+ * {@code getScaledInstance}, which averages every source pixel. Run headless
+ * with {@code -Djava.awt.headless=true}.
+ */
+public class ImageScalingBenchmark {
+
+    private static final int SOURCE_WIDTH = 1200;
+    private static final int SOURCE_HEIGHT = 1600;
+
+    private static final int[][] TARGETS = { { 120, 120 }, { 300, 380 } };
+
+    private static final int ROUNDS = 4;
+
+    public static void main(String[] args) {
+        int imageCount = args.length > 0 ? Integer.parseInt(args[0]) : 48;
+
+        List<BufferedImage> sources = new ArrayList<>(imageCount);
+        for (int i = 0; i < imageCount; i++) {
+            sources.add(createSource(i));
+        }
+
+        System.out.println("Images: " + imageCount + " at " + SOURCE_WIDTH + "x" + SOURCE_HEIGHT + ", threads: "
+                + Runtime.getRuntime().availableProcessors());
+        for (int[] target : TARGETS) {
+            int width = target[0];
+            int height = target[1];
+            System.out.println("Target " + width + "x" + height + ":");
+
+            BufferedImage[] reference = new BufferedImage[imageCount];
+            BufferedImage[] bilinear = new BufferedImage[imageCount];
+            BufferedImage[] progressive = new BufferedImage[imageCount];
+            for (int round = 0; round < ROUNDS; round++) {
+                boolean report = round == ROUNDS - 1;
+
+                long start = System.nanoTime();
+                for (int i = 0; i < imageCount; i++) {
+                    reference[i] = toBuffered(ImageUtils.scaleIcon(new ImageIcon(sources.get(i)), width, height)
+                            .getImage(), width, height);
+                }
+                long smoothTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < imageCount; i++) {
+                    bilinear[i] = singleStep(sources.get(i), width, height);
+                }
+                long bilinearTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < imageCount; i++) {
+                    progressive[i] = ImageScaler.scale(sources.get(i), width, height);
+                }
+                long progressiveTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                BufferedImage[] parallel = ImageScaler.scaleAll(sources, width, height);
+                long parallelTime = System.nanoTime() - start;
+
+                if (report) {
+                    report("getScaledInstance(SCALE_SMOOTH)", imageCount, smoothTime, Double.POSITIVE_INFINITY);
+                    report("single bilinear step", imageCount, bilinearTime, psnr(reference, bilinear));
+                    report("ImageScaler.scale", imageCount, progressiveTime, psnr(reference, progressive));
+                    report("ImageScaler.scaleAll", imageCount, parallelTime, psnr(reference, parallel));
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a card-like test image with gradients, fine lines and text, so
+     * that skipping source pixels shows up in the quality figures.
+     */
+    private static BufferedImage createSource(int seed) {
+        BufferedImage image = new BufferedImage(SOURCE_WIDTH, SOURCE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setPaint(new GradientPaint(0, 0, new Color(seed * 5 % 256, 90, 160), SOURCE_WIDTH, SOURCE_HEIGHT,
+                new Color(240, seed * 11 % 256, 40)));
+        graphics.fillRect(0, 0, SOURCE_WIDTH, SOURCE_HEIGHT);
+
+        graphics.setColor(Color.BLACK);
+        for (int x = 0; x < SOURCE_WIDTH; x += 7) {
+            graphics.drawLine(x, 0, x + seed % 50, SOURCE_HEIGHT);
+        }
+        graphics.setColor(Color.WHITE);
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 90));
+        graphics.drawString("Card " + seed, 200, 800);
+        graphics.dispose();
+        return image;
+    }
+
+    /**
+     * Scales in one bilinear step, the common alternative to
+     * {@code getScaledInstance}.
+     */
+    private static BufferedImage singleStep(BufferedImage source, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = result.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+        return result;
+    }
+
+    /**
+     * Forces a lazily scaled image to be computed, as painting it would.
+     */
+    private static BufferedImage toBuffered(Image image, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = result.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return result;
+    }
+
+    /**
+     * Returns the peak signal-to-noise ratio of the images against the
+     * reference, over all colour channels, in decibels.
+     */
+    private static double psnr(BufferedImage[] reference, BufferedImage[] images) {
+        double squaredError = 0;
+        long samples = 0;
+        for (int i = 0; i < reference.length; i++) {
+            for (int y = 0; y < reference[i].getHeight(); y++) {
+                for (int x = 0; x < reference[i].getWidth(); x++) {
+                    int expected = reference[i].getRGB(x, y);
+                    int actual = images[i].getRGB(x, y);
+                    for (int shift = 0; shift <= 16; shift += 8) {
+                        int difference = ((expected >> shift) & 0xFF) - ((actual >> shift) & 0xFF);
+                        squaredError += difference * difference;
+                        samples++;
+                    }
+                }
+            }
+        }
+        double meanSquaredError = squaredError / samples;
+        return 10 * Math.log10(255.0 * 255.0 / meanSquaredError);
+    }
+
+    private static void report(String method, int imageCount, long nanos, double psnr) {
+        String quality = Double.isInfinite(psnr) ? "reference" : String.format("PSNR %.1f dB", psnr);
+        System.out.printf("  %-32s %8.1f images/s  %s%n", method, imageCount / (nanos / 1e9), quality);
+    }
+}
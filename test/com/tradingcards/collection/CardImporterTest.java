@@ -0,0 +1,106 @@
+package com.tradingcards.elements.collection;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertFalse;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.collectionUtils.CardImporter;
+
+/**
+ * Tests that {@link CardImporter} rejects bad lines without stopping the
+ * import, and merges cards listed more than once.
+ */
+public class CardImporterTest {
+
+    private final CollectionModel collection = new CollectionModel();
+
+    @Test
+    public void rejectsBadLinesAndKeepsTheRest() throws IOException {
+        CardImporter.Result result = importLines("cards.csv",
+                "name,rarity,variant,value,quantity",
+                "Goblin,Common,,2,1",
+                "Dragon,Mythic,,5,1",
+                "Elf,Common,,-1,1",
+                "Troll,Common",
+                "Knight,Rare,Full-art,10,2");
+
+        assertEquals(2, result.added(), "added");
+        assertEquals(3, result.rejected(), "rejected");
+        assertEquals(3, result.rejections().size(), "described");
+        assertTrue(result.rejections().get(0).startsWith("Line 3: "), "line numbers count the header");
+        assertTrue(result.rejections().get(1).startsWith("Line 4: "), "negative value");
+        assertTrue(result.rejections().get(2).startsWith("Line 5: "), "missing fields");
+    }
+
+    @Test
+    public void mergesCopiesAndRejectsConflictingDuplicates() throws IOException {
+        CardImporter.Result result = importLines("cards.csv",
+                "Goblin,Common,,2,1",
+                "Goblin,Common,,2,3",
+                "Goblin,Common,,9,1",
+                "Knight,Rare,,10,1");
+
+        assertEquals(2, result.added(), "added");
+        assertEquals(1, result.rejected(), "conflicting duplicate");
+        assertTrue(result.rejections().get(0).startsWith("Line 3: Goblin"), "later line rejected");
+        assertEquals(4, collection.getCardCollection().get("Goblin").getQuantity(), "quantities summed");
+        assertEquals("Normal", collection.getCardCollection().get("Knight").getVariant(),
+                "rare card defaults to Normal");
+    }
+
+    @Test
+    public void mergesIntoCardsAlreadyInTheCollection() throws IOException {
+        CardModel goblin = new CardModel();
+        goblin.setName("Goblin");
+        goblin.setRarity("Common");
+        goblin.setValue(2);
+        goblin.setQuantity(1);
+        collection.setCardCollection(goblin, "Goblin");
+
+        CardImporter.Result result = importLines("cards.jsonl",
+                "{\"name\": \"Goblin\", \"rarity\": \"Common\", \"value\": 2, \"quantity\": 2}",
+                "{\"name\": \"Elf\", \"rarity\": \"Common\", \"value\": 1}");
+
+        assertEquals(1, result.added(), "added");
+        assertEquals(1, result.merged(), "merged");
+        assertEquals(3, goblin.getQuantity(), "existing copy increased");
+        assertEquals(1, collection.getCardCollection().get("Elf").getQuantity(), "quantity defaults to 1");
+        assertFalse(result.rejected() > 0, "nothing rejected");
+    }
+
+    @Test
+    public void appliesValueMultipliers() throws IOException {
+        importLines("cards.csv", "Knight,Legendary,Alt-art,10,1");
+
+        assertEquals(30.0, collection.getCardCollection().get("Knight").getValue(), 1e-9, "alt-art value");
+    }
+
+    @Test
+    public void valuesTheImportedCards() throws IOException {
+        CardImporter.Result result = importLines("cards.csv",
+                "Goblin,Common,,2,3",
+                "Knight,Legendary,Alt-art,10,1",
+                "Goblin,Common,,2,1");
+
+        assertEquals(38.0, result.value(), 1e-9, "every copy of every card");
+    }
+
+    private CardImporter.Result importLines(String fileName, String... lines) throws IOException {
+        Path directory = Files.createTempDirectory("import-test");
+        Path file = directory.resolve(fileName);
+        try {
+            Files.write(file, List.of(lines));
+            return new CardImporter(2).importFile(file, collection);
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.tradingcards.elements.collection;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.collection.collectionUtils.CardNameIndex;
+
+/**
+ * Tests the prefix, substring and typo-tolerant lookups of
+ * {@link CardNameIndex}, and that they follow added and removed names.
+ */
+public class CardNameIndexTest {
+
+    private final CardNameIndex index = CardNameIndex.of(
+            List.of("Goblin King", "Goblin Guide", "Hobgoblin", "Elvish Mystic", "Ox", "Dragon Whelp"));
+
+    @Test
+    public void findsNamesByPrefixIgnoringCase() {
+        assertEquals(List.of("Goblin Guide", "Goblin King"), index.findByPrefix("gob", 10), "prefix");
+        assertEquals(List.of("Goblin Guide"), index.findByPrefix("GOBLIN G", 10), "longer prefix");
+        assertEquals(List.of("Goblin Guide"), index.findByPrefix("gob", 1), "limit");
+        assertEquals(List.of(), index.findByPrefix("zzz", 10), "no match");
+    }
+
+    @Test
+    public void findsNamesBySubstring() {
+        assertEquals(List.of("Goblin Guide", "Goblin King", "Hobgoblin"), sorted(index.findBySubstring("oblin", 10)),
+                "inside and at the start");
+        assertEquals(List.of("Elvish Mystic"), index.findBySubstring("MYST", 10), "ignores case");
+        assertEquals(List.of(), index.findBySubstring("nilbog", 10), "no match");
+    }
+
+    @Test
+    public void findsNamesWithTypos() {
+        assertEquals(List.of("Elvish Mystic"), index.findSimilar("elvsih mystic", 1, 10), "swapped letters");
+        assertEquals(List.of("Dragon Whelp"), index.findSimilar("dragun whelp", 1, 10), "wrong letter");
+        assertEquals(List.of("Dragon Whelp"), index.findSimilar("dragn whelp", 1, 10), "missing letter");
+        assertEquals(List.of(), index.findSimilar("drxgxn whelp", 1, 10), "too many typos");
+    }
+
+    @Test
+    public void searchRanksExactThenPrefixThenSubstringThenTypos() {
+        assertEquals(List.of("Goblin Guide", "Goblin King", "Hobgoblin"), index.search("goblin", 10),
+                "prefix before substring");
+        assertEquals("Goblin King", index.search("Goblin King", 10).get(0), "exact match first");
+        assertEquals(List.of("Elvish Mystic"), index.search("elvish mystci", 10), "typo as a last resort");
+        assertEquals(List.of(), index.search("", 10), "empty query");
+    }
+
+    @Test
+    public void findsNamesShorterThanATrigram() {
+        assertEquals(List.of("Ox"), index.search("Ox", 10), "exact short name");
+        assertEquals(List.of("Ox"), index.search("o", 10), "one-letter prefix");
+        assertEquals(List.of("Ox"), index.findByPrefix("ox", 10), "short prefix");
+    }
+
+    @Test
+    public void followsRemovedAndRenamedCards() {
+        index.remove("Goblin King");
+        assertEquals(List.of("Goblin Guide"), index.findByPrefix("goblin", 10), "removed from prefixes");
+        assertEquals(List.of("Goblin Guide", "Hobgoblin"), sorted(index.findBySubstring("oblin", 10)),
+                "removed from trigrams");
+        assertEquals(5, index.size(), "size");
+
+        // A rename is a removal of the old name and an addition of the new one
+        index.remove("Hobgoblin");
+        index.add("Hobgoblin Chief");
+        assertEquals(List.of("Hobgoblin Chief"), index.findBySubstring("bgob", 10), "renamed");
+        assertEquals(List.of("Hobgoblin Chief"), index.findSimilar("hobgolbin chief", 1, 10), "renamed, with a typo");
+
+        index.add("Goblin King");
+        assertEquals(List.of("Goblin Guide", "Goblin King"), index.findByPrefix("goblin", 10), "added again");
+    }
+
+    @Test
+    public void keepsWorkingAfterManyRemovals() {
+        CardNameIndex large = new CardNameIndex();
+        for (int i = 0; i < 2000; i++) {
+            large.add("Card " + i);
+        }
+        for (int i = 0; i < 2000; i += 2) {
+            large.remove("Card " + i);
+        }
+
+        assertEquals(1000, large.size(), "size");
+        assertEquals(List.of("Card 1999"), large.findBySubstring("1999", 10), "odd name kept");
+        assertEquals(List.of(), large.findBySubstring("1998", 10), "even name removed");
+        assertTrue(large.findSimilar("card 1357", 1, 10).contains("Card 1357"), "fuzzy lookup still works");
+    }
+
+    private static List<String> sorted(List<String> names) {
+        List<String> copy = new ArrayList<>(names);
+        copy.sort(null);
+        return copy;
+    }
+}
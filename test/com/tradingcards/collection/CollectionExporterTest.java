@@ -0,0 +1,134 @@
+package com.tradingcards.elements.collection;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertFalse;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.collectionUtils.CollectionExporter;
+import com.tradingcards.elements.collection.collectionUtils.CollectionSnapshot;
+import com.tradingcards.elements.deck.DeckModel;
+
+/**
+ * Tests that {@link CollectionExporter} writes one row per element, reading
+ * the collection a page at a time without skipping or repeating rows at the
+ * page boundaries.
+ */
+public class CollectionExporterTest {
+
+    /** More cards than fit in two pages of 1024 rows. */
+    private static final int CARDS = 2500;
+
+    private final CollectionModel collection = new CollectionModel();
+
+    public CollectionExporterTest() {
+        collection.setMoney(12.5);
+        for (int i = 0; i < CARDS; i++) {
+            String name = String.format("Card %04d", i);
+            collection.setCardCollection(card(name, "Common"), name);
+        }
+        BinderModel binder = BinderModel.ofType("Rares");
+        binder.insertInBinder(card("Dragon", "Rare"), "Dragon");
+        binder.insertInBinder(card("Knight", "Rare"), "Knight");
+        collection.setBinderCollection(binder, "Shiny");
+        DeckModel deck = new DeckModel();
+        deck.addCardtoDeck(collection.getCardCollection().get("Card 0000"), "Card 0000");
+        collection.setDeckCollection(deck, "Red");
+    }
+
+    @Test
+    public void writesOneCsvRowPerElement() throws IOException {
+        Path directory = Files.createTempDirectory("export-test");
+        try {
+            Path file = directory.resolve("collection.csv");
+            CollectionExporter.Result result = new CollectionExporter(collection, Runnable::run).export(file);
+
+            // Money, cards, a binder with two cards, a deck with one card
+            long expected = 1 + CARDS + 1 + 2 + 1 + 1;
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(expected, result.rows(), "rows counted");
+            assertEquals(expected + 1, lines.size(), "rows written after the header");
+            assertTrue(lines.get(0).startsWith("section,"), "header");
+            assertEquals(Files.size(file), result.bytes(), "bytes");
+            assertFalse(Files.exists(directory.resolve("collection.csv.tmp")), "temporary file moved");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void pagesCardsInOrderWithoutGapsOrRepeats() throws IOException {
+        Path directory = Files.createTempDirectory("export-test");
+        try {
+            Path file = directory.resolve("collection.jsonl");
+            AtomicInteger reads = new AtomicInteger();
+            new CollectionExporter(collection, task -> {
+                reads.incrementAndGet();
+                task.run();
+            }).export(file);
+
+            List<String> cards = new ArrayList<>();
+            for (String line : Files.readAllLines(file)) {
+                if (line.contains("\"section\": \"card\"")) {
+                    cards.add(line);
+                }
+            }
+            assertEquals(CARDS, cards.size(), "every card once");
+            for (int i = 0; i < CARDS; i++) {
+                assertTrue(cards.get(i).contains(String.format("\"name\": \"Card %04d\"", i)),
+                        "card " + i + " in order");
+            }
+            // Money, three pages of cards, binders, the binder's cards, decks, the deck's cards
+            assertEquals(8, reads.get(), "reads of the collection");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void writesSnapshotsTheStoreCanLoad() throws IOException {
+        Path directory = Files.createTempDirectory("export-test");
+        try {
+            Path file = directory.resolve("collection.snapshot");
+            new CollectionExporter(collection, Runnable::run).export(file);
+
+            CollectionModel loaded = new CollectionModel();
+            CollectionSnapshot.load(loaded, file);
+            assertEquals(12.5, loaded.getMoney(), "money");
+            assertEquals(CARDS, loaded.getCardCollection().size(), "cards");
+            assertEquals(2, loaded.getBinderCollection().get("Shiny").getBinder().size(), "binder cards");
+            assertTrue(loaded.getDeckCollection().get("Red").getDeck().containsKey("Card 0000"), "deck card");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static CardModel card(String name, String rarity) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(rarity);
+        card.setVariant("Normal");
+        card.setValue(1);
+        card.setQuantity(1);
+        return card;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.tradingcards.elements.collection;
+
+import static com.tradingcards.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+import com.tradingcards.elements.collection.collectionUtils.CollectionIndex;
+
+/**
+ * Tests that {@link CollectionIndex} finds the cards matching rarity, variant,
+ * value and ownership filters, and keeps up with changes to its cards.
+ */
+public class CollectionIndexTest {
+
+    private final CollectionIndex index = new CollectionIndex();
+
+    private final CardModel goblin = card("Goblin", "Rare", "Alt-art", 60, 1);
+    private final CardModel dragon = card("Dragon", "Legendary", "Alt-art", 120, 0);
+    private final CardModel knight = card("Knight", "Legendary", "Normal", 80, 2);
+    private final CardModel elf = card("Elf", "Common", null, 1, 5);
+
+    public CollectionIndexTest() {
+        index.add(goblin);
+        index.add(dragon);
+        index.add(knight);
+        index.add(elf);
+    }
+
+    @Test
+    public void filtersByRarityAndVariant() {
+        assertEquals(Set.of("Dragon", "Knight"), names(index.find(EnumSet.of(CardRarity.LEGENDARY), null)),
+                "legendary");
+        assertEquals(Set.of("Goblin", "Dragon"), names(index.find(null, EnumSet.of(CardVariant.ALT_ART))),
+                "alt-art");
+        assertEquals(Set.of("Dragon"),
+                names(index.find(EnumSet.of(CardRarity.LEGENDARY), EnumSet.of(CardVariant.ALT_ART))),
+                "legendary alt-art");
+        assertEquals(Set.of("Goblin", "Dragon", "Knight"),
+                names(index.find(EnumSet.of(CardRarity.RARE, CardRarity.LEGENDARY), null)), "rare or legendary");
+        assertEquals(2, index.count(EnumSet.of(CardRarity.LEGENDARY), null), "legendary count");
+        assertEquals(4, index.count(null, null), "every card");
+    }
+
+    @Test
+    public void filtersByValueRangeInOrder() {
+        List<CardModel> found = index.find(null, null, 50, 100, false);
+        assertEquals(List.of("Goblin", "Knight"), ordered(found), "worth 50 to 100, by value");
+
+        found = index.find(EnumSet.of(CardRarity.LEGENDARY), EnumSet.of(CardVariant.ALT_ART), 50, 1000, false);
+        assertEquals(List.of("Dragon"), ordered(found), "legendary alt-art worth at least 50");
+
+        assertEquals(0, index.find(null, null, 200, 100, false).size(), "empty range");
+    }
+
+    @Test
+    public void skipsCardsNotOwned() {
+        assertEquals(Set.of("Goblin"),
+                names(index.find(null, EnumSet.of(CardVariant.ALT_ART), Double.NEGATIVE_INFINITY,
+                        Double.POSITIVE_INFINITY, true)), "owned alt-art");
+        assertEquals(Set.of("Knight"),
+                names(index.find(EnumSet.of(CardRarity.LEGENDARY), null, 50, 200, true)), "owned legendary");
+    }
+
+    @Test
+    public void followsChangesToCards() {
+        dragon.setQuantity(1);
+        knight.setVariantCode(CardVariant.FULL_ART);
+        elf.setValue(90);
+
+        assertEquals(Set.of("Goblin", "Dragon"),
+                names(index.find(null, EnumSet.of(CardVariant.ALT_ART), Double.NEGATIVE_INFINITY,
+                        Double.POSITIVE_INFINITY, true)), "dragon now owned");
+        assertEquals(Set.of("Knight"), names(index.find(null, EnumSet.of(CardVariant.FULL_ART))), "new variant");
+        assertEquals(0, index.find(null, EnumSet.of(CardVariant.NORMAL)).size(), "old variant");
+        assertEquals(List.of("Knight", "Elf"), ordered(index.find(null, null, 80, 100, false)), "new value");
+        assertEquals(0, index.find(null, null, 0, 10, false).size(), "old value");
+    }
+
+    @Test
+    public void forgetsRemovedCardsAndTakesThemBack() {
+        index.remove(knight);
+        assertEquals(Set.of("Dragon"), names(index.find(EnumSet.of(CardRarity.LEGENDARY), null)), "removed");
+        assertEquals(0, index.find(null, null, 80, 80, false).size(), "removed from the value index");
+
+        knight.setValue(10);
+        assertEquals(0, index.find(null, null, 10, 10, false).size(), "changes of a removed card ignored");
+
+        index.add(knight);
+        assertEquals(Set.of("Dragon", "Knight"), names(index.find(EnumSet.of(CardRarity.LEGENDARY), null)),
+                "added again");
+        assertEquals(List.of("Knight"), ordered(index.find(null, null, 10, 10, false)), "current value");
+        assertEquals(4, index.size(), "size");
+    }
+
+    @Test
+    public void addAllMatchesAddingOneByOne() {
+        CollectionIndex bulk = new CollectionIndex();
+        CardModel extra = card("Troll", "Rare", "Alt-art", 60, 3);
+        bulk.addAll(List.of(goblin, dragon, extra));
+        bulk.addAll(List.of(goblin, knight, elf));
+
+        assertEquals(5, bulk.size(), "cards already indexed are skipped");
+        assertEquals(List.of("Goblin", "Troll"), sortedNames(bulk.find(null, null, 60, 60, false)),
+                "cards sharing a value");
+        assertEquals(Set.of("Goblin", "Troll"),
+                names(bulk.find(EnumSet.of(CardRarity.RARE), EnumSet.of(CardVariant.ALT_ART))), "rare alt-art");
+
+        extra.setValue(70);
+        assertEquals(List.of("Troll"), ordered(bulk.find(null, null, 70, 70, false)), "bulk-added cards followed");
+    }
+
+    @Test
+    public void clearForgetsEveryCard() {
+        index.clear();
+        assertEquals(0, index.size(), "size");
+        assertEquals(0, index.find(EnumSet.of(CardRarity.LEGENDARY), null).size(), "rarity bitmaps");
+
+        goblin.setValue(5);
+        index.add(goblin);
+        assertEquals(List.of("Goblin"), ordered(index.find(null, null, 0, 1000, false)), "usable again");
+    }
+
+    private static Set<String> names(List<CardModel> cards) {
+        Set<String> names = new TreeSet<>();
+        for (CardModel card : cards) {
+            names.add(card.getName());
+        }
+        return names;
+    }
+
+    private static List<String> ordered(List<CardModel> cards) {
+        List<String> names = new ArrayList<>();
+        for (CardModel card : cards) {
+            names.add(card.getName());
+        }
+        return names;
+    }
+
+    private static List<String> sortedNames(List<CardModel> cards) {
+        return new ArrayList<>(names(cards));
+    }
+
+    private static CardModel card(String name, String rarity, String variant, double value, int quantity) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(rarity);
+        card.setVariant(variant);
+        card.setValue(value);
+        card.setQuantity(quantity);
+        return card;
+    }
+}
@@ -0,0 +1,271 @@
+package com.tradingcards.elements.collection;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertFalse;
+import static com.tradingcards.Assert.assertThrows;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.collectionUtils.CollectionJournal;
+import com.tradingcards.elements.deck.DeckModel;
+
+/**
+ * Tests that replaying a {@link CollectionJournal} rebuilds the changes it
+ * recorded, across segments and up to a torn last entry.
+ */
+public class CollectionJournalTest {
+
+    @Test
+    public void replaysEveryKindOfEntry() throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            CollectionJournal journal = new CollectionJournal(directory);
+            journal.start(0);
+            journal.logMoney(9.5);
+            journal.logCard("Goblin", card("Goblin", 2));
+            journal.logCard("Elf", card("Elf", 1));
+            BinderModel binder = BinderModel.ofType("Rares");
+            CardModel dragon = card("Dragon", 1);
+            dragon.setRarity("Rare");
+            assertTrue(binder.insertInBinder(dragon, "Dragon"), "rare card accepted");
+            journal.logBinder("Shiny", binder);
+            DeckModel deck = new DeckModel();
+            deck.addCardtoDeck(card("Goblin", 2), "Goblin");
+            journal.logDeck("Red", deck);
+            journal.logCardRemoved("Elf");
+            journal.close();
+
+            CollectionModel collection = new CollectionModel();
+            assertEquals(6, new CollectionJournal(directory).replay(collection, 0), "last sequence");
+            assertEquals(9.5, collection.getMoney(), "money");
+            assertEquals(2, collection.getCardCollection().get("Goblin").getQuantity(), "card");
+            assertFalse(collection.getCardCollection().containsKey("Elf"), "removed card");
+            assertEquals("Rares", collection.getBinderCollection().get("Shiny").getType(), "binder type");
+            assertTrue(collection.getBinderCollection().get("Shiny").getBinder().containsKey("Dragon"),
+                    "binder card");
+            assertTrue(collection.getDeckCollection().get("Red").getDeck().get("Goblin")
+                    == collection.getCardCollection().get("Goblin"), "deck shares the collection's card");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void skipsEntriesTheSnapshotHolds() throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            CollectionJournal journal = new CollectionJournal(directory);
+            journal.start(10);
+            journal.logMoney(1);
+            journal.logMoney(2);
+            journal.logCard("Goblin", card("Goblin", 1));
+            journal.close();
+
+            CollectionModel collection = new CollectionModel();
+            collection.setMoney(5);
+            assertEquals(13, new CollectionJournal(directory).replay(collection, 12), "last sequence");
+            assertEquals(5.0, collection.getMoney(), "older money entries skipped");
+            assertTrue(collection.getCardCollection().containsKey("Goblin"), "newer entry applied");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void stopsAtATornLastEntry() throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            CollectionJournal journal = new CollectionJournal(directory);
+            journal.start(0);
+            journal.logMoney(1);
+            journal.logMoney(2);
+            journal.close();
+
+            Path segment = onlySegment(directory);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 3);
+            }
+
+            CollectionModel collection = new CollectionModel();
+            assertEquals(1, new CollectionJournal(directory).replay(collection, 0), "last whole entry");
+            assertEquals(1.0, collection.getMoney(), "torn entry ignored");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void stopsAtACorruptEntry() throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            CollectionJournal journal = new CollectionJournal(directory);
+            journal.start(0);
+            journal.logMoney(1);
+            journal.logMoney(2);
+            journal.close();
+
+            Path segment = onlySegment(directory);
+            byte[] bytes = Files.readAllBytes(segment);
+            bytes[bytes.length - 1] ^= 1;
+            Files.write(segment, bytes);
+
+            CollectionModel collection = new CollectionModel();
+            assertEquals(1, new CollectionJournal(directory).replay(collection, 0), "last valid entry");
+            assertEquals(1.0, collection.getMoney(), "entry with a bad checksum ignored");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void continuesIntoTheNextSegment() throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            CollectionJournal journal = new CollectionJournal(directory);
+            journal.start(0);
+            journal.logCard("Goblin", card("Goblin", 1));
+            assertEquals(1, journal.roll(), "boundary of the first segment");
+            journal.logCard("Elf", card("Elf", 1));
+            journal.logCard("Goblin", card("Goblin", 4));
+            journal.close();
+
+            assertEquals(2, segments(directory), "segments");
+            CollectionModel collection = new CollectionModel();
+            assertEquals(3, new CollectionJournal(directory).replay(collection, 0), "last sequence");
+            assertTrue(collection.getCardCollection().containsKey("Elf"), "entry of the second segment");
+            assertEquals(4, collection.getCardCollection().get("Goblin").getQuantity(), "later entry wins");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void deletesSegmentsASnapshotCovers() throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            CollectionJournal journal = new CollectionJournal(directory);
+            journal.start(0);
+            journal.logMoney(1);
+            long boundary = journal.roll();
+            journal.logMoney(2);
+            journal.deleteSegmentsCoveredBy(boundary);
+            journal.close();
+
+            assertEquals(1, segments(directory), "older segment deleted");
+            CollectionModel collection = new CollectionModel();
+            assertEquals(2, new CollectionJournal(directory).replay(collection, boundary), "last sequence");
+            assertEquals(2.0, collection.getMoney(), "newer segment kept");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void continuesSequenceNumbersAfterARestart() throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            CollectionJournal journal = new CollectionJournal(directory);
+            journal.start(0);
+            journal.logMoney(1);
+            journal.close();
+
+            CollectionJournal reopened = new CollectionJournal(directory);
+            reopened.start(reopened.replay(new CollectionModel(), 0));
+            reopened.logMoney(2);
+            assertEquals(2, reopened.getLastSequence(), "sequence after the replayed entries");
+            reopened.close();
+
+            CollectionModel collection = new CollectionModel();
+            assertEquals(2, new CollectionJournal(directory).replay(collection, 0), "last sequence");
+            assertEquals(2.0, collection.getMoney(), "entry of the second run");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void refusesUnknownBinderTypes() throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            CollectionJournal journal = new CollectionJournal(directory);
+            journal.start(0);
+            BinderModel binder = unregisteredBinder();
+            journal.logBinder("Old", binder);
+            journal.close();
+
+            IOException e = assertThrows(IOException.class,
+                    () -> new CollectionJournal(directory).replay(new CollectionModel(), 0), "unknown binder type");
+            assertEquals("Unknown binder type in snapshot: Missing", e.getMessage(), "message");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void refusesAppendsAfterClose() throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            CollectionJournal journal = new CollectionJournal(directory);
+            journal.start(0);
+            journal.close();
+
+            assertThrows(IllegalStateException.class, () -> journal.logMoney(1), "append after close");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static CardModel card(String name, int quantity) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity("Common");
+        card.setVariant("Normal");
+        card.setValue(1);
+        card.setQuantity(quantity);
+        return card;
+    }
+
+    private static long segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".journal")).count();
+        }
+    }
+
+    private static Path onlySegment(Path directory) throws IOException {
+        assertEquals(1, segments(directory), "segments");
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".journal")).findFirst().orElseThrow();
+        }
+    }
+
+    /**
+     * Returns a binder whose type was registered when it was written but is
+     * not when it is read back.
+     */
+    private static BinderModel unregisteredBinder() {
+        return new BinderModel("Rares") {
+            @Override
+            public String getType() {
+                return "Missing";
+            }
+        };
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
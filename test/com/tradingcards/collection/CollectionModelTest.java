@@ -1,4 +1,181 @@
 package com.tradingcards.elements.collection;
 
+import static com.tradingcards.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.card.CardRarity;
+import com.tradingcards.elements.card.CardVariant;
+import com.tradingcards.elements.card.cardUtils.CardAggregates;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent.Kind;
+import com.tradingcards.elements.collection.collectionUtils.CollectionEvent.Target;
+
+/**
+ * Tests that the running totals, indexes and change events of a
+ * {@link CollectionModel} follow its cards, whether they are added one by one
+ * or restored in bulk.
+ */
 public class CollectionModelTest {
+
+    @Test
+    public void totalsFollowInsertsChangesAndRemovals() {
+        CollectionModel collection = new CollectionModel();
+        collection.setCardCollection(card("Goblin", "Rare", "Full-art", 5, 2), "Goblin");
+        collection.setCardCollection(card("Elf", "Common", null, 1, 3), "Elf");
+
+        CardAggregates totals = collection.getAggregates();
+        assertEquals(2, totals.getCardCount(), "cards");
+        assertEquals(5, totals.getTotalQuantity(), "copies");
+        assertEquals(13.0, totals.getTotalValue(), 1e-9, "value");
+        assertEquals(6.0, totals.getUnitValue(), 1e-9, "one copy each");
+
+        collection.getCardCollection().get("Goblin").setQuantity(4);
+        assertEquals(4, totals.getQuantity(CardRarity.RARE), "rare copies after a change");
+        assertEquals(20.0, totals.getValue(CardVariant.FULL_ART), 1e-9, "full-art value after a change");
+
+        collection.removeCardCollection("Goblin");
+        assertEquals(1, totals.getCardCount(), "cards after a removal");
+        assertEquals(0, totals.getQuantity(CardRarity.RARE), "rare copies after a removal");
+        assertEquals(3.0, totals.getTotalValue(), 1e-9, "value after a removal");
+    }
+
+    @Test
+    public void replacingACardStopsFollowingTheOldOne() {
+        CollectionModel collection = new CollectionModel();
+        CardModel old = card("Goblin", "Rare", "Normal", 5, 1);
+        collection.setCardCollection(old, "Goblin");
+        collection.setCardCollection(card("Goblin", "Rare", "Normal", 7, 1), "Goblin");
+
+        old.setQuantity(10);
+        assertEquals(1, collection.getAggregates().getCardCount(), "cards");
+        assertEquals(7.0, collection.getAggregates().getTotalValue(), 1e-9, "only the new card counts");
+    }
+
+    @Test
+    public void restoreComputesTotalsOnceAtTheEnd() {
+        CollectionModel collection = new CollectionModel();
+        collection.setCardCollection(card("Elf", "Common", null, 1, 3), "Elf");
+
+        collection.beginRestore();
+        collection.setCardCollection(card("Goblin", "Rare", "Alt-art", 5, 2), "Goblin");
+        collection.setCardCollection(card("Troll", "Uncommon", null, 2, 1), "Troll");
+        collection.getCardCollection().get("Goblin").setQuantity(3);
+        collection.removeCardCollection("Troll");
+        assertEquals(0, collection.getAggregates().getCardCount(), "no totals while restoring");
+        collection.endRestore();
+
+        CardAggregates totals = collection.getAggregates();
+        assertEquals(2, totals.getCardCount(), "cards");
+        assertEquals(6, totals.getTotalQuantity(), "copies");
+        assertEquals(18.0, totals.getTotalValue(), 1e-9, "value");
+        assertEquals(15.0, totals.getValue(CardVariant.ALT_ART), 1e-9, "alt-art value");
+
+        collection.getCardCollection().get("Elf").setQuantity(1);
+        assertEquals(16.0, totals.getTotalValue(), 1e-9, "restored cards are followed afterwards");
+    }
+
+    @Test
+    public void restoreBuildsTheIndexAtTheEnd() {
+        CollectionModel collection = new CollectionModel();
+        collection.setCardCollection(card("Elf", "Common", null, 1, 3), "Elf");
+
+        collection.beginRestore();
+        collection.setCardCollection(card("Goblin", "Rare", "Alt-art", 5, 2), "Goblin");
+        collection.removeCardCollection("Elf");
+        assertEquals(0, collection.getIndex().size(), "no index while restoring");
+        collection.endRestore();
+
+        assertEquals(1, collection.getIndex().size(), "restored cards indexed");
+        assertEquals(1, collection.getIndex().count(EnumSet.of(CardRarity.RARE), null), "by rarity");
+        collection.getCardCollection().get("Goblin").setValue(9);
+        assertEquals(1, collection.getIndex().find(null, null, 9, 9, false).size(), "restored cards followed");
+    }
+
+    @Test
+    public void nameIndexCoversRestoredAndLaterCards() {
+        CollectionModel collection = new CollectionModel();
+        collection.beginRestore();
+        collection.setCardCollection(card("Goblin King", "Rare", "Normal", 5, 1), "Goblin King");
+        collection.setCardCollection(card("Elf", "Common", null, 1, 1), "Elf");
+        collection.endRestore();
+
+        assertEquals(List.of("Goblin King"), collection.getNameIndex().search("gob", 10), "restored name");
+        collection.setCardCollection(card("Goblin Guide", "Rare", "Normal", 5, 1), "Goblin Guide");
+        collection.removeCardCollection("Goblin King");
+        assertEquals(List.of("Goblin Guide"), collection.getNameIndex().search("gob", 10), "later changes");
+    }
+
+    @Test
+    public void nestedRestoreWaitsForTheOutermostEnd() {
+        CollectionModel collection = new CollectionModel();
+        collection.beginRestore();
+        collection.beginRestore();
+        collection.setCardCollection(card("Goblin", "Rare", "Normal", 5, 1), "Goblin");
+        collection.endRestore();
+        assertEquals(0, collection.getAggregates().getCardCount(), "inner end does nothing");
+        collection.endRestore();
+
+        assertEquals(1, collection.getAggregates().getCardCount(), "outer end computes the totals");
+    }
+
+    @Test
+    public void transactionDeliversOneMergedBatch() {
+        CollectionModel collection = new CollectionModel();
+        collection.setCardCollection(card("Elf", "Common", null, 1, 1), "Elf");
+        List<List<CollectionEvent>> batches = new ArrayList<>();
+        collection.addCollectionListener(batches::add);
+
+        collection.beginTransaction();
+        collection.setMoney(3);
+        collection.setCardCollection(card("Goblin", "Rare", "Normal", 5, 1), "Goblin");
+        collection.getCardCollection().get("Goblin").setQuantity(2);
+        collection.getCardCollection().get("Elf").setQuantity(4);
+        collection.setCardCollection(card("Troll", "Common", null, 1, 1), "Troll");
+        collection.removeCardCollection("Troll");
+        assertEquals(0, batches.size(), "held back until the end");
+        collection.endTransaction();
+
+        assertEquals(List.of(List.of(CollectionEvent.MONEY_CHANGED,
+                new CollectionEvent(Target.CARD, Kind.ADDED, "Goblin"),
+                new CollectionEvent(Target.CARD, Kind.CHANGED, "Elf"))), batches,
+                "one event per element, added and removed again left out");
+
+        collection.removeCardCollection("Elf");
+        assertEquals(new CollectionEvent(Target.CARD, Kind.REMOVED, "Elf"), batches.get(1).get(0),
+                "outside a transaction");
+    }
+
+    @Test
+    public void restoreDeliversItsChangesAsOneBatch() {
+        CollectionModel collection = new CollectionModel();
+        List<List<CollectionEvent>> batches = new ArrayList<>();
+        collection.addCollectionListener(batches::add);
+
+        collection.beginRestore();
+        collection.setCardCollection(card("Goblin", "Rare", "Normal", 5, 1), "Goblin");
+        collection.setCardCollection(card("Elf", "Common", null, 1, 1), "Elf");
+        assertEquals(0, batches.size(), "held back while restoring");
+        collection.endRestore();
+
+        assertEquals(1, batches.size(), "one batch");
+        assertEquals(2, batches.get(0).size(), "both cards");
+        collection.getCardCollection().get("Goblin").setQuantity(3);
+        assertEquals(List.of(new CollectionEvent(Target.CARD, Kind.CHANGED, "Goblin")), batches.get(1),
+                "restored cards are followed afterwards");
+    }
+
+    private static CardModel card(String name, String rarity, String variant, double value, int quantity) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(rarity);
+        card.setVariant(variant);
+        card.setValue(value);
+        card.setQuantity(quantity);
+        return card;
+    }
 }
@@ -0,0 +1,97 @@
+package com.tradingcards.elements.collection;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.collectionUtils.CollectionSnapshot;
+
+/**
+ * Compares saving and loading a large collection with the binary snapshot
+ * format against a naive one-line-per-card text format.
+ */
+public class CollectionSnapshotBenchmark {
+
+    private static final String[] RARITIES = { "Common", "Uncommon", "Rare", "Legendary" };
+    private static final String[] VARIANTS = { "Normal", "Extended-art", "Full-art", "Alt-art" };
+
+    public static void main(String[] args) throws IOException {
+        int cardCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        CollectionModel collection = new CollectionModel();
+        for (int i = 0; i < cardCount; i++) {
+            CardModel card = new CardModel();
+            card.setName("Card " + i);
+            card.setRarity(RARITIES[i % RARITIES.length]);
+            card.setVariant(i % 2 == 0 ? VARIANTS[i % VARIANTS.length] : null);
+            card.setValue(i % 500 + 0.25);
+            card.setQuantity(1 + i % 4);
+            collection.setCardCollection(card, card.getName());
+        }
+
+        Path binary = Files.createTempFile("collection", ".snapshot");
+        Path text = Files.createTempFile("collection", ".txt");
+
+        // Warm up both paths once before measuring
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            CollectionSnapshot.save(collection, binary);
+            long binarySave = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            CollectionSnapshot.load(new CollectionModel(), binary);
+            long binaryLoad = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            saveText(collection, text);
+            long textSave = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            loadText(new CollectionModel(), text);
+            long textLoad = System.nanoTime() - start;
+
+            if (round == 1) {
+                System.out.println("Cards: " + cardCount);
+                System.out.printf("Binary: save %d ms, load %d ms, %d bytes%n",
+                        binarySave / 1_000_000, binaryLoad / 1_000_000, Files.size(binary));
+                System.out.printf("Text:   save %d ms, load %d ms, %d bytes%n",
+                        textSave / 1_000_000, textLoad / 1_000_000, Files.size(text));
+            }
+        }
+
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(text);
+    }
+
+    private static void saveText(CollectionModel collection, Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            for (Map.Entry<String, CardModel> entry : collection.getCardCollection().entrySet()) {
+                CardModel card = entry.getValue();
+                writer.write(card.getName() + "," + card.getRarity() + "," + card.getVariant() + ","
+                        + card.getValue() + "," + card.getQuantity() + "," + card.getImagePath());
+                writer.newLine();
+            }
+        }
+    }
+
+    private static void loadText(CollectionModel collection, Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                CardModel card = new CardModel();
+                card.setName(fields[0]);
+                card.setRarity(fields[1]);
+                card.setVariant(fields[2].equals("null") ? null : fields[2]);
+                card.setValue(Double.parseDouble(fields[3]));
+                card.setQuantity(Integer.parseInt(fields[4]));
+                card.setImagePath(fields[5].equals("null") ? null : fields[5]);
+                collection.setCardCollection(card, card.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.tradingcards.elements.collection;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertFalse;
+import static com.tradingcards.Assert.assertThrows;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.collectionUtils.CollectionSnapshot;
+import com.tradingcards.elements.deck.DeckModel;
+
+/**
+ * Tests that a {@link CollectionSnapshot} reads back what it wrote, and that
+ * it refuses files it cannot read with an {@link IOException}.
+ */
+public class CollectionSnapshotTest {
+
+    @Test
+    public void readsBackCardsBindersAndDecks() throws IOException {
+        CollectionModel collection = new CollectionModel();
+        collection.setMoney(12.5);
+        collection.setCardCollection(card("Goblin", "Rare", "Full-art", 5, 3), "Goblin");
+        collection.setCardCollection(card("Elf", "Common", null, 1, 0), "Elf");
+        BinderModel binder = BinderModel.ofType("Rares");
+        binder.setName("Shiny");
+        binder.insertInBinder(card("Dragon", "Legendary", "Alt-art", 40, 1), "Dragon");
+        collection.setBinderCollection(binder, "Shiny");
+        DeckModel deck = new DeckModel();
+        deck.setName("Green");
+        deck.addCardtoDeck(collection.getCardCollection().get("Elf"), "Elf");
+        collection.setDeckCollection(deck, "Green");
+
+        CollectionModel copy = roundTrip(collection);
+
+        assertEquals(12.5, copy.getMoney(), "money");
+        CardModel goblin = copy.getCardCollection().get("Goblin");
+        assertEquals("Rare", goblin.getRarity(), "rarity");
+        assertEquals("Full-art", goblin.getVariant(), "variant");
+        assertEquals(5.0, goblin.getValue(), "value");
+        assertEquals(3, goblin.getQuantity(), "quantity");
+        assertEquals(null, copy.getCardCollection().get("Elf").getVariant(), "no variant");
+
+        BinderModel shiny = copy.getBinderCollection().get("Shiny");
+        assertEquals("Rares", shiny.getType(), "binder type");
+        assertEquals("Alt-art", shiny.getBinder().get("Dragon").getVariant(), "binder card");
+
+        DeckModel green = copy.getDeckCollection().get("Green");
+        assertTrue(green.getDeck().get("Elf") == copy.getCardCollection().get("Elf"),
+                "deck shares the collection's card");
+    }
+
+    @Test
+    public void readsLabelsWrittenByOlderSnapshots() throws IOException {
+        CollectionModel copy = new CollectionModel();
+        CollectionSnapshot.read(copy, new ByteArrayInputStream(labelledCard("Rare", "Full-art")));
+
+        CardModel odd = copy.getCardCollection().get("Odd");
+        assertEquals("Rare", odd.getRarity(), "rarity written as a label");
+        assertEquals("Full-art", odd.getVariant(), "variant written as a label");
+    }
+
+    @Test
+    public void refusesLabelsThatAreNoLongerKnown() {
+        IOException e = assertThrows(IOException.class, () -> read(labelledCard("Mythic", "Normal")),
+                "unknown rarity");
+        assertEquals("Unknown rarity or variant in snapshot: Mythic", e.getMessage(), "message");
+    }
+
+    @Test
+    public void readsVersionOneSnapshots() throws IOException {
+        CollectionModel collection = new CollectionModel();
+        collection.setMoney(3);
+        collection.setCardCollection(card("Goblin", "Rare", "Normal", 5, 1), "Goblin");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CollectionSnapshot.write(collection, bytes, 42);
+
+        // Version 1 had no journal sequence number after the version
+        byte[] current = bytes.toByteArray();
+        ByteArrayOutputStream old = new ByteArrayOutputStream();
+        old.write(header(1));
+        old.write(current, 6 + Long.BYTES, current.length - 6 - Long.BYTES);
+
+        CollectionModel copy = new CollectionModel();
+        assertEquals(0, CollectionSnapshot.read(copy, new ByteArrayInputStream(old.toByteArray())),
+                "no journal sequence");
+        assertEquals(3.0, copy.getMoney(), "money");
+        assertEquals("Rare", copy.getCardCollection().get("Goblin").getRarity(), "card");
+    }
+
+    @Test
+    public void refusesOtherFiles() {
+        IOException e = assertThrows(IOException.class, () -> read(new byte[] { 1, 2, 3, 4, 0, 1 }),
+                "file of another kind");
+        assertEquals("Not a collection snapshot", e.getMessage(), "message");
+
+        e = assertThrows(IOException.class, () -> read(header(99)), "later version");
+        assertEquals("Unsupported snapshot version 99", e.getMessage(), "message");
+    }
+
+    @Test
+    public void refusesUnknownBinderTypes() throws IOException {
+        CollectionModel collection = new CollectionModel();
+        BinderModel binder = unregisteredBinder();
+        collection.setBinderCollection(binder, "Old");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CollectionSnapshot.write(collection, bytes, 0);
+
+        IOException e = assertThrows(IOException.class, () -> read(bytes.toByteArray()), "unknown binder type");
+        assertEquals("Unknown binder type in snapshot: Missing", e.getMessage(), "message");
+    }
+
+    @Test
+    public void savesAndLoadsFiles() throws IOException {
+        Path directory = Files.createTempDirectory("snapshot-test");
+        Path path = directory.resolve("collection.snapshot");
+        try {
+            CollectionModel empty = new CollectionModel();
+            assertEquals(-1, CollectionSnapshot.load(empty, path), "nothing loaded before the first save");
+
+            CollectionModel collection = new CollectionModel();
+            collection.setMoney(7);
+            collection.setCardCollection(card("Goblin", "Rare", "Normal", 5, 1), "Goblin");
+            CollectionSnapshot.save(collection, path, 3);
+            collection.setMoney(8);
+            CollectionSnapshot.save(collection, path, 4);
+
+            CollectionModel loaded = new CollectionModel();
+            assertEquals(4, CollectionSnapshot.load(loaded, path), "journal sequence of the latest save");
+            assertEquals(8.0, loaded.getMoney(), "latest save loaded");
+            assertTrue(loaded.getCardCollection().containsKey("Goblin"), "card loaded");
+            assertFalse(Files.exists(path.resolveSibling("collection.snapshot.tmp")), "temporary file moved");
+        } finally {
+            Files.deleteIfExists(path);
+            Files.delete(directory);
+        }
+    }
+
+    private static CollectionModel roundTrip(CollectionModel collection) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CollectionSnapshot.write(collection, bytes, 0);
+        CollectionModel copy = new CollectionModel();
+        CollectionSnapshot.read(copy, new ByteArrayInputStream(bytes.toByteArray()));
+        return copy;
+    }
+
+    /**
+     * Returns a binder whose type was registered when it was written but is
+     * not when it is read back.
+     */
+    private static BinderModel unregisteredBinder() {
+        return new BinderModel("Rares") {
+            @Override
+            public String getType() {
+                return "Missing";
+            }
+        };
+    }
+
+    private static void read(byte[] snapshot) throws IOException {
+        CollectionSnapshot.read(new CollectionModel(), new ByteArrayInputStream(snapshot));
+    }
+
+    /**
+     * Returns the magic number and a format version, as a snapshot starts.
+     */
+    private static byte[] header(int version) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x54434331);
+        out.writeShort(version);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns a snapshot holding one card whose rarity and variant are
+     * written as labels, as snapshots did before they became enums.
+     */
+    private static byte[] labelledCard(String rarity, String variant) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(header(2));
+        out.writeLong(0);
+        out.writeDouble(0);
+        out.writeInt(1);
+        out.writeUTF("Odd");
+        out.writeByte(127);
+        out.writeUTF(rarity);
+        out.writeByte(127);
+        out.writeUTF(variant);
+        out.writeDouble(1);
+        out.writeInt(1);
+        out.writeBoolean(false);
+        out.writeInt(0);
+        out.writeInt(0);
+        return bytes.toByteArray();
+    }
+
+    private static CardModel card(String name, String rarity, String variant, double value, int quantity) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(rarity);
+        card.setVariant(variant);
+        card.setValue(value);
+        card.setQuantity(quantity);
+        return card;
+    }
+}
@@ -0,0 +1,115 @@
+package com.tradingcards.elements.collection;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertFalse;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.collectionUtils.CollectionStore;
+
+/**
+ * Tests that a {@link CollectionStore} brings back the changes made while it
+ * was open.
+ */
+public class CollectionStoreTest {
+
+    @Test
+    public void reopensWithEveryChange() throws IOException {
+        Path directory = Files.createTempDirectory("store-test");
+        try {
+            CollectionModel collection = new CollectionModel();
+            CollectionStore store = new CollectionStore(directory);
+            store.open(collection);
+            collection.setMoney(4);
+            collection.setCardCollection(card("Goblin"), "Goblin");
+            collection.setCardCollection(card("Elf"), "Elf");
+            collection.getCardCollection().get("Goblin").setQuantity(3);
+            collection.cardChanged("Goblin");
+            collection.removeCardCollection("Elf");
+            store.close();
+
+            CollectionModel reopened = new CollectionModel();
+            CollectionStore again = new CollectionStore(directory);
+            again.open(reopened);
+            assertEquals(4.0, reopened.getMoney(), "money");
+            assertEquals(3, reopened.getCardCollection().get("Goblin").getQuantity(), "changed card");
+            assertFalse(reopened.getCardCollection().containsKey("Elf"), "removed card");
+            again.close();
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void journalsTransactionsAndInPlaceChanges() throws IOException {
+        Path directory = Files.createTempDirectory("store-test");
+        try {
+            CollectionModel collection = new CollectionModel();
+            CollectionStore store = new CollectionStore(directory);
+            store.open(collection);
+            collection.beginTransaction();
+            collection.setCardCollection(card("Goblin"), "Goblin");
+            collection.setMoney(7);
+            collection.endTransaction();
+            collection.getCardCollection().get("Goblin").setQuantity(5);
+            store.close();
+
+            CollectionModel reopened = new CollectionModel();
+            CollectionStore again = new CollectionStore(directory);
+            again.open(reopened);
+            assertEquals(7.0, reopened.getMoney(), "money from the transaction");
+            assertEquals(5, reopened.getCardCollection().get("Goblin").getQuantity(), "in-place change");
+            again.close();
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void compactsLongJournals() throws IOException {
+        Path directory = Files.createTempDirectory("store-test");
+        try {
+            CollectionModel collection = new CollectionModel();
+            CollectionStore store = new CollectionStore(directory, 10);
+            store.open(collection);
+            for (int i = 0; i < 100; i++) {
+                collection.setCardCollection(card("Card " + i), "Card " + i);
+            }
+            store.close();
+
+            assertTrue(Files.exists(directory.resolve("collection.snapshot")), "snapshot written");
+            CollectionModel reopened = new CollectionModel();
+            CollectionStore again = new CollectionStore(directory, 10);
+            again.open(reopened);
+            assertEquals(100, reopened.getCardCollection().size(), "cards");
+            again.close();
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static CardModel card(String name) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity("Common");
+        card.setVariant("Normal");
+        card.setValue(1);
+        card.setQuantity(1);
+        return card;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
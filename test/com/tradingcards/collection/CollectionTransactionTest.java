@@ -0,0 +1,118 @@
+package com.tradingcards.elements.collection;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertFalse;
+import static com.tradingcards.Assert.assertThrows;
+import static com.tradingcards.Assert.assertTrue;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+
+/**
+ * Tests that a {@link CollectionTransaction} makes all of its changes or
+ * none: a change that cannot be made undoes those before it, a change made
+ * to the collection after a read refuses the whole transaction, and a
+ * transaction cannot be committed twice.
+ */
+public class CollectionTransactionTest {
+
+    /** 100 money, three Goblins worth 5, one Elf and an empty Rares binder. */
+    private final CollectionModel collection = new CollectionModel(Runnable::run);
+
+    public CollectionTransactionTest() {
+        collection.setMoney(100);
+        CardModel goblin = card("Goblin", "Rare", 5);
+        goblin.setQuantity(3);
+        collection.setCardCollection(goblin, "Goblin");
+        collection.setCardCollection(card("Elf", "Common", 1), "Elf");
+        BinderModel binder = BinderModel.ofType("Rares");
+        binder.setName("Rares");
+        collection.setBinderCollection(binder, "Rares");
+    }
+
+    @Test
+    public void undoesEveryChangeWhenOneFails() {
+        CollectionTransaction transaction = new CollectionTransaction(collection);
+        transaction.addMoney(10);
+        transaction.changeQuantity("Goblin", -1);
+        transaction.addToBinder("Rares", transaction.card("Goblin"));
+        transaction.addCard(card("Dragon", "Legendary", 9));
+        // A Common card is not admitted to a Rares binder, so the binder change fails
+        transaction.addToBinder("Rares", transaction.card("Elf"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, transaction::commit, "failure reported");
+        assertTrue(e.getMessage().startsWith("Incompatible binder and card types"), "reason");
+        assertEquals(100.0, collection.getMoney(), 1e-9, "money restored");
+        assertEquals(3, collection.getCardCollection().get("Goblin").getQuantity(), "quantity restored");
+        assertFalse(collection.getCardCollection().containsKey("Dragon"), "added card removed");
+        assertTrue(collection.getBinderCollection().get("Rares").getBinder().isEmpty(), "binder emptied");
+    }
+
+    @Test
+    public void refusesWhenAReadElementChanged() {
+        CollectionTransaction transaction = new CollectionTransaction(collection);
+        CardModel goblin = transaction.card("Goblin");
+        transaction.changeQuantity("Goblin", -goblin.getQuantity());
+        transaction.addMoney(goblin.getValue() * goblin.getQuantity());
+
+        // A copy is sold between the read and the commit
+        goblin.setQuantity(2);
+
+        assertFalse(transaction.commit(), "commit refused");
+        assertEquals(100.0, collection.getMoney(), 1e-9, "money untouched");
+        assertEquals(2, goblin.getQuantity(), "quantity untouched");
+
+        CollectionTransaction again = new CollectionTransaction(collection);
+        CardModel current = again.card("Goblin");
+        again.changeQuantity("Goblin", -current.getQuantity());
+        again.addMoney(current.getValue() * current.getQuantity());
+        assertTrue(again.commit(), "a new transaction goes through");
+        assertEquals(110.0, collection.getMoney(), 1e-9, "paid for the two copies left");
+    }
+
+    @Test
+    public void refusesWhenARemovedCardComesAndGoes() {
+        CollectionTransaction transaction = new CollectionTransaction(collection);
+        assertTrue(transaction.card("Dragon") == null, "no Dragon yet");
+        transaction.addCard(card("Dragon", "Legendary", 9));
+
+        collection.setCardCollection(card("Dragon", "Legendary", 9), "Dragon");
+        collection.removeCardCollection("Dragon");
+
+        assertFalse(transaction.commit(), "commit refused");
+        assertFalse(collection.getCardCollection().containsKey("Dragon"), "card not added");
+    }
+
+    @Test
+    public void refusesWhenARestoreEndedAfterTheRead() {
+        CollectionTransaction transaction = new CollectionTransaction(collection);
+        transaction.addMoney(transaction.money());
+
+        collection.beginRestore();
+        collection.setMoney(50);
+        collection.endRestore();
+
+        assertFalse(transaction.commit(), "commit refused");
+        assertEquals(50.0, collection.getMoney(), 1e-9, "restored money kept");
+    }
+
+    @Test
+    public void commitsOnlyOnce() {
+        CollectionTransaction transaction = new CollectionTransaction(collection);
+        transaction.addMoney(1);
+        assertTrue(transaction.commit(), "first commit made");
+        assertThrows(IllegalStateException.class, transaction::commit, "second commit refused");
+        assertEquals(101.0, collection.getMoney(), 1e-9, "money added once");
+    }
+
+    private static CardModel card(String name, String rarity, double value) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(rarity);
+        card.setVariant("Normal");
+        card.setValue(value);
+        card.setQuantity(1);
+        return card;
+    }
+}
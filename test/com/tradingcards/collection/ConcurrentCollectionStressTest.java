@@ -0,0 +1,234 @@
+package com.tradingcards.elements.collection;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.service.ServiceResult;
+
+/**
+ * Has many threads add, sell, move and trade cards in a
+ * {@link ConcurrentCollection} at once, then checks that no copy was lost or
+ * made up along the way, no quantity went below zero, every binder still
+ * holds at most 20 cards it accepts, and the money matches the cards sold.
+ * The result is then written back into a {@link CollectionModel} and checked
+ * again there.
+ * <p>
+ * Card values are whole numbers so the money can be compared exactly.
+ * Arguments: [threads] [operations per thread].
+ */
+public class ConcurrentCollectionStressTest {
+
+    private static final String[] RARITIES = { "Common", "Uncommon", "Rare", "Legendary" };
+    private static final String[] VARIANTS = { "Normal", "Extended-art", "Full-art", "Alt-art" };
+    private static final String[] BINDER_TYPES = { "Non-Curated", "Pauper", "Rares", "Luxury", "Collector" };
+
+    private static final int CARDS = 200;
+    private static final int NEW_CARDS = 100;
+    private static final int BINDERS = 20;
+    private static final int INITIAL_QUANTITY = 50;
+    private static final double INITIAL_MONEY = 1000;
+
+    /** Copies added minus copies that left, by card name. */
+    private static final Map<String, LongAdder> delta = new ConcurrentHashMap<>();
+
+    /** Value of every card sold, in whole units. */
+    private static final LongAdder soldValue = new LongAdder();
+
+    private static final LongAdder succeeded = new LongAdder();
+
+    public static void main(String[] args) throws InterruptedException {
+        int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        CollectionModel collection = new CollectionModel();
+        collection.setMoney(INITIAL_MONEY);
+        for (int i = 0; i < CARDS; i++) {
+            CardModel card = card("Card " + i, i);
+            card.setQuantity(INITIAL_QUANTITY);
+            collection.setCardCollection(card, card.getName());
+        }
+        for (int i = 0; i < BINDERS; i++) {
+            BinderModel binder = BinderModel.ofType(BINDER_TYPES[i % BINDER_TYPES.length]);
+            binder.setName("Binder " + i);
+            collection.setBinderCollection(binder, binder.getName());
+        }
+        Map<String, Integer> initial = new HashMap<>();
+        for (CardModel card : collection.getCardCollection().values()) {
+            initial.put(card.getName(), card.getQuantity());
+        }
+
+        ConcurrentCollection concurrent = ConcurrentCollection.of(collection);
+
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < operations; i++) {
+                    operate(concurrent);
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long total = (long) threadCount * operations;
+        System.out.printf("Threads: %d, operations: %d (%d succeeded)%n", threadCount, total, succeeded.sum());
+        System.out.printf("Time: %d ms, %.0f operations/s%n", elapsed / 1_000_000, total / (elapsed / 1e9));
+
+        concurrent.writeTo(collection);
+        int failures = check(collection, initial);
+        if (Math.abs(concurrent.getTotalValue() - totalValue(collection)) > 1e-6) {
+            System.out.println("Total value differs after writing back");
+            failures++;
+        }
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " invariant violations");
+            System.exit(1);
+        }
+        System.out.println("All invariants hold");
+    }
+
+    /**
+     * Carries out one random operation and records what it changed.
+     */
+    private static void operate(ConcurrentCollection concurrent) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String cardName = "Card " + random.nextInt(CARDS);
+        String binderName = "Binder " + random.nextInt(BINDERS);
+        ServiceResult result;
+
+        switch (random.nextInt(5)) {
+            case 0 -> {
+                result = concurrent.addCard(card(cardName, index(cardName)));
+                if (result.succeeded()) {
+                    record(cardName, 1);
+                }
+            }
+            case 1 -> {
+                result = concurrent.sellCard(cardName);
+                if (result.succeeded()) {
+                    record(cardName, -1);
+                    soldValue.add((long) card(cardName, index(cardName)).getValue());
+                }
+            }
+            case 2 -> result = concurrent.addToBinder(binderName, cardName);
+            case 3 -> result = concurrent.removeFromBinder(binderName, cardName);
+            default -> {
+                // Trade a card out of the binder for an existing card or a new one
+                int incomingIndex = random.nextInt(CARDS + NEW_CARDS);
+                String incomingName = incomingIndex < CARDS ? "Card " + incomingIndex : "New " + incomingIndex;
+                result = concurrent.trade(binderName, cardName, card(incomingName, incomingIndex), true);
+                if (result.succeeded()) {
+                    record(cardName, -1);
+                    record(incomingName, 1);
+                }
+            }
+        }
+        if (result.succeeded()) {
+            succeeded.increment();
+        }
+    }
+
+    /**
+     * Checks the invariants on the collection written back from the
+     * concurrent copy and prints any violations.
+     *
+     * @return the number of violations
+     */
+    private static int check(CollectionModel collection, Map<String, Integer> initial) {
+        int failures = 0;
+        Map<String, Long> held = new HashMap<>();
+
+        for (CardModel card : collection.getCardCollection().values()) {
+            if (card.getQuantity() < 0) {
+                System.out.println("Negative quantity: " + card.getName() + " " + card.getQuantity());
+                failures++;
+            }
+            held.merge(card.getName(), (long) card.getQuantity(), Long::sum);
+        }
+        for (BinderModel binder : collection.getBinderCollection().values()) {
+            if (binder.getBinder().size() > 20) {
+                System.out.println("Over capacity: " + binder.getName() + " " + binder.getBinder().size());
+                failures++;
+            }
+            for (CardModel card : binder.getBinder().values()) {
+                if (card.getQuantity() <= 0) {
+                    System.out.println("Empty card in binder: " + binder.getName() + " " + card.getName());
+                    failures++;
+                }
+                if (!binder.accepts(card)) {
+                    System.out.println("Not accepted by binder: " + binder.getName() + " " + card.getName());
+                    failures++;
+                }
+                held.merge(card.getName(), (long) card.getQuantity(), Long::sum);
+            }
+        }
+
+        for (Map.Entry<String, Long> entry : held.entrySet()) {
+            String name = entry.getKey();
+            LongAdder change = delta.get(name);
+            long expected = initial.getOrDefault(name, 0) + (change == null ? 0 : change.sum());
+            if (entry.getValue() != expected) {
+                System.out.println("Copies of " + name + ": " + entry.getValue() + ", expected " + expected);
+                failures++;
+            }
+        }
+
+        double expectedMoney = INITIAL_MONEY + soldValue.sum();
+        if (collection.getMoney() != expectedMoney) {
+            System.out.println("Money: " + collection.getMoney() + ", expected " + expectedMoney);
+            failures++;
+        }
+        long aggregated = collection.getAggregates().getTotalQuantity();
+        long counted = 0;
+        for (CardModel card : collection.getCardCollection().values()) {
+            counted += card.getQuantity();
+        }
+        if (aggregated != counted) {
+            System.out.println("Collection totals: " + aggregated + ", counted " + counted);
+            failures++;
+        }
+        return failures;
+    }
+
+    private static double totalValue(CollectionModel collection) {
+        double total = collection.getAggregates().getTotalValue();
+        for (BinderModel binder : collection.getBinderCollection().values()) {
+            total += binder.getAggregates().getTotalValue();
+        }
+        return total;
+    }
+
+    private static void record(String name, int copies) {
+        delta.computeIfAbsent(name, key -> new LongAdder()).add(copies);
+    }
+
+    private static int index(String name) {
+        return Integer.parseInt(name.substring(name.indexOf(' ') + 1));
+    }
+
+    /**
+     * Creates the card with the given index, with a single copy. The same
+     * index always gives the same details.
+     */
+    private static CardModel card(String name, int index) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(RARITIES[index % RARITIES.length]);
+        card.setVariant(VARIANTS[index / RARITIES.length % VARIANTS.length]);
+        card.setValue(1 + index % 40);
+        card.setQuantity(1);
+        return card;
+    }
+}
@@ -0,0 +1,193 @@
+package com.tradingcards.elements.collection;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertFalse;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.service.ServiceResult;
+
+/**
+ * Tests that the operations of a {@link ConcurrentCollection} follow the
+ * rules of the service, leave the collection alone until written back, and
+ * that writing back applies only what changed in the copy.
+ * {@link ConcurrentCollectionStressTest} checks them under contention.
+ */
+public class ConcurrentCollectionTest {
+
+    /** 100 money, three Goblins worth 5, one Elf worth 1 and an empty Rares binder. */
+    private final CollectionModel collection = new CollectionModel(Runnable::run);
+
+    public ConcurrentCollectionTest() {
+        collection.setMoney(100);
+        collection.setCardCollection(card("Goblin", "Rare", 5, 3), "Goblin");
+        collection.setCardCollection(card("Elf", "Common", 1, 1), "Elf");
+        BinderModel binder = BinderModel.ofType("Rares");
+        binder.setName("Rares");
+        collection.setBinderCollection(binder, "Rares");
+    }
+
+    @Test
+    public void addsAndSellsCards() {
+        ConcurrentCollection cards = ConcurrentCollection.of(collection);
+        assertTrue(cards.addCard(card("Goblin", "Rare", 5, 2)).succeeded(), "copies merged");
+        ServiceResult result = cards.addCard(card("Goblin", "Rare", 6, 1));
+        assertFalse(result.succeeded(), "different details refused");
+        assertEquals("Card of the same name with different details already exists: Goblin", result.message(),
+                "refusal");
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cards.sellCard("Goblin").succeeded(), "copy " + i + " sold");
+        }
+        assertEquals("Collection currently has zero copies of Goblin", cards.sellCard("Goblin").message(),
+                "no copy left to sell");
+        assertEquals(125.0, cards.getMoney(), 1e-9, "money for five copies");
+        assertFalse(cards.sellCard("Missing").succeeded(), "unknown card refused");
+    }
+
+    @Test
+    public void movesCardsIntoAndOutOfBinders() {
+        ConcurrentCollection cards = ConcurrentCollection.of(collection);
+        assertEquals("Incompatible binder and card types: Rares, Elf", cards.addToBinder("Rares", "Elf").message(),
+                "Common refused");
+        assertTrue(cards.addToBinder("Rares", "Goblin").succeeded(), "first copy moved");
+        assertTrue(cards.addToBinder("Rares", "Goblin").succeeded(), "second copy moved");
+        assertEquals(16.0, cards.getTotalValue(), 1e-9, "value kept while moving");
+
+        cards.writeTo(collection);
+        assertEquals(1, collection.getCardCollection().get("Goblin").getQuantity(), "one copy left");
+        assertEquals(2, collection.getBinderCollection().get("Rares").getBinder().get("Goblin").getQuantity(),
+                "two copies in the binder");
+
+        assertTrue(cards.removeFromBinder("Rares", "Goblin").succeeded(), "copy moved back");
+        assertTrue(cards.removeFromBinder("Rares", "Goblin").succeeded(), "last copy moved back");
+        assertEquals("No Card with given name exists in Binder: Goblin",
+                cards.removeFromBinder("Rares", "Goblin").message(), "binder emptied");
+        assertFalse(cards.addToBinder("Missing", "Goblin").succeeded(), "unknown binder refused");
+
+        cards.writeTo(collection);
+        assertTrue(collection.getBinderCollection().get("Rares").getBinder().isEmpty(), "binder emptied in place");
+        assertEquals(3, collection.getCardCollection().get("Goblin").getQuantity(), "copies back");
+    }
+
+    @Test
+    public void tradesCardsOutOfBinders() {
+        ConcurrentCollection cards = ConcurrentCollection.of(collection);
+        cards.addToBinder("Rares", "Goblin");
+
+        assertEquals("Trade declined: values differ by 4",
+                cards.trade("Rares", "Goblin", card("Dragon", "Legendary", 9, 1), false).message(),
+                "difference declined");
+        assertEquals("Type/Variant mismatch", cards.trade("Rares", "Goblin", card("Troll", "Common", 5, 1), true)
+                .message(), "Common refused");
+        assertTrue(cards.trade("Rares", "Goblin", card("Dragon", "Legendary", 9, 1), true).succeeded(),
+                "difference accepted");
+        assertTrue(collection.getBinderCollection().get("Rares").getBinder().isEmpty(),
+                "collection left alone until written back");
+
+        cards.writeTo(collection);
+        BinderModel binder = collection.getBinderCollection().get("Rares");
+        assertEquals(List.of("Dragon"), List.copyOf(binder.getBinder().keySet()), "binder holds the incoming card");
+        assertEquals(1, binder.getBinder().get("Dragon").getQuantity(), "one copy traded in");
+        assertEquals(0, collection.getCardCollection().get("Dragon").getQuantity(), "incoming card recorded");
+        assertEquals(2, collection.getCardCollection().get("Goblin").getQuantity(), "outgoing copy gone");
+    }
+
+    @Test
+    public void writesBackInPlace() {
+        CardModel goblin = collection.getCardCollection().get("Goblin");
+        ConcurrentCollection cards = ConcurrentCollection.of(collection);
+        cards.sellCard("Goblin");
+        assertEquals(3, goblin.getQuantity(), "collection unchanged before the write-back");
+
+        ConcurrentCollection.WriteBack written = cards.writeTo(collection);
+        assertTrue(collection.getCardCollection().get("Goblin") == goblin, "card updated in place");
+        assertEquals(2, goblin.getQuantity(), "quantity written back");
+        assertEquals(105.0, collection.getMoney(), 1e-9, "money written back");
+        assertEquals(1, written.changed(), "one card changed");
+
+        written = cards.writeTo(collection);
+        assertEquals(0, written.changed(), "nothing changed since");
+        assertEquals(2, goblin.getQuantity(), "a second write-back adds nothing");
+        assertEquals(105.0, collection.getMoney(), 1e-9, "money written once");
+    }
+
+    @Test
+    public void keepsChangesMadeToTheCollectionMeanwhile() {
+        ConcurrentCollection cards = ConcurrentCollection.of(collection);
+        cards.sellCard("Goblin");
+        cards.addCard(card("Knight", "Rare", 10, 1));
+
+        // The owning thread goes on changing the collection
+        collection.getCardCollection().get("Goblin").setQuantity(4);
+        collection.setMoney(collection.getMoney() + 20);
+        collection.getCardCollection().get("Elf").setQuantity(0);
+
+        ConcurrentCollection.WriteBack written = cards.writeTo(collection);
+        assertEquals(3, collection.getCardCollection().get("Goblin").getQuantity(), "both changes kept");
+        assertEquals(125.0, collection.getMoney(), 1e-9, "both payments kept");
+        assertEquals(0, collection.getCardCollection().get("Elf").getQuantity(), "untouched card left alone");
+        assertEquals(1, written.added(), "new card added");
+        assertTrue(written.conflicts().isEmpty(), "no conflicts");
+    }
+
+    @Test
+    public void reportsChangesThatNoLongerFit() {
+        ConcurrentCollection cards = ConcurrentCollection.of(collection);
+        cards.sellCard("Elf");
+        cards.addCard(card("Knight", "Rare", 10, 1));
+        collection.getCardCollection().get("Elf").setQuantity(0);
+        collection.setCardCollection(card("Knight", "Rare", 12, 1), "Knight");
+
+        ConcurrentCollection.WriteBack written = cards.writeTo(collection);
+        assertEquals(List.of("Card of the same name with different details already exists: Knight",
+                "Collection currently has zero copies of Elf"),
+                written.conflicts().stream().sorted().toList(), "conflicts");
+        assertEquals(0, collection.getCardCollection().get("Elf").getQuantity(), "sale skipped");
+        assertEquals(12.0, collection.getCardCollection().get("Knight").getValue(), 1e-9, "card kept");
+    }
+
+    @Test
+    public void writesAConsistentCopyWhileOtherThreadsWork() throws InterruptedException {
+        collection.getCardCollection().get("Goblin").setQuantity(20_000);
+        ConcurrentCollection cards = ConcurrentCollection.of(collection);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread[] sellers = new Thread[4];
+        for (int t = 0; t < sellers.length; t++) {
+            sellers[t] = new Thread(() -> {
+                while (!done.get() && cards.sellCard("Goblin").succeeded()) {
+                    // Keep selling until told to stop or nothing is left
+                }
+            });
+            sellers[t].start();
+        }
+
+        for (int i = 0; i < 50; i++) {
+            cards.writeTo(collection);
+            int sold = 20_000 - collection.getCardCollection().get("Goblin").getQuantity();
+            assertEquals(100 + 5.0 * sold, collection.getMoney(), 1e-6, "money matches the copies sold, round " + i);
+        }
+        done.set(true);
+        for (Thread seller : sellers) {
+            seller.join();
+        }
+
+        cards.writeTo(collection);
+        assertEquals(cards.getMoney(), collection.getMoney(), 1e-6, "every sale written back");
+    }
+
+    private static CardModel card(String name, String rarity, double value, int quantity) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(rarity);
+        card.setVariant("Normal");
+        card.setValue(value);
+        card.setQuantity(quantity);
+        return card;
+    }
+}
@@ -0,0 +1,125 @@
+package com.tradingcards.elements.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.CollectionModel;
+
+/**
+ * Measures a batch of trades made with
+ * {@link CollectionService#trade(List, boolean)} against making the same
+ * trades one at a time, and checks that both leave the binders the same.
+ * <p>
+ * Every binder starts full, and each trade swaps one of its cards for a new
+ * one. One trade in fifty offers a Common card to a Rares binder and is
+ * rejected. Arguments: [trades] [binders].
+ */
+public class BatchTradeBenchmark {
+
+    public static void main(String[] args) {
+        int tradeCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int binderCount = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        List<TradeRequest> trades = trades(tradeCount, binderCount);
+
+        // Warm up both paths once before measuring
+        for (int round = 0; round < 2; round++) {
+            CollectionModel batched = collection(binderCount);
+            TradeReport report = new CollectionService(batched).trade(trades, false);
+
+            CollectionModel single = collection(binderCount);
+            CollectionService service = new CollectionService(single);
+            int made = 0;
+            long start = System.nanoTime();
+            for (TradeRequest trade : trades) {
+                if (service.trade(trade.binder(), trade.outgoing(), trade.incoming(), false).succeeded()) {
+                    made++;
+                }
+            }
+            long singleNanos = System.nanoTime() - start;
+
+            if (round == 1) {
+                System.out.println("Trades: " + tradeCount + " over " + binderCount + " binders");
+                System.out.printf("Batch:  %d made, %d rejected, %d ms, %.0f trades/s%n", report.executed(),
+                        report.rejections().size(), report.nanos() / 1_000_000, report.tradesPerSecond());
+                System.out.printf("Single: %d made, %d ms, %.0f trades/s%n", made, singleNanos / 1_000_000,
+                        tradeCount / (singleNanos / 1e9));
+                if (!report.rejections().isEmpty()) {
+                    TradeReport.Rejection first = report.rejections().get(0);
+                    System.out.println("First rejection: #" + first.index() + " " + first.reason());
+                }
+                System.out.println(sameBinders(batched, single) ? "Binders match" : "BINDERS DIFFER");
+            }
+        }
+    }
+
+    /**
+     * Creates a collection whose binders are full, alternately Non-Curated
+     * and Rares.
+     */
+    private static CollectionModel collection(int binderCount) {
+        CollectionModel collection = new CollectionModel();
+        for (int b = 0; b < binderCount; b++) {
+            BinderModel binder = BinderModel.ofType(b % 2 == 0 ? "Non-Curated" : "Rares");
+            binder.setName("Binder " + b);
+            for (int s = 0; s < CollectionService.BINDER_CAPACITY; s++) {
+                CardModel card = card("Card " + b + "-" + s, "Rare", s);
+                CardModel record = card.copy();
+                record.setQuantity(0);
+                collection.setCardCollection(record, record.getName());
+                binder.insertInBinder(card, card.getName());
+            }
+            collection.setBinderCollection(binder, binder.getName());
+        }
+        return collection;
+    }
+
+    /**
+     * Creates trades that each swap one card of a binder for a new card of
+     * the same value, following the binders' contents as they change.
+     */
+    private static List<TradeRequest> trades(int tradeCount, int binderCount) {
+        int capacity = CollectionService.BINDER_CAPACITY;
+        String[][] contents = new String[binderCount][capacity];
+        for (int b = 0; b < binderCount; b++) {
+            for (int s = 0; s < capacity; s++) {
+                contents[b][s] = "Card " + b + "-" + s;
+            }
+        }
+
+        List<TradeRequest> trades = new ArrayList<>(tradeCount);
+        for (int k = 0; k < tradeCount; k++) {
+            int b = k % binderCount;
+            int s = k / binderCount % capacity;
+            boolean rejected = k % 50 == 49 && b % 2 == 1;
+            CardModel incoming = card("Trade " + k, rejected ? "Common" : "Rare", s);
+            trades.add(new TradeRequest("Binder " + b, contents[b][s], incoming));
+            if (!rejected) {
+                contents[b][s] = incoming.getName();
+            }
+        }
+        return trades;
+    }
+
+    private static CardModel card(String name, String rarity, int slot) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(rarity);
+        card.setVariant("Normal");
+        card.setValue(1 + slot);
+        card.setQuantity(1);
+        return card;
+    }
+
+    private static boolean sameBinders(CollectionModel first, CollectionModel second) {
+        for (BinderModel binder : first.getBinderCollection().values()) {
+            BinderModel other = second.getBinderCollection().get(binder.getName());
+            if (other == null || !binder.getBinder().keySet().equals(other.getBinder().keySet())) {
+                return false;
+            }
+        }
+        return first.getCardCollection().keySet().equals(second.getCardCollection().keySet());
+    }
+}
@@ -0,0 +1,120 @@
+package com.tradingcards.elements.service;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertFalse;
+import static com.tradingcards.Assert.assertTrue;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.CollectionModel;
+
+/**
+ * Tests that {@link CollectionService} carries out collection operations and
+ * leaves the collection untouched when it refuses one.
+ */
+public class CollectionServiceTest {
+
+    private final CollectionModel collection = new CollectionModel();
+    private final CollectionService service = new CollectionService(collection);
+
+    public CollectionServiceTest() {
+        collection.setMoney(100);
+        collection.setCardCollection(card("Goblin", "Common", 5, 3), "Goblin");
+        collection.setCardCollection(card("Dragon", "Rare", 40, 1), "Dragon");
+    }
+
+    @Test
+    public void sellsCopiesUntilNoneAreLeft() {
+        assertTrue(service.sellCard("Dragon").succeeded(), "sold");
+        assertEquals(140.0, collection.getMoney(), "paid");
+
+        ServiceResult result = service.sellCard("Dragon");
+        assertFalse(result.succeeded(), "none left");
+        assertEquals("Collection currently has zero copies of Dragon", result.message(), "reason");
+        assertEquals(140.0, collection.getMoney(), "not paid again");
+    }
+
+    @Test
+    public void movesCopiesBetweenCollectionAndBinder() {
+        assertTrue(service.createBinder("Shiny", "Rares").succeeded(), "binder created");
+
+        ServiceResult refused = service.addToBinder("Shiny", "Goblin");
+        assertFalse(refused.succeeded(), "common card refused");
+        assertEquals(3, collection.getCardCollection().get("Goblin").getQuantity(), "refused copy stays");
+
+        assertTrue(service.addToBinder("Shiny", "Dragon").succeeded(), "rare card moved");
+        assertEquals(0, collection.getCardCollection().get("Dragon").getQuantity(), "copy left the collection");
+        assertTrue(service.removeFromBinder("Shiny", "Dragon").succeeded(), "moved back");
+        assertEquals(1, collection.getCardCollection().get("Dragon").getQuantity(), "copy returned");
+        assertTrue(collection.getBinderCollection().get("Shiny").getBinder().isEmpty(), "binder empty again");
+    }
+
+    @Test
+    public void tradesOnlyWhenAccepted() {
+        service.createBinder("Shiny", "Rares");
+        service.addToBinder("Shiny", "Dragon");
+        CardModel offer = card("Wyvern", "Rare", 60, 1);
+
+        ServiceResult declined = service.trade("Shiny", "Dragon", offer, false);
+        assertFalse(declined.succeeded(), "values differ by 20");
+        assertFalse(collection.getCardCollection().containsKey("Wyvern"), "nothing recorded before acceptance");
+
+        assertTrue(service.trade("Shiny", "Dragon", offer, true).succeeded(), "accepted");
+        assertTrue(collection.getBinderCollection().get("Shiny").getBinder().containsKey("Wyvern"), "in binder");
+        assertFalse(collection.getBinderCollection().get("Shiny").getBinder().containsKey("Dragon"), "out of binder");
+        assertEquals(0, collection.getCardCollection().get("Wyvern").getQuantity(), "recorded without copies");
+    }
+
+    @Test
+    public void refusesToSellEmptyBinders() {
+        service.createBinder("Shiny", "Rares");
+
+        ServiceResult result = service.sellBinder("Shiny", null);
+        assertFalse(result.succeeded(), "refused");
+        assertTrue(collection.getBinderCollection().containsKey("Shiny"), "binder kept");
+        assertEquals(100.0, collection.getMoney(), "not paid");
+    }
+
+    @Test
+    public void refusesOperationsTheCollectionChangedUnder() {
+        ServiceResult result = service.transact(transaction -> {
+            CardModel goblin = transaction.card("Goblin");
+            // The collection changes between the read and the commit
+            goblin.setQuantity(goblin.getQuantity() - 1);
+            collection.cardChanged("Goblin");
+            transaction.changeQuantity("Goblin", -3);
+            transaction.addMoney(15);
+            return ServiceResult.success("Sold");
+        });
+
+        assertFalse(result.succeeded(), "refused");
+        assertEquals("The collection changed, please try again", result.message(), "reason");
+        assertEquals(2, collection.getCardCollection().get("Goblin").getQuantity(), "only the outside change made");
+        assertEquals(100.0, collection.getMoney(), "not paid");
+    }
+
+    @Test
+    public void reportsChangesThatCannotBeMade() {
+        ServiceResult result = service.transact(transaction -> {
+            transaction.addMoney(50);
+            transaction.changeQuantity("Goblin", -4);
+            return ServiceResult.success("Sold");
+        });
+
+        assertFalse(result.succeeded(), "refused");
+        assertEquals("Collection currently has zero copies of Goblin", result.message(), "reason");
+        assertEquals(100.0, collection.getMoney(), "money restored");
+        assertEquals("Nothing to do", service.transact(transaction -> ServiceResult.failure("Nothing to do")).message(),
+                "own failure kept");
+    }
+
+    private static CardModel card(String name, String rarity, double value, int quantity) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(rarity);
+        card.setVariant("Normal");
+        card.setValue(value);
+        card.setQuantity(quantity);
+        return card;
+    }
+}
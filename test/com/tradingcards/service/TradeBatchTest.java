@@ -0,0 +1,134 @@
+package com.tradingcards.elements.service;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertFalse;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.util.List;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.CollectionModel;
+import com.tradingcards.elements.collection.CollectionTransaction;
+
+/**
+ * Tests the rules a {@link TradeBatch} applies to each trade against the
+ * binder as the earlier trades of the batch leave it: a full binder, an
+ * incoming card the binder already holds, values that differ by 1 or more,
+ * and cards the binder does not admit.
+ */
+public class TradeBatchTest {
+
+    private static final String DUPLICATE = "Trade failed: Incoming card already exists in the binder.";
+
+    /** A full Rares binder "Shiny" holding A, B and fillers, each worth 5 and recorded with no copies. */
+    private final CollectionModel collection = new CollectionModel(Runnable::run);
+
+    public TradeBatchTest() {
+        BinderModel binder = BinderModel.ofType("Rares");
+        binder.setName("Shiny");
+        for (int i = 0; i < CollectionService.BINDER_CAPACITY; i++) {
+            String name = i == 0 ? "A" : i == 1 ? "B" : "Filler " + i;
+            CardModel card = card(name, "Rare", 5);
+            CardModel record = card.copy();
+            record.setQuantity(0);
+            collection.setCardCollection(record, name);
+            binder.insertInBinder(card, name);
+        }
+        collection.setBinderCollection(binder, "Shiny");
+    }
+
+    @Test
+    public void refusesTradesIntoAFullBinder() {
+        // Two copies of A, so trading one away leaves A in the full binder
+        collection.getBinderCollection().get("Shiny").getBinder().get("A").setQuantity(2);
+        TradeBatch batch = new TradeBatch(new CollectionTransaction(collection), false);
+
+        assertEquals("Trade failed: Binder is full.", batch.add(trade("A", "C", "Rare", 5)),
+                "full binder refused while a copy stays");
+        assertEquals(null, batch.add(trade("B", "C", "Rare", 5)), "last copy frees its slot");
+    }
+
+    @Test
+    public void refusesCardsTheBinderWillAlreadyHold() {
+        TradeBatch batch = new TradeBatch(new CollectionTransaction(collection), false);
+
+        assertEquals(DUPLICATE, batch.add(trade("A", "B", "Rare", 5)), "card already in the binder");
+        assertEquals(null, batch.add(trade("A", "C", "Rare", 5)), "new card traded in");
+        assertEquals(DUPLICATE, batch.add(trade("B", "C", "Rare", 5)), "card traded in earlier in the batch");
+    }
+
+    @Test
+    public void declinesDifferentValuesUnlessAccepted() {
+        TradeBatch declining = new TradeBatch(new CollectionTransaction(collection), false);
+        assertEquals(null, declining.add(trade("A", "C", "Rare", 5.99)), "difference under 1 made");
+        assertEquals("Trade declined: values differ by 1", declining.add(trade("B", "D", "Rare", 6)),
+                "difference of exactly 1 declined");
+
+        TradeBatch accepting = new TradeBatch(new CollectionTransaction(collection), true);
+        assertEquals(null, accepting.add(trade("B", "D", "Rare", 60)), "difference accepted");
+    }
+
+    @Test
+    public void refusesUnknownAndMismatchedCards() {
+        TradeBatch batch = new TradeBatch(new CollectionTransaction(collection), true);
+        assertEquals("No Binder with given name exists: Missing",
+                batch.add(new TradeRequest("Missing", "A", card("C", "Rare", 5))), "unknown binder");
+        assertEquals("No Card with given name exists in Binder: Z", batch.add(trade("Z", "C", "Rare", 5)),
+                "unknown outgoing card");
+        assertEquals("Type/Variant mismatch", batch.add(trade("A", "C", "Common", 5)), "Common card");
+
+        collection.setCardCollection(card("Elf", "Rare", 5), "Elf");
+        assertEquals("Card of the same name with different details already exists: Elf",
+                batch.add(trade("A", "Elf", "Rare", 7)), "different details");
+    }
+
+    @Test
+    public void commitsTradesAgainstFreedSlots() {
+        CollectionTransaction transaction = new CollectionTransaction(collection);
+        TradeBatch batch = new TradeBatch(transaction, false);
+        assertEquals(null, batch.add(trade("A", "C", "Rare", 5)), "A traded for C");
+        assertEquals(null, batch.add(trade("C", "A", "Rare", 5)), "C traded back for A");
+        assertEquals(null, batch.add(trade("B", "D", "Rare", 5)), "B traded for D");
+        assertTrue(collection.getBinderCollection().get("Shiny").getBinder().containsKey("B"),
+                "binder unchanged before the commit");
+
+        assertTrue(transaction.commit(), "committed");
+        BinderModel binder = collection.getBinderCollection().get("Shiny");
+        assertEquals(CollectionService.BINDER_CAPACITY, binder.getBinder().size(), "binder still full");
+        assertTrue(binder.getBinder().containsKey("A") && binder.getBinder().containsKey("D"), "cards traded in");
+        assertFalse(binder.getBinder().containsKey("B"), "card traded out");
+        assertTrue(collection.getCardCollection().containsKey("C"), "incoming card recorded in the collection");
+    }
+
+    @Test
+    public void reportsRejectedTradesOfABatch() {
+        TradeReport report = new CollectionService(collection).trade(List.of(
+                trade("A", "C", "Rare", 5),
+                trade("A", "D", "Rare", 5),
+                trade("B", "E", "Common", 5)), false);
+
+        assertEquals(1, report.executed(), "made");
+        assertEquals(2, report.rejections().size(), "rejected");
+        assertEquals(1, report.rejections().get(0).index(), "position of the first rejection");
+        assertEquals("No Card with given name exists in Binder: A", report.rejections().get(0).reason(),
+                "A already traded away");
+        assertEquals("Type/Variant mismatch", report.rejections().get(1).reason(), "Common card");
+        assertTrue(collection.getBinderCollection().get("Shiny").getBinder().containsKey("C"), "made trade kept");
+    }
+
+    private static TradeRequest trade(String outgoing, String incoming, String rarity, double value) {
+        return new TradeRequest("Shiny", outgoing, card(incoming, rarity, value));
+    }
+
+    private static CardModel card(String name, String rarity, double value) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(rarity);
+        card.setVariant("Normal");
+        card.setValue(value);
+        card.setQuantity(1);
+        return card;
+    }
+}
@@ -0,0 +1,147 @@
+package com.tradingcards.elements.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.CollectionModel;
+
+/**
+ * Matches a large wanted list against a large offer list across binders of
+ * every type, checks that every match can be made as a trade, and compares
+ * the time and total value difference with a naive search that scans every
+ * offer for each wanted card in turn.
+ * <p>
+ * Arguments: [binders] [wanted cards] [offered cards].
+ */
+public class TradeMatcherBenchmark {
+
+    private static final String[] BINDER_TYPES = { "Non-Curated", "Pauper", "Rares", "Luxury", "Collector" };
+    private static final String[] RARITIES = { "Common", "Uncommon", "Rare", "Legendary" };
+    private static final String[] VARIANTS = { "Normal", "Extended-art", "Full-art", "Alt-art" };
+
+    public static void main(String[] args) {
+        int binderCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int wantedCount = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int offerCount = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        Random random = new Random(42);
+
+        CollectionModel collection = new CollectionModel();
+        List<String> held = new ArrayList<>();
+        for (int b = 0; b < binderCount; b++) {
+            BinderModel binder = BinderModel.ofType(BINDER_TYPES[b % BINDER_TYPES.length]);
+            binder.setName("Binder " + b);
+            for (int s = 0; s < CollectionService.BINDER_CAPACITY; s++) {
+                CardModel card;
+                do {
+                    card = randomCard("Card " + b + "-" + s, random);
+                } while (!binder.accepts(card));
+                CardModel record = card.copy();
+                record.setQuantity(0);
+                collection.setCardCollection(record, record.getName());
+                binder.insertInBinder(card, card.getName());
+                held.add(card.getName());
+            }
+            collection.setBinderCollection(binder, binder.getName());
+        }
+
+        List<String> wanted = new ArrayList<>();
+        for (int i = 0; i < wantedCount; i++) {
+            wanted.add(held.get(random.nextInt(held.size())));
+        }
+        List<CardModel> offers = new ArrayList<>();
+        for (int i = 0; i < offerCount; i++) {
+            offers.add(randomCard("Offer " + i, random));
+        }
+
+        CollectionService service = new CollectionService(collection);
+        List<TradeMatch> matches = null;
+        long matchNanos = 0;
+        // Warm up once before measuring
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            matches = service.matchTrades(wanted, offers);
+            matchNanos = System.nanoTime() - start;
+        }
+
+        long start = System.nanoTime();
+        double[] naive = naive(collection, wanted, offers);
+        long naiveNanos = System.nanoTime() - start;
+
+        double difference = 0;
+        List<TradeRequest> trades = new ArrayList<>();
+        for (TradeMatch match : matches) {
+            difference += match.difference();
+            trades.add(match.toRequest());
+        }
+        TradeReport report = service.trade(trades, true);
+
+        System.out.printf("Binders: %d, wanted: %d, offered: %d%n", binderCount, wantedCount, offerCount);
+        System.out.printf("Matcher: %d matches, total difference %.2f, %d ms%n", matches.size(), difference,
+                matchNanos / 1_000_000);
+        System.out.printf("Naive:   %d matches, total difference %.2f, %d ms%n", (int) naive[0], naive[1],
+                naiveNanos / 1_000_000);
+        System.out.println("Trades made: " + report.executed() + ", rejected: " + report.rejections().size());
+        if (!report.rejections().isEmpty()) {
+            System.out.println("First rejection: " + report.rejections().get(0).reason());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Gives each wanted card in turn the closest free offer its first
+     * holding binder accepts, scanning every offer.
+     *
+     * @return the number of matches and their total value difference
+     */
+    private static double[] naive(CollectionModel collection, List<String> wanted, List<CardModel> offers) {
+        boolean[] used = new boolean[offers.size()];
+        Set<String> traded = new HashSet<>();
+        int matches = 0;
+        double total = 0;
+        for (String name : wanted) {
+            // Every card in the binders is held once
+            if (!traded.add(name)) {
+                continue;
+            }
+            for (BinderModel binder : collection.getBinderCollection().values()) {
+                CardModel card = binder.getBinder().get(name);
+                if (card == null) {
+                    continue;
+                }
+                int best = -1;
+                for (int i = 0; i < offers.size(); i++) {
+                    if (!used[i] && binder.accepts(offers.get(i)) && (best < 0
+                            || Math.abs(offers.get(i).getValue() - card.getValue())
+                                    < Math.abs(offers.get(best).getValue() - card.getValue()))) {
+                        best = i;
+                    }
+                }
+                if (best >= 0) {
+                    used[best] = true;
+                    matches++;
+                    total += Math.abs(offers.get(best).getValue() - card.getValue());
+                }
+                break;
+            }
+        }
+        return new double[] { matches, total };
+    }
+
+    private static CardModel randomCard(String name, Random random) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        String rarity = RARITIES[random.nextInt(RARITIES.length)];
+        card.setRarity(rarity);
+        if (rarity.equals("Rare") || rarity.equals("Legendary")) {
+            card.setVariant(VARIANTS[random.nextInt(VARIANTS.length)]);
+        }
+        card.setValue(Math.round(random.nextDouble() * 50_000) / 100.0);
+        card.setQuantity(1);
+        return card;
+    }
+}
@@ -0,0 +1,119 @@
+package com.tradingcards.elements.service;
+
+import static com.tradingcards.Assert.assertEquals;
+import static com.tradingcards.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.tradingcards.Test;
+import com.tradingcards.elements.binder.BinderModel;
+import com.tradingcards.elements.card.CardModel;
+import com.tradingcards.elements.collection.CollectionModel;
+
+/**
+ * Tests that {@link TradeMatcher} pairs each wanted card with the closest
+ * offer its binder admits, uses every offer at most once, and proposes
+ * trades that {@link CollectionService#trade(List, boolean)} then makes
+ * without rejecting any.
+ */
+public class TradeMatcherTest {
+
+    @Test
+    public void picksTheClosestOffer() {
+        CollectionModel collection = collection("Non-Curated", card("W", "Rare", 10));
+        List<TradeMatch> matches = new CollectionService(collection).matchTrades(List.of("W"),
+                List.of(card("Low", "Rare", 3), card("Near", "Common", 11), card("High", "Rare", 20)));
+
+        assertEquals(1, matches.size(), "one match");
+        assertEquals("Near", matches.get(0).incoming().getName(), "closest offer");
+        assertEquals(1.0, matches.get(0).difference(), 1e-9, "difference");
+    }
+
+    @Test
+    public void usesEachOfferOnce() {
+        CollectionModel collection = collection("Non-Curated", card("W1", "Rare", 10), card("W2", "Rare", 10.5));
+        List<TradeMatch> matches = new CollectionService(collection).matchTrades(List.of("W1", "W2"),
+                List.of(card("O", "Rare", 10), card("P", "Rare", 15)));
+
+        assertEquals(2, matches.size(), "two matches");
+        assertEquals(List.of("W1", "O"), names(matches.get(0)), "closest pair taken first");
+        assertEquals(List.of("W2", "P"), names(matches.get(1)), "second wanted card takes the offer left");
+    }
+
+    @Test
+    public void keepsToTheBinderRule() {
+        // The Common offer is closest but a Rares binder does not admit it
+        CollectionService rares = new CollectionService(collection("Rares", card("W", "Rare", 5)));
+        List<TradeMatch> matches = rares.matchTrades(List.of("W"),
+                List.of(card("Common", "Common", 5), card("Rare", "Rare", 8)));
+        assertEquals(1, matches.size(), "one match");
+        assertEquals("Rare", matches.get(0).incoming().getName(), "admitted rarity taken");
+
+        matches = rares.matchTrades(List.of("W"), List.of(card("Common", "Common", 5)));
+        assertTrue(matches.isEmpty(), "no admitted offer, no match");
+    }
+
+    @Test
+    public void leavesOutCardsNoBinderHolds() {
+        CollectionModel collection = collection("Non-Curated", card("W", "Rare", 5));
+        List<TradeMatch> matches = new CollectionService(collection).matchTrades(List.of("Missing"),
+                List.of(card("O", "Rare", 5)));
+
+        assertTrue(matches.isEmpty(), "card in no binder left out");
+    }
+
+    @Test
+    public void proposesTradesTheBatchMakes() {
+        CollectionModel collection = collection("Non-Curated", card("W1", "Rare", 2), card("W2", "Common", 7),
+                card("W3", "Legendary", 30));
+        CollectionService service = new CollectionService(collection);
+        List<CardModel> offers = List.of(card("A", "Rare", 3), card("B", "Common", 7.5), card("C", "Rare", 28),
+                card("D", "Uncommon", 1));
+        List<TradeMatch> matches = service.matchTrades(List.of("W1", "W2", "W3"), offers);
+        assertEquals(3, matches.size(), "every wanted card matched");
+
+        Set<String> incoming = new HashSet<>();
+        for (TradeMatch match : matches) {
+            assertTrue(incoming.add(match.incoming().getName()), "offer used once: " + match.incoming().getName());
+        }
+        TradeReport report = service.trade(matches.stream().map(TradeMatch::toRequest).toList(), true);
+        assertEquals(List.of(), report.rejections(), "no rejections");
+        assertEquals(3, report.executed(), "three trades made");
+        assertEquals(incoming, collection.getBinderCollection().get("Binder").getBinder().keySet(),
+                "binder holds the offers");
+    }
+
+    private static List<String> names(TradeMatch match) {
+        return List.of(match.outgoing().getName(), match.incoming().getName());
+    }
+
+    /**
+     * Creates a collection with a binder named "Binder" of a type, holding
+     * the cards, each recorded in the collection with no copies.
+     */
+    private static CollectionModel collection(String type, CardModel... cards) {
+        CollectionModel collection = new CollectionModel(Runnable::run);
+        BinderModel binder = BinderModel.ofType(type);
+        binder.setName("Binder");
+        for (CardModel card : cards) {
+            CardModel record = card.copy();
+            record.setQuantity(0);
+            collection.setCardCollection(record, card.getName());
+            assertTrue(binder.insertInBinder(card, card.getName()), "binder admits " + card.getName());
+        }
+        collection.setBinderCollection(binder, "Binder");
+        return collection;
+    }
+
+    private static CardModel card(String name, String rarity, double value) {
+        CardModel card = new CardModel();
+        card.setName(name);
+        card.setRarity(rarity);
+        card.setVariant("Normal");
+        card.setValue(value);
+        card.setQuantity(1);
+        return card;
+    }
+}